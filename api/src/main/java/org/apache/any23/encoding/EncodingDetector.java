@@ -17,6 +17,8 @@
 
 package org.apache.any23.encoding;
 
+import org.apache.any23.mime.SniffedDocument;
+
 import java.io.IOException;
 import java.io.InputStream;
 
@@ -37,4 +39,17 @@ public interface EncodingDetector {
      */
     String guessEncoding(InputStream input) throws IOException;
 
+    /**
+     * Guesses the encoding of a sniffed document, the default
+     * implementation inspects the sniffed prefix as input stream.
+     *
+     * @param document the sniffed document.
+     * @return a string compliant to
+     *         <a href="http://www.iana.org/assignments/character-sets">IANA Charset Specification</a>.
+     * @throws IOException if there is an error whilst guessing the encoding.
+     */
+    default String guessSniffedEncoding(SniffedDocument document) throws IOException {
+        return guessEncoding(document.openPrefix());
+    }
+
 }
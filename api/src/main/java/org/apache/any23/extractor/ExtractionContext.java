@@ -42,22 +42,34 @@ public class ExtractionContext {
      */
     private String defaultLanguage;
 
+    /**
+     * The document encoding.
+     */
+    private final String documentEncoding;
+
     /**
      * ID identifying the document.
      */
     private final String uniqueID;
 
-    public ExtractionContext(String extractorName, IRI documentIRI, String defaultLanguage, String localID) {
+    public ExtractionContext(
+            String extractorName, IRI documentIRI, String defaultLanguage, String localID, String documentEncoding
+    ) {
         checkNotNull(extractorName  , "extractor name");
         checkNotNull(documentIRI    , "document IRI");
-        this.extractorName   = extractorName;
-        this.documentIRI     = documentIRI;
-        this.defaultLanguage = defaultLanguage;
+        this.extractorName    = extractorName;
+        this.documentIRI      = documentIRI;
+        this.defaultLanguage  = defaultLanguage;
+        this.documentEncoding = documentEncoding;
         this.uniqueID      =
                 "urn:x-any23:" + extractorName + ":" +
                 (localID == null ? "" : localID) + ":" + documentIRI;
     }
 
+    public ExtractionContext(String extractorName, IRI documentIRI, String defaultLanguage, String localID) {
+        this(extractorName, documentIRI, defaultLanguage, localID, null);
+    }
+
     public ExtractionContext(String extractorName, IRI documentIRI, String defaultLanguage) {
         this(extractorName, documentIRI, defaultLanguage, ROOT_EXTRACTION_RESULT_ID);
     }
@@ -71,7 +83,8 @@ public class ExtractionContext {
                 getExtractorName(),
                 getDocumentIRI(),
                 getDefaultLanguage(),
-                localID
+                localID,
+                getDocumentEncoding()
         );
     }
 
@@ -87,6 +100,14 @@ public class ExtractionContext {
         return defaultLanguage;
     }
 
+    /**
+     * @return the declared or detected encoding of the document,
+     *         <code>null</code> if unknown.
+     */
+    public String getDocumentEncoding() {
+        return documentEncoding;
+    }
+
     public String getUniqueID() {
         return uniqueID;
     }
@@ -22,6 +22,8 @@ import org.apache.any23.configuration.DefaultConfiguration;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.SortedMap;
+import java.util.TreeMap;
 
 /**
  * This class models the parameters to be used to perform an extraction.
@@ -46,6 +48,14 @@ public class ExtractionParameters {
 
     public static final String EXTRACTION_CONTEXT_IRI_PROPERTY = "any23.extraction.context.iri";
 
+    public static final String PARALLEL_EXTRACTION_FLAG         = "any23.extraction.parallel";
+
+    public static final String PARALLEL_EXTRACTION_THREADS_PROPERTY = "any23.extraction.parallel.threads";
+
+    public static final String CSV_PARALLEL_FLAG                = "any23.extraction.csv.parallel";
+
+    public static final String CSV_PARALLEL_THREADS_PROPERTY    = "any23.extraction.csv.parallel.threads";
+
     /**
      * Constructor.
      *
@@ -215,6 +225,26 @@ public class ExtractionParameters {
         return extractionProperties.put(propertyName, propertyValue);
     }
 
+    /**
+     * Returns the value in effect of every configuration property: the explicitly
+     * set flags and properties override the ones of the underlying
+     * {@link org.apache.any23.configuration.Configuration}, flags are
+     * rendered as <code>on</code> or <code>off</code>.
+     *
+     * @return the effective values, sorted by property name.
+     */
+    public SortedMap<String,String> getEffectiveProperties() {
+        final SortedMap<String,String> effective = new TreeMap<String,String>();
+        for(String propertyName : configuration.getProperties()) {
+            effective.put(propertyName, configuration.getProperty(propertyName, null));
+        }
+        for(Map.Entry<String,Boolean> flag : extractionFlags.entrySet()) {
+            effective.put(flag.getKey(), flag.getValue() ? "on" : "off");
+        }
+        effective.putAll(extractionProperties);
+        return effective;
+    }
+
     @Override
     public boolean equals(Object obj) {
         if(obj == null) {
@@ -240,6 +270,20 @@ public class ExtractionParameters {
         return extractionMode.hashCode() * 2 * extractionFlags.hashCode() * 3 * extractionProperties.hashCode() * 5;
     }
 
+    /**
+     * @return a description of the extraction mode and of the explicitly set
+     *         flags and properties, listed in name order.
+     */
+    @Override
+    public String toString() {
+        return String.format(
+                "ExtractionParameters(mode=%s, flags=%s, properties=%s)",
+                extractionMode,
+                new TreeMap<String,Boolean>(extractionFlags),
+                new TreeMap<String,String>(extractionProperties)
+        );
+    }
+
     private void checkPropertyExists(String propertyName) {
         if(! configuration.defineProperty(propertyName) ) {
             throw new IllegalArgumentException(
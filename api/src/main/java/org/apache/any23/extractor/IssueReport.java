@@ -69,7 +69,7 @@ public interface IssueReport {
         private String     message;
         private long       row, col;
 
-        Issue(IssueLevel l, String msg, long r, long c) {
+        public Issue(IssueLevel l, String msg, long r, long c) {
             level = l;
             message = msg;
             row = r;
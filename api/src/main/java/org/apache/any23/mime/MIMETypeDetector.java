@@ -35,4 +35,17 @@ public interface MIMETypeDetector {
      */
     public MIMEType guessMIMEType(String fileName, InputStream input, MIMEType mimeTypeFromMetadata);
 
+    /**
+     * Estimates the <code>MIME</code> type of a sniffed document, the default
+     * implementation inspects the sniffed prefix as input stream.
+     *
+     * @param fileName name of the file.
+     * @param document <code>null</code> or the sniffed content of the file.
+     * @param mimeTypeFromMetadata mimetype declared in metadata.
+     * @return the supposed mime type or <code>null</code> if nothing appropriate found.
+     */
+    default MIMEType guessSniffedMIMEType(String fileName, SniffedDocument document, MIMEType mimeTypeFromMetadata) {
+        return guessMIMEType(fileName, document == null ? null : document.openPrefix(), mimeTypeFromMetadata);
+    }
+
 }
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.mime;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A bounded prefix of a document, read once and shared by all the
+ * detectors (<i>MIME type</i>, <i>encoding</i>, format probes) inspecting it,
+ * so that the detection cost does not depend on the document size.
+ * Every detector can record its verdict on the document, allowing the
+ * following ones to reuse it.
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+public class SniffedDocument {
+
+    /**
+     * Default max length in bytes of the sniffed prefix.
+     */
+    public static final int DEFAULT_PREFIX_LENGTH = 64 * 1024;
+
+    /**
+     * Verdict of the <i>MIME type</i> detection.
+     */
+    public static final String MIME_TYPE_VERDICT = "mime-type";
+
+    /**
+     * Verdict of the <i>encoding</i> detection.
+     */
+    public static final String ENCODING_VERDICT = "encoding";
+
+    private final byte[] prefix;
+
+    private final int length;
+
+    private final Map<String, String> verdicts = new LinkedHashMap<String, String>();
+
+    /**
+     * Reads the prefix of the given stream, which is not closed.
+     *
+     * @param input the document content.
+     * @param maxPrefixLength max number of bytes read.
+     * @throws IOException if an error occurs while reading the stream.
+     */
+    public SniffedDocument(InputStream input, int maxPrefixLength) throws IOException {
+        if(input == null) {
+            throw new NullPointerException("input cannot be null.");
+        }
+        if(maxPrefixLength <= 0) {
+            throw new IllegalArgumentException("maxPrefixLength must be > 0.");
+        }
+        prefix = new byte[maxPrefixLength];
+        int offset = 0;
+        while (offset < prefix.length) {
+            final int bytes = input.read(prefix, offset, prefix.length - offset);
+            if(bytes == -1) {
+                break;
+            }
+            offset += bytes;
+        }
+        length = offset;
+    }
+
+    /**
+     * Reads the prefix of the given stream, of at most {@link #DEFAULT_PREFIX_LENGTH} bytes.
+     *
+     * @param input the document content.
+     * @throws IOException if an error occurs while reading the stream.
+     */
+    public SniffedDocument(InputStream input) throws IOException {
+        this(input, DEFAULT_PREFIX_LENGTH);
+    }
+
+    /**
+     * Reads the prefix of a <i>resettable</i> stream, which is reset to its
+     * current position once the prefix has been read.
+     *
+     * @param input a resettable input stream.
+     * @return the sniffed document.
+     * @throws IOException if an error occurs while reading the stream.
+     * @throws IllegalArgumentException if <i>input</i> does not support marks.
+     */
+    public static SniffedDocument sniff(InputStream input) throws IOException {
+        if( ! input.markSupported() ) {
+            throw new IllegalArgumentException("Provided InputStream does not support marks");
+        }
+        input.mark(DEFAULT_PREFIX_LENGTH);
+        try {
+            return new SniffedDocument(input);
+        } finally {
+            input.reset();
+        }
+    }
+
+    /**
+     * @return a new resettable stream over the sniffed prefix.
+     */
+    public InputStream openPrefix() {
+        return new ByteArrayInputStream(prefix, 0, length);
+    }
+
+    /**
+     * @return the length in bytes of the sniffed prefix.
+     */
+    public int getPrefixLength() {
+        return length;
+    }
+
+    /**
+     * @return <code>true</code> if the prefix contains the whole document.
+     */
+    public boolean isComplete() {
+        return length < prefix.length;
+    }
+
+    /**
+     * Records the verdict of a detector.
+     *
+     * @param detector the detector name.
+     * @param verdict the detector verdict.
+     */
+    public void setVerdict(String detector, String verdict) {
+        if(detector == null) {
+            throw new NullPointerException("detector cannot be null.");
+        }
+        verdicts.put(detector, verdict);
+    }
+
+    /**
+     * @param detector the detector name.
+     * @return the verdict recorded by the detector, <code>null</code> if none.
+     */
+    public String getVerdict(String detector) {
+        return verdicts.get(detector);
+    }
+
+    /**
+     * @return the recorded verdicts, in recording order.
+     */
+    public Map<String, String> getVerdicts() {
+        return Collections.unmodifiableMap(verdicts);
+    }
+
+}
@@ -0,0 +1,41 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.source.DocumentSource;
+
+/**
+ * Factory responsible for creating the {@link TripleHandler} collecting
+ * the data extracted from a single document during a batch extraction.
+ * Implementations must be thread-safe, since handlers can be requested
+ * concurrently by different workers.
+ */
+public interface TripleHandlerFactory {
+
+    /**
+     * Creates the handler which will receive the events extracted
+     * from the given <code>source</code>. The handler is closed
+     * once the extraction of the document is over.
+     *
+     * @param source the document source which is going to be processed.
+     * @return a new handler instance, not shared with other documents.
+     * @throws TripleHandlerException if the handler cannot be created.
+     */
+    TripleHandler createTripleHandler(DocumentSource source) throws TripleHandlerException;
+
+}
@@ -0,0 +1,76 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.benchmarks;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.writer.TripleHandler;
+import org.apache.any23.writer.TripleHandlerException;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * A {@link TripleHandler} consuming every received triple with a JMH {@link Blackhole},
+ * so that the extraction work cannot be optimized away.
+ */
+class BlackholeTripleHandler implements TripleHandler {
+
+    private final Blackhole blackhole;
+
+    BlackholeTripleHandler(Blackhole blackhole) {
+        this.blackhole = blackhole;
+    }
+
+    public void startDocument(IRI documentIRI) throws TripleHandlerException {
+        // ignore
+    }
+
+    public void openContext(ExtractionContext context) throws TripleHandlerException {
+        // ignore
+    }
+
+    public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+    throws TripleHandlerException {
+        blackhole.consume(s);
+        blackhole.consume(p);
+        blackhole.consume(o);
+    }
+
+    public void receiveNamespace(String prefix, String uri, ExtractionContext context)
+    throws TripleHandlerException {
+        // ignore
+    }
+
+    public void closeContext(ExtractionContext context) throws TripleHandlerException {
+        // ignore
+    }
+
+    public void endDocument(IRI documentIRI) throws TripleHandlerException {
+        // ignore
+    }
+
+    public void setContentLength(long contentLength) {
+        // ignore
+    }
+
+    public void close() throws TripleHandlerException {
+        // ignore
+    }
+
+}
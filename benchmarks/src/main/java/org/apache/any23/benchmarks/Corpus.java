@@ -0,0 +1,57 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.benchmarks;
+
+import org.apache.any23.source.MemCopyFactory;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Access to the documents of the benchmark corpus.
+ */
+final class Corpus {
+
+    /**
+     * The <i>IRI</i> assigned to every benchmarked document.
+     */
+    static final String DOCUMENT_IRI = "http://bench.any23.org/document";
+
+    private Corpus() {}
+
+    /**
+     * Loads a corpus document.
+     *
+     * @param resource the class path of the document, i.e. <code>/microdata/microdata-basic.html</code>.
+     * @return the document content.
+     * @throws IOException if the document cannot be read.
+     * @throws IllegalArgumentException if the document does not exist.
+     */
+    static byte[] load(String resource) throws IOException {
+        final InputStream in = Corpus.class.getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalArgumentException("Cannot find corpus document " + resource);
+        }
+        try {
+            return MemCopyFactory.toByteArray(in);
+        } finally {
+            in.close();
+        }
+    }
+
+}
@@ -0,0 +1,89 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.benchmarks;
+
+import org.apache.any23.encoding.TikaEncodingDetector;
+import org.apache.any23.mime.MIMEType;
+import org.apache.any23.mime.TikaMIMETypeDetector;
+import org.apache.any23.mime.purifier.WhiteSpacesPurifier;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the <i>MIME</i> type detection performed by {@link TikaMIMETypeDetector}
+ * and the encoding detection performed by {@link TikaEncodingDetector}, configured
+ * as in {@link org.apache.any23.Any23}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class DetectionBenchmark {
+
+    @Param({
+            "/html/rdfa/oreilly-invalid-datatype.html",
+            "/html/encoding-test.html",
+            "/application/rdfxml/physics.owl",
+            "/application/turtle/geolinkeddata.ttl",
+            "/application/nquads/test1.nq",
+            "/application/rss2/rss2sample.xml"
+    })
+    public String document;
+
+    private byte[] content;
+
+    private String fileName;
+
+    private TikaMIMETypeDetector mimeTypeDetector;
+
+    private TikaEncodingDetector encodingDetector;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = Corpus.load(document);
+        fileName = document.substring(document.lastIndexOf('/') + 1);
+        mimeTypeDetector = new TikaMIMETypeDetector(new WhiteSpacesPurifier());
+        encodingDetector = new TikaEncodingDetector();
+    }
+
+    @Benchmark
+    public MIMEType guessMIMEType() {
+        return mimeTypeDetector.guessMIMEType(fileName, new ByteArrayInputStream(content), null);
+    }
+
+    @Benchmark
+    public String guessEncoding() throws IOException {
+        return encodingDetector.guessEncoding(new ByteArrayInputStream(content));
+    }
+
+}
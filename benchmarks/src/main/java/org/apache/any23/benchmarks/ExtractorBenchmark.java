@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.benchmarks;
+
+import org.apache.any23.extractor.ExampleInputOutput;
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.extractor.ExtractionException;
+import org.apache.any23.extractor.ExtractionParameters;
+import org.apache.any23.extractor.ExtractionResultImpl;
+import org.apache.any23.extractor.Extractor;
+import org.apache.any23.extractor.ExtractorFactory;
+import org.apache.any23.extractor.ExtractorRegistryImpl;
+import org.apache.any23.extractor.html.DomUtils;
+import org.apache.any23.extractor.html.TagSoupParser;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the <code>run</code> method of every registered extractor on its own
+ * example input. <i>DOM</i> based extractors receive a copy of an already parsed
+ * document, since some extractors modify it. The copy is taken inside the measured
+ * method, its cost is reported by the {@link #copyDocument()} baseline and must be
+ * subtracted to obtain the extraction time. Blind extractors are not covered since
+ * they require network access.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ExtractorBenchmark {
+
+    @Param({
+            "csv",
+            "html-embedded-jsonld",
+            "html-head-icbm",
+            "html-head-links",
+            "html-head-meta",
+            "html-head-title",
+            "html-mf-adr",
+            "html-mf-geo",
+            "html-mf-hcalendar",
+            "html-mf-hcard",
+            "html-mf-hlisting",
+            "html-mf-hrecipe",
+            "html-mf-hresume",
+            "html-mf-hreview",
+            "html-mf-hreview-aggregate",
+            "html-mf-license",
+            "html-mf-species",
+            "html-mf-xfn",
+            "html-microdata",
+            "html-rdfa11",
+            "rdf-jsonld",
+            "rdf-nq",
+            "rdf-nt",
+            "rdf-trix",
+            "rdf-turtle",
+            "rdf-xml",
+            "yaml"
+    })
+    public String extractor;
+
+    private ExtractorFactory<?> factory;
+
+    private ExtractionParameters extractionParameters;
+
+    private IRI documentIRI;
+
+    private byte[] content;
+
+    private Document dom;
+
+    @Setup
+    public void setUp() throws IOException {
+        factory = ExtractorRegistryImpl.getInstance().getFactory(extractor);
+        if (factory.createExtractor() instanceof Extractor.BlindExtractor) {
+            throw new IllegalArgumentException("Blind extractors are not supported: " + extractor);
+        }
+        final String exampleInput = new ExampleInputOutput(factory).getExampleInput();
+        if (exampleInput == null) {
+            throw new IllegalArgumentException("No example input for extractor " + extractor);
+        }
+        content = exampleInput.getBytes("UTF-8");
+        extractionParameters = ExtractionParameters.newDefault();
+        documentIRI = SimpleValueFactory.getInstance().createIRI(Corpus.DOCUMENT_IRI);
+        if (factory.createExtractor() instanceof Extractor.TagSoupDOMExtractor) {
+            dom = new TagSoupParser(new ByteArrayInputStream(content), Corpus.DOCUMENT_IRI).getDOM();
+        }
+    }
+
+    /**
+     * Baseline measuring the document copy included in {@link #run(Blackhole)}.
+     *
+     * @return the copied document, <code>null</code> for non <i>DOM</i> extractors.
+     */
+    @Benchmark
+    public Document copyDocument() {
+        return dom == null ? null : DomUtils.copyDocument(dom);
+    }
+
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public void run(Blackhole blackhole) throws IOException, ExtractionException {
+        @SuppressWarnings("rawtypes")
+        final Extractor extractorInstance = factory.createExtractor();
+        final ExtractionContext context = new ExtractionContext(extractor, documentIRI);
+        final ExtractionResultImpl result = new ExtractionResultImpl(
+                context, extractorInstance, new BlackholeTripleHandler(blackhole)
+        );
+        try {
+            if (extractorInstance instanceof Extractor.TagSoupDOMExtractor) {
+                extractorInstance.run(extractionParameters, context, DomUtils.copyDocument(dom), result);
+            } else {
+                extractorInstance.run(extractionParameters, context, new ByteArrayInputStream(content), result);
+            }
+        } finally {
+            result.close();
+        }
+    }
+
+}
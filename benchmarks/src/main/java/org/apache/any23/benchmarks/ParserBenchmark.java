@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.benchmarks;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.extractor.ExtractionResultImpl;
+import org.apache.any23.extractor.html.TagSoupParser;
+import org.apache.any23.extractor.microdata.MicrodataParser;
+import org.apache.any23.extractor.microdata.MicrodataParserReport;
+import org.apache.any23.extractor.rdfa.RDFa11Extractor;
+import org.apache.any23.extractor.rdfa.RDFa11ExtractorFactory;
+import org.apache.any23.extractor.rdfa.RDFa11Parser;
+import org.apache.any23.extractor.rdfa.RDFa11ParserException;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.w3c.dom.Document;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks the <i>HTML</i> parsing with {@link TagSoupParser} and the
+ * <i>Microdata</i> and <i>RDFa</i> parsers processing an already parsed <i>DOM</i>.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ParserBenchmark {
+
+    @Param({
+            "/microdata/schemaorg-example-2.html",
+            "/html/rdfa/oreilly-invalid-datatype.html",
+            "/microformats/hcard/lastfm-adr-multi-address.html",
+            "/microformats/hcard/performance.html"
+    })
+    public String document;
+
+    private byte[] content;
+
+    private Document dom;
+
+    private URL documentURL;
+
+    @Setup
+    public void setUp() throws IOException {
+        content = Corpus.load(document);
+        dom = parse();
+        documentURL = new URL(Corpus.DOCUMENT_IRI);
+    }
+
+    @Benchmark
+    public Document tagSoupParser() throws IOException {
+        return parse();
+    }
+
+    @Benchmark
+    public MicrodataParserReport microdataParser() {
+        return MicrodataParser.getMicrodata(dom);
+    }
+
+    @Benchmark
+    public void rdfa11Parser(Blackhole blackhole) throws RDFa11ParserException {
+        final ExtractionResultImpl result = new ExtractionResultImpl(
+                new ExtractionContext(
+                        RDFa11ExtractorFactory.NAME,
+                        SimpleValueFactory.getInstance().createIRI(Corpus.DOCUMENT_IRI)
+                ),
+                new RDFa11Extractor(),
+                new BlackholeTripleHandler(blackhole)
+        );
+        try {
+            new RDFa11Parser().processDocument(documentURL, dom, result);
+        } finally {
+            result.close();
+        }
+    }
+
+    private Document parse() throws IOException {
+        return new TagSoupParser(new ByteArrayInputStream(content), Corpus.DOCUMENT_IRI).getDOM();
+    }
+
+}
@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.benchmarks;
+
+import org.apache.any23.Any23;
+import org.apache.any23.extractor.ExtractionException;
+import org.apache.any23.source.ByteArrayDocumentSource;
+import org.apache.any23.writer.BufferedTripleHandler;
+import org.apache.any23.writer.TripleHandler;
+import org.apache.any23.writer.TripleHandlerException;
+import org.apache.any23.writer.WriterFactoryRegistry;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmarks every output format writer serializing the triples
+ * extracted from a corpus document, recorded once during the setup.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class WriterBenchmark {
+
+    /**
+     * The extractors producing the written triples; the corpus documents
+     * are not well-formed XML, so the RDFa extractor is excluded.
+     */
+    private static final String[] EXTRACTORS = {
+            "html-head-meta", "html-head-title", "html-mf-adr", "html-mf-hcard", "html-microdata"
+    };
+
+    @Param({"binary", "json", "ndjson", "nquads", "ntriples", "rdfxml", "trix", "turtle", "uri"})
+    public String format;
+
+    @Param({"/microformats/hcard/lastfm-adr-multi-address.html"})
+    public String document;
+
+    private final BufferedTripleHandler triples = new BufferedTripleHandler();
+
+    private IRI documentIRI;
+
+    @Setup
+    public void setUp() throws IOException, ExtractionException {
+        if (!WriterFactoryRegistry.getInstance().hasIdentifier(format)) {
+            throw new IllegalArgumentException("Unknown format " + format);
+        }
+        new Any23(EXTRACTORS).extract(new ByteArrayDocumentSource(Corpus.load(document), Corpus.DOCUMENT_IRI, null), triples);
+        documentIRI = SimpleValueFactory.getInstance().createIRI(Corpus.DOCUMENT_IRI);
+    }
+
+    @Benchmark
+    public long write() throws TripleHandlerException {
+        final CountingOutputStream out = new CountingOutputStream();
+        final TripleHandler writer = WriterFactoryRegistry.getInstance().getWriterInstanceByIdentifier(format, out);
+        writer.startDocument(documentIRI);
+        triples.replay(writer);
+        writer.endDocument(documentIRI);
+        writer.close();
+        return out.count;
+    }
+
+    /**
+     * Discards the written bytes, only counting them.
+     */
+    private static class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+    }
+
+}
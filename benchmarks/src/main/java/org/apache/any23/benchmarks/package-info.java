@@ -0,0 +1,36 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+/**
+ * <a href="http://openjdk.java.net/projects/code-tools/jmh/">JMH</a> microbenchmarks
+ * of the <i>Any23</i> hot paths: <i>HTML</i> parsing, <i>MIME</i> type and encoding
+ * detection, the <code>run</code> method of every extractor and every output format writer.
+ * The inputs are taken from the <i>test-resources</i> corpus and from the extractors
+ * example inputs, so that results are comparable across commits.
+ * <p>
+ * Build and run all the benchmarks saving the results in <i>JSON</i> format with:
+ * </p>
+ * <pre>
+ * mvn -pl benchmarks -am package -DskipTests
+ * java -jar benchmarks/target/benchmarks.jar -rf json -rff any23-benchmarks.json
+ * </pre>
+ * A subset can be selected with a regular expression, i.e.
+ * <code>java -jar benchmarks/target/benchmarks.jar ParserBenchmark.tagSoup</code>,
+ * and the inputs overridden with the <code>-p</code> option,
+ * i.e. <code>-p document=/microformats/hcard/performance.html</code>.
+ */
+package org.apache.any23.benchmarks;
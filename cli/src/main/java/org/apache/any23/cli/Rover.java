@@ -29,24 +29,33 @@ import org.apache.any23.extractor.ExtractionParameters;
 import org.apache.any23.extractor.ExtractionParameters.ValidationMode;
 import org.apache.any23.filter.IgnoreAccidentalRDFa;
 import org.apache.any23.filter.IgnoreTitlesOfEmptyDocuments;
+import org.apache.any23.metrics.DefaultMetricsRegistry;
 import org.apache.any23.source.DocumentSource;
 import org.apache.any23.writer.BenchmarkTripleHandler;
+import org.apache.any23.writer.Compression;
 import org.apache.any23.writer.LoggingTripleHandler;
 import org.apache.any23.writer.ReportingTripleHandler;
+import org.apache.any23.writer.ShardedTripleHandler;
 import org.apache.any23.writer.TripleHandler;
 import org.apache.any23.writer.TripleHandlerException;
+import org.apache.any23.writer.WriterFactory;
 import org.apache.any23.writer.WriterFactoryRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileNotFoundException;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.io.PrintWriter;
 import java.net.MalformedURLException;
 import java.net.URL;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Locale;
 
 import static java.lang.String.format;
 
@@ -93,6 +102,9 @@ public class Rover implements Tool {
     @Parameter(names = { "-s", "--stats" }, description = "Print out extraction statistics.")
     private boolean statistics;
 
+    @Parameter(names = { "-m", "--metrics" }, description = "Print out per extractor and per phase timing metrics.")
+    private boolean metrics;
+
     @Parameter(names = { "-t", "--notrivial" }, description = "Filter trivial statements (e.g. CSS related ones).")
     private boolean noTrivial;
 
@@ -105,28 +117,65 @@ public class Rover implements Tool {
     @Parameter(names = { "-d", "--defaultns" }, description = "Override the default namespace used to produce statements.")
     private String defaultns;
 
+    @Parameter(
+       names = { "-c", "--compression" },
+       description = "Compress the output, admitted values: none, gzip, bzip2, xz.",
+       converter = CompressionConverter.class
+    )
+    private Compression compression = Compression.NONE;
+
+    @Parameter(names = { "--compression-threads" }, description = "Number of threads used for gzip compression.")
+    private int compressionThreads = Runtime.getRuntime().availableProcessors();
+
+    @Parameter(
+       names = { "--shards" },
+       description = "Distribute the output over the given number of shard files, written in the --output-dir folder."
+    )
+    private int shards = 0;
+
+    @Parameter(
+       names = { "--output-dir" },
+       description = "Output folder of the shard files and of their manifest.",
+       converter = FileConverter.class
+    )
+    private File outputDirectory;
+
+    @Parameter(
+       names = { "--shard-by" },
+       description = "Criteria used to assign documents to shards, admitted values: document, thread.",
+       converter = ShardingConverter.class
+    )
+    private ShardedTripleHandler.Sharding sharding = ShardedTripleHandler.Sharding.DOCUMENT;
+
+    @Parameter(names = { "--shard-max-triples" }, description = "Start a new shard file after this number of triples.")
+    private long shardMaxTriples = Long.MAX_VALUE;
+
+    @Parameter(names = { "--shard-max-bytes" }, description = "Start a new shard file after about this number of bytes written to disk.")
+    private long shardMaxBytes = Long.MAX_VALUE;
+
     // non parameters
 
     private TripleHandler tripleHandler;
 
+    private OutputStream compressedStream;
+
+    private ShardedTripleHandler shardedTripleHandler;
+
     private ReportingTripleHandler reportingTripleHandler;
 
     private BenchmarkTripleHandler benchmarkTripleHandler;
 
+    private DefaultMetricsRegistry metricsRegistry;
+
     private Any23 any23;
 
     private ExtractionParameters extractionParameters;
 
     protected void configure() {
-        try {
-            tripleHandler = WriterFactoryRegistry.getInstance().getWriterInstanceByIdentifier(format, outputStream);
-        } catch (Exception e) {
-            throw new NullPointerException(
-                    format("Invalid output format '%s', admitted values: %s",
-                        format,
-                        FORMATS
-                    )
-            );
+        if (shards > 0) {
+            configureShards();
+        } else {
+            configureOutputStream();
         }
 
         if (logFile != null) {
@@ -165,12 +214,76 @@ public class Rover implements Tool {
         any23 = (extractors.isEmpty()) ? new Any23()
                                                    : new Any23(extractors.toArray(new String[extractors.size()]));
         any23.setHTTPUserAgent(Any23.DEFAULT_HTTP_CLIENT_USER_AGENT + "/" + Any23.VERSION);
+
+        if (metrics) {
+            metricsRegistry = new DefaultMetricsRegistry();
+            any23.setMetricsRegistry(metricsRegistry);
+        }
+    }
+
+    private void configureOutputStream() {
+        OutputStream writerStream = outputStream;
+        if (compression != Compression.NONE) {
+            try {
+                compressedStream = compression.compress(
+                        outputStream == System.out ? new UnclosableOutputStream(outputStream) : outputStream,
+                        Math.max(1, compressionThreads)
+                );
+            } catch (IOException ioe) {
+                throw new IllegalStateException("Cannot initialize the output compression.", ioe);
+            }
+            writerStream = compressedStream;
+        }
+        try {
+            tripleHandler = WriterFactoryRegistry.getInstance().getWriterInstanceByIdentifier(format, writerStream);
+        } catch (Exception e) {
+            throw new NullPointerException(
+                    format("Invalid output format '%s', admitted values: %s",
+                        format,
+                        FORMATS
+                    )
+            );
+        }
+    }
+
+    private void configureShards() {
+        if (outputDirectory == null) {
+            throw new IllegalArgumentException("The --output-dir folder must be specified when using --shards.");
+        }
+        final WriterFactory writerFactory = WriterFactoryRegistry.getInstance().getWriterByIdentifier(format);
+        if (writerFactory == null) {
+            throw new NullPointerException(
+                    format("Invalid output format '%s', admitted values: %s",
+                        format,
+                        FORMATS
+                    )
+            );
+        }
+        shardedTripleHandler = new ShardedTripleHandler(outputDirectory, writerFactory, shards, sharding);
+        shardedTripleHandler.setMaxTriples(shardMaxTriples);
+        shardedTripleHandler.setMaxBytes(shardMaxBytes);
+        // shards are compressed independently, so every one uses a single thread.
+        shardedTripleHandler.setCompression(compression);
+        tripleHandler = shardedTripleHandler;
+    }
+
+    /**
+     * @return <code>true</code> if documents can be extracted concurrently, that is
+     *         when the output is sharded and no stateful handler is configured.
+     */
+    protected boolean isConcurrentExtractionSupported() {
+        return shardedTripleHandler != null && logFile == null && !statistics && !noTrivial;
     }
 
     protected String printReports() {
         final StringBuilder sb = new StringBuilder();
         if (benchmarkTripleHandler != null) sb.append( benchmarkTripleHandler.report() ).append('\n');
         if (reportingTripleHandler != null) sb.append( reportingTripleHandler.printReport() ).append('\n');
+        if (metricsRegistry != null) {
+            final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+            metricsRegistry.printReport(new PrintStream(baos));
+            sb.append(baos.toString());
+        }
         return sb.toString();
     }
 
@@ -189,6 +302,14 @@ public class Rover implements Tool {
             }
         }
 
+        if (compressedStream != null) {
+            try {
+                compressedStream.close();
+            } catch (IOException ioe) {
+                throw new RuntimeException("Error while completing the compressed output", ioe);
+            }
+        }
+
         if (outputStream != null && outputStream != System.out) { // TODO: low - find better solution to avoid closing system out.
             outputStream.close();
         }
@@ -216,6 +337,10 @@ public class Rover implements Tool {
                 System.err.println(benchmarkTripleHandler.report());
             }
 
+            if (metricsRegistry != null) {
+                metricsRegistry.printReport(System.err);
+            }
+
             logger.info("Extractors used: " + reportingTripleHandler.getExtractorNames());
             logger.info(reportingTripleHandler.getTotalTriples() + " triples, " + elapsed + "ms");
         } finally {
@@ -262,4 +387,51 @@ public class Rover implements Tool {
 
     }
 
+    public static final class ShardingConverter implements IStringConverter<ShardedTripleHandler.Sharding> {
+
+        @Override
+        public ShardedTripleHandler.Sharding convert( String value ) {
+            try {
+                return ShardedTripleHandler.Sharding.valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException iae) {
+                throw new ParameterException(format("Invalid sharding '%s', admitted values: document, thread", value));
+            }
+        }
+
+    }
+
+    public static final class CompressionConverter implements IStringConverter<Compression> {
+
+        @Override
+        public Compression convert( String value ) {
+            try {
+                return Compression.fromIdentifier(value);
+            } catch (IllegalArgumentException iae) {
+                throw new ParameterException(iae.getMessage());
+            }
+        }
+
+    }
+
+    /**
+     * Prevents the compression from closing the standard output.
+     */
+    private static final class UnclosableOutputStream extends FilterOutputStream {
+
+        UnclosableOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+        }
+
+        @Override
+        public void close() throws IOException {
+            flush();
+        }
+
+    }
+
 }
@@ -17,6 +17,10 @@
 
 package org.apache.any23;
 
+import org.apache.any23.cache.ExtractionCache;
+import org.apache.any23.cache.ExtractionCacheStore;
+import org.apache.any23.cache.MemoryExtractionCacheStore;
+import org.apache.any23.cache.SegmentFileExtractionCacheStore;
 import org.apache.any23.configuration.Configuration;
 import org.apache.any23.configuration.DefaultConfiguration;
 import org.apache.any23.extractor.ExtractionException;
@@ -27,9 +31,15 @@ import org.apache.any23.extractor.ExtractorRegistryImpl;
 import org.apache.any23.extractor.SingleDocumentExtraction;
 import org.apache.any23.extractor.SingleDocumentExtractionReport;
 import org.apache.any23.http.AcceptHeaderBuilder;
+import org.apache.any23.http.AsyncHTTPClient;
 import org.apache.any23.http.DefaultHTTPClient;
 import org.apache.any23.http.DefaultHTTPClientConfiguration;
 import org.apache.any23.http.HTTPClient;
+import org.apache.any23.http.HTTPValidatorStore;
+import org.apache.any23.http.NotModifiedException;
+import org.apache.any23.metrics.MetricsRegistry;
+import org.apache.any23.metrics.NoOpMetricsRegistry;
+import org.apache.any23.mime.DetectionCache;
 import org.apache.any23.mime.MIMEType;
 import org.apache.any23.mime.MIMETypeDetector;
 import org.apache.any23.mime.TikaMIMETypeDetector;
@@ -38,9 +48,14 @@ import org.apache.any23.source.DocumentSource;
 import org.apache.any23.source.FileDocumentSource;
 import org.apache.any23.source.HTTPDocumentSource;
 import org.apache.any23.source.LocalCopyFactory;
+import org.apache.any23.source.MappedCopyFactory;
+import org.apache.any23.source.MappedFileDocumentSource;
 import org.apache.any23.source.MemCopyFactory;
 import org.apache.any23.source.StringDocumentSource;
+import org.apache.any23.writer.CompositeTripleHandler;
 import org.apache.any23.writer.TripleHandler;
+import org.apache.any23.writer.TripleHandlerException;
+import org.apache.any23.writer.TripleHandlerFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -51,6 +66,11 @@ import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 
 /**
@@ -77,9 +97,16 @@ public class Any23 {
 
     protected static final Logger logger = LoggerFactory.getLogger(Any23.class);
 
+    private static final int MAX_DEFAULT_CACHE_DIRS = 16;
+
     private final Configuration configuration;
     private final String        defaultUserAgent;
 
+    /**
+     * Size in bytes above which local files are memory mapped, <code>0</code> disables the mapping.
+     */
+    private final int mappedThreshold;
+
     private MIMETypeDetector mimeTypeDetector = new TikaMIMETypeDetector( new WhiteSpacesPurifier() );
 
     private HTTPClient httpClient = new DefaultHTTPClient();
@@ -89,6 +116,12 @@ public class Any23 {
     private final ExtractorGroup factories;
     private LocalCopyFactory     streamCache;
     private String               userAgent;
+    private ExecutorService      extractorsExecutor;
+    private ExecutorService      batchExecutor;
+    private MetricsRegistry      metricsRegistry = NoOpMetricsRegistry.getInstance();
+    private DetectionCache       detectionCache;
+    private ExtractionCache      extractionCache;
+    private HTTPValidatorStore   validatorStore;
 
     /**
      * Constructor that allows the specification of a
@@ -107,7 +140,32 @@ public class Any23 {
         this.factories = (extractorGroup == null)
                 ? ExtractorRegistryImpl.getInstance().getExtractorGroup()
                 : extractorGroup;
-        setCacheFactory(new MemCopyFactory());
+        this.mappedThreshold = Integer.parseInt(
+                configuration.getProperty("any23.extraction.localcopy.mapped.threshold", "0")
+        );
+        setCacheFactory(mappedThreshold > 0 ? new MappedCopyFactory(mappedThreshold) : new MemCopyFactory());
+
+        if("on".equals(configuration.getProperty("any23.extraction.detection.cache", "off"))) {
+            setDetectionCache(new DetectionCache(
+                    configuration.getPropertyIntOrFail("any23.extraction.detection.cache.size"),
+                    configuration.getPropertyIntOrFail("any23.extraction.detection.cache.confidence"),
+                    configuration.getPropertyIntOrFail("any23.extraction.detection.cache.verification.rate")
+            ));
+        }
+
+        if("on".equals(configuration.getProperty("any23.extraction.cache", "off"))) {
+            setExtractionCache(createExtractionCache(configuration));
+        }
+
+        if("on".equals(configuration.getProperty("any23.http.client.async", "off"))) {
+            this.httpClient = new AsyncHTTPClient();
+        }
+
+        if("on".equals(configuration.getProperty("any23.http.client.conditional", "off"))) {
+            setHTTPValidatorStore(new HTTPValidatorStore(
+                    configuration.getPropertyIntOrFail("any23.http.client.conditional.size")
+            ));
+        }
     }
 
     /**
@@ -167,7 +225,7 @@ public class Any23 {
      *
      * @param userAgent text describing the user agent.
      */
-    public void setHTTPUserAgent(String userAgent) {
+    public synchronized void setHTTPUserAgent(String userAgent) {
         if (httpClientInitialized) {
             throw new IllegalStateException("Cannot change HTTP configuration after client has been initialized");
         }
@@ -190,14 +248,44 @@ public class Any23 {
         return this.userAgent;
     }
 
+    /**
+     * Allows to set the store of the cache validators used to make conditional
+     * the fetches of already retrieved documents. When <i>any23.http.client.conditional</i>
+     * is <i>on</i> a store is created from the configuration.
+     * The store is used only by the {@link org.apache.any23.http.DefaultHTTPClient}.
+     * <p>
+     * A fetch is made conditional only when the {@link ExtractionCache} holds the
+     * extraction matching the validators, so that a <i>304 Not Modified</i> reply
+     * is answered by replaying it. Without a cache, or with an active validation,
+     * every fetch is unconditional.
+     * </p>
+     *
+     * @param store the validator store, if <code>null</code> every fetch is unconditional.
+     * @throws IllegalStateException if invoked after client has been initialized.
+     */
+    public synchronized void setHTTPValidatorStore(HTTPValidatorStore store) {
+        if (httpClientInitialized) {
+            throw new IllegalStateException("Cannot change HTTP configuration after client has been initialized");
+        }
+        this.validatorStore = store;
+    }
+
+    /**
+     * @return the store of the cache validators, <code>null</code> if not set.
+     */
+    public HTTPValidatorStore getHTTPValidatorStore() {
+        return validatorStore;
+    }
+
     /**
      * Allows to set the {@link org.apache.any23.http.HTTPClient} implementation
-     * used to retrieve contents. The default instance is {@link org.apache.any23.http.DefaultHTTPClient}.
+     * used to retrieve contents. The default instance is {@link org.apache.any23.http.DefaultHTTPClient},
+     * or {@link org.apache.any23.http.AsyncHTTPClient} if <i>any23.http.client.async</i> is enabled.
      *
      * @param httpClient a valid client instance.
      * @throws IllegalStateException if invoked after client has been initialized.
      */
-    public void setHTTPClient(HTTPClient httpClient) {
+    public synchronized void setHTTPClient(HTTPClient httpClient) {
         if(httpClient == null) {
             throw new NullPointerException("httpClient cannot be null.");
         }
@@ -213,13 +301,16 @@ public class Any23 {
      * @return instance of HTTPClient.
      * @throws IOException if the HTTP client has not initialized.
      */
-    public HTTPClient getHTTPClient() throws IOException {
+    public synchronized HTTPClient getHTTPClient() throws IOException {
         if (!httpClientInitialized) {
             if (userAgent == null) {
                 throw new IOException("Must call " + Any23.class.getSimpleName() +
                         ".setHTTPUserAgent(String) before extracting from HTTP IRI");
             }
             httpClient.init( new DefaultHTTPClientConfiguration(this.getAcceptHeader()) );
+            if (validatorStore != null && httpClient instanceof DefaultHTTPClient) {
+                ((DefaultHTTPClient) httpClient).setValidatorStore(validatorStore);
+            }
             httpClientInitialized = true;
         }
         return httpClient;
@@ -247,6 +338,94 @@ public class Any23 {
         this.mimeTypeDetector = detector;
     }
 
+    /**
+     * Allows to set the executor used to run concurrently the extractors matching a document
+     * when the {@link org.apache.any23.extractor.ExtractionParameters#PARALLEL_EXTRACTION_FLAG} is active.
+     * The executor lifecycle is managed by the caller. It must not be the executor set with
+     * {@link #setBatchExecutor(java.util.concurrent.ExecutorService)}: batch workers waiting for
+     * their extractors would occupy the threads needed to run them.
+     *
+     * @param executor a valid executor instance, if <code>null</code> a temporary
+     *        pool will be created for every extraction.
+     * @see SingleDocumentExtraction#setExecutorService(java.util.concurrent.ExecutorService)
+     */
+    public void setExtractorsExecutor(ExecutorService executor) {
+        this.extractorsExecutor = executor;
+    }
+
+    /**
+     * Allows to set the executor used by {@link #extractAll(ExtractionParameters, Iterable,
+     * TripleHandlerFactory, BatchExtractionListener)} to process documents concurrently.
+     * The executor lifecycle is managed by the caller.
+     *
+     * @param executor a valid executor instance, if <code>null</code> a temporary
+     *        pool of <i>any23.extraction.batch.threads</i> workers will be created
+     *        for every batch.
+     * @see #setExtractorsExecutor(java.util.concurrent.ExecutorService)
+     */
+    public void setBatchExecutor(ExecutorService executor) {
+        this.batchExecutor = executor;
+    }
+
+    /**
+     * Allows to set the registry collecting the per extractor and per document metrics
+     * of every extraction performed by this instance.
+     *
+     * @param registry a valid registry instance, if <code>null</code> no metrics will be collected.
+     * @see MetricsRegistry
+     */
+    public void setMetricsRegistry(MetricsRegistry registry) {
+        this.metricsRegistry = registry == null ? NoOpMetricsRegistry.getInstance() : registry;
+    }
+
+    /**
+     * @return the registry collecting the extraction metrics.
+     */
+    public MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
+    /**
+     * Allows to set the cache of the <i>MIME type</i> and <i>encoding</i> verdicts
+     * shared by the documents served by the same origin.
+     * When <i>any23.extraction.detection.cache</i> is <i>on</i> a cache is created
+     * from the configuration.
+     *
+     * @param cache a valid cache instance, if <code>null</code> every document
+     *        is detected from its content.
+     * @see DetectionCache
+     */
+    public void setDetectionCache(DetectionCache cache) {
+        this.detectionCache = cache;
+    }
+
+    /**
+     * @return the detection cache, <code>null</code> if not set.
+     */
+    public DetectionCache getDetectionCache() {
+        return detectionCache;
+    }
+
+    /**
+     * Allows to set the cache replaying the results of the extractions of already
+     * processed content. When <i>any23.extraction.cache</i> is <i>on</i> a cache
+     * is created from the configuration.
+     * Extractions with an active validation never use the cache.
+     *
+     * @param cache a valid cache instance, if <code>null</code> every document is extracted.
+     * @see ExtractionCache
+     */
+    public void setExtractionCache(ExtractionCache cache) {
+        this.extractionCache = cache;
+    }
+
+    /**
+     * @return the extraction cache, <code>null</code> if not set.
+     */
+    public ExtractionCache getExtractionCache() {
+        return extractionCache;
+    }
+
     /**
      * <p>Returns the most appropriate {@link DocumentSource} for the given<code>documentIRI</code>.</p>
      * <p><b>N.B.</b> <code>documentIRI's</code> <i>should</i> contain a protocol.
@@ -261,7 +440,7 @@ public class Any23 {
     public DocumentSource createDocumentSource(String documentIRI) throws URISyntaxException, IOException {
         if(documentIRI == null) throw new NullPointerException("documentIRI cannot be null.");
         if (documentIRI.toLowerCase().startsWith("file:")) {
-            return new FileDocumentSource( new File(new URI(documentIRI)) );
+            return createFileDocumentSource( new File(new URI(documentIRI)) );
         }
         if (documentIRI.toLowerCase().startsWith("http:") || documentIRI.toLowerCase().startsWith("https:")) {
             return new HTTPDocumentSource(getHTTPClient(), documentIRI);
@@ -293,18 +472,86 @@ public class Any23 {
             TripleHandler outputHandler,
             String encoding
     ) throws IOException, ExtractionException {
-        final SingleDocumentExtraction ex = new SingleDocumentExtraction(configuration, in, factories, outputHandler);
-        ex.setMIMETypeDetector(mimeTypeDetector);
-        ex.setLocalCopyFactory(streamCache);
-        ex.setParserEncoding(encoding);
-        final SingleDocumentExtractionReport sder = ex.run(eps);
-        return new ExtractionReport(
-                ex.getMatchingExtractors(),
-                ex.getParserEncoding(),
-                ex.getDetectedMIMEType(),
-                sder.getValidationReport(),
-                sder.getExtractorToIssues()
+        return extract(eps, in, outputHandler, encoding, extractorsExecutor);
+    }
+
+    private ExtractionReport extract(
+            ExtractionParameters eps,
+            DocumentSource in,
+            TripleHandler outputHandler,
+            String encoding,
+            ExecutorService extractors
+    ) throws IOException, ExtractionException {
+        if(eps == null) {
+            eps = ExtractionParameters.newDefault(configuration);
+        }
+        // the requested IRI, the source IRI changes after a redirect.
+        final String requestedIRI = in.getDocumentIRI();
+        if(extractionCache == null || eps.isValidate()) {
+            if(!in.isLocal()) {
+                // nothing can be replayed on a 304 reply, the fetch must be unconditional.
+                removeValidators(requestedIRI);
+            }
+            return extractDocumentSource(eps, in, outputHandler, encoding, extractors);
+        }
+        DocumentSource localCopy;
+        if(in.isLocal()) {
+            localCopy = in;
+        } else {
+            if(resolveNotModified(requestedIRI, eps, encoding) == null) {
+                // the cached extraction is gone, a 304 reply could not be answered.
+                removeValidators(requestedIRI);
+            }
+            try {
+                localCopy = streamCache.createLocalCopy(in);
+            } catch (NotModifiedException nme) {
+                metricsRegistry.incrementCounter(MetricsRegistry.DOCUMENT_NOT_MODIFIED, 1);
+                final String cachedKey = resolveNotModified(requestedIRI, eps, encoding);
+                if(cachedKey != null) {
+                    final ExtractionReport cachedReport = replay(cachedKey, outputHandler);
+                    if(cachedReport != null) {
+                        return cachedReport;
+                    }
+                }
+                // the cached extraction has been discarded meanwhile, the document is fetched again.
+                removeValidators(requestedIRI);
+                localCopy = streamCache.createLocalCopy(in);
+            }
+        }
+        // the same validators can be sent with a different content, the extraction is keyed by the content.
+        final String key = extractionCache.createKey(localCopy, factories, eps, encoding);
+        final HTTPValidatorStore.Validators validators = in.isLocal() ? null : getValidators(requestedIRI);
+        final ExtractionReport cachedReport = replay(key, outputHandler);
+        if(cachedReport != null) {
+            if(validators != null) {
+                extractionCache.alias(
+                        extractionCache.createKey(requestedIRI, validators, factories, eps, encoding), key
+                );
+            }
+            return cachedReport;
+        }
+        metricsRegistry.incrementCounter(MetricsRegistry.DOCUMENT_CACHE_MISSES, 1);
+        final ExtractionCache.Recorder recorder = extractionCache.createRecorder();
+        final ExtractionReport report = extractDocumentSource(
+                eps,
+                localCopy,
+                new CompositeTripleHandler(Arrays.asList(outputHandler, recorder)),
+                encoding,
+                extractors
         );
+        if(validators != null) {
+            if(extractionCache.store(key, recorder, report)) {
+                extractionCache.alias(
+                        extractionCache.createKey(requestedIRI, validators, factories, eps, encoding), key
+                );
+            } else {
+                // nothing can be replayed on a 304 reply.
+                removeValidators(requestedIRI);
+            }
+        } else {
+            extractionCache.store(key, recorder, report);
+        }
+        return report;
     }
 
     /**
@@ -361,7 +608,19 @@ public class Any23 {
      */
     public ExtractionReport extract(File file, TripleHandler outputHandler)
     throws IOException, ExtractionException {
-        return extract(new FileDocumentSource(file), outputHandler);
+        return extract(createFileDocumentSource(file), outputHandler);
+    }
+
+    /**
+     * Files larger than <i>any23.extraction.localcopy.mapped.threshold</i> are memory mapped,
+     * the mappings are released only when garbage collected and, on some platforms,
+     * lock the files until then.
+     */
+    private DocumentSource createFileDocumentSource(File file) {
+        if(mappedThreshold > 0 && file.length() > mappedThreshold) {
+            return new MappedFileDocumentSource(file);
+        }
+        return new FileDocumentSource(file);
     }
 
     /**
@@ -452,6 +711,298 @@ public class Any23 {
         return extract(eps, in, outputHandler, null);
     }
 
+    /**
+     * Performs metadata extraction on all the given <code>sources</code>, processing
+     * them concurrently on a bounded pool of workers. Every document is sent to its own
+     * {@link TripleHandler}, created by <code>handlerFactory</code> and closed once the
+     * document has been processed. The outcome of every extraction is notified to
+     * <code>listener</code>.
+     * <p>
+     * The submission of new documents blocks while
+     * <i>any23.extraction.batch.queue.size</i> documents are waiting for a free worker.
+     * The method returns when all the submitted documents have been processed.
+     * When the {@link ExtractionParameters#PARALLEL_EXTRACTION_FLAG} is active the extractors
+     * of every document run on a pool distinct from the batch workers, the one set with
+     * {@link #setExtractorsExecutor(java.util.concurrent.ExecutorService)} or a temporary
+     * pool of <i>any23.extraction.parallel.threads</i> threads shared by the whole batch.
+     * If the calling thread is interrupted, the documents not yet started are skipped,
+     * the running ones are completed and an {@link InterruptedException} is raised.
+     * </p>
+     *
+     * @param eps the parameters to be applied to every extraction.
+     * @param sources the input document sources.
+     * @param handlerFactory factory of the handlers collecting the metadata of every document.
+     * @param listener listener notified of the outcome of every extraction, can be <code>null</code>.
+     * @return the number of submitted documents.
+     * @throws InterruptedException if the calling thread is interrupted while processing the batch.
+     */
+    public int extractAll(
+            ExtractionParameters eps,
+            Iterable<? extends DocumentSource> sources,
+            final TripleHandlerFactory handlerFactory,
+            final BatchExtractionListener listener
+    ) throws InterruptedException {
+        if(sources == null) {
+            throw new NullPointerException("sources cannot be null.");
+        }
+        if(handlerFactory == null) {
+            throw new NullPointerException("handlerFactory cannot be null.");
+        }
+        final ExtractionParameters batchParameters =
+                eps == null ? ExtractionParameters.newDefault(configuration) : eps;
+        final int threads   = getBatchProperty("any23.extraction.batch.threads");
+        final int queueSize = getBatchProperty("any23.extraction.batch.queue.size");
+        if(threads <= 0 || queueSize < 0) {
+            throw new IllegalArgumentException(
+                    String.format("Invalid batch configuration: threads=%d, queue size=%d", threads, queueSize)
+            );
+        }
+        final int permits = threads + queueSize;
+        final Semaphore slots = new Semaphore(permits);
+        final AtomicBoolean stopped = new AtomicBoolean(false);
+        // a worker waiting for extractors queued on its own pool could wait forever.
+        final ExecutorService extractors;
+        if( ! batchParameters.getFlag(ExtractionParameters.PARALLEL_EXTRACTION_FLAG) ) {
+            extractors = null;
+        } else if(extractorsExecutor != null && extractorsExecutor != batchExecutor) {
+            extractors = extractorsExecutor;
+        } else {
+            extractors = Executors.newFixedThreadPool(SingleDocumentExtraction.getParallelThreads(batchParameters));
+        }
+        final ExecutorService executor =
+                batchExecutor == null ? Executors.newFixedThreadPool(threads) : batchExecutor;
+        int submitted = 0;
+        try {
+            for(final DocumentSource source : sources) {
+                slots.acquire();
+                try {
+                    executor.execute(new Runnable() {
+                        @Override
+                        public void run() {
+                            try {
+                                if( ! stopped.get() ) {
+                                    extractDocument(batchParameters, source, handlerFactory, listener, extractors);
+                                }
+                            } finally {
+                                slots.release();
+                            }
+                        }
+                    });
+                } catch (RejectedExecutionException ree) {
+                    slots.release();
+                    throw ree;
+                }
+                submitted++;
+            }
+            slots.acquire(permits);
+            slots.release(permits);
+        } catch (InterruptedException ie) {
+            stopped.set(true);
+            slots.acquireUninterruptibly(permits);
+            slots.release(permits);
+            throw ie;
+        } finally {
+            if(executor != batchExecutor) {
+                executor.shutdown();
+            }
+            if(extractors != null && extractors != extractorsExecutor) {
+                extractors.shutdown();
+            }
+        }
+        return submitted;
+    }
+
+    /**
+     * Performs metadata extraction on all the given <code>sources</code>
+     * with default parameters.
+     *
+     * @param sources the input document sources.
+     * @param handlerFactory factory of the handlers collecting the metadata of every document.
+     * @param listener listener notified of the outcome of every extraction, can be <code>null</code>.
+     * @return the number of submitted documents.
+     * @throws InterruptedException if the calling thread is interrupted while processing the batch.
+     * @see #extractAll(ExtractionParameters, Iterable, TripleHandlerFactory, BatchExtractionListener)
+     */
+    public int extractAll(
+            Iterable<? extends DocumentSource> sources,
+            TripleHandlerFactory handlerFactory,
+            BatchExtractionListener listener
+    ) throws InterruptedException {
+        return extractAll(null, sources, handlerFactory, listener);
+    }
+
+    private void extractDocument(
+            ExtractionParameters eps,
+            DocumentSource source,
+            TripleHandlerFactory handlerFactory,
+            BatchExtractionListener listener,
+            ExecutorService extractors
+    ) {
+        ExtractionReport report = null;
+        Exception failure = null;
+        TripleHandler handler = null;
+        try {
+            handler = handlerFactory.createTripleHandler(source);
+            report = extract(eps, source, handler, null, extractors);
+        } catch (Exception e) {
+            failure = e;
+        } finally {
+            if(handler != null) {
+                try {
+                    handler.close();
+                } catch (TripleHandlerException the) {
+                    if(failure == null) {
+                        failure = the;
+                    } else {
+                        logger.warn("Error while closing handler of document " + source.getDocumentIRI(), the);
+                    }
+                }
+            }
+        }
+        if(listener == null) {
+            if(failure != null) {
+                logger.error("Error while extracting data from document " + source.getDocumentIRI(), failure);
+            }
+            return;
+        }
+        try {
+            if(failure == null) {
+                listener.extractionCompleted(source, report);
+            } else {
+                listener.extractionFailed(source, failure);
+            }
+        } catch (RuntimeException re) {
+            logger.error("Error while notifying batch extraction listener.", re);
+        }
+    }
+
+    /**
+     * Reads a batch setting, falling back on the {@link DefaultConfiguration}
+     * when the instance configuration does not define it.
+     *
+     * @param propertyName name of the integer property.
+     * @return the property value.
+     */
+    private int getBatchProperty(String propertyName) {
+        final Configuration source =
+                configuration.defineProperty(propertyName) ? configuration : DefaultConfiguration.singleton();
+        return source.getPropertyIntOrFail(propertyName);
+    }
+
+    private ExtractionReport replay(String key, TripleHandler outputHandler)
+    throws IOException, ExtractionException {
+        final ExtractionReport cachedReport;
+        try {
+            cachedReport = extractionCache.replay(key, factories, outputHandler);
+        } catch (TripleHandlerException the) {
+            throw new ExtractionException("Error while replaying the cached extraction.", the);
+        }
+        if(cachedReport != null) {
+            metricsRegistry.incrementCounter(MetricsRegistry.DOCUMENT_CACHE_HITS, 1);
+        }
+        return cachedReport;
+    }
+
+    /**
+     * Returns the key of the cached extraction to be replayed on a <i>304 Not Modified</i> reply,
+     * found through the alias of the known validators of the document.
+     */
+    private String resolveNotModified(String requestedIRI, ExtractionParameters eps, String encoding)
+    throws IOException {
+        final HTTPValidatorStore.Validators validators = getValidators(requestedIRI);
+        if(validators == null) {
+            return null;
+        }
+        final String key = extractionCache.resolve(
+                extractionCache.createKey(requestedIRI, validators, factories, eps, encoding)
+        );
+        return key != null && extractionCache.contains(key) ? key : null;
+    }
+
+    private HTTPValidatorStore.Validators getValidators(String requestedIRI) {
+        return validatorStore == null ? null : validatorStore.get(requestedIRI);
+    }
+
+    private void removeValidators(String requestedIRI) {
+        if(validatorStore != null) {
+            validatorStore.remove(requestedIRI);
+        }
+    }
+
+    private ExtractionReport extractDocumentSource(
+            ExtractionParameters eps,
+            DocumentSource in,
+            TripleHandler outputHandler,
+            String encoding,
+            ExecutorService extractors
+    ) throws IOException, ExtractionException {
+        final SingleDocumentExtraction ex = new SingleDocumentExtraction(configuration, in, factories, outputHandler);
+        ex.setMIMETypeDetector(mimeTypeDetector);
+        ex.setLocalCopyFactory(streamCache);
+        ex.setParserEncoding(encoding);
+        ex.setExecutorService(extractors);
+        ex.setMetricsRegistry(metricsRegistry);
+        ex.setDetectionCache(detectionCache);
+        final SingleDocumentExtractionReport sder = ex.run(eps);
+        return new ExtractionReport(
+                ex.getMatchingExtractors(),
+                ex.getParserEncoding(),
+                ex.getDetectedMIMEType(),
+                sder.getValidationReport(),
+                sder.getExtractorToIssues()
+        );
+    }
+
+    private static ExtractionCache createExtractionCache(Configuration configuration) {
+        final String storeType = configuration.getPropertyOrFail("any23.extraction.cache.store");
+        final long size = Long.parseLong(configuration.getPropertyOrFail("any23.extraction.cache.size"));
+        final ExtractionCacheStore store;
+        if("memory".equals(storeType)) {
+            store = new MemoryExtractionCacheStore(size);
+        } else if("disk".equals(storeType)) {
+            final String dir = configuration.getPropertyOrFail("any23.extraction.cache.dir");
+            if("?".equals(dir)) {
+                store = openDefaultExtractionCacheStore(size);
+            } else {
+                final File directory = new File(dir);
+                try {
+                    store = new SegmentFileExtractionCacheStore(directory, size);
+                } catch (IOException ioe) {
+                    throw new IllegalArgumentException("Cannot open the extraction cache directory " + directory, ioe);
+                }
+            }
+        } else {
+            throw new IllegalArgumentException("Unsupported extraction cache store: " + storeType);
+        }
+        return new ExtractionCache(
+                store,
+                configuration.getPropertyIntOrFail("any23.extraction.cache.entry.size")
+        );
+    }
+
+    /**
+     * Opens the store on the shared default directory, when it is used by another
+     * instance moves to the first free <code>any23-extraction-cache-N</code> sibling.
+     */
+    private static ExtractionCacheStore openDefaultExtractionCacheStore(long size) {
+        final File tmpDir = new File(System.getProperty("java.io.tmpdir"));
+        for(int attempt = 0; attempt < MAX_DEFAULT_CACHE_DIRS; attempt++) {
+            final File directory = new File(
+                    tmpDir, attempt == 0 ? "any23-extraction-cache" : "any23-extraction-cache-" + attempt
+            );
+            try {
+                return new SegmentFileExtractionCacheStore(directory, size);
+            } catch (SegmentFileExtractionCacheStore.DirectoryLockedException dle) {
+                logger.debug("Extraction cache directory {} is in use.", directory);
+            } catch (IOException ioe) {
+                throw new IllegalArgumentException("Cannot open the extraction cache directory " + directory, ioe);
+            }
+        }
+        throw new IllegalArgumentException(
+                "No free extraction cache directory found in " + tmpDir + " after " + MAX_DEFAULT_CACHE_DIRS + " attempts."
+        );
+    }
+
     private String getAcceptHeader() {
         Collection<MIMEType> mimeTypes = new ArrayList<MIMEType>();
         for (ExtractorFactory<?> factory : factories) {
@@ -0,0 +1,46 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23;
+
+import org.apache.any23.source.DocumentSource;
+
+/**
+ * Callback notified of the outcome of every document processed by
+ * {@link Any23#extractAll(org.apache.any23.extractor.ExtractionParameters, Iterable,
+ * org.apache.any23.writer.TripleHandlerFactory, BatchExtractionListener)}.
+ * Methods are invoked by the worker threads, so implementations must be thread-safe.
+ */
+public interface BatchExtractionListener {
+
+    /**
+     * Invoked when the extraction of a document completes.
+     *
+     * @param source the processed document source.
+     * @param report the extraction report.
+     */
+    void extractionCompleted(DocumentSource source, ExtractionReport report);
+
+    /**
+     * Invoked when the extraction of a document fails.
+     *
+     * @param source the processed document source.
+     * @param e the cause of the failure.
+     */
+    void extractionFailed(DocumentSource source, Exception e);
+
+}
@@ -0,0 +1,695 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.cache;
+
+import org.apache.any23.Any23;
+import org.apache.any23.ExtractionReport;
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.extractor.ExtractionParameters;
+import org.apache.any23.extractor.Extractor;
+import org.apache.any23.extractor.ExtractorFactory;
+import org.apache.any23.extractor.ExtractorGroup;
+import org.apache.any23.extractor.IssueReport;
+import org.apache.any23.http.HTTPValidatorStore;
+import org.apache.any23.source.DocumentSource;
+import org.apache.any23.validator.EmptyValidationReport;
+import org.apache.any23.writer.BufferedTripleHandler;
+import org.apache.any23.writer.TripleHandler;
+import org.apache.any23.writer.TripleHandlerException;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Content addressed cache of the extraction results.
+ * The entries are identified by a digest of the document content, of the
+ * document <i>IRI</i> and content type, of the active extractors, of the
+ * <i>Any23</i> version, of the values in effect of the {@link ExtractionParameters},
+ * including the configuration defaults, and of the declared encoding. An entry holds the
+ * events received by the {@link TripleHandler} and the {@link ExtractionReport}
+ * of an extraction, and is replayed without parsing the document again.
+ * <p>
+ * The document <i>IRI</i> is part of the key since the extracted statements
+ * refer to it. The validation reports are not cached, extractions with an
+ * active validation must not use the cache. The entries are stored encoded
+ * in a pluggable {@link ExtractionCacheStore}. The extractions of remote documents
+ * can also be found through an alias computed from the cache validators of their
+ * responses, so that a <i>304 Not Modified</i> reply is answered without the content,
+ * see {@link #alias(String, String)}.
+ * </p>
+ * This class is thread-safe.
+ */
+public class ExtractionCache {
+
+    /**
+     * Default maximum size in bytes of a cache entry.
+     */
+    public static final int DEFAULT_MAX_ENTRY_SIZE = 16 * 1024 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(ExtractionCache.class);
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int FORMAT_VERSION = 1;
+
+    private static final int ALIAS_FORMAT_VERSION = -1;
+
+    private static final int BUFFER_SIZE = 8192;
+
+    private static final byte END_EVENT         = 0;
+    private static final byte CONTEXT_EVENT     = 1;
+    private static final byte OPEN_EVENT        = 2;
+    private static final byte TRIPLE_EVENT      = 3;
+    private static final byte NAMESPACE_EVENT   = 4;
+    private static final byte CLOSE_EVENT       = 5;
+
+    private static final byte NULL_VALUE    = 0;
+    private static final byte IRI_VALUE     = 1;
+    private static final byte BNODE_VALUE   = 2;
+    private static final byte LITERAL_VALUE = 3;
+
+    private final ExtractionCacheStore store;
+
+    private final int maxEntrySize;
+
+    /**
+     * Constructor.
+     *
+     * @param store the storage of the entries.
+     * @param maxEntrySize maximum size in bytes of an entry, the results
+     *        of larger extractions are not cached.
+     */
+    public ExtractionCache(ExtractionCacheStore store, int maxEntrySize) {
+        if(store == null) {
+            throw new NullPointerException("store cannot be null.");
+        }
+        if(maxEntrySize <= 0) {
+            throw new IllegalArgumentException("maxEntrySize must be greater than 0.");
+        }
+        this.store = store;
+        this.maxEntrySize = maxEntrySize;
+    }
+
+    /**
+     * Constructor, with entries up to {@link #DEFAULT_MAX_ENTRY_SIZE}.
+     *
+     * @param store the storage of the entries.
+     */
+    public ExtractionCache(ExtractionCacheStore store) {
+        this(store, DEFAULT_MAX_ENTRY_SIZE);
+    }
+
+    public ExtractionCacheStore getStore() {
+        return store;
+    }
+
+    /**
+     * Computes the key of an extraction.
+     *
+     * @param localCopy the local copy of the document, read to compute the digest.
+     * @param extractors the active extractors.
+     * @param parameters the extraction parameters.
+     * @param encoding the declared encoding, can be <code>null</code>.
+     * @return the hexadecimal digest identifying the extraction.
+     * @throws IOException if an error occurs while reading the document.
+     */
+    public String createKey(
+            DocumentSource localCopy,
+            ExtractorGroup extractors,
+            ExtractionParameters parameters,
+            String encoding
+    ) throws IOException {
+        final MessageDigest digest = createDigest(
+                localCopy.getDocumentIRI(), localCopy.getContentType(), extractors, parameters, encoding
+        );
+        final InputStream is = localCopy.openInputStream();
+        try {
+            final byte[] buffer = new byte[BUFFER_SIZE];
+            int read;
+            while((read = is.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        } finally {
+            is.close();
+        }
+        return toHex(digest);
+    }
+
+    /**
+     * Computes the alias of the extraction of a remote document from the
+     * cache validators of its response, without reading the content.
+     * The alias stays the same as long as the server reports the document
+     * as not modified. The same validators can be sent with a different
+     * content, the extraction must be stored under the key of its content
+     * and found through the alias only on a <i>304 Not Modified</i> reply.
+     *
+     * @param documentIRI the requested IRI of the document.
+     * @param validators the validators of the response.
+     * @param extractors the active extractors.
+     * @param parameters the extraction parameters.
+     * @param encoding the declared encoding, can be <code>null</code>.
+     * @return the hexadecimal digest identifying the alias.
+     */
+    public String createKey(
+            String documentIRI,
+            HTTPValidatorStore.Validators validators,
+            ExtractorGroup extractors,
+            ExtractionParameters parameters,
+            String encoding
+    ) {
+        if(documentIRI == null) throw new NullPointerException("documentIRI cannot be null.");
+        if(validators == null) throw new NullPointerException("validators cannot be null.");
+        final MessageDigest digest = createDigest(documentIRI, null, extractors, parameters, encoding);
+        update(digest, validators.getETag());
+        update(digest, validators.getLastModified());
+        return toHex(digest);
+    }
+
+    /**
+     * Checks whether an extraction is cached.
+     *
+     * @param key the extraction key.
+     * @return <code>true</code> if an entry is stored for the key.
+     * @throws IOException if an error occurs while reading the entry.
+     */
+    public boolean contains(String key) throws IOException {
+        return store.get(key) != null;
+    }
+
+    /**
+     * Stores an alias of an extraction key.
+     *
+     * @param alias the alias.
+     * @param key the key of the extraction.
+     * @throws IOException if an error occurs while storing the alias.
+     * @see #createKey(String, HTTPValidatorStore.Validators, ExtractorGroup, ExtractionParameters, String)
+     */
+    public void alias(String alias, String key) throws IOException {
+        if(alias == null) throw new NullPointerException("alias cannot be null.");
+        if(key == null) throw new NullPointerException("key cannot be null.");
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(baos);
+        dos.writeInt(ALIAS_FORMAT_VERSION);
+        writeString(dos, key);
+        dos.flush();
+        store.put(alias, baos.toByteArray());
+    }
+
+    /**
+     * Resolves an alias stored with {@link #alias(String, String)}.
+     *
+     * @param alias the alias.
+     * @return the key of the extraction, <code>null</code> if the alias is not stored.
+     * @throws IOException if an error occurs while reading the alias.
+     */
+    public String resolve(String alias) throws IOException {
+        final byte[] entry = store.get(alias);
+        if(entry == null) {
+            return null;
+        }
+        final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(entry));
+        try {
+            return dis.readInt() == ALIAS_FORMAT_VERSION ? readString(dis) : null;
+        } catch (IOException ioe) {
+            logger.warn("Ignoring unreadable cache alias " + alias, ioe);
+            return null;
+        }
+    }
+
+    /**
+     * Replays a cached extraction on the given handler.
+     *
+     * @param key the extraction key.
+     * @param extractors the active extractors, used to create the matching
+     *        extractors of the report.
+     * @param handler the handler receiving the cached events.
+     * @return the cached report, <code>null</code> if the extraction is not cached.
+     * @throws IOException if an error occurs while reading the entry.
+     * @throws TripleHandlerException if the handler raises an error.
+     */
+    public ExtractionReport replay(String key, ExtractorGroup extractors, TripleHandler handler)
+    throws IOException, TripleHandlerException {
+        final byte[] entry = store.get(key);
+        if(entry == null) {
+            return null;
+        }
+        final DataInputStream dis = new DataInputStream(new ByteArrayInputStream(entry));
+        final CachedEntry cached;
+        try {
+            cached = readEntry(dis, extractors);
+        } catch (IOException ioe) {
+            logger.warn("Ignoring unreadable cache entry " + key, ioe);
+            return null;
+        }
+        handler.startDocument(cached.documentIRI);
+        try {
+            handler.setContentLength(cached.contentLength);
+            cached.events.replay(handler);
+        } finally {
+            handler.endDocument(cached.documentIRI);
+        }
+        return cached.report;
+    }
+
+    /**
+     * @return a new handler recording the events of an extraction.
+     */
+    public Recorder createRecorder() {
+        return new Recorder(maxEntrySize);
+    }
+
+    /**
+     * Stores the events recorded during an extraction together with its report.
+     * Nothing is stored if the recorded events exceed the maximum entry size.
+     *
+     * @param key the extraction key.
+     * @param recorder the recorder which received the extraction events.
+     * @param report the extraction report.
+     * @return <code>true</code> if the entry has been stored.
+     * @throws IOException if an error occurs while storing the entry.
+     */
+    public boolean store(String key, Recorder recorder, ExtractionReport report) throws IOException {
+        if(recorder.isOverflown() || recorder.documentIRI == null) {
+            return false;
+        }
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream(recorder.events.size() + 256);
+        final DataOutputStream dos = new DataOutputStream(baos);
+        dos.writeInt(FORMAT_VERSION);
+        writeString(dos, recorder.documentIRI.stringValue());
+        dos.writeLong(recorder.contentLength);
+        writeString(dos, report.getEncoding());
+        writeString(dos, report.getDetectedMimeType());
+        final List<Extractor> matchingExtractors = report.getMatchingExtractors();
+        dos.writeInt(matchingExtractors.size());
+        for(Extractor<?> extractor : matchingExtractors) {
+            final String name = extractor.getDescription().getExtractorName();
+            writeString(dos, name);
+            final Collection<IssueReport.Issue> issues = report.getExtractorIssues(name);
+            dos.writeInt(issues.size());
+            for(IssueReport.Issue issue : issues) {
+                writeString(dos, issue.getLevel().name());
+                writeString(dos, issue.getMessage());
+                dos.writeLong(issue.getRow());
+                dos.writeLong(issue.getCol());
+            }
+        }
+        recorder.events.writeTo(dos);
+        dos.writeByte(END_EVENT);
+        dos.flush();
+        if(baos.size() > maxEntrySize) {
+            return false;
+        }
+        store.put(key, baos.toByteArray());
+        return true;
+    }
+
+    private CachedEntry readEntry(DataInputStream dis, ExtractorGroup extractors) throws IOException {
+        if(dis.readInt() != FORMAT_VERSION) {
+            throw new IOException("Unsupported cache entry format.");
+        }
+        final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+        final CachedEntry cached = new CachedEntry();
+        cached.documentIRI = valueFactory.createIRI(readString(dis));
+        cached.contentLength = dis.readLong();
+        final String encoding = readString(dis);
+        final String detectedMimeType = readString(dis);
+
+        final Map<String,ExtractorFactory<?>> factories = new HashMap<String,ExtractorFactory<?>>();
+        for(ExtractorFactory<?> factory : extractors) {
+            factories.put(factory.getExtractorName(), factory);
+        }
+        final List<Extractor> matchingExtractors = new ArrayList<Extractor>();
+        final Map<String,Collection<IssueReport.Issue>> extractorIssues =
+                new HashMap<String,Collection<IssueReport.Issue>>();
+        final int numOfExtractors = dis.readInt();
+        for(int i = 0; i < numOfExtractors; i++) {
+            final String name = readString(dis);
+            final ExtractorFactory<?> factory = factories.get(name);
+            if(factory == null) {
+                throw new IOException("Unknown extractor " + name);
+            }
+            matchingExtractors.add(factory.createExtractor());
+            final int numOfIssues = dis.readInt();
+            final List<IssueReport.Issue> issues = new ArrayList<IssueReport.Issue>(numOfIssues);
+            for(int j = 0; j < numOfIssues; j++) {
+                issues.add(new IssueReport.Issue(
+                        IssueReport.IssueLevel.valueOf(readString(dis)),
+                        readString(dis),
+                        dis.readLong(),
+                        dis.readLong()
+                ));
+            }
+            extractorIssues.put(name, issues);
+        }
+        cached.report = new ExtractionReport(
+                matchingExtractors,
+                encoding,
+                detectedMimeType,
+                EmptyValidationReport.getInstance(),
+                extractorIssues
+        );
+
+        final List<ExtractionContext> contexts = new ArrayList<ExtractionContext>();
+        cached.events = new BufferedTripleHandler();
+        try {
+            byte event;
+            while((event = dis.readByte()) != END_EVENT) {
+                switch (event) {
+                    case CONTEXT_EVENT:
+                        contexts.add(readContext(dis, valueFactory));
+                        break;
+                    case OPEN_EVENT:
+                        cached.events.openContext(contexts.get(dis.readInt()));
+                        break;
+                    case TRIPLE_EVENT:
+                        cached.events.receiveTriple(
+                                (Resource) readValue(dis, valueFactory),
+                                (IRI) readValue(dis, valueFactory),
+                                readValue(dis, valueFactory),
+                                (IRI) readValue(dis, valueFactory),
+                                contexts.get(dis.readInt())
+                        );
+                        break;
+                    case NAMESPACE_EVENT:
+                        cached.events.receiveNamespace(readString(dis), readString(dis), contexts.get(dis.readInt()));
+                        break;
+                    case CLOSE_EVENT:
+                        cached.events.closeContext(contexts.get(dis.readInt()));
+                        break;
+                    default:
+                        throw new IOException("Unknown cache event " + event);
+                }
+            }
+        } catch (TripleHandlerException the) {
+            throw new IOException(the);
+        } catch (RuntimeException re) {
+            throw new IOException("Corrupted cache entry.", re);
+        }
+        return cached;
+    }
+
+    private static ExtractionContext readContext(DataInputStream dis, ValueFactory valueFactory) throws IOException {
+        final String extractorName = readString(dis);
+        final String documentIRI = readString(dis);
+        final String defaultLanguage = readString(dis);
+        final String uniqueID = readString(dis);
+        // The unique ID is made of the extractor name, the local ID and the document IRI.
+        final String prefix = "urn:x-any23:" + extractorName + ":";
+        final String suffix = ":" + documentIRI;
+        if(!uniqueID.startsWith(prefix) || !uniqueID.endsWith(suffix)) {
+            throw new IOException("Unexpected context ID " + uniqueID);
+        }
+        return new ExtractionContext(
+                extractorName,
+                valueFactory.createIRI(documentIRI),
+                defaultLanguage,
+                uniqueID.substring(prefix.length(), uniqueID.length() - suffix.length())
+        );
+    }
+
+    private static Value readValue(DataInputStream dis, ValueFactory valueFactory) throws IOException {
+        final byte type = dis.readByte();
+        switch (type) {
+            case NULL_VALUE:
+                return null;
+            case IRI_VALUE:
+                return valueFactory.createIRI(readString(dis));
+            case BNODE_VALUE:
+                return valueFactory.createBNode(readString(dis));
+            case LITERAL_VALUE:
+                final String label = readString(dis);
+                if(dis.readBoolean()) {
+                    return valueFactory.createLiteral(label, readString(dis));
+                }
+                return valueFactory.createLiteral(label, valueFactory.createIRI(readString(dis)));
+            default:
+                throw new IOException("Unknown value type " + type);
+        }
+    }
+
+    private static void writeValue(DataOutputStream dos, Value value) throws IOException {
+        if(value == null) {
+            dos.writeByte(NULL_VALUE);
+        } else if(value instanceof IRI) {
+            dos.writeByte(IRI_VALUE);
+            writeString(dos, value.stringValue());
+        } else if(value instanceof BNode) {
+            dos.writeByte(BNODE_VALUE);
+            writeString(dos, ((BNode) value).getID());
+        } else {
+            final Literal literal = (Literal) value;
+            dos.writeByte(LITERAL_VALUE);
+            writeString(dos, literal.getLabel());
+            dos.writeBoolean(literal.getLanguage().isPresent());
+            if(literal.getLanguage().isPresent()) {
+                writeString(dos, literal.getLanguage().get());
+            } else {
+                writeString(dos, literal.getDatatype().stringValue());
+            }
+        }
+    }
+
+    private static String readString(DataInputStream dis) throws IOException {
+        final int length = dis.readInt();
+        if(length == -1) {
+            return null;
+        }
+        final byte[] data = new byte[length];
+        dis.readFully(data);
+        return new String(data, UTF8);
+    }
+
+    private static void writeString(DataOutputStream dos, String s) throws IOException {
+        if(s == null) {
+            dos.writeInt(-1);
+            return;
+        }
+        final byte[] data = s.getBytes(UTF8);
+        dos.writeInt(data.length);
+        dos.write(data);
+    }
+
+    private static MessageDigest createDigest(
+            String documentIRI,
+            String contentType,
+            ExtractorGroup extractors,
+            ExtractionParameters parameters,
+            String encoding
+    ) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException nsae) {
+            throw new IllegalStateException("SHA-256 digest is not available.", nsae);
+        }
+        update(digest, Any23.VERSION);
+        update(digest, documentIRI);
+        update(digest, contentType);
+        update(digest, encoding);
+        update(digest, parameters.isValidate() ? (parameters.isFix() ? "fix" : "validate") : "skip");
+        for(Map.Entry<String,String> property : parameters.getEffectiveProperties().entrySet()) {
+            update(digest, property.getKey());
+            update(digest, property.getValue());
+        }
+        for(ExtractorFactory<?> factory : extractors) {
+            update(digest, factory.getExtractorName());
+        }
+        return digest;
+    }
+
+    private static String toHex(MessageDigest digest) {
+        final StringBuilder key = new StringBuilder();
+        for(byte b : digest.digest()) {
+            key.append(String.format("%02x", b));
+        }
+        return key.toString();
+    }
+
+    private static void update(MessageDigest digest, String s) {
+        if(s != null) {
+            digest.update(s.getBytes(UTF8));
+        }
+        digest.update((byte) 0);
+    }
+
+    /**
+     * A decoded cache entry.
+     */
+    private static class CachedEntry {
+
+        IRI documentIRI;
+
+        long contentLength;
+
+        ExtractionReport report;
+
+        BufferedTripleHandler events;
+    }
+
+    /**
+     * {@link TripleHandler} encoding the received events, the recording stops
+     * when the encoded events exceed the maximum entry size.
+     */
+    public static class Recorder implements TripleHandler {
+
+        private final int maxSize;
+
+        private final ByteArrayOutputStream events = new ByteArrayOutputStream();
+
+        private final DataOutputStream dos = new DataOutputStream(events);
+
+        private final Map<ExtractionContext,Integer> contexts = new HashMap<ExtractionContext,Integer>();
+
+        private IRI documentIRI;
+
+        private long contentLength;
+
+        private boolean overflown = false;
+
+        Recorder(int maxSize) {
+            this.maxSize = maxSize;
+        }
+
+        /**
+         * @return <code>true</code> if the recorded events exceeded the maximum entry size.
+         */
+        public boolean isOverflown() {
+            return overflown;
+        }
+
+        public synchronized void startDocument(IRI documentIRI) throws TripleHandlerException {
+            this.documentIRI = documentIRI;
+        }
+
+        public synchronized void openContext(ExtractionContext context) throws TripleHandlerException {
+            if(overflown) return;
+            try {
+                final int id = contextId(context);
+                dos.writeByte(OPEN_EVENT);
+                dos.writeInt(id);
+                checkSize();
+            } catch (IOException ioe) {
+                throw new TripleHandlerException("Error while recording the context.", ioe);
+            }
+        }
+
+        public synchronized void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+        throws TripleHandlerException {
+            if(overflown) return;
+            try {
+                final int id = contextId(context);
+                dos.writeByte(TRIPLE_EVENT);
+                writeValue(dos, s);
+                writeValue(dos, p);
+                writeValue(dos, o);
+                writeValue(dos, g);
+                dos.writeInt(id);
+                checkSize();
+            } catch (IOException ioe) {
+                throw new TripleHandlerException("Error while recording the triple.", ioe);
+            }
+        }
+
+        public synchronized void receiveNamespace(String prefix, String uri, ExtractionContext context)
+        throws TripleHandlerException {
+            if(overflown) return;
+            try {
+                final int id = contextId(context);
+                dos.writeByte(NAMESPACE_EVENT);
+                writeString(dos, prefix);
+                writeString(dos, uri);
+                dos.writeInt(id);
+                checkSize();
+            } catch (IOException ioe) {
+                throw new TripleHandlerException("Error while recording the namespace.", ioe);
+            }
+        }
+
+        public synchronized void closeContext(ExtractionContext context) throws TripleHandlerException {
+            if(overflown) return;
+            try {
+                final int id = contextId(context);
+                dos.writeByte(CLOSE_EVENT);
+                dos.writeInt(id);
+                checkSize();
+            } catch (IOException ioe) {
+                throw new TripleHandlerException("Error while recording the context.", ioe);
+            }
+        }
+
+        public synchronized void endDocument(IRI documentIRI) throws TripleHandlerException {
+            // ignore
+        }
+
+        public synchronized void setContentLength(long contentLength) {
+            this.contentLength = contentLength;
+        }
+
+        public void close() throws TripleHandlerException {
+            // ignore
+        }
+
+        /**
+         * Returns the ID of the given context, the context is encoded the first time it is seen.
+         */
+        private int contextId(ExtractionContext context) throws IOException {
+            final Integer id = contexts.get(context);
+            if(id != null) {
+                return id;
+            }
+            final int newId = contexts.size();
+            contexts.put(context, newId);
+            dos.writeByte(CONTEXT_EVENT);
+            writeString(dos, context.getExtractorName());
+            writeString(dos, context.getDocumentIRI().stringValue());
+            writeString(dos, context.getDefaultLanguage());
+            writeString(dos, context.getUniqueID());
+            return newId;
+        }
+
+        private void checkSize() {
+            if(events.size() > maxSize) {
+                overflown = true;
+                events.reset();
+                contexts.clear();
+            }
+        }
+    }
+
+}
@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.cache;
+
+import java.io.IOException;
+
+/**
+ * Storage of the encoded entries of an {@link ExtractionCache}.
+ * Implementations are responsible of evicting the entries exceeding
+ * their capacity and must be thread-safe.
+ */
+public interface ExtractionCacheStore {
+
+    /**
+     * Retrieves an entry.
+     *
+     * @param key the entry key.
+     * @return the entry content, <code>null</code> if not found.
+     * @throws IOException if an error occurs while reading the entry.
+     */
+    byte[] get(String key) throws IOException;
+
+    /**
+     * Stores an entry, possibly evicting older entries.
+     *
+     * @param key the entry key.
+     * @param entry the entry content.
+     * @throws IOException if an error occurs while writing the entry.
+     */
+    void put(String key, byte[] entry) throws IOException;
+
+    /**
+     * @return the size in bytes of the stored entries.
+     */
+    long getSize();
+
+    /**
+     * Removes all the entries.
+     *
+     * @throws IOException if an error occurs while removing the entries.
+     */
+    void clear() throws IOException;
+
+    /**
+     * Releases the resources held by this store.
+     *
+     * @throws IOException if an error occurs while releasing the resources.
+     */
+    void close() throws IOException;
+
+}
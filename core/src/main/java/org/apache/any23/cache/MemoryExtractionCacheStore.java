@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * On heap {@link ExtractionCacheStore} evicting the least recently
+ * used entries when the total size exceeds the given capacity.
+ */
+public class MemoryExtractionCacheStore implements ExtractionCacheStore {
+
+    private final long maxSize;
+
+    private final LinkedHashMap<String,byte[]> entries = new LinkedHashMap<String,byte[]>(16, 0.75f, true);
+
+    private long size = 0;
+
+    /**
+     * Constructor.
+     *
+     * @param maxSize maximum size in bytes of the stored entries.
+     */
+    public MemoryExtractionCacheStore(long maxSize) {
+        if(maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0.");
+        }
+        this.maxSize = maxSize;
+    }
+
+    @Override
+    public synchronized byte[] get(String key) {
+        return entries.get(key);
+    }
+
+    @Override
+    public synchronized void put(String key, byte[] entry) {
+        if(entry.length > maxSize) {
+            return;
+        }
+        final byte[] previous = entries.put(key, entry);
+        if(previous != null) {
+            size -= previous.length;
+        }
+        size += entry.length;
+        final Iterator<Map.Entry<String,byte[]>> iterator = entries.entrySet().iterator();
+        while(size > maxSize && iterator.hasNext()) {
+            size -= iterator.next().getValue().length;
+            iterator.remove();
+        }
+    }
+
+    /**
+     * @return the number of stored entries.
+     */
+    public synchronized int getEntries() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() {
+        entries.clear();
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        clear();
+    }
+
+}
@@ -0,0 +1,430 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.cache;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.RandomAccessFile;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * On disk {@link ExtractionCacheStore} appending the entries to segment files.
+ * A new segment is started when the current one exceeds the segment size,
+ * the oldest segments are deleted when the total size exceeds the capacity.
+ * The index of the entries is kept in memory and rebuilt scanning the
+ * segments found in the directory when the store is opened.
+ * A directory is used by a single store at a time, which holds an exclusive
+ * lock on a file in it until it is closed.
+ * <p>
+ * Every record of a segment is made of a magic number, the entry key,
+ * the entry length and the entry content.
+ * </p>
+ */
+public class SegmentFileExtractionCacheStore implements ExtractionCacheStore {
+
+    /**
+     * Default maximum size in bytes of a segment.
+     */
+    public static final long DEFAULT_SEGMENT_SIZE = 16 * 1024 * 1024;
+
+    private static final Logger logger = LoggerFactory.getLogger(SegmentFileExtractionCacheStore.class);
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".dat";
+
+    private static final String LOCK_FILE = "segments.lock";
+
+    private static final int RECORD_MAGIC = 0x41323343;
+
+    private final File directory;
+
+    private final long maxSize;
+
+    private final long segmentSize;
+
+    private final Deque<Segment> segments = new ArrayDeque<Segment>();
+
+    private final Map<String,Location> index = new HashMap<String,Location>();
+
+    private long size = 0;
+
+    private long nextSegmentId = 0;
+
+    private OutputStream current;
+
+    private RandomAccessFile lockFile;
+
+    private FileLock lock;
+
+    /**
+     * Constructor.
+     *
+     * @param directory directory hosting the segment files, created if missing.
+     * @param maxSize maximum size in bytes of the stored entries.
+     * @param segmentSize maximum size in bytes of a segment.
+     * @throws DirectoryLockedException if the directory is used by another store.
+     * @throws IOException if an error occurs while reading the existing segments.
+     */
+    public SegmentFileExtractionCacheStore(File directory, long maxSize, long segmentSize) throws IOException {
+        if(directory == null) {
+            throw new NullPointerException("directory cannot be null.");
+        }
+        if(maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be greater than 0.");
+        }
+        if(segmentSize <= 0) {
+            throw new IllegalArgumentException("segmentSize must be greater than 0.");
+        }
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Cannot create the cache directory " + directory);
+        }
+        this.directory = directory;
+        this.maxSize = maxSize;
+        this.segmentSize = segmentSize;
+        lock();
+        try {
+            load();
+        } catch (IOException ioe) {
+            unlock();
+            throw ioe;
+        }
+    }
+
+    /**
+     * Constructor, the segment size is a quarter of the capacity
+     * up to {@link #DEFAULT_SEGMENT_SIZE}.
+     *
+     * @param directory directory hosting the segment files, created if missing.
+     * @param maxSize maximum size in bytes of the stored entries.
+     * @throws DirectoryLockedException if the directory is used by another store.
+     * @throws IOException if an error occurs while reading the existing segments.
+     */
+    public SegmentFileExtractionCacheStore(File directory, long maxSize) throws IOException {
+        this(directory, maxSize, Math.max(1, Math.min(DEFAULT_SEGMENT_SIZE, maxSize / 4)));
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    @Override
+    public synchronized byte[] get(String key) throws IOException {
+        final Location location = index.get(key);
+        if(location == null) {
+            return null;
+        }
+        final byte[] entry = new byte[location.length];
+        final RandomAccessFile file = new RandomAccessFile(location.segment.file, "r");
+        try {
+            file.seek(location.offset);
+            file.readFully(entry);
+        } finally {
+            file.close();
+        }
+        return entry;
+    }
+
+    @Override
+    public synchronized void put(String key, byte[] entry) throws IOException {
+        if(entry.length > maxSize) {
+            return;
+        }
+        Segment segment = segments.peekLast();
+        if(current == null || segment.size >= segmentSize) {
+            segment = startSegment();
+        }
+        final ByteArrayOutputStream header = new ByteArrayOutputStream();
+        final DataOutputStream dos = new DataOutputStream(header);
+        dos.writeInt(RECORD_MAGIC);
+        dos.writeUTF(key);
+        dos.writeInt(entry.length);
+        dos.flush();
+        current.write(header.toByteArray());
+        current.write(entry);
+        current.flush();
+        final long offset = segment.size + header.size();
+        segment.size = offset + entry.length;
+        size += header.size() + entry.length;
+        index.put(key, new Location(segment, offset, entry.length));
+        evict();
+    }
+
+    /**
+     * @return the number of indexed entries.
+     */
+    public synchronized int getEntries() {
+        return index.size();
+    }
+
+    /**
+     * @return the number of segment files.
+     */
+    public synchronized int getSegments() {
+        return segments.size();
+    }
+
+    @Override
+    public synchronized long getSize() {
+        return size;
+    }
+
+    @Override
+    public synchronized void clear() throws IOException {
+        closeCurrent();
+        for(Segment segment : segments) {
+            deleteSegment(segment);
+        }
+        segments.clear();
+        index.clear();
+        size = 0;
+    }
+
+    /**
+     * Closes the segment being written and releases the directory lock.
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            closeCurrent();
+        } finally {
+            unlock();
+        }
+    }
+
+    private Segment startSegment() throws IOException {
+        if(lock == null) {
+            throw new IOException("The cache store on " + directory + " has been closed.");
+        }
+        closeCurrent();
+        while(true) {
+            final Segment segment = new Segment(
+                    new File(directory, SEGMENT_PREFIX + nextSegmentId++ + SEGMENT_SUFFIX)
+            );
+            try {
+                current = Files.newOutputStream(
+                        segment.file.toPath(), StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE
+                );
+            } catch (FileAlreadyExistsException faee) {
+                logger.warn("Skipping existing cache segment {}", segment.file);
+                continue;
+            }
+            segments.addLast(segment);
+            return segment;
+        }
+    }
+
+    private void lock() throws IOException {
+        final File file = new File(directory, LOCK_FILE);
+        lockFile = new RandomAccessFile(file, "rw");
+        try {
+            lock = lockFile.getChannel().tryLock();
+        } catch (OverlappingFileLockException ofle) {
+            lock = null;
+        } catch (IOException ioe) {
+            lockFile.close();
+            throw ioe;
+        }
+        if(lock == null) {
+            lockFile.close();
+            throw new DirectoryLockedException(directory);
+        }
+    }
+
+    private void unlock() throws IOException {
+        if(lockFile == null) {
+            return;
+        }
+        try {
+            lock.release();
+        } finally {
+            lockFile.close();
+            lockFile = null;
+            lock = null;
+        }
+    }
+
+    private void closeCurrent() throws IOException {
+        if(current != null) {
+            current.close();
+            current = null;
+        }
+    }
+
+    /**
+     * Deletes the oldest segments until the size is within the capacity,
+     * the segment being written is never deleted.
+     */
+    private void evict() throws IOException {
+        while(size > maxSize && segments.size() > 1) {
+            final Segment oldest = segments.removeFirst();
+            final Iterator<Location> locations = index.values().iterator();
+            while(locations.hasNext()) {
+                if(locations.next().segment == oldest) {
+                    locations.remove();
+                }
+            }
+            size -= oldest.size;
+            deleteSegment(oldest);
+        }
+    }
+
+    private void deleteSegment(Segment segment) {
+        if(!segment.file.delete()) {
+            logger.warn("Cannot delete cache segment {}", segment.file);
+        }
+    }
+
+    /**
+     * Rebuilds the index from the existing segments, records truncated by
+     * an interrupted write are ignored. New entries go to a new segment.
+     */
+    private void load() throws IOException {
+        final File[] files = directory.listFiles();
+        final List<Long> ids = new ArrayList<Long>();
+        if(files != null) {
+            for(File file : files) {
+                final String name = file.getName();
+                if(name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+                    try {
+                        ids.add(Long.parseLong(
+                                name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length())
+                        ));
+                    } catch (NumberFormatException nfe) {
+                        logger.warn("Ignoring unexpected file {} in cache directory.", file);
+                    }
+                }
+            }
+        }
+        Collections.sort(ids);
+        for(Long id : ids) {
+            final Segment segment = new Segment(new File(directory, SEGMENT_PREFIX + id + SEGMENT_SUFFIX));
+            scanSegment(segment);
+            segments.addLast(segment);
+            size += segment.size;
+            nextSegmentId = id + 1;
+        }
+        evict();
+    }
+
+    private void scanSegment(Segment segment) throws IOException {
+        final DataInputStream dis = new DataInputStream(
+                new BufferedInputStream(new FileInputStream(segment.file))
+        );
+        try {
+            long position = 0;
+            final long fileLength = segment.file.length();
+            while(true) {
+                final String key;
+                final int length;
+                try {
+                    if(dis.readInt() != RECORD_MAGIC) {
+                        logger.warn("Corrupted cache segment {} at offset {}", segment.file, position);
+                        break;
+                    }
+                    key = dis.readUTF();
+                    length = dis.readInt();
+                } catch (EOFException eofe) {
+                    break;
+                }
+                final long offset = position + 4 + 2 + utfLength(key) + 4;
+                if(length < 0 || offset + length > fileLength) {
+                    break;
+                }
+                dis.skipBytes(length);
+                index.put(key, new Location(segment, offset, length));
+                position = offset + length;
+            }
+            segment.size = position;
+        } finally {
+            dis.close();
+        }
+    }
+
+    private static int utfLength(String key) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        new DataOutputStream(baos).writeUTF(key);
+        return baos.size() - 2;
+    }
+
+    /**
+     * Thrown when the cache directory is locked by another store,
+     * in this or in another process.
+     */
+    public static class DirectoryLockedException extends IOException {
+
+        public DirectoryLockedException(File directory) {
+            super("The cache directory " + directory + " is in use by another store.");
+        }
+    }
+
+    /**
+     * A segment file.
+     */
+    private static class Segment {
+
+        final File file;
+
+        long size = 0;
+
+        Segment(File file) {
+            this.file = file;
+        }
+    }
+
+    /**
+     * The position of an entry in a segment.
+     */
+    private static class Location {
+
+        final Segment segment;
+
+        final long offset;
+
+        final int length;
+
+        Location(Segment segment, long offset, int length) {
+            this.segment = segment;
+            this.offset = offset;
+            this.length = length;
+        }
+    }
+
+}
@@ -72,6 +72,8 @@ public class ExtractionResultImpl implements TagSoupExtractionResult {
 
     private boolean isInitialized = false;
 
+    private int triplesCount = 0;
+
     private List<Issue> issues;
 
     private List<ResourceRoot> resourceRoots;
@@ -118,6 +120,17 @@ public class ExtractionResultImpl implements TagSoupExtractionResult {
         return issues.size();
     }
 
+    /**
+     * @return the number of triples written to this result and all its sub results.
+     */
+    public int getTriplesCount() {
+        int count = triplesCount;
+        for (ExtractionResult er : subResults) {
+            count += ((ExtractionResultImpl) er).getTriplesCount();
+        }
+        return count;
+    }
+
     @Override
     public void printReport(PrintStream ps) {
         ps.print(String.format("Context: %s [errors: %d] {\n", context, getIssuesCount()));
@@ -165,6 +178,7 @@ public class ExtractionResultImpl implements TagSoupExtractionResult {
         checkOpen();
         try {
             tripleHandler.receiveTriple(s, p, o, g, context);
+            triplesCount++;
         } catch (TripleHandlerException e) {
             throw new RuntimeException(
                     String.format("Error while receiving triple %s %s %s", s, p, o ),
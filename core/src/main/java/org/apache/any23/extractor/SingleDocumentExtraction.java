@@ -22,11 +22,17 @@ import org.apache.any23.configuration.DefaultConfiguration;
 import org.apache.any23.encoding.EncodingDetector;
 import org.apache.any23.encoding.TikaEncodingDetector;
 import org.apache.any23.extractor.html.DocumentReport;
+import org.apache.any23.extractor.html.DomUtils;
 import org.apache.any23.extractor.html.HTMLDocument;
 import org.apache.any23.extractor.html.MicroformatExtractor;
 import org.apache.any23.extractor.html.TagSoupParser;
+import org.apache.any23.metrics.MetricsRegistry;
+import org.apache.any23.metrics.NoOpMetricsRegistry;
+import org.apache.any23.metrics.ThreadAllocation;
+import org.apache.any23.mime.DetectionCache;
 import org.apache.any23.mime.MIMEType;
 import org.apache.any23.mime.MIMETypeDetector;
+import org.apache.any23.mime.SniffedDocument;
 import org.apache.any23.rdf.Any23ValueFactoryWrapper;
 import org.apache.any23.rdf.RDFUtils;
 import org.apache.any23.source.DocumentSource;
@@ -35,6 +41,7 @@ import org.apache.any23.source.MemCopyFactory;
 import org.apache.any23.validator.EmptyValidationReport;
 import org.apache.any23.validator.ValidatorException;
 import org.apache.any23.vocab.SINDICE;
+import org.apache.any23.writer.BufferedTripleHandler;
 import org.apache.any23.writer.CompositeTripleHandler;
 import org.apache.any23.writer.CountingTripleHandler;
 import org.apache.any23.writer.TripleHandler;
@@ -47,6 +54,7 @@ import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
 
 import java.io.BufferedInputStream;
 import java.io.ByteArrayOutputStream;
@@ -62,6 +70,14 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.apache.any23.extractor.TagSoupExtractionResult.PropertyPath;
 import static org.apache.any23.extractor.TagSoupExtractionResult.ResourceRoot;
@@ -75,6 +91,8 @@ public class SingleDocumentExtraction {
 
     private final static Logger log = LoggerFactory.getLogger(SingleDocumentExtraction.class);
 
+    private static ExecutorService extractorThreads;
+
     private final Configuration configuration;
 
     private final DocumentSource in;
@@ -91,6 +109,8 @@ public class SingleDocumentExtraction {
 
     private DocumentSource localDocumentSource = null;
 
+    private SniffedDocument sniffedDocument = null;
+
     private MIMETypeDetector detector = null;
 
     private ExtractorGroup matchingExtractors = null;
@@ -103,6 +123,14 @@ public class SingleDocumentExtraction {
 
     private String parserEncoding = null;
 
+    private ExecutorService executorService = null;
+
+    private MetricsRegistry metrics = NoOpMetricsRegistry.getInstance();
+
+    private DetectionCache detectionCache = null;
+
+    private String detectionCacheKey = null;
+
     /**
      * Builds an extractor by the specification of document source,
      * list of extractors and output triple handler.
@@ -192,6 +220,41 @@ public class SingleDocumentExtraction {
         this.detector = detector;
     }
 
+    /**
+     * Sets the executor used to run the matching extractors concurrently when the
+     * {@link ExtractionParameters#PARALLEL_EXTRACTION_FLAG} is active. If <code>null</code>
+     * a pool shared by all the extractions is used, see {@link #getExtractorThreads()}.
+     * The executor is not shut down by this class.
+     *
+     * @param executorService executor instance.
+     */
+    public void setExecutorService(ExecutorService executorService) {
+        this.executorService = executorService;
+    }
+
+    /**
+     * Sets the registry collecting the extraction metrics,
+     * if <code>null</code> no metrics will be collected.
+     *
+     * @param metrics registry instance.
+     * @see MetricsRegistry
+     */
+    public void setMetricsRegistry(MetricsRegistry metrics) {
+        this.metrics = metrics == null ? NoOpMetricsRegistry.getInstance() : metrics;
+    }
+
+    /**
+     * Sets the cache of the <i>MIME type</i> and <i>encoding</i> verdicts
+     * shared among the documents of the same origin,
+     * if <code>null</code> every document is detected from its content.
+     *
+     * @param detectionCache cache instance.
+     * @see DetectionCache
+     */
+    public void setDetectionCache(DetectionCache detectionCache) {
+        this.detectionCache = detectionCache;
+    }
+
     /**
      * Triggers the execution of all the {@link Extractor}
      * registered to this class using the specified extraction parameters.
@@ -207,8 +270,11 @@ public class SingleDocumentExtraction {
             extractionParameters = ExtractionParameters.newDefault(configuration);
         }
 
+        final long startTime = System.nanoTime();
         final String contextIRI = extractionParameters.getProperty(ExtractionParameters.EXTRACTION_CONTEXT_IRI_PROPERTY);
         ensureHasLocalCopy();
+        metrics.incrementCounter(MetricsRegistry.DOCUMENT_COUNT, 1);
+        metrics.incrementCounter(MetricsRegistry.DOCUMENT_BYTES, Math.max(0, localDocumentSource.getContentLength()));
         try {
             this.documentIRI = new Any23ValueFactoryWrapper(
                     SimpleValueFactory.getInstance()
@@ -250,17 +316,31 @@ public class SingleDocumentExtraction {
 	        // Create the document context.
 	        try {
 	            final String documentLanguage = extractDocumentLanguage(extractionParameters);
-	            for (ExtractorFactory<?> factory : matchingExtractors) {
-	                @SuppressWarnings("rawtypes")
-	                final Extractor extractor = factory.createExtractor();
-	                final SingleExtractionReport er = runExtractor(
+	            if(
+	                    extractionParameters.getFlag(ExtractionParameters.PARALLEL_EXTRACTION_FLAG)
+	                            &&
+	                    matchingExtractors.getNumOfExtractors() > 1
+	            ) {
+	                runExtractorsConcurrently(
 	                        extractionParameters,
 	                        documentLanguage,
-	                        extractor
+	                        resourceRoots,
+	                        propertyPaths,
+	                        extractorToIssues
 	                );
-	                resourceRoots.addAll( er.resourceRoots );
-	                propertyPaths.addAll( er.propertyPaths );
-	                extractorToIssues.put(factory.getExtractorName(), er.issues);
+	            } else {
+	                for (ExtractorFactory<?> factory : matchingExtractors) {
+	                    @SuppressWarnings("rawtypes")
+	                    final Extractor extractor = factory.createExtractor();
+	                    final SingleExtractionReport er = runExtractor(
+	                            extractionParameters,
+	                            documentLanguage,
+	                            extractor
+	                    );
+	                    resourceRoots.addAll( er.resourceRoots );
+	                    propertyPaths.addAll( er.propertyPaths );
+	                    extractorToIssues.put(factory.getExtractorName(), er.issues);
+	                }
 	            }
 	        } catch(ValidatorException ve) {
 	            throw new ExtractionException("An error occurred during the validation phase.", ve);
@@ -290,6 +370,7 @@ public class SingleDocumentExtraction {
 	            }
 	        }
         } finally {
+	        metrics.recordTime(MetricsRegistry.DOCUMENT_TIME, System.nanoTime() - startTime);
 	        try {
 	            output.endDocument(documentIRI);
 	        } catch (TripleHandlerException e) {
@@ -422,12 +503,25 @@ public class SingleDocumentExtraction {
             return;
         }
         ensureHasLocalCopy();
-        detectedMIMEType = detector.guessMIMEType(
-                java.net.URI.create(documentIRI.stringValue()).getPath(),
-                localDocumentSource.openInputStream(),
-                MIMEType.parse(localDocumentSource.getContentType())
-        );
-        log.debug("detected media type: " + detectedMIMEType);
+        final String cachedMIMEType = getDetectionCacheKey() == null
+                ? null : detectionCache.getMIMEType(detectionCacheKey);
+        if (cachedMIMEType != null) {
+            metrics.incrementCounter(MetricsRegistry.DOCUMENT_DETECT_CACHE_HITS, 1);
+            detectedMIMEType = MIMEType.parse(cachedMIMEType);
+            log.debug("cached media type: " + detectedMIMEType);
+        } else {
+            final long startTime = System.nanoTime();
+            detectedMIMEType = detector.guessSniffedMIMEType(
+                    java.net.URI.create(documentIRI.stringValue()).getPath(),
+                    getSniffedDocument(),
+                    MIMEType.parse(localDocumentSource.getContentType())
+            );
+            metrics.recordTime(MetricsRegistry.DOCUMENT_DETECT_TIME, System.nanoTime() - startTime);
+            log.debug("detected media type: " + detectedMIMEType + " " + sniffedDocument.getVerdicts());
+            if (detectionCacheKey != null && detectedMIMEType != null) {
+                detectionCache.recordMIMEType(detectionCacheKey, detectedMIMEType.toString());
+            }
+        }
         matchingExtractors = extractors.filterByMIMEType(detectedMIMEType);
     }
 
@@ -445,17 +539,45 @@ public class SingleDocumentExtraction {
             final ExtractionParameters extractionParameters,
             final String documentLanguage,
             final Extractor<?> extractor
+    ) throws ExtractionException, IOException, ValidatorException {
+        return runExtractor(extractionParameters, documentLanguage, extractor, null, output);
+    }
+
+    /**
+     * Triggers the execution of a specific {@link Extractor} sending the extracted
+     * data to the given handler.
+     *
+     * @param extractionParameters the parameters used for the extraction.
+     * @param documentLanguage the document language, can be <code>null</code>.
+     * @param extractor the {@link Extractor} to be executed.
+     * @param document the DOM processed by a {@link TagSoupDOMExtractor}, if <code>null</code>
+     *        the shared document DOM will be used.
+     * @param handler the handler receiving the extracted data.
+     * @return the roots of the resources that have been extracted.
+     * @throws ExtractionException if an error specific to an extractor happens.
+     * @throws IOException if an IO error occurs during the extraction.
+     * @throws ValidatorException if an error occurs during validation.
+     */
+    private SingleExtractionReport runExtractor(
+            final ExtractionParameters extractionParameters,
+            final String documentLanguage,
+            final Extractor<?> extractor,
+            final Document document,
+            final TripleHandler handler
     ) throws ExtractionException, IOException, ValidatorException {
         if(log.isDebugEnabled()) {
             log.debug("Running {} on {}", extractor.getDescription().getExtractorName(), documentIRI);
         }
-        long startTime = System.currentTimeMillis();
+        final long startTime = System.nanoTime();
+        final long startAllocated = ThreadAllocation.getCurrentThreadAllocatedBytes();
         final ExtractionContext extractionContext = new ExtractionContext(
                 extractor.getDescription().getExtractorName(),
                 documentIRI,
-                documentLanguage
+                documentLanguage,
+                ExtractionContext.ROOT_EXTRACTION_RESULT_ID,
+                extractor instanceof BlindExtractor ? null : getParserEncoding()
         );
-        final ExtractionResultImpl extractionResult = new ExtractionResultImpl(extractionContext, extractor, output);
+        final ExtractionResultImpl extractionResult = new ExtractionResultImpl(extractionContext, extractor, handler);
         try {
             if (extractor instanceof BlindExtractor) {
                 final BlindExtractor blindExtractor = (BlindExtractor) extractor;
@@ -471,11 +593,10 @@ public class SingleDocumentExtraction {
                 );
             } else if (extractor instanceof TagSoupDOMExtractor) {
                 final TagSoupDOMExtractor tagSoupDOMExtractor = (TagSoupDOMExtractor) extractor;
-                final DocumentReport documentReport = getTagSoupDOM(extractionParameters);
                 tagSoupDOMExtractor.run(
                         extractionParameters,
                         extractionContext,
-                        documentReport.getDocument(),
+                        document == null ? getTagSoupDOM(extractionParameters).getDocument() : document,
                         extractionResult
                 );
             } else {
@@ -501,11 +622,238 @@ public class SingleDocumentExtraction {
             }
             extractionResult.close();
 
-            long elapsed = System.currentTimeMillis() - startTime;
+            final long elapsed = System.nanoTime() - startTime;
+            final String extractorName = extractor.getDescription().getExtractorName();
+            metrics.recordTime(MetricsRegistry.EXTRACTOR_TIME_PREFIX + extractorName, elapsed);
+            metrics.incrementCounter(
+                    MetricsRegistry.EXTRACTOR_TRIPLES_PREFIX + extractorName, extractionResult.getTriplesCount()
+            );
+            metrics.incrementCounter(
+                    MetricsRegistry.EXTRACTOR_ISSUES_PREFIX + extractorName, extractionResult.getIssuesCount()
+            );
+            if(startAllocated >= 0) {
+                // the extractor runs on a single thread, the lazy DOM parse is charged to the first one.
+                metrics.incrementCounter(
+                        MetricsRegistry.EXTRACTOR_ALLOCATED_PREFIX + extractorName,
+                        ThreadAllocation.getCurrentThreadAllocatedBytes() - startAllocated
+                );
+            }
             if(log.isDebugEnabled()) {
-                log.debug("Completed " + extractor.getDescription().getExtractorName() + ", " + elapsed + "ms");
+                log.debug("Completed " + extractorName + ", " + TimeUnit.NANOSECONDS.toMillis(elapsed) + "ms");
+            }
+        }
+    }
+
+    /**
+     * Runs all the matching extractors concurrently. Every extractor writes into
+     * its own buffer, the buffers are then sent to the output handler in the
+     * extractor order, so that the produced output is the same of the sequential run.
+     * Every {@link TagSoupDOMExtractor} works on a private copy of the document DOM,
+     * at most {@link ExtractionParameters#PARALLEL_EXTRACTION_THREADS_PROPERTY} extractors
+     * of the document are submitted at once.
+     *
+     * @param extractionParameters the parameters used for the extraction.
+     * @param documentLanguage the document language, can be <code>null</code>.
+     * @param resourceRoots list collecting the extracted resource roots.
+     * @param propertyPaths list collecting the extracted property paths.
+     * @param extractorToIssues map collecting the issues of every extractor.
+     * @throws ExtractionException if an error specific to an extractor happens.
+     * @throws IOException if an IO error occurs during the extraction.
+     * @throws ValidatorException if an error occurs during validation.
+     */
+    private void runExtractorsConcurrently(
+            final ExtractionParameters extractionParameters,
+            final String documentLanguage,
+            final List<ResourceRoot> resourceRoots,
+            final List<PropertyPath> propertyPaths,
+            final Map<String,Collection<IssueReport.Issue>> extractorToIssues
+    ) throws ExtractionException, IOException, ValidatorException {
+        final int threads = getParallelThreads(extractionParameters);
+
+        // Everything shared among the extractors is prepared on the current thread.
+        ensureHasLocalCopy();
+        getParserEncoding();
+        final List<Extractor<?>> extractorsList = new ArrayList<Extractor<?>>();
+        int domExtractors = 0;
+        for (ExtractorFactory<?> factory : matchingExtractors) {
+            final Extractor<?> extractor = factory.createExtractor();
+            if (extractor instanceof TagSoupDOMExtractor) {
+                domExtractors++;
             }
+            extractorsList.add(extractor);
+        }
+        // Extractors can modify the DOM they receive (e.g. the hCard includes),
+        // so every one works on its own copy of the untouched document.
+        final Document originalDocument =
+                domExtractors > 0 ? getTagSoupDOM(extractionParameters).getDocument() : null;
+
+        final ExecutorService executor = executorService == null ? getExtractorThreads() : executorService;
+        final List<BufferedTripleHandler> buffers = new ArrayList<BufferedTripleHandler>();
+        for (int i = 0; i < extractorsList.size(); i++) {
+            buffers.add(new BufferedTripleHandler());
+        }
+        final List<Future<SingleExtractionReport>> futures = new ArrayList<Future<SingleExtractionReport>>();
+        try {
+            // The next extractor is submitted when the oldest completes, bounding the live DOM copies.
+            while (futures.size() < Math.min(threads, extractorsList.size())) {
+                final int i = futures.size();
+                futures.add(submitExtractor(
+                        executor, extractionParameters, documentLanguage,
+                        extractorsList.get(i), buffers.get(i), originalDocument
+                ));
+            }
+
+            for (int i = 0; i < extractorsList.size(); i++) {
+                final String extractorName = extractorsList.get(i).getDescription().getExtractorName();
+                final SingleExtractionReport er;
+                try {
+                    er = futures.get(i).get();
+                    if (futures.size() < extractorsList.size()) {
+                        final int next = futures.size();
+                        futures.add(submitExtractor(
+                                executor, extractionParameters, documentLanguage,
+                                extractorsList.get(next), buffers.get(next), originalDocument
+                        ));
+                    }
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                    throw new ExtractionException("Interrupted while waiting for extractor " + extractorName, ie);
+                } catch (ExecutionException ee) {
+                    // The data produced before the failure is delivered as in the sequential run.
+                    replay(buffers.get(i), extractorName);
+                    throw asExtractionFailure(ee.getCause());
+                }
+                replay(buffers.get(i), extractorName);
+                resourceRoots.addAll( er.resourceRoots );
+                propertyPaths.addAll( er.propertyPaths );
+                extractorToIssues.put(extractorName, er.issues);
+            }
+        } finally {
+            // Only the extractors of this document are stopped, the executor can be shared.
+            for (Future<SingleExtractionReport> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private Future<SingleExtractionReport> submitExtractor(
+            ExecutorService executor,
+            final ExtractionParameters extractionParameters,
+            final String documentLanguage,
+            final Extractor<?> extractor,
+            final BufferedTripleHandler buffer,
+            final Document originalDocument
+    ) {
+        return executor.submit(new Callable<SingleExtractionReport>() {
+            @Override
+            public SingleExtractionReport call() throws Exception {
+                if (!(extractor instanceof TagSoupDOMExtractor)) {
+                    return runExtractor(extractionParameters, documentLanguage, extractor, null, buffer);
+                }
+                final Document document;
+                synchronized (originalDocument) {
+                    document = DomUtils.copyDocument(originalDocument);
+                }
+                return runExtractor(extractionParameters, documentLanguage, extractor, document, buffer);
+            }
+        });
+    }
+
+    /**
+     * Returns the pool shared by all the extractions running their extractors concurrently
+     * without an executor, created on first use with the number of daemon threads declared by the
+     * <i>any23.extraction.parallel.threads</i> default configuration property.
+     *
+     * @return the shared executor.
+     */
+    static synchronized ExecutorService getExtractorThreads() {
+        if (extractorThreads == null) {
+            final int threads = DefaultConfiguration.singleton().getPropertyIntOrFail(
+                    ExtractionParameters.PARALLEL_EXTRACTION_THREADS_PROPERTY
+            );
+            extractorThreads = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                private final AtomicInteger threadCounter = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "any23-extractor-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return extractorThreads;
+    }
+
+    /**
+     * Sends the data buffered for an extractor to the output handler.
+     *
+     * @param buffer the extractor buffer.
+     * @param extractorName name of the extractor which produced the data.
+     * @throws ExtractionException if an error occurs while writing the data.
+     */
+    private void replay(BufferedTripleHandler buffer, String extractorName) throws ExtractionException {
+        try {
+            buffer.replay(output);
+        } catch (TripleHandlerException the) {
+            throw new ExtractionException(
+                    String.format("Error while writing data produced by extractor %s", extractorName),
+                    the
+            );
+        } finally {
+            buffer.clear();
+        }
+    }
+
+    /**
+     * Rethrows the cause of a concurrent extractor failure with its original type.
+     *
+     * @param cause failure cause.
+     * @return an {@link ExtractionException} wrapping unexpected checked causes.
+     * @throws ExtractionException if the cause is of this type.
+     * @throws IOException if the cause is of this type.
+     * @throws ValidatorException if the cause is of this type.
+     */
+    private ExtractionException asExtractionFailure(Throwable cause)
+    throws ExtractionException, IOException, ValidatorException {
+        if (cause instanceof ExtractionException) throw (ExtractionException) cause;
+        if (cause instanceof IOException)         throw (IOException) cause;
+        if (cause instanceof ValidatorException)  throw (ValidatorException) cause;
+        if (cause instanceof RuntimeException)    throw (RuntimeException) cause;
+        if (cause instanceof Error)               throw (Error) cause;
+        return new ExtractionException("Unexpected error during concurrent extraction.", cause);
+    }
+
+    /**
+     * Reads the {@link ExtractionParameters#PARALLEL_EXTRACTION_THREADS_PROPERTY} value.
+     *
+     * @param extractionParameters the extraction parameters.
+     * @return the max number of extractors concurrently run on the document.
+     * @throws IllegalArgumentException if the property is not a positive integer.
+     */
+    public static int getParallelThreads(ExtractionParameters extractionParameters) {
+        final String value =
+                extractionParameters.getProperty(ExtractionParameters.PARALLEL_EXTRACTION_THREADS_PROPERTY).trim();
+        final int threads;
+        try {
+            threads = Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Invalid value '%s' for property '%s'",
+                            value, ExtractionParameters.PARALLEL_EXTRACTION_THREADS_PROPERTY
+                    ),
+                    nfe
+            );
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Property '%s' must be a positive integer, found %d",
+                            ExtractionParameters.PARALLEL_EXTRACTION_THREADS_PROPERTY, threads
+                    )
+            );
         }
+        return threads;
     }
 
     /**
@@ -525,6 +873,43 @@ public class SingleDocumentExtraction {
         localDocumentSource = copyFactory.createLocalCopy(in);
     }
 
+    /**
+     * @return the key of the document in the detection cache, <code>null</code>
+     *         if no cache is set or the document is not cacheable.
+     * @throws IOException if an error occurs while retrieving the document.
+     */
+    private String getDetectionCacheKey() throws IOException {
+        if (detectionCache == null) {
+            return null;
+        }
+        if (detectionCacheKey == null) {
+            ensureHasLocalCopy();
+            detectionCacheKey = DetectionCache.createKey(
+                    documentIRI.stringValue(), localDocumentSource.getContentType()
+            );
+        }
+        return detectionCacheKey;
+    }
+
+    /**
+     * Reads the bounded document prefix shared by the detectors.
+     *
+     * @return the sniffed document.
+     * @throws IOException if an error occurs while reading the document.
+     */
+    private SniffedDocument getSniffedDocument() throws IOException {
+        if (sniffedDocument == null) {
+            ensureHasLocalCopy();
+            final InputStream is = localDocumentSource.openInputStream();
+            try {
+                sniffedDocument = new SniffedDocument(is);
+            } finally {
+                is.close();
+            }
+        }
+        return sniffedDocument;
+    }
+
     /**
      * Returns the DOM of the given document source (that must be an HTML stream)
      * and the report of eventual fixes applied on it.
@@ -542,6 +927,7 @@ public class SingleDocumentExtraction {
             is.mark(Integer.MAX_VALUE);
             final String candidateEncoding = getParserEncoding();
             is.reset();
+            final long startTime = System.nanoTime();
             final TagSoupParser tagSoupParser = new TagSoupParser(
                     is,
                     documentIRI.stringValue(),
@@ -552,6 +938,7 @@ public class SingleDocumentExtraction {
             } else {
                 documentReport = new DocumentReport( EmptyValidationReport.getInstance(), tagSoupParser.getDOM() );
             }
+            metrics.recordTime(MetricsRegistry.DOCUMENT_PARSE_TIME, System.nanoTime() - startTime);
             tagSoupDOMRelatedParameters = extractionParameters;
         }
         return documentReport;
@@ -564,37 +951,24 @@ public class SingleDocumentExtraction {
      */
     private String detectEncoding() {
         try {
-            ensureHasLocalCopy();
-            InputStream is = new BufferedInputStream(localDocumentSource.openInputStream());
-            String encoding = this.encoderDetector.guessEncoding(is);
-            is.close();
+            final String cachedEncoding = getDetectionCacheKey() == null
+                    ? null : detectionCache.getEncoding(detectionCacheKey);
+            if (cachedEncoding != null) {
+                metrics.incrementCounter(MetricsRegistry.DOCUMENT_DETECT_CACHE_HITS, 1);
+                return cachedEncoding;
+            }
+            final long startTime = System.nanoTime();
+            String encoding = this.encoderDetector.guessSniffedEncoding(getSniffedDocument());
+            metrics.recordTime(MetricsRegistry.DOCUMENT_ENCODING_TIME, System.nanoTime() - startTime);
+            if (detectionCacheKey != null) {
+                detectionCache.recordEncoding(detectionCacheKey, encoding);
+            }
             return encoding;
         } catch (Exception e) {
             throw new RuntimeException("An error occurred while trying to detect the input encoding.", e);
         }
     }
 
-    /**
-     * This function verifies if the <i>candidateSub</i> list of strings
-     * is a prefix of <i>list</i>.
-     *
-     * @param list a list of strings.
-     * @param candidateSub a list of strings.
-     * @return <code>true</code> if <i>candidateSub</i> is a sub path of <i>list</i>,
-     *         <code>false</code> otherwise.
-     */
-    private boolean subPath(String[] list, String[] candidateSub) {
-        if(candidateSub.length > list.length) {
-            return false;
-        }
-        for(int i = 0; i < candidateSub.length; i++) {
-            if( ! candidateSub[i].equals(list[i])) {
-                return false;
-            }
-        }
-        return true;
-    }
-
     /**
      * Adds for every resource root node a page domain triple.
      *
@@ -662,13 +1036,10 @@ public class SingleDocumentExtraction {
             List<PropertyPath> propertyPaths,
             ExtractionContext context
     ) throws TripleHandlerException {
-        ResourceRoot currentResourceRoot;
-        PropertyPath currentPropertyPath;
-        for (int r = 0; r < resourceRoots.size(); r++) {
-            currentResourceRoot = resourceRoots.get(r);
-            for (int p = 0; p < propertyPaths.size(); p++) {
-                currentPropertyPath = propertyPaths.get(p);
-                Class<? extends MicroformatExtractor> currentResourceRootExtractor = currentResourceRoot.getExtractor();
+        final PropertyPathIndex propertyPathIndex = new PropertyPathIndex(propertyPaths);
+        for (ResourceRoot currentResourceRoot : resourceRoots) {
+            Class<? extends MicroformatExtractor> currentResourceRootExtractor = currentResourceRoot.getExtractor();
+            for (PropertyPath currentPropertyPath : propertyPathIndex.findPrefixesOf(currentResourceRoot.getPath())) {
                 Class<? extends MicroformatExtractor> currentPropertyPathExtractor = currentPropertyPath.getExtractor();
                 // Avoid wrong nesting relationships.
                 if (currentResourceRootExtractor.equals(currentPropertyPathExtractor)) {
@@ -678,9 +1049,7 @@ public class SingleDocumentExtraction {
                 if(MicroformatExtractor.includes(currentPropertyPathExtractor, currentResourceRootExtractor)) {
                     continue;
                 }
-                if (subPath(currentResourceRoot.getPath(), currentPropertyPath.getPath())) {
-                    createNestingRelationship(currentPropertyPath, currentResourceRoot, output, context);
-                }
+                createNestingRelationship(currentPropertyPath, currentResourceRoot, output, context);
             }
         }
     }
@@ -854,6 +1223,68 @@ public class SingleDocumentExtraction {
         );
     }
 
+    /**
+     * Prefix tree of {@link PropertyPath}s keyed on their path segments,
+     * used to find the property paths enclosing a resource root in a time
+     * proportional to the depth of the root.
+     */
+    private static class PropertyPathIndex {
+
+        private final List<PropertyPath> propertyPaths;
+
+        private final Segment root = new Segment();
+
+        PropertyPathIndex(List<PropertyPath> propertyPaths) {
+            this.propertyPaths = propertyPaths;
+            for (int p = 0; p < propertyPaths.size(); p++) {
+                Segment segment = root;
+                for (String name : propertyPaths.get(p).getPath()) {
+                    Segment child = segment.children.get(name);
+                    if (child == null) {
+                        child = new Segment();
+                        segment.children.put(name, child);
+                    }
+                    segment = child;
+                }
+                segment.propertyPaths.add(p);
+            }
+        }
+
+        /**
+         * @param path a resource root path.
+         * @return the property paths being prefixes of <code>path</code>,
+         *         in the order they have been indexed.
+         */
+        List<PropertyPath> findPrefixesOf(String[] path) {
+            final List<Integer> matches = new ArrayList<Integer>(root.propertyPaths);
+            Segment segment = root;
+            for (String name : path) {
+                segment = segment.children.get(name);
+                if (segment == null) {
+                    break;
+                }
+                matches.addAll(segment.propertyPaths);
+            }
+            if (matches.isEmpty()) {
+                return Collections.emptyList();
+            }
+            Collections.sort(matches);
+            final List<PropertyPath> result = new ArrayList<PropertyPath>(matches.size());
+            for (Integer match : matches) {
+                result.add(propertyPaths.get(match));
+            }
+            return result;
+        }
+
+        /**
+         * A path segment, with the indexes of the property paths ending on it.
+         */
+        private static class Segment {
+            private final Map<String,Segment> children = new HashMap<String,Segment>();
+            private final List<Integer> propertyPaths = new ArrayList<Integer>(1);
+        }
+    }
+
     /**
      * Entity detection report.
      */
@@ -29,7 +29,9 @@ import org.apache.any23.rdf.RDFUtils;
 import org.apache.any23.vocab.CSV;
 import org.apache.commons.csv.CSVParser;
 import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
@@ -37,7 +39,14 @@ import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
 import java.util.StringTokenizer;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * This extractor produces <i>RDF</i> from a <i>CSV file</i> .
@@ -49,6 +58,16 @@ import java.util.StringTokenizer;
  */
 public class CSVExtractor implements Extractor.ContentExtractor {
 
+    /**
+     * Rows converted by a single task of the concurrent conversion, large enough
+     * to make the task scheduling cost negligible compared to the conversion.
+     */
+    private static final int ROWS_PER_TASK = 1000;
+
+    private static final long MAX_NEGATIVE_INTEGER = -(long) Integer.MIN_VALUE;
+
+    private final ValueFactory valueFactory = SimpleValueFactory.getInstance();
+
     private CSVParser csvParser;
 
     private IRI[] headerIRIs;
@@ -77,69 +96,238 @@ public class CSVExtractor implements Extractor.ContentExtractor {
 
         // get the header and generate the IRIs for column names
         String[] header = csvParser.getLine();
+        if (header == null) {
+            header = new String[0];
+        }
         headerIRIs = processHeader(header, documentIRI);
 
         // write triples to describe properties
         writeHeaderPropertiesMetadata(header, out);
 
-        String[] nextLine;
-        int index = 0;
-        while ((nextLine = csvParser.getLine()) != null) {
-            IRI rowSubject = RDFUtils.uri(
-                    documentIRI.toString(),
-                    "row/" + index
-            );
-            // add a row type
-            out.writeTriple(rowSubject, RDF.TYPE, csv.rowType);
-            // for each row produce its statements
-            produceRowStatements(rowSubject, nextLine, out);
-            // link the row to the document
-            out.writeTriple(documentIRI, csv.row, rowSubject);
-            // the progressive row number
-            out.writeTriple(
-                    rowSubject,
-                    csv.rowPosition,
-                    SimpleValueFactory.getInstance().createLiteral(String.valueOf(index))
-            );
-            index++;
+        // the rows are streamed, converted in order or concurrently
+        final int rows;
+        if (extractionParameters.getFlag(ExtractionParameters.CSV_PARALLEL_FLAG)) {
+            rows = convertConcurrently(documentIRI, getThreads(extractionParameters), out);
+        } else {
+            rows = convert(documentIRI, out);
         }
         // add some CSV metadata such as the number of rows and columns
         addTableMetadataStatements(
                 documentIRI,
                 out,
-                index,
+                rows,
                 headerIRIs.length
         );
     }
 
     /**
-     * Check whether a number is an integer.
+     * Converts all the remaining rows on the current thread.
+     *
+     * @return the number of converted rows.
+     */
+    private int convert(IRI documentIRI, ExtractionResult out) throws IOException {
+        final List<Value> statements = new ArrayList<Value>((headerIRIs.length + 3) * 3);
+        final StringBuilder rowIRI = new StringBuilder(documentIRI.toString()).append("row/");
+        final int rowIRIPrefixLength = rowIRI.length();
+        int rows = 0;
+        String[] nextLine;
+        while ((nextLine = csvParser.getLine()) != null) {
+            rowIRI.setLength(rowIRIPrefixLength);
+            convertRow(documentIRI, rowIRI, rows++, nextLine, statements);
+            writeStatements(statements, out);
+        }
+        return rows;
+    }
+
+    /**
+     * Converts all the remaining rows on the pool shared by the CSV extractors,
+     * see {@link CSVExtractorFactory#getConverters()}. The rows are parsed on the
+     * current thread, the parsed chunks are converted concurrently and their
+     * statements written in the parsing order, hence the output is identical to
+     * the one of {@link #convert(IRI, ExtractionResult)}.
+     * At most <code>2 * threads</code> chunks of the document are held in memory.
+     *
+     * @return the number of converted rows.
+     */
+    private int convertConcurrently(final IRI documentIRI, int threads, ExtractionResult out)
+    throws IOException, ExtractionException {
+        final Deque<Future<RowChunk>> pending = new ArrayDeque<Future<RowChunk>>();
+        try {
+            int rows = 0;
+            RowChunk chunk;
+            while ((chunk = readChunk(rows)) != null) {
+                rows += chunk.size;
+                final RowChunk toConvert = chunk;
+                pending.add(CSVExtractorFactory.getConverters().submit(new Callable<RowChunk>() {
+                    @Override
+                    public RowChunk call() {
+                        toConvert.convert(documentIRI);
+                        return toConvert;
+                    }
+                }));
+                if (pending.size() >= 2 * threads) {
+                    waitFor(pending.removeFirst()).writeTo(out);
+                }
+            }
+            while (!pending.isEmpty()) {
+                waitFor(pending.removeFirst()).writeTo(out);
+            }
+            return rows;
+        } finally {
+            // the pool is shared, only the tasks of this document are dropped.
+            for (Future<RowChunk> future : pending) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    private RowChunk waitFor(Future<RowChunk> future) throws ExtractionException {
+        try {
+            return future.get();
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new ExtractionException("Interrupted while converting CSV rows.", ie);
+        } catch (ExecutionException ee) {
+            throw new ExtractionException("Error while converting CSV rows.", ee.getCause());
+        }
+    }
+
+    /**
+     * Reads the next chunk of rows.
+     *
+     * @param firstIndex position of the first row of the chunk.
+     * @return the read chunk, <code>null</code> if there are no more rows.
+     */
+    private RowChunk readChunk(int firstIndex) throws IOException {
+        final String[][] rows = new String[ROWS_PER_TASK][];
+        int size = 0;
+        String[] nextLine;
+        while (size < rows.length && (nextLine = csvParser.getLine()) != null) {
+            rows[size++] = nextLine;
+        }
+        return size == 0 ? null : new RowChunk(rows, size, firstIndex);
+    }
+
+    private int getThreads(ExtractionParameters extractionParameters) {
+        final String value =
+                extractionParameters.getProperty(ExtractionParameters.CSV_PARALLEL_THREADS_PROPERTY).trim();
+        final int threads;
+        try {
+            threads = Integer.parseInt(value);
+        } catch (NumberFormatException nfe) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Invalid value '%s' for property '%s'.",
+                            value, ExtractionParameters.CSV_PARALLEL_THREADS_PROPERTY
+                    ),
+                    nfe
+            );
+        }
+        if (threads <= 0) {
+            throw new IllegalArgumentException(
+                    String.format(
+                            "Property '%s' must be > 0, found %d.",
+                            ExtractionParameters.CSV_PARALLEL_THREADS_PROPERTY, threads
+                    )
+            );
+        }
+        return threads;
+    }
+
+    /**
+     * Check whether a number is an integer, accepting the same values
+     * of {@link Integer#valueOf(String)} without raising exceptions.
      *
      * @param number
      * @return
      */
-    private boolean isInteger(String number) {
-        try {
-            Integer.valueOf(number);
-            return true;
-        } catch (NumberFormatException e) {
+    static boolean isInteger(String number) {
+        final int length = number.length();
+        int i = 0;
+        boolean negative = false;
+        if (length > 0 && (number.charAt(0) == '-' || number.charAt(0) == '+')) {
+            negative = number.charAt(0) == '-';
+            i++;
+        }
+        if (i == length) {
             return false;
         }
+        long value = 0;
+        for (; i < length; i++) {
+            final int digit = Character.digit(number.charAt(i), 10);
+            if (digit < 0) {
+                return false;
+            }
+            value = value * 10 + digit;
+            if (value > MAX_NEGATIVE_INTEGER) {
+                return false;
+            }
+        }
+        return negative || value <= Integer.MAX_VALUE;
     }
 
     /**
-     * Check whether a number is a float.
+     * Check whether a number is a float, accepting the same decimal values
+     * of {@link Float#valueOf(String)} without raising exceptions.
      *
      * @param number
      * @return
      */
-    private boolean isFloat(String number) {
-        try {
-            Float.valueOf(number);
-            return true;
-        } catch (NumberFormatException e) {
+    static boolean isFloat(String number) {
+        final int length = number.length();
+        int i = 0;
+        if (length > 0 && (number.charAt(0) == '-' || number.charAt(0) == '+')) {
+            i++;
+        }
+        if (number.startsWith("NaN", i) || number.startsWith("Infinity", i)) {
+            return number.length() == i + (number.charAt(i) == 'N' ? 3 : 8);
+        }
+        if (number.startsWith("0x", i) || number.startsWith("0X", i)) {
+            // hexadecimal floats are rare enough to be delegated.
+            try {
+                Float.valueOf(number);
+                return true;
+            } catch (NumberFormatException e) {
+                return false;
+            }
+        }
+        int digits = 0;
+        while (i < length && isDigit(number.charAt(i))) {
+            i++;
+            digits++;
+        }
+        if (i < length && number.charAt(i) == '.') {
+            i++;
+            while (i < length && isDigit(number.charAt(i))) {
+                i++;
+                digits++;
+            }
+        }
+        if (digits == 0) {
             return false;
         }
+        if (i < length && (number.charAt(i) == 'e' || number.charAt(i) == 'E')) {
+            i++;
+            if (i < length && (number.charAt(i) == '-' || number.charAt(i) == '+')) {
+                i++;
+            }
+            int exponentDigits = 0;
+            while (i < length && isDigit(number.charAt(i))) {
+                i++;
+                exponentDigits++;
+            }
+            if (exponentDigits == 0) {
+                return false;
+            }
+        }
+        if (i < length && "fFdD".indexOf(number.charAt(i)) != -1) {
+            i++;
+        }
+        return i == length;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
     }
 
     /**
@@ -158,13 +346,13 @@ public class CSVExtractor implements Extractor.ContentExtractor {
                 out.writeTriple(
                         singleHeader,
                         RDFS.LABEL,
-                        SimpleValueFactory.getInstance().createLiteral(header[index])
+                        valueFactory.createLiteral(header[index])
                 );
             }
             out.writeTriple(
                     singleHeader,
                     csv.columnPosition,
-                    SimpleValueFactory.getInstance().createLiteral(String.valueOf(index), XMLSchema.INTEGER)
+                    valueFactory.createLiteral(String.valueOf(index), XMLSchema.INTEGER)
             );
             index++;
         }
@@ -184,7 +372,7 @@ public class CSVExtractor implements Extractor.ContentExtractor {
         for (String h : header) {
             String candidate = h.trim();
             if (RDFUtils.isAbsoluteIRI(candidate)) {
-                result[index] = SimpleValueFactory.getInstance().createIRI(candidate);
+                result[index] = valueFactory.createIRI(candidate);
             } else {
                 result[index] = normalize(candidate, documentIRI);
             }
@@ -205,22 +393,22 @@ public class CSVExtractor implements Extractor.ContentExtractor {
             result.append(toUpperCase(current.charAt(0))).append(current.substring(1));
         }
 
-        return SimpleValueFactory.getInstance().createIRI(result.toString());
+        return valueFactory.createIRI(result.toString());
     }
 
     /**
-     * It writes on the provided {@link ExtractionResult}, the </>RDF statements</>
+     * It adds to the provided statements, the </>RDF statements</>
      * representing the row <i>cell</i>. If a  row <i>cell</i> is an absolute <i>IRI</i>
      * then an object property is written, literal otherwise.
      *
      * @param rowSubject
      * @param values
-     * @param out
+     * @param statements
      */
     private void produceRowStatements(
             IRI rowSubject,
             String[] values,
-            ExtractionResult out
+            List<Value> statements
     ) {
         int index = 0;
         for (String cell : values) {
@@ -234,16 +422,64 @@ public class CSVExtractor implements Extractor.ContentExtractor {
             }
             IRI predicate = headerIRIs[index];
             Value object = getObjectFromCell(cell);
-            out.writeTriple(rowSubject, predicate, object);
+            addStatement(statements, rowSubject, predicate, object);
             index++;
         }
     }
 
+    /**
+     * Produces the statements of a row.
+     *
+     * @param documentIRI the document IRI.
+     * @param rowIRI buffer holding the row IRI prefix, the row index is appended to it.
+     * @param index position of the row.
+     * @param values cells of the row.
+     * @param statements list collecting the produced statements.
+     */
+    private void convertRow(
+            IRI documentIRI,
+            StringBuilder rowIRI,
+            int index,
+            String[] values,
+            List<Value> statements
+    ) {
+        IRI rowSubject = valueFactory.createIRI(rowIRI.append(index).toString());
+        // add a row type
+        addStatement(statements, rowSubject, RDF.TYPE, csv.rowType);
+        // for each row produce its statements
+        produceRowStatements(rowSubject, values, statements);
+        // link the row to the document
+        addStatement(statements, documentIRI, csv.row, rowSubject);
+        // the progressive row number
+        addStatement(
+                statements,
+                rowSubject,
+                csv.rowPosition,
+                valueFactory.createLiteral(String.valueOf(index))
+        );
+    }
+
+    /**
+     * Writes and discards the statements collected by {@link #convertRow}.
+     */
+    private static void writeStatements(List<Value> statements, ExtractionResult out) {
+        for (int i = 0; i < statements.size(); i += 3) {
+            out.writeTriple((Resource) statements.get(i), (IRI) statements.get(i + 1), statements.get(i + 2));
+        }
+        statements.clear();
+    }
+
+    private static void addStatement(List<Value> statements, Resource subject, IRI predicate, Value object) {
+        statements.add(subject);
+        statements.add(predicate);
+        statements.add(object);
+    }
+
     private Value getObjectFromCell(String cell) {
         Value object;
         cell = cell.trim();
         if (RDFUtils.isAbsoluteIRI(cell)) {
-            object = SimpleValueFactory.getInstance().createIRI(cell);
+            object = valueFactory.createIRI(cell);
         } else {
             IRI datatype = XMLSchema.STRING;
             if (isInteger(cell)) {
@@ -251,7 +487,7 @@ public class CSVExtractor implements Extractor.ContentExtractor {
             } else if(isFloat(cell)) {
                 datatype = XMLSchema.FLOAT;
             }
-            object = SimpleValueFactory.getInstance().createLiteral(cell, datatype);
+            object = valueFactory.createLiteral(cell, datatype);
         }
         return object;
     }
@@ -273,12 +509,12 @@ public class CSVExtractor implements Extractor.ContentExtractor {
         out.writeTriple(
                 documentIRI,
                 csv.numberOfRows,
-                SimpleValueFactory.getInstance().createLiteral(String.valueOf(numberOfRows), XMLSchema.INTEGER)
+                valueFactory.createLiteral(String.valueOf(numberOfRows), XMLSchema.INTEGER)
         );
         out.writeTriple(
                 documentIRI,
                 csv.numberOfColumns,
-                SimpleValueFactory.getInstance().createLiteral(String.valueOf(numberOfColumns), XMLSchema.INTEGER)
+                valueFactory.createLiteral(String.valueOf(numberOfColumns), XMLSchema.INTEGER)
         );
     }
 
@@ -289,4 +525,41 @@ public class CSVExtractor implements Extractor.ContentExtractor {
     public ExtractorDescription getDescription() {
         return CSVExtractorFactory.getDescriptionInstance();
     }
+
+    /**
+     * A chunk of consecutive rows converted by a single task of the concurrent
+     * conversion and the statements representing them, stored as a flat list
+     * of <i>subject, predicate, object</i> values.
+     */
+    private class RowChunk {
+
+        private final String[][] rows;
+
+        private final int size;
+
+        private final int firstIndex;
+
+        private final List<Value> statements;
+
+        RowChunk(String[][] rows, int size, int firstIndex) {
+            this.rows = rows;
+            this.size = size;
+            this.firstIndex = firstIndex;
+            this.statements = new ArrayList<Value>(size * (headerIRIs.length + 3) * 3);
+        }
+
+        void convert(IRI documentIRI) {
+            final StringBuilder rowIRI = new StringBuilder(documentIRI.toString()).append("row/");
+            final int rowIRIPrefixLength = rowIRI.length();
+            for (int i = 0; i < size; i++) {
+                rowIRI.setLength(rowIRIPrefixLength);
+                convertRow(documentIRI, rowIRI, firstIndex + i, rows[i], statements);
+                rows[i] = null;
+            }
+        }
+
+        void writeTo(ExtractionResult out) {
+            writeStatements(statements, out);
+        }
+    }
 }
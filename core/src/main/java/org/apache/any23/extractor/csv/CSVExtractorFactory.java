@@ -18,7 +18,13 @@
 package org.apache.any23.extractor.csv;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.any23.configuration.DefaultConfiguration;
+import org.apache.any23.extractor.ExtractionParameters;
 import org.apache.any23.extractor.ExtractorDescription;
 import org.apache.any23.extractor.ExtractorFactory;
 import org.apache.any23.extractor.SimpleExtractorFactory;
@@ -36,6 +42,8 @@ public class CSVExtractorFactory extends SimpleExtractorFactory<CSVExtractor> im
     public static final Prefixes PREFIXES = null;
 
     private static final ExtractorDescription descriptionInstance = new CSVExtractorFactory();
+
+    private static ExecutorService converters;
     
     public CSVExtractorFactory() {
         super(
@@ -55,4 +63,29 @@ public class CSVExtractorFactory extends SimpleExtractorFactory<CSVExtractor> im
     public static ExtractorDescription getDescriptionInstance() {
         return descriptionInstance;
     }
+
+    /**
+     * Returns the pool shared by all the {@link CSVExtractor}s converting rows concurrently,
+     * created on first use with the number of daemon threads declared by the
+     * <i>any23.extraction.csv.parallel.threads</i> default configuration property.
+     *
+     * @return the shared executor.
+     */
+    static synchronized ExecutorService getConverters() {
+        if (converters == null) {
+            final int threads = DefaultConfiguration.singleton().getPropertyIntOrFail(
+                    ExtractionParameters.CSV_PARALLEL_THREADS_PROPERTY
+            );
+            converters = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                private final AtomicInteger threadCounter = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "any23-csv-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return converters;
+    }
 }
@@ -0,0 +1,351 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.extractor.html;
+
+import org.w3c.dom.Document;
+import org.w3c.dom.NamedNodeMap;
+import org.w3c.dom.Node;
+import org.w3c.dom.events.Event;
+import org.w3c.dom.events.EventListener;
+import org.w3c.dom.events.EventTarget;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Index of the elements of a {@link Document}, built in a single traversal and
+ * mapping every class token, attribute name and tag name to the list of the
+ * elements declaring it, in document order, and every <i>id</i> to its element.
+ * The index also keeps the sibling index paths used to render node <i>XPath</i>s,
+ * computed lazily the first time each node is requested.
+ * <p>
+ * The index is shared by all the extractors processing the same document through
+ * {@link DomUtils}, it is stored as document user data and discarded as soon as
+ * the document is modified, which is detected by listening to <i>DOM</i> mutation events.
+ * Documents not supporting events are never indexed.
+ * </p>
+ * As the <i>DOM</i> it describes, this class is not thread-safe.
+ */
+class DomIndex implements EventListener {
+
+    private static final String INDEX_KEY = DomIndex.class.getName();
+
+    private static final String MUTATION_EVENT = "DOMSubtreeModified";
+
+    private static final String CLASS_ATTRIBUTE = "class";
+
+    private static final String ID_ATTRIBUTE = "id";
+
+    private static final int[] DOCUMENT_PATH = new int[]{0};
+
+    private static final Pattern WHITESPACES = Pattern.compile("\\s+");
+
+    /**
+     * Values which can be matched as a single token,
+     * others are evaluated as a regular expression by the caller.
+     */
+    private static final Pattern SIMPLE_TOKEN = Pattern.compile("[A-Za-z0-9_:\\-]+");
+
+    private final Document document;
+
+    private final List<Node> elements = new ArrayList<Node>();
+
+    private final Map<Node,Integer> positions = new IdentityHashMap<Node,Integer>();
+
+    private int[] subtreeEnds;
+
+    private final Map<String,List<Node>> byClass = new HashMap<String,List<Node>>();
+
+    private final Map<String,List<Node>> byAttribute = new HashMap<String,List<Node>>();
+
+    private final Map<String,List<Node>> byTag = new HashMap<String,List<Node>>();
+
+    private final Map<String,Node> byId = new HashMap<String,Node>();
+
+    private final Map<Node,Integer> siblingIndexes = new IdentityHashMap<Node,Integer>();
+
+    private final Map<Node,int[]> paths = new IdentityHashMap<Node,int[]>();
+
+    private boolean valid = true;
+
+    /**
+     * Returns the up to date index of the document owning <code>node</code>,
+     * building it if needed.
+     *
+     * @param node any node of the document.
+     * @return the document index or <code>null</code> if the document cannot be indexed.
+     */
+    static DomIndex getIndex(Node node) {
+        final Document document = node.getNodeType() == Node.DOCUMENT_NODE
+                ? (Document) node : node.getOwnerDocument();
+        if (!(document instanceof EventTarget)) {
+            return null;
+        }
+        DomIndex index = (DomIndex) document.getUserData(INDEX_KEY);
+        if (index == null || !index.valid) {
+            index = new DomIndex(document);
+            document.setUserData(INDEX_KEY, index, null);
+        }
+        return index;
+    }
+
+    /**
+     * @param value an attribute value to be matched.
+     * @return <code>true</code> if the value can be matched against the index tokens.
+     */
+    static boolean isSimpleToken(String value) {
+        return SIMPLE_TOKEN.matcher(value).matches();
+    }
+
+    private DomIndex(Document document) {
+        this.document = document;
+        final List<Integer> ends = new ArrayList<Integer>();
+        index(document, ends);
+        subtreeEnds = new int[ends.size()];
+        for (int i = 0; i < subtreeEnds.length; i++) {
+            subtreeEnds[i] = ends.get(i);
+        }
+        ((EventTarget) document).addEventListener(MUTATION_EVENT, this, true);
+    }
+
+    /**
+     * @param node a node.
+     * @return <code>true</code> if the node is the document or one of its indexed elements.
+     */
+    boolean contains(Node node) {
+        return node == document || positions.containsKey(node);
+    }
+
+    /**
+     * @param id an element identifier.
+     * @return the first element in document order declaring the given <i>id</i>,
+     *         <code>null</code> if none.
+     */
+    Node findById(String id) {
+        return byId.get(id);
+    }
+
+    /**
+     * Returns the index of <code>node</code> among the siblings having its same type and name,
+     * as defined by {@link DomUtils#getIndexInParent(org.w3c.dom.Node)}.
+     * The first request for a child of a given parent indexes all its children.
+     *
+     * @param node a node whose parent is contained in this index.
+     * @return a non negative number.
+     */
+    int getSiblingIndex(Node node) {
+        Integer siblingIndex = siblingIndexes.get(node);
+        if (siblingIndex == null) {
+            indexChildren(node.getParentNode());
+            siblingIndex = siblingIndexes.get(node);
+            if (siblingIndex == null) {
+                throw new IllegalStateException("Cannot find a child within its parent node list.");
+            }
+        }
+        return siblingIndex;
+    }
+
+    /**
+     * Returns the sibling indexes of all the ancestors of <code>node</code>, from the document
+     * (whose index is always <code>0</code>) down to the node itself.
+     * The returned array is shared and must not be modified.
+     *
+     * @param node a node.
+     * @return the sibling index path or <code>null</code> if the node is not attached to the document.
+     */
+    int[] getPath(Node node) {
+        if (node == document) {
+            return DOCUMENT_PATH;
+        }
+        int[] path = paths.get(node);
+        if (path == null) {
+            final Node parent = node.getParentNode();
+            if (parent == null || !contains(parent)) {
+                return null;
+            }
+            final int[] parentPath = getPath(parent);
+            path = Arrays.copyOf(parentPath, parentPath.length + 1);
+            path[parentPath.length] = getSiblingIndex(node);
+            paths.put(node, path);
+        }
+        return path;
+    }
+
+    /**
+     * Finds the elements within the subtree of <code>root</code> (root included)
+     * matching all the given criteria.
+     *
+     * @param root the subtree root.
+     * @param tagName the tag name, if <code>null</code> or <code>*</code> any tag matches.
+     * @param attrName the attribute name, if <code>null</code> any element matches.
+     * @param attrContains a simple token the attribute must contain, compared ignoring case,
+     *        if <code>null</code> any value matches.
+     * @return the matching elements in document order,
+     *         or <code>null</code> if the root is not part of the indexed document.
+     */
+    List<Node> find(Node root, String tagName, String attrName, String attrContains) {
+        final int begin;
+        final int end;
+        if (root == document) {
+            begin = 0;
+            end = elements.size() - 1;
+        } else {
+            final Integer position = positions.get(root);
+            if (position == null) {
+                return null;
+            }
+            begin = position;
+            end = subtreeEnds[position];
+        }
+        final boolean anyTag = tagName == null || "*".equals(tagName);
+
+        final List<Node> candidates;
+        if (attrName != null) {
+            candidates = CLASS_ATTRIBUTE.equals(attrName) && attrContains != null
+                    ? byClass.get(attrContains.toLowerCase(Locale.ROOT))
+                    : byAttribute.get(attrName);
+        } else {
+            candidates = anyTag ? elements : byTag.get(tagName);
+        }
+        if (candidates == null) {
+            return new ArrayList<Node>();
+        }
+
+        final List<Node> result = new ArrayList<Node>();
+        for (int i = firstCandidate(candidates, begin); i < candidates.size(); i++) {
+            final Node candidate = candidates.get(i);
+            if (positions.get(candidate) > end) {
+                break;
+            }
+            if (!anyTag && !tagName.equals(candidate.getNodeName())) {
+                continue;
+            }
+            if (
+                    attrName != null && attrContains != null
+                            &&
+                    !CLASS_ATTRIBUTE.equals(attrName)
+                            &&
+                    !containsToken(candidate.getAttributes().getNamedItem(attrName).getNodeValue(), attrContains)
+            ) {
+                continue;
+            }
+            result.add(candidate);
+        }
+        return result;
+    }
+
+    @Override
+    public void handleEvent(Event event) {
+        valid = false;
+        ((EventTarget) document).removeEventListener(MUTATION_EVENT, this, true);
+    }
+
+    /**
+     * Binary search of the first candidate not preceding the given position.
+     */
+    private int firstCandidate(List<Node> candidates, int position) {
+        int low = 0;
+        int high = candidates.size();
+        while (low < high) {
+            final int middle = (low + high) >>> 1;
+            if (positions.get(candidates.get(middle)) < position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private void indexChildren(Node parent) {
+        final Map<String,Integer> counters = new HashMap<String,Integer>();
+        for (Node child = parent.getFirstChild(); child != null; child = child.getNextSibling()) {
+            final String key = child.getNodeType() + ":" + child.getNodeName();
+            final Integer previous = counters.get(key);
+            final int siblingIndex = previous == null ? 0 : previous + 1;
+            counters.put(key, siblingIndex);
+            siblingIndexes.put(child, siblingIndex);
+        }
+    }
+
+    private void index(Node node, List<Integer> ends) {
+        int position = -1;
+        if (node.getNodeType() == Node.ELEMENT_NODE) {
+            position = elements.size();
+            elements.add(node);
+            positions.put(node, position);
+            ends.add(position);
+            add(byTag, node.getNodeName(), node);
+            final NamedNodeMap attributes = node.getAttributes();
+            for (int i = 0; i < attributes.getLength(); i++) {
+                final Node attribute = attributes.item(i);
+                add(byAttribute, attribute.getNodeName(), node);
+                if (CLASS_ATTRIBUTE.equals(attribute.getNodeName())) {
+                    indexClassTokens(attribute.getNodeValue(), node);
+                } else if (ID_ATTRIBUTE.equals(attribute.getNodeName()) && !byId.containsKey(attribute.getNodeValue())) {
+                    byId.put(attribute.getNodeValue(), node);
+                }
+            }
+        }
+        for (Node child = node.getFirstChild(); child != null; child = child.getNextSibling()) {
+            index(child, ends);
+        }
+        if (position != -1) {
+            ends.set(position, elements.size() - 1);
+        }
+    }
+
+    private void indexClassTokens(String value, Node node) {
+        for (String token : WHITESPACES.split(value)) {
+            if (token.length() == 0) {
+                continue;
+            }
+            final String key = token.toLowerCase(Locale.ROOT);
+            final List<Node> nodes = byClass.get(key);
+            if (nodes != null && nodes.get(nodes.size() - 1) == node) {
+                continue; // token repeated within the same attribute.
+            }
+            add(byClass, key, node);
+        }
+    }
+
+    private static void add(Map<String,List<Node>> map, String key, Node node) {
+        List<Node> nodes = map.get(key);
+        if (nodes == null) {
+            nodes = new ArrayList<Node>();
+            map.put(key, nodes);
+        }
+        nodes.add(node);
+    }
+
+    private static boolean containsToken(String value, String token) {
+        for (String current : WHITESPACES.split(value)) {
+            if (current.equalsIgnoreCase(token)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+}
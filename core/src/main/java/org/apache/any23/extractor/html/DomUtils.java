@@ -34,10 +34,8 @@ import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
@@ -63,8 +61,7 @@ import java.util.regex.Pattern;
 public class DomUtils {
 
     private static final String[] EMPTY_STRING_ARRAY = new String[0];
-        
-    private final static XPath xPathEngine = XPathFactory.newInstance().newXPath();
+
 
     private DomUtils(){}
 
@@ -80,18 +77,11 @@ public class DomUtils {
         if(parent == null) {
             return 0;
         }
-        NodeList nodes = parent.getChildNodes();
-        int counter = -1;
-        for(int i = 0; i < nodes.getLength(); i++) {
-            Node current = nodes.item(i);
-            if ( current.getNodeType() == n.getNodeType() && current.getNodeName().equals( n.getNodeName() ) ) {
-                counter++;
-            }
-            if( current.equals(n) ) {
-                return counter;
-            }
+        final DomIndex index = DomIndex.getIndex(n);
+        if(index != null && index.contains(parent)) {
+            return index.getSiblingIndex(n);
         }
-        throw new IllegalStateException("Cannot find a child within its parent node list.");
+        return scanIndexInParent(n, parent);
     }
 
     /**
@@ -103,15 +93,14 @@ public class DomUtils {
      * @return the XPath location of node as String.
      */
     public static String getXPathForNode(Node node) {
+        final Node[] lineage = getLineage(node);
+        final int[] siblingIndexes = getSiblingIndexes(lineage);
         final StringBuilder sb = new StringBuilder();
-        Node parent = node;
-        while(parent != null && parent.getNodeType() != Node.DOCUMENT_NODE) {
-            sb.insert(0, "]");
-            sb.insert(0, getIndexInParent(parent) + 1);
-            sb.insert(0, "[");
-            sb.insert(0, parent.getNodeName());
-            sb.insert(0, "/");
-            parent = parent.getParentNode();
+        for(int i = 0; i < lineage.length; i++) {
+            if(lineage[i].getNodeType() == Node.DOCUMENT_NODE) {
+                continue;
+            }
+            sb.append('/').append( lineage[i].getNodeName() ).append('[').append(siblingIndexes[i] + 1).append(']');
         }
         return sb.toString();
     }
@@ -127,14 +116,13 @@ public class DomUtils {
         if(n == null) {
             return EMPTY_STRING_ARRAY;
         }
-        List<String> ancestors = new ArrayList<String>();
-        ancestors.add( String.format("%s[%s]", n.getNodeName(), getIndexInParent(n) ) );
-        Node parent = n.getParentNode();
-        while(parent != null) {
-            ancestors.add(0, String.format("%s[%s]", parent.getNodeName(), getIndexInParent(parent) ) );
-            parent = parent.getParentNode();
+        final Node[] lineage = getLineage(n);
+        final int[] siblingIndexes = getSiblingIndexes(lineage);
+        final String[] ancestors = new String[lineage.length];
+        for(int i = 0; i < lineage.length; i++) {
+            ancestors[i] = lineage[i].getNodeName() + '[' + siblingIndexes[i] + ']';
         }
-        return ancestors.toArray( new String[ancestors.size()] );
+        return ancestors;
     }
 
     /**
@@ -235,14 +223,20 @@ public class DomUtils {
      * @return the {@link org.w3c.dom.Node} if one exists
      */
     public static Node findNodeById(Node root, String id) {
-        Node node;
-        try {
-            String xpath = "//*[@id='" + id + "']";
-            node = (Node) xPathEngine.evaluate(xpath, root, XPathConstants.NODE);
-        } catch (XPathExpressionException ex) {
-            throw new RuntimeException("Should not happen", ex);
+        final DomIndex index = DomIndex.getIndex(root);
+        if (index != null && index.contains(root)) {
+            return index.findById(id);
+        }
+        Node top = root;
+        while (top.getParentNode() != null) {
+            top = top.getParentNode();
         }
-        return node;
+        for (Node node : traverseAllBy(top, null, "id", null)) {
+            if (id.equals(readAttribute(node, "id"))) {
+                return node;
+            }
+        }
+        return null;
     }
 
     /**
@@ -257,7 +251,7 @@ public class DomUtils {
             throw new NullPointerException("node cannot be null.");
         }
         try {
-            NodeList nodes = (NodeList) xPathEngine.evaluate(xpath, node, XPathConstants.NODESET);
+            NodeList nodes = (NodeList) XPathCache.compile(xpath).evaluate(node, XPathConstants.NODESET);
             List<Node> result = new ArrayList<Node>(nodes.getLength());
             for (int i = 0; i < nodes.getLength(); i++) {
                 result.add(nodes.item(i));
@@ -276,7 +270,7 @@ public class DomUtils {
      */
     public static String find(Node node, String xpath) {
         try {
-            String val = (String) xPathEngine.evaluate(xpath, node, XPathConstants.STRING);
+            String val = (String) XPathCache.compile(xpath).evaluate(node, XPathConstants.STRING);
             if (null == val)
                 return "";
             return val;
@@ -422,6 +416,8 @@ public class DomUtils {
 
     /**
      * High performance implementation of {@link #findAll(org.w3c.dom.Node, String)}.
+     * Lookups are answered by the {@link DomIndex} of the document when available,
+     * otherwise the subtree of <code>root</code> is traversed.
      *
      * @param root root node to start search.
      * @param tagName name of target tag.
@@ -430,13 +426,29 @@ public class DomUtils {
      * @return a {@link java.util.List} of {@link org.w3c.dom.Node}'s
      */
     private static List<Node> findAllBy(Node root, final String tagName, final String attrName, String attrContains) {
+        if ("*".equals(attrContains)) {
+            attrContains = null;
+        }
+        if (attrContains == null || DomIndex.isSimpleToken(attrContains)) {
+            final DomIndex index = DomIndex.getIndex(root);
+            if (index != null) {
+                final List<Node> result = index.find(root, tagName, attrName, attrContains);
+                if (result != null) {
+                    return result;
+                }
+            }
+        }
+        return traverseAllBy(root, tagName, attrName, attrContains);
+    }
+
+    private static List<Node> traverseAllBy(Node root, final String tagName, final String attrName, String attrContains) {
         DocumentTraversal documentTraversal = (DocumentTraversal) root.getOwnerDocument();
         if (documentTraversal == null) {
             documentTraversal = (DocumentTraversal) root;
         }
 
         final Pattern attrContainsPattern;
-        if (attrContains != null && !attrContains.equals("*")) {
+        if (attrContains != null) {
             attrContainsPattern = Pattern.compile("(^|\\s)" + attrContains + "(\\s|$)", Pattern.CASE_INSENSITIVE);
         } else {
             attrContainsPattern = null;
@@ -486,6 +498,37 @@ public class DomUtils {
         return result;
     }
     
+    /**
+     * Returns a deep copy of the given {@link org.w3c.dom.Document},
+     * preserving the {@link TagSoupParser#ELEMENT_LOCATION} of every node.
+     * Since <i>DOM</i> implementations are not thread-safe even for reading,
+     * a copy must be used for every thread concurrently accessing a document.
+     *
+     * @param document the document to be copied.
+     * @return the document copy.
+     */
+    public static Document copyDocument(Document document) {
+        if(document == null) throw new NullPointerException("document cannot be null.");
+        final Document copy = (Document) document.cloneNode(true);
+        copy.setDocumentURI(document.getDocumentURI());
+        copyElementLocations(document, copy);
+        return copy;
+    }
+
+    private static void copyElementLocations(Node from, Node to) {
+        final Object location = from.getUserData(TagSoupParser.ELEMENT_LOCATION);
+        if(location != null) {
+            to.setUserData(TagSoupParser.ELEMENT_LOCATION, location, null);
+        }
+        Node fromChild = from.getFirstChild();
+        Node toChild   = to.getFirstChild();
+        while(fromChild != null && toChild != null) {
+            copyElementLocations(fromChild, toChild);
+            fromChild = fromChild.getNextSibling();
+            toChild   = toChild.getNextSibling();
+        }
+    }
+
     /**
      * Given a {@link org.w3c.dom.Document} this method will return an
      * input stream representing that document.
@@ -543,4 +586,54 @@ public class DomUtils {
 
 
 
+    /**
+     * Returns the given node and its ancestors, from the tree root down to the node.
+     */
+    private static Node[] getLineage(Node n) {
+        int depth = 0;
+        for(Node current = n; current != null; current = current.getParentNode()) {
+            depth++;
+        }
+        final Node[] lineage = new Node[depth];
+        Node current = n;
+        for(int i = depth - 1; i >= 0; i--) {
+            lineage[i] = current;
+            current = current.getParentNode();
+        }
+        return lineage;
+    }
+
+    /**
+     * Returns the sibling index of every node of the given lineage, taking it
+     * from the document index when the lineage is attached to an indexed document.
+     */
+    private static int[] getSiblingIndexes(Node[] lineage) {
+        final Node n = lineage[lineage.length - 1];
+        final DomIndex index = DomIndex.getIndex(n);
+        final int[] path = index == null ? null : index.getPath(n);
+        if(path != null) {
+            return path;
+        }
+        final int[] siblingIndexes = new int[lineage.length];
+        for(int i = 1; i < lineage.length; i++) {
+            siblingIndexes[i] = scanIndexInParent(lineage[i], lineage[i - 1]);
+        }
+        return siblingIndexes;
+    }
+
+    private static int scanIndexInParent(Node n, Node parent) {
+        NodeList nodes = parent.getChildNodes();
+        int counter = -1;
+        for(int i = 0; i < nodes.getLength(); i++) {
+            Node current = nodes.item(i);
+            if ( current.getNodeType() == n.getNodeType() && current.getNodeName().equals( n.getNodeName() ) ) {
+                counter++;
+            }
+            if( current.equals(n) ) {
+                return counter;
+            }
+        }
+        throw new IllegalStateException("Cannot find a child within its parent node list.");
+    }
+
 }
@@ -29,10 +29,8 @@ import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import org.w3c.dom.Text;
 
-import javax.xml.xpath.XPath;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import java.net.URISyntaxException;
 import java.util.ArrayList;
 import java.util.List;
@@ -46,7 +44,6 @@ import java.util.List;
  */
 public class HTMLDocument {
 
-    private final static XPath xPathEngine = XPathFactory.newInstance().newXPath();
     private final static Logger log        = LoggerFactory.getLogger(HTMLDocument.class);
 
     private Node         document;
@@ -216,7 +213,7 @@ public class HTMLDocument {
         // failed, try to find it in a child
         try {
             String xpath = ".//" + fieldTag + "[contains(@class, '" + field + "')]/" + key;
-            String value = (String) xPathEngine.evaluate(xpath, node, XPathConstants.STRING);
+            String value = (String) XPathCache.compile(xpath).evaluate(node, XPathConstants.STRING);
             if (null == value) {
                 return "";
             }
@@ -339,7 +336,7 @@ public class HTMLDocument {
         final String xpathLanguageSelector = "/HTML";
         Node html;
         try {
-            html = (Node) xPathEngine.evaluate(xpathLanguageSelector, document, XPathConstants.NODE);
+            html = (Node) XPathCache.compile(xpathLanguageSelector).evaluate(document, XPathConstants.NODE);
         } catch (XPathExpressionException xpeee) {
             throw new IllegalStateException();
         }
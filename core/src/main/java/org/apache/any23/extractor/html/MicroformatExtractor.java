@@ -36,6 +36,12 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 /**
  * The abstract base class for any
@@ -46,6 +52,13 @@ public abstract class MicroformatExtractor implements TagSoupDOMExtractor {
     public static final String BEGIN_SCRIPT = "<script>";
     public static final String END_SCRIPT   = "</script>";
 
+    /**
+     * Extractors declared by the {@link Includes} annotation of every extractor class, read once.
+     */
+    private static final ConcurrentMap<Class<? extends MicroformatExtractor>,Set<Class<? extends MicroformatExtractor>>>
+            includedExtractors =
+            new ConcurrentHashMap<Class<? extends MicroformatExtractor>,Set<Class<? extends MicroformatExtractor>>>();
+
     private HTMLDocument htmlDocument;
 
     private ExtractionContext context;
@@ -257,18 +270,21 @@ public abstract class MicroformatExtractor implements TagSoupDOMExtractor {
     public static boolean includes(
             Class<? extends MicroformatExtractor>including,
             Class<? extends MicroformatExtractor> included) {
-        Includes includes = including.getAnnotation(Includes.class);
-        if (includes != null) {
-            Class<? extends MicroformatExtractor>[] extractors = includes.extractors();
-            if (extractors != null && extractors.length > 0) {
-                for (Class<? extends MicroformatExtractor> extractor : extractors) {
-                    if (extractor.equals(included)) {
-                        return true;
-                    }
+        Set<Class<? extends MicroformatExtractor>> declared = includedExtractors.get(including);
+        if (declared == null) {
+            declared = Collections.emptySet();
+            Includes includes = including.getAnnotation(Includes.class);
+            if (includes != null) {
+                Class<? extends MicroformatExtractor>[] extractors = includes.extractors();
+                if (extractors != null && extractors.length > 0) {
+                    declared = Collections.unmodifiableSet(
+                            new HashSet<Class<? extends MicroformatExtractor>>(Arrays.asList(extractors))
+                    );
                 }
             }
+            includedExtractors.putIfAbsent(including, declared);
         }
-        return false;
+        return declared.contains(included);
     }
 
 
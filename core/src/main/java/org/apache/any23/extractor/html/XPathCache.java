@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.extractor.html;
+
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import javax.xml.xpath.XPathFactory;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Cache of compiled {@link XPathExpression}s.
+ * Since neither {@link XPath} engines nor compiled expressions are thread-safe,
+ * every thread owns its engine and a bounded <i>LRU</i> cache of expressions,
+ * so that the same expressions are compiled once per thread and reused for every document.
+ */
+public class XPathCache {
+
+    /**
+     * Max number of compiled expressions retained by every thread.
+     */
+    public static final int MAX_CACHED_EXPRESSIONS = 256;
+
+    private static final ThreadLocal<XPathCache> instance = new ThreadLocal<XPathCache>() {
+        @Override
+        protected XPathCache initialValue() {
+            return new XPathCache();
+        }
+    };
+
+    private final XPath xPathEngine = XPathFactory.newInstance().newXPath();
+
+    private final Map<String,XPathExpression> expressions =
+            new LinkedHashMap<String,XPathExpression>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String,XPathExpression> eldest) {
+                    return size() > MAX_CACHED_EXPRESSIONS;
+                }
+            };
+
+    /**
+     * Returns the compiled form of the given expression, the returned
+     * instance must be used only by the calling thread.
+     *
+     * @param xpath the XPath expression.
+     * @return the compiled expression.
+     * @throws XPathExpressionException if the expression is not valid.
+     */
+    public static XPathExpression compile(String xpath) throws XPathExpressionException {
+        if(xpath == null) throw new NullPointerException("xpath cannot be null.");
+        return instance.get().getExpression(xpath);
+    }
+
+    private XPathCache() {}
+
+    private XPathExpression getExpression(String xpath) throws XPathExpressionException {
+        XPathExpression expression = expressions.get(xpath);
+        if (expression == null) {
+            expression = xPathEngine.compile(xpath);
+            expressions.put(xpath, expression);
+        }
+        return expression;
+    }
+
+}
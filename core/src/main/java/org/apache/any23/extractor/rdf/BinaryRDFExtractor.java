@@ -0,0 +1,273 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.extractor.rdf;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.extractor.ExtractionException;
+import org.apache.any23.extractor.ExtractionParameters;
+import org.apache.any23.extractor.ExtractionResult;
+import org.apache.any23.extractor.Extractor;
+import org.apache.any23.extractor.ExtractorDescription;
+import org.apache.any23.rdf.BinaryRDF;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extractor reading back the binary quad format written by
+ * {@link org.apache.any23.writer.BinaryRDFWriter}, see {@link BinaryRDF}.
+ * The quads keep the graph they have been written with.
+ */
+public class BinaryRDFExtractor implements Extractor.ContentExtractor {
+
+    private static final Charset UTF8 = Charset.forName("UTF-8");
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    @Override
+    public void setStopAtFirstError(boolean f) {
+        // Errors in the binary format are always fatal.
+    }
+
+    @Override
+    public ExtractorDescription getDescription() {
+        return BinaryRDFExtractorFactory.getDescriptionInstance();
+    }
+
+    @Override
+    public void run(
+            ExtractionParameters extractionParameters,
+            ExtractionContext context,
+            InputStream in,
+            ExtractionResult out
+    ) throws IOException, ExtractionException {
+        final Reader reader = new Reader(in);
+        try {
+            readHeader(reader, out);
+            int tag;
+            while((tag = reader.readTag()) != -1) {
+                switch (tag) {
+                    case BinaryRDF.QUAD:
+                        final Resource s = reader.readResource();
+                        final IRI p = reader.readIRI(reader.readByte());
+                        final Value o = reader.readValue();
+                        final int graphTag = reader.readByte();
+                        if(graphTag == BinaryRDF.NONE) {
+                            out.writeTriple(s, p, o);
+                        } else {
+                            out.writeTriple(s, p, o, reader.readIRI(graphTag));
+                        }
+                        break;
+                    case BinaryRDF.NAMESPACE:
+                        out.writeNamespace(reader.readString(), reader.readString());
+                        break;
+                    case BinaryRDF.RESET:
+                        reader.reset();
+                        break;
+                    default:
+                        throw new MalformedStreamException("unknown record tag " + tag);
+                }
+            }
+        } catch (EOFException eofe) {
+            throw new ExtractionException("Truncated binary RDF stream.", eofe, out);
+        } catch (MalformedStreamException mse) {
+            throw new ExtractionException("Malformed binary RDF stream: " + mse.getMessage(), mse, out);
+        }
+    }
+
+    private void readHeader(Reader reader, ExtractionResult out) throws IOException, ExtractionException {
+        for(byte b : BinaryRDF.MAGIC) {
+            if(reader.readTag() != b) {
+                throw new ExtractionException("Not a binary RDF stream.", null, out);
+            }
+        }
+        final int version = reader.readByte();
+        if(version != BinaryRDF.VERSION) {
+            throw new ExtractionException("Unsupported binary RDF version: " + version, null, out);
+        }
+    }
+
+    /**
+     * Raised when the stream does not respect the format.
+     */
+    private static class MalformedStreamException extends IOException {
+        MalformedStreamException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * Buffered decoder of the stream terms, holding the dictionaries.
+     */
+    private static class Reader {
+
+        private final InputStream in;
+
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+
+        private int position = 0;
+
+        private int limit = 0;
+
+        private final List<IRI> iris = new ArrayList<IRI>();
+
+        private final List<String> namespaces = new ArrayList<String>();
+
+        Reader(InputStream in) {
+            this.in = in;
+        }
+
+        void reset() {
+            iris.clear();
+            namespaces.clear();
+        }
+
+        /**
+         * @return the next byte, <code>-1</code> at the end of the stream.
+         */
+        int readTag() throws IOException {
+            if(position == limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++] & 0xFF;
+        }
+
+        int readByte() throws IOException {
+            final int b = readTag();
+            if(b == -1) {
+                throw new EOFException();
+            }
+            return b;
+        }
+
+        int readVarInt() throws IOException {
+            int value = 0;
+            for(int shift = 0; shift < 32; shift += 7) {
+                final int b = readByte();
+                value |= (b & 0x7F) << shift;
+                if((b & 0x80) == 0) {
+                    if(value < 0) {
+                        break;
+                    }
+                    return value;
+                }
+            }
+            throw new MalformedStreamException("invalid varint");
+        }
+
+        String readString() throws IOException {
+            final int length = readVarInt();
+            if(limit - position >= length) {
+                final String s = new String(buffer, position, length, UTF8);
+                position += length;
+                return s;
+            }
+            // the string spans more reads, the bytes are collected as they are actually read.
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.min(length, BUFFER_SIZE));
+            int remaining = length;
+            while(remaining > 0) {
+                if(position == limit && !fill()) {
+                    throw new EOFException();
+                }
+                final int chunk = Math.min(remaining, limit - position);
+                bytes.write(buffer, position, chunk);
+                position += chunk;
+                remaining -= chunk;
+            }
+            return new String(bytes.toByteArray(), UTF8);
+        }
+
+        Value readValue() throws IOException {
+            final int tag = readByte();
+            switch (tag) {
+                case BinaryRDF.IRI_REF:
+                case BinaryRDF.IRI_NEW:
+                    return readIRI(tag);
+                case BinaryRDF.BNODE:
+                    return VF.createBNode(readString());
+                case BinaryRDF.LITERAL:
+                    return VF.createLiteral(readString());
+                case BinaryRDF.LANG_LITERAL:
+                    final String language = readString();
+                    return VF.createLiteral(readString(), language);
+                case BinaryRDF.TYPED_LITERAL:
+                    final IRI datatype = readIRI(readByte());
+                    return VF.createLiteral(readString(), datatype);
+                default:
+                    throw new MalformedStreamException("unknown term tag " + tag);
+            }
+        }
+
+        Resource readResource() throws IOException {
+            final Value value = readValue();
+            if(!(value instanceof Resource)) {
+                throw new MalformedStreamException("literal subject");
+            }
+            return (Resource) value;
+        }
+
+        IRI readIRI(int tag) throws IOException {
+            if(tag == BinaryRDF.IRI_REF) {
+                final int id = readVarInt();
+                if(id >= iris.size()) {
+                    throw new MalformedStreamException("undefined IRI " + id);
+                }
+                return iris.get(id);
+            }
+            if(tag != BinaryRDF.IRI_NEW) {
+                throw new MalformedStreamException("expected an IRI, found tag " + tag);
+            }
+            final int namespaceRef = readVarInt();
+            final String namespace;
+            if(namespaceRef == 0) {
+                namespace = readString();
+                namespaces.add(namespace);
+            } else if(namespaceRef <= namespaces.size()) {
+                namespace = namespaces.get(namespaceRef - 1);
+            } else {
+                throw new MalformedStreamException("undefined namespace " + (namespaceRef - 1));
+            }
+            final IRI iri = VF.createIRI(namespace + readString());
+            iris.add(iri);
+            return iri;
+        }
+
+        private boolean fill() throws IOException {
+            final int read = in.read(buffer, 0, buffer.length);
+            if(read <= 0) {
+                return false;
+            }
+            position = 0;
+            limit = read;
+            return true;
+        }
+    }
+
+}
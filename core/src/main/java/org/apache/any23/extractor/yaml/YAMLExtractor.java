@@ -17,8 +17,10 @@ package org.apache.any23.extractor.yaml;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
-import java.util.Arrays;
+import java.util.Deque;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -31,7 +33,6 @@ import org.apache.any23.extractor.ExtractorDescription;
 import org.apache.any23.rdf.RDFUtils;
 import org.apache.any23.util.StringUtils;
 import org.apache.any23.vocab.YAML;
-import org.apache.commons.lang.WordUtils;
 import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
@@ -39,19 +40,43 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.model.vocabulary.RDFS;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.yaml.snakeyaml.Yaml;
+import org.yaml.snakeyaml.constructor.SafeConstructor;
+import org.yaml.snakeyaml.error.YAMLException;
+import org.yaml.snakeyaml.events.AliasEvent;
+import org.yaml.snakeyaml.events.Event;
+import org.yaml.snakeyaml.events.NodeEvent;
+import org.yaml.snakeyaml.events.ScalarEvent;
+import org.yaml.snakeyaml.nodes.Node;
+import org.yaml.snakeyaml.nodes.NodeId;
+import org.yaml.snakeyaml.nodes.ScalarNode;
+import org.yaml.snakeyaml.nodes.Tag;
+import org.yaml.snakeyaml.parser.Parser;
+import org.yaml.snakeyaml.parser.ParserImpl;
+import org.yaml.snakeyaml.reader.StreamReader;
+import org.yaml.snakeyaml.reader.UnicodeReader;
+import org.yaml.snakeyaml.resolver.Resolver;
 
 /**
+ * Extracts the <i>RDF</i> representation of the <i>YAML</i> documents.
+ * The documents are processed as a stream of <i>SnakeYAML</i> parser events,
+ * the triples are written while reading and the memory used is proportional
+ * to the nesting depth, with the exception of the anchored nodes which are
+ * retained to be replayed on their aliases.
+ * Merge keys (<code>&lt;&lt;</code>) add the merged entries to the mapping
+ * in place, without removing the ones overridden by the mapping.
+ *
  * @author Jacek Grzebyta (grzebyta.dev [at] gmail.com)
  */
 public class YAMLExtractor implements Extractor.ContentExtractor {
 
     private final Logger log = LoggerFactory.getLogger(getClass());
 
-    private static final Yaml yml = new Yaml();
-
     private static final YAML vocab = YAML.getInstance();
 
+    private final Resolver resolver = new Resolver();
+
+    private final ScalarConstructor constructor = new ScalarConstructor();
+
     private int nodeId = 0;
 
     private IRI documentRoot;
@@ -73,16 +98,17 @@ public class YAMLExtractor implements Extractor.ContentExtractor {
         out.writeNamespace(RDFS.PREFIX, RDFS.NAMESPACE);
 
         out.writeTriple(documentRoot, RDF.TYPE, vocab.root);
-        Iterable<Object> docIterate = yml.loadAll(in);
 
-        // Iterate over page(s)
-        for (Object p : docIterate) {
-            Resource pageNode = YAMLExtractor.this.makeUri("document", documentURI);
-            out.writeTriple(documentRoot, vocab.contains, pageNode);
-            out.writeTriple(pageNode, RDF.TYPE, vocab.document);
-            out.writeTriple(pageNode, vocab.contains, buildNode(documentURI, p, out));
+        final Parser parser = new ParserImpl(new StreamReader(new UnicodeReader(in)));
+        final EventProcessor processor = new EventProcessor(documentURI, out);
+        try {
+            Event event;
+            while ((event = parser.getEvent()) != null) {
+                processor.process(event);
+            }
+        } catch (YAMLException ye) {
+            throw new ExtractionException("Error while parsing YAML document.", ye, out);
         }
-
     }
 
     @Override
@@ -90,7 +116,18 @@ public class YAMLExtractor implements Extractor.ContentExtractor {
         return YAMLExtractorFactory.getDescriptionInstance();
     }
 
-    private Value buildNode(IRI fileURI, Object treeData, ExtractionResult out) {
+    private Value buildScalar(ScalarEvent event) {
+        final String tagName = event.getTag();
+        final Tag tag = tagName == null || "!".equals(tagName)
+                ? resolver.resolve(NodeId.scalar, event.getValue(), event.getImplicit().canOmitTagInPlainScalar())
+                : new Tag(tagName);
+        Object treeData;
+        try {
+            treeData = constructor.construct(new ScalarNode(tag, event.getValue(), null, null, event.getStyle()));
+        } catch (YAMLException ye) {
+            // unknown tag, the scalar is kept as string.
+            treeData = event.getValue();
+        }
 
         if (treeData != null) {
             log.debug("object type: {}", treeData.getClass());
@@ -98,10 +135,6 @@ public class YAMLExtractor implements Extractor.ContentExtractor {
 
         if (treeData == null) {
             return RDF.NIL;
-        } else if (treeData instanceof Map) {
-            return processMap(fileURI, (Map) treeData, out);
-        } else if (treeData instanceof List) {
-            return processList(fileURI, (List) treeData, out);
         } else if (treeData instanceof Long) {
             return RDFUtils.literal(((Long) treeData));
         } else if (treeData instanceof Integer) {
@@ -114,46 +147,265 @@ public class YAMLExtractor implements Extractor.ContentExtractor {
             return RDFUtils.literal((Byte) treeData);
         } else if (treeData instanceof Boolean) {
             return RDFUtils.literal((Boolean) treeData);
-        } else {
+        } else if (treeData instanceof String) {
             return RDFUtils.literal(((String) treeData));
+        } else {
+            return RDFUtils.literal(event.getValue());
         }
     }
 
-    private Value processMap(IRI file, Map<String, Object> node, ExtractionResult out) {
-        Resource nodeURI = YAMLExtractor.this.makeUri(file);
-        for (String k : node.keySet()) {
-            Resource predicate = makeUri(k, file, false);
-            Value value = buildNode(file, node.get(k), out);
-            out.writeTriple(nodeURI, RDF.TYPE, vocab.node);
-            out.writeTriple(nodeURI, (IRI) predicate, value);
-            out.writeTriple(predicate, RDF.TYPE, RDF.PREDICATE);
-            out.writeTriple(predicate, RDFS.LABEL, RDFUtils.literal(k));
-        }
-        return nodeURI;
-    }
+    /**
+     * Translates the parser events into triples, keeping a stack
+     * of the open documents, mappings and sequences.
+     */
+    private class EventProcessor {
+
+        private final IRI fileURI;
+
+        private final ExtractionResult out;
+
+        private final Deque<Frame> stack = new ArrayDeque<Frame>();
+
+        private final Map<String, List<Event>> anchors = new HashMap<String, List<Event>>();
+
+        private final List<Recording> recordings = new ArrayList<Recording>();
+
+        private int replaying = 0;
 
-    private Value processList(IRI fileURI, Iterable iter, ExtractionResult out) {
-        Resource node = YAMLExtractor.this.makeUri();
-        out.writeTriple(node, RDF.TYPE, RDF.LIST);
-
-        Resource pList = null; // previous RDF iter node
-        Resource cList = node; // cutternt RDF iter node
-        Iterator listIter = iter.iterator();
-        while (listIter.hasNext()) {
-            // If previous RDF iter node is given lint with current one
-            if (pList != null) {
-                out.writeTriple(pList, RDF.REST, cList);
+        EventProcessor(IRI fileURI, ExtractionResult out) {
+            this.fileURI = fileURI;
+            this.out = out;
+        }
+
+        void process(Event event) throws ExtractionException {
+            if (replaying == 0) {
+                record(event);
+            }
+            if (event.is(Event.ID.DocumentStart)) {
+                Resource pageNode = YAMLExtractor.this.makeUri("document", fileURI);
+                out.writeTriple(documentRoot, vocab.contains, pageNode);
+                out.writeTriple(pageNode, RDF.TYPE, vocab.document);
+                stack.push(new Frame(Frame.DOCUMENT, pageNode));
+            } else if (event.is(Event.ID.DocumentEnd)) {
+                stack.pop();
+            } else if (event.is(Event.ID.Scalar)) {
+                processScalar((ScalarEvent) event);
+            } else if (event.is(Event.ID.Alias)) {
+                processAlias((AliasEvent) event);
+            } else if (event.is(Event.ID.MappingStart)) {
+                startValue();
+                final Frame parent = stack.peek();
+                if (parent.isMerging()) {
+                    stack.push(new Frame(Frame.MERGED_MAPPING, parent.node));
+                } else {
+                    stack.push(new Frame(Frame.MAPPING, YAMLExtractor.this.makeUri(fileURI)));
+                }
+            } else if (event.is(Event.ID.MappingEnd)) {
+                final Frame frame = stack.pop();
+                if (frame.type == Frame.MERGED_MAPPING) {
+                    endMerge();
+                } else {
+                    endValue(frame.node);
+                }
+            } else if (event.is(Event.ID.SequenceStart)) {
+                startValue();
+                final Frame parent = stack.peek();
+                if (parent.isMerging()) {
+                    stack.push(new Frame(Frame.MERGED_SEQUENCE, parent.node));
+                } else {
+                    Resource node = YAMLExtractor.this.makeUri();
+                    out.writeTriple(node, RDF.TYPE, RDF.LIST);
+                    stack.push(new Frame(Frame.SEQUENCE, node));
+                }
+            } else if (event.is(Event.ID.SequenceEnd)) {
+                final Frame frame = stack.pop();
+                if (frame.type == Frame.MERGED_SEQUENCE) {
+                    endMerge();
+                } else {
+                    if (frame.previous != null) {
+                        out.writeTriple(frame.previous, RDF.REST, RDF.NIL);
+                    }
+                    endValue(frame.node);
+                }
             }
-            // adds value to the current iter
-            Value val = buildNode(fileURI, listIter.next(), out);
-            out.writeTriple(cList, RDF.FIRST, val);
-            // makes current node the previuos one and generate new current node
-            pList = cList;
-            cList = YAMLExtractor.this.makeUri();
         }
-        out.writeTriple(pList, RDF.REST, RDF.NIL);
 
-        return node;
+        private void processScalar(ScalarEvent event) {
+            final Frame parent = stack.peek();
+            if (parent.isExpectingKey()) {
+                parent.key = event.getValue();
+                parent.mergeKey = event.getTag() == null && event.getImplicit().canOmitTagInPlainScalar()
+                        && Tag.MERGE.equals(resolver.resolve(NodeId.scalar, event.getValue(), true));
+                return;
+            }
+            startValue();
+            endValue(buildScalar(event));
+        }
+
+        private void processAlias(AliasEvent event) throws ExtractionException {
+            final List<Event> anchored = anchors.get(event.getAnchor());
+            if (anchored == null) {
+                throw new ExtractionException("Found undefined alias " + event.getAnchor());
+            }
+            replaying++;
+            try {
+                for (Event replayed : anchored) {
+                    process(replayed);
+                }
+            } finally {
+                replaying--;
+            }
+        }
+
+        /**
+         * Invoked when a new value starts, links the previous
+         * item of a sequence to the current one.
+         */
+        private void startValue() {
+            final Frame parent = stack.peek();
+            if (parent.type == Frame.SEQUENCE && parent.previous != null) {
+                out.writeTriple(parent.previous, RDF.REST, parent.current);
+            }
+        }
+
+        /**
+         * Invoked when a value has been completely read, adds it to its container.
+         */
+        private void endValue(Value value) {
+            final Frame parent = stack.peek();
+            switch (parent.type) {
+                case Frame.DOCUMENT:
+                    out.writeTriple(parent.node, vocab.contains, value);
+                    break;
+                case Frame.MAPPING:
+                case Frame.MERGED_MAPPING:
+                    if (parent.isExpectingKey()) {
+                        // complex key
+                        parent.key = value.stringValue();
+                        break;
+                    }
+                    Resource predicate = makeUri(parent.key, fileURI, false);
+                    out.writeTriple(parent.node, RDF.TYPE, vocab.node);
+                    out.writeTriple(parent.node, (IRI) predicate, value);
+                    out.writeTriple(predicate, RDF.TYPE, RDF.PREDICATE);
+                    out.writeTriple(predicate, RDFS.LABEL, RDFUtils.literal(parent.key));
+                    parent.key = null;
+                    parent.mergeKey = false;
+                    break;
+                case Frame.SEQUENCE:
+                    out.writeTriple(parent.current, RDF.FIRST, value);
+                    parent.previous = parent.current;
+                    parent.current = YAMLExtractor.this.makeUri();
+                    break;
+                default:
+                    // merged sequence items are merged mappings.
+                    break;
+            }
+        }
+
+        private void endMerge() {
+            final Frame parent = stack.peek();
+            if (parent.type != Frame.MERGED_SEQUENCE) {
+                parent.key = null;
+                parent.mergeKey = false;
+            }
+        }
+
+        /**
+         * Retains the events of the anchored nodes, to be replayed on their aliases.
+         */
+        private void record(Event event) {
+            if (event instanceof NodeEvent && !(event instanceof AliasEvent)
+                    && ((NodeEvent) event).getAnchor() != null) {
+                recordings.add(new Recording(((NodeEvent) event).getAnchor()));
+            }
+            final Iterator<Recording> iterator = recordings.iterator();
+            while (iterator.hasNext()) {
+                final Recording recording = iterator.next();
+                recording.events.add(event);
+                if (event.is(Event.ID.MappingStart) || event.is(Event.ID.SequenceStart)) {
+                    recording.depth++;
+                } else if (event.is(Event.ID.MappingEnd) || event.is(Event.ID.SequenceEnd)) {
+                    recording.depth--;
+                }
+                if (recording.depth == 0) {
+                    anchors.put(recording.anchor, recording.events);
+                    iterator.remove();
+                }
+            }
+        }
+    }
+
+    /**
+     * An open document, mapping or sequence.
+     */
+    private static class Frame {
+
+        static final int DOCUMENT        = 0;
+        static final int MAPPING         = 1;
+        static final int SEQUENCE        = 2;
+        static final int MERGED_MAPPING  = 3;
+        static final int MERGED_SEQUENCE = 4;
+
+        final int type;
+
+        final Resource node;
+
+        /**
+         * Current mapping key, <code>null</code> if a key is expected.
+         */
+        String key;
+
+        /**
+         * <code>true</code> if the current mapping key is a merge key.
+         */
+        boolean mergeKey;
+
+        /**
+         * Previous and current sequence items.
+         */
+        Resource previous;
+        Resource current;
+
+        Frame(int type, Resource node) {
+            this.type = type;
+            this.node = node;
+            this.current = node;
+        }
+
+        boolean isExpectingKey() {
+            return (type == MAPPING || type == MERGED_MAPPING) && key == null;
+        }
+
+        boolean isMerging() {
+            return mergeKey || type == MERGED_SEQUENCE;
+        }
+    }
+
+    /**
+     * The events of an anchored node being read.
+     */
+    private static class Recording {
+
+        final String anchor;
+
+        final List<Event> events = new ArrayList<Event>();
+
+        int depth = 0;
+
+        Recording(String anchor) {
+            this.anchor = anchor;
+        }
+    }
+
+    /**
+     * Constructs the scalar values without retaining them.
+     */
+    private static class ScalarConstructor extends SafeConstructor {
+
+        Object construct(Node node) {
+            return getConstructor(node).construct(node);
+        }
     }
 
     private Resource makeUri() {
@@ -0,0 +1,500 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.http;
+
+import org.apache.any23.source.MemCopyFactory;
+import org.apache.commons.httpclient.URIException;
+import org.apache.http.ConnectionClosedException;
+import org.apache.http.ContentTooLongException;
+import org.apache.http.Header;
+import org.apache.http.HttpConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpResponse;
+import org.apache.http.HttpStatus;
+import org.apache.http.concurrent.BasicFuture;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.config.ConnectionConfig;
+import org.apache.http.entity.ContentType;
+import org.apache.http.impl.nio.DefaultHttpClientIODispatch;
+import org.apache.http.impl.nio.pool.BasicNIOConnFactory;
+import org.apache.http.impl.nio.pool.BasicNIOConnPool;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.message.BasicHttpRequest;
+import org.apache.http.nio.ContentDecoder;
+import org.apache.http.nio.IOControl;
+import org.apache.http.nio.protocol.AbstractAsyncResponseConsumer;
+import org.apache.http.nio.protocol.BasicAsyncRequestProducer;
+import org.apache.http.nio.protocol.HttpAsyncRequestExecutor;
+import org.apache.http.nio.protocol.HttpAsyncRequester;
+import org.apache.http.nio.reactor.ConnectingIOReactor;
+import org.apache.http.nio.reactor.IOEventDispatch;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.protocol.HttpProcessor;
+import org.apache.http.protocol.HttpProcessorBuilder;
+import org.apache.http.protocol.RequestConnControl;
+import org.apache.http.protocol.RequestContent;
+import org.apache.http.protocol.RequestTargetHost;
+import org.apache.http.protocol.RequestUserAgent;
+import org.apache.http.ssl.SSLContexts;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.nio.ByteBuffer;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Non blocking {@link HTTPClient} implementation based on <i>httpcore-nio</i>.
+ * All the requests are multiplexed by a single I/O reactor over a pool of
+ * persistent connections limited per host, compressed response bodies
+ * are transparently decoded and redirects are followed. Connections idle
+ * for longer than the configured keep alive are evicted by a background task.
+ * <p>
+ * Documents can be retrieved asynchronously with {@link #fetch(String, FutureCallback)},
+ * while the {@link HTTPClient} methods block until the response is received
+ * and keep the response metadata per calling thread, so that an instance can be
+ * shared by concurrent extractions.
+ * </p>
+ */
+public class AsyncHTTPClient implements HTTPClient {
+
+    private static final Logger logger = LoggerFactory.getLogger(AsyncHTTPClient.class);
+
+    private static final int MAX_REDIRECTS = 5;
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private HTTPClientConfiguration configuration;
+
+    private BasicNIOConnPool pool;
+
+    private HttpAsyncRequester requester;
+
+    private ScheduledExecutorService evictor;
+
+    private final ThreadLocal<HTTPResponse> lastResponse = new ThreadLocal<HTTPResponse>();
+
+    public void init(HTTPClientConfiguration configuration) {
+        if(configuration == null) throw new NullPointerException("Illegal configuration, cannot be null.");
+        this.configuration = configuration;
+    }
+
+    /**
+     * Retrieves asynchronously the document at the given IRI, following redirects.
+     * Responses with status other than <i>200</i> or bodies exceeding the
+     * configured max size are notified as failures.
+     *
+     * @param uri the document IRI.
+     * @param callback optional callback notified on completion, can be <code>null</code>.
+     * @return the future response.
+     * @throws IOException if the IRI is not valid or the client cannot be started.
+     */
+    public Future<HTTPResponse> fetch(String uri, FutureCallback<HTTPResponse> callback) throws IOException {
+        if(uri == null) throw new NullPointerException("uri cannot be null.");
+        final URI target = toURI(uri);
+        ensureStarted();
+        final ResponseFuture future = new ResponseFuture(callback);
+        execute(uri, target, 0, false, future);
+        return future;
+    }
+
+    public InputStream openInputStream(String uri) throws IOException {
+        lastResponse.remove();
+        final Future<HTTPResponse> future = fetch(uri, null);
+        final HTTPResponse response;
+        try {
+            response = future.get();
+        } catch (InterruptedException ie) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while fetching " + uri);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof IOException) {
+                throw (IOException) ee.getCause();
+            }
+            throw new IOException("Failed to fetch " + uri, ee.getCause());
+        }
+        lastResponse.set(response);
+        return response.openInputStream();
+    }
+
+    /**
+     * Closes all the connections and stops the I/O reactor.
+     */
+    public synchronized void close() {
+        if (pool == null) return;
+        evictor.shutdownNow();
+        evictor = null;
+        try {
+            pool.shutdown(configuration.getDefaultTimeout());
+        } catch (IOException ioe) {
+            logger.warn("Error while shutting down the connection pool.", ioe);
+        }
+        pool = null;
+        requester = null;
+    }
+
+    public String getContentType() {
+        final HTTPResponse response = lastResponse.get();
+        return response == null ? null : response.getContentType();
+    }
+
+    public long getContentLength() {
+        final HTTPResponse response = lastResponse.get();
+        return response == null ? -1 : response.getContentLength();
+    }
+
+    public String getActualDocumentIRI() {
+        final HTTPResponse response = lastResponse.get();
+        return response == null ? null : response.getActualDocumentIRI();
+    }
+
+    private synchronized void ensureStarted() throws IOException {
+        if (configuration == null) throw new IllegalStateException("client must be initialized first.");
+        if (requester != null) {
+            return;
+        }
+        final IOReactorConfig reactorConfig = IOReactorConfig.custom()
+                .setConnectTimeout(configuration.getDefaultTimeout())
+                .setSoTimeout(configuration.getDefaultTimeout())
+                .setSoKeepAlive(true)
+                .build();
+        final ConnectingIOReactor ioReactor = new DefaultConnectingIOReactor(reactorConfig);
+        pool = new BasicNIOConnPool(
+                ioReactor,
+                new BasicNIOConnFactory(SSLContexts.createDefault(), null, ConnectionConfig.DEFAULT),
+                configuration.getDefaultTimeout()
+        );
+        pool.setMaxTotal(configuration.getMaxConnections());
+        pool.setDefaultMaxPerRoute(configuration.getMaxConnectionsPerHost());
+
+        final HttpProcessor processor = HttpProcessorBuilder.create()
+                .add(new RequestContent())
+                .add(new RequestTargetHost())
+                .add(new RequestConnControl())
+                .add(new RequestUserAgent(configuration.getUserAgent()))
+                .build();
+        requester = new HttpAsyncRequester(processor);
+
+        final IOEventDispatch dispatch =
+                new DefaultHttpClientIODispatch(new HttpAsyncRequestExecutor(), ConnectionConfig.DEFAULT);
+        final Thread reactorThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    ioReactor.execute(dispatch);
+                } catch (InterruptedIOException iioe) {
+                    logger.debug("I/O reactor interrupted.");
+                } catch (IOException ioe) {
+                    logger.error("I/O reactor failure.", ioe);
+                }
+            }
+        }, "any23-http-reactor");
+        reactorThread.setDaemon(true);
+        reactorThread.start();
+
+        final BasicNIOConnPool evictedPool = pool;
+        final long keepAlive = configuration.getKeepAlive();
+        evictor = Executors.newSingleThreadScheduledExecutor(new ThreadFactory() {
+            @Override
+            public Thread newThread(Runnable runnable) {
+                final Thread thread = new Thread(runnable, "any23-http-evictor");
+                thread.setDaemon(true);
+                return thread;
+            }
+        });
+        evictor.scheduleWithFixedDelay(new Runnable() {
+            @Override
+            public void run() {
+                evictedPool.closeExpired();
+                evictedPool.closeIdle(keepAlive, TimeUnit.MILLISECONDS);
+            }
+        }, getEvictionPeriod(keepAlive), getEvictionPeriod(keepAlive), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Idle connections are checked twice per keep alive period, at most once per second.
+     */
+    private static long getEvictionPeriod(long keepAlive) {
+        return Math.max(1000, keepAlive / 2);
+    }
+
+    private void execute(
+            final String requestedIRI,
+            final URI target,
+            final int redirects,
+            final boolean retried,
+            final ResponseFuture future
+    ) {
+        if (target.getHost() == null) {
+            future.failed(new IOException("Missing host in IRI: " + target));
+            return;
+        }
+        final HttpHost host = new HttpHost(target.getHost(), target.getPort(), target.getScheme());
+        final BasicHttpRequest request = new BasicHttpRequest("GET", getRequestPath(target));
+        if (configuration.getAcceptHeader() != null) {
+            request.addHeader("Accept", configuration.getAcceptHeader());
+        }
+        if (configuration.getAcceptLanguage() != null) {
+            request.addHeader("Accept-Language", configuration.getAcceptLanguage());
+        }
+        request.addHeader("Accept-Charset", "utf-8,iso-8859-1;q=0.7,*;q=0.5");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+
+        final ResponseConsumer consumer = new ResponseConsumer(target, configuration.getMaxBodySize());
+        final HttpCoreContext context = HttpCoreContext.create();
+        future.setRequest(requester.execute(
+                new BasicAsyncRequestProducer(host, request),
+                consumer,
+                pool,
+                context,
+                new FutureCallback<byte[]>() {
+                    @Override
+                    public void completed(byte[] body) {
+                        final HttpResponse response = consumer.response;
+                        final int status = response.getStatusLine().getStatusCode();
+                        final Header location = response.getFirstHeader("Location");
+                        if (isRedirect(status) && location != null) {
+                            if (redirects >= MAX_REDIRECTS) {
+                                future.failed(new IOException("Failed to fetch " + requestedIRI + ": too many redirects"));
+                                return;
+                            }
+                            final URI next;
+                            try {
+                                next = target.resolve(toURI(location.getValue()));
+                            } catch (IOException ioe) {
+                                future.failed(new IOException("Invalid redirect location: " + location.getValue(), ioe));
+                                return;
+                            } catch (IllegalArgumentException iae) {
+                                future.failed(new IOException("Invalid redirect location: " + location.getValue(), iae));
+                                return;
+                            }
+                            execute(requestedIRI, next, redirects + 1, false, future);
+                            return;
+                        }
+                        if (status != HttpStatus.SC_OK) {
+                            future.failed(new IOException(
+                                    "Failed to fetch " + requestedIRI + ": " + status + " " +
+                                    response.getStatusLine().getReasonPhrase()
+                            ));
+                            return;
+                        }
+                        final Header contentType = response.getFirstHeader("Content-Type");
+                        future.completed(new HTTPResponse(
+                                requestedIRI,
+                                target.toString(),
+                                contentType == null ? null : contentType.getValue(),
+                                body
+                        ));
+                    }
+
+                    @Override
+                    public void failed(Exception e) {
+                        // a persistent connection can be closed or reset by the server while idle
+                        // in the pool, the GET request is idempotent and can be safely retried once
+                        // on a new connection if no response has been received.
+                        if (!retried && !future.isCancelled() && consumer.response == null && (
+                                e instanceof ConnectionClosedException
+                                || e instanceof IOException && isReused(context.getConnection()))) {
+                            execute(requestedIRI, target, redirects, true, future);
+                            return;
+                        }
+                        future.failed(e);
+                    }
+
+                    @Override
+                    public void cancelled() {
+                        future.cancel();
+                    }
+                }
+        ));
+    }
+
+    /**
+     * @return <code>true</code> if the connection served a request before the current one.
+     */
+    private static boolean isReused(HttpConnection connection) {
+        return connection != null && connection.getMetrics().getRequestCount() > 1;
+    }
+
+    private static URI toURI(String uri) throws IOException {
+        try {
+            return new URI( new org.apache.commons.httpclient.URI(uri, DefaultHTTPClient.isUrlEncoded(uri)).toString() );
+        } catch (URIException urie) {
+            throw new IOException("Invalid IRI string: " + uri, urie);
+        } catch (URISyntaxException urise) {
+            throw new IOException("Invalid IRI string: " + uri, urise);
+        }
+    }
+
+    private static String getRequestPath(URI target) {
+        final String path = target.getRawPath() == null || target.getRawPath().length() == 0
+                ? "/" : target.getRawPath();
+        return target.getRawQuery() == null ? path : path + "?" + target.getRawQuery();
+    }
+
+    private static boolean isRedirect(int status) {
+        return status == HttpStatus.SC_MOVED_PERMANENTLY
+                || status == HttpStatus.SC_MOVED_TEMPORARILY
+                || status == HttpStatus.SC_SEE_OTHER
+                || status == HttpStatus.SC_TEMPORARY_REDIRECT
+                || status == 308;
+    }
+
+    /**
+     * Future of a fetch which, when cancelled, also cancels the request
+     * in progress, releasing its connection.
+     */
+    private static class ResponseFuture extends BasicFuture<HTTPResponse> {
+
+        private volatile Future<byte[]> request;
+
+        ResponseFuture(FutureCallback<HTTPResponse> callback) {
+            super(callback);
+        }
+
+        /**
+         * Sets the request in progress, a redirect or a retry replaces the previous one.
+         */
+        void setRequest(Future<byte[]> request) {
+            this.request = request;
+            if (isCancelled()) {
+                request.cancel(true);
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            final boolean cancelled = super.cancel(mayInterruptIfRunning);
+            final Future<byte[]> current = request;
+            if (current != null) {
+                current.cancel(true);
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * Collects the response body, enforcing the max body size
+     * on both the transferred and the decoded content.
+     */
+    private static class ResponseConsumer extends AbstractAsyncResponseConsumer<byte[]> {
+
+        private final URI target;
+        private final long maxBodySize;
+        private final ByteBuffer chunk = ByteBuffer.allocate(BUFFER_SIZE);
+        private HttpResponse response;
+        private ByteArrayOutputStream buffer;
+
+        ResponseConsumer(URI target, long maxBodySize) {
+            this.target = target;
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        protected void onResponseReceived(HttpResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        protected void onEntityEnclosed(HttpEntity entity, ContentType contentType) throws IOException {
+            final long length = entity.getContentLength();
+            checkSize(length);
+            // the declared length is not trusted for more than the presize limit.
+            buffer = new ByteArrayOutputStream(
+                    length > 0 ? (int) Math.min(length, MemCopyFactory.MAX_PRESIZED_LENGTH) : BUFFER_SIZE
+            );
+        }
+
+        @Override
+        protected void onContentReceived(ContentDecoder decoder, IOControl ioControl) throws IOException {
+            int bytes;
+            while ((bytes = decoder.read(chunk)) > 0) {
+                buffer.write(chunk.array(), 0, bytes);
+                chunk.clear();
+                checkSize(buffer.size());
+            }
+        }
+
+        @Override
+        protected byte[] buildResult(HttpContext context) throws IOException {
+            if (buffer == null) {
+                return new byte[0];
+            }
+            final byte[] raw = buffer.toByteArray();
+            final Header encoding = response.getFirstHeader("Content-Encoding");
+            if (encoding == null) {
+                return raw;
+            }
+            final String value = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+            final InputStream decoded;
+            if ("gzip".equals(value) || "x-gzip".equals(value)) {
+                decoded = new GZIPInputStream(new ByteArrayInputStream(raw));
+            } else if ("deflate".equals(value)) {
+                decoded = new InflaterInputStream(new ByteArrayInputStream(raw));
+            } else if ("identity".equals(value) || value.length() == 0) {
+                return raw;
+            } else {
+                throw new IOException("Unsupported content encoding '" + value + "' for " + target);
+            }
+            try {
+                final ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(BUFFER_SIZE, raw.length));
+                final byte[] temp = new byte[BUFFER_SIZE];
+                int bytes;
+                while ((bytes = decoded.read(temp)) != -1) {
+                    out.write(temp, 0, bytes);
+                    checkSize(out.size());
+                }
+                return out.toByteArray();
+            } finally {
+                decoded.close();
+            }
+        }
+
+        @Override
+        protected void releaseResources() {
+            buffer = null;
+        }
+
+        private void checkSize(long size) throws ContentTooLongException {
+            if (maxBodySize > 0 && size > maxBodySize) {
+                throw new ContentTooLongException(
+                        String.format("Failed to fetch %s: response body exceeds max body size %d", target, maxBodySize)
+                );
+            }
+        }
+    }
+
+}
@@ -21,7 +21,10 @@ import org.apache.commons.httpclient.*;
 import org.apache.commons.httpclient.methods.GetMethod;
 import org.apache.commons.httpclient.params.HttpConnectionManagerParams;
 
+import org.apache.any23.source.MemCopyFactory;
+
 import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -45,11 +48,18 @@ public class DefaultHTTPClient implements HTTPClient {
 
     private HttpClient client = null;
 
-    private long _contentLength = -1;
-
-    private String actualDocumentIRI = null;
+    private volatile HTTPValidatorStore validatorStore = null;
 
-    private String contentType = null;
+    /**
+     * Metadata of the last response received by every thread,
+     * this allows to share the same client among concurrent extractions.
+     */
+    private final ThreadLocal<ResponseInfo> lastResponse = new ThreadLocal<ResponseInfo>() {
+        @Override
+        protected ResponseInfo initialValue() {
+            return new ResponseInfo();
+        }
+    };
 
     public static final boolean isUrlEncoded(String url) {
         return ESCAPED_PATTERN.matcher(url).find();
@@ -71,18 +81,45 @@ public class DefaultHTTPClient implements HTTPClient {
         this.configuration = configuration;
     }
 
+    /**
+     * Sets the store of the cache validators. When set, the validators of every
+     * successful response are recorded and the following fetches of the same IRI
+     * are conditional, a <i>304 Not Modified</i> reply raises a {@link NotModifiedException}.
+     *
+     * @param validatorStore the validator store, <code>null</code> to disable conditional fetches.
+     */
+    public void setValidatorStore(HTTPValidatorStore validatorStore) {
+        this.validatorStore = validatorStore;
+    }
+
+    /**
+     * @return the store of the cache validators, <code>null</code> if not set.
+     */
+    public HTTPValidatorStore getValidatorStore() {
+        return validatorStore;
+    }
+
     /**
      *
      * Opens an {@link java.io.InputStream} from a given IRI.
      * It follows redirects.
+     * If the client is configured for streaming the returned stream reads
+     * directly from the connection, which is released when the stream is closed,
+     * otherwise the whole response body is buffered in memory.
+     *
+     * If a validator store is set and the validators of <code>uri</code> are known
+     * the request is conditional.
      *
      * @param uri to be opened
      * @return {@link java.io.InputStream}
+     * @throws NotModifiedException if the server replies to a conditional request
+     * with <i>304 Not Modified</i>.
      * @throws IOException if there is an error opening the {@link java.io.InputStream}
-     * located at the URI.
+     * located at the URI or if the response body exceeds the configured max size.
      */
     public InputStream openInputStream(String uri) throws IOException {
         GetMethod method = null;
+        boolean streamed = false;
         try {
             ensureClientInitialized();
             String uriStr;
@@ -95,21 +132,60 @@ public class DefaultHTTPClient implements HTTPClient {
             }
             method = new GetMethod(uriStr);
             method.setFollowRedirects(true);
+            final HTTPValidatorStore store = validatorStore;
+            if (store != null) {
+                final HTTPValidatorStore.Validators validators = store.get(uri);
+                if (validators != null && validators.getETag() != null) {
+                    method.setRequestHeader("If-None-Match", validators.getETag());
+                }
+                if (validators != null && validators.getLastModified() != null) {
+                    method.setRequestHeader("If-Modified-Since", validators.getLastModified());
+                }
+            }
             client.executeMethod(method);
-            _contentLength = method.getResponseContentLength();
+            final ResponseInfo response = lastResponse.get();
+            response.contentLength = method.getResponseContentLength();
             final Header contentTypeHeader = method.getResponseHeader("Content-Type");
-            contentType = contentTypeHeader == null ? null : contentTypeHeader.getValue();
+            response.contentType = contentTypeHeader == null ? null : contentTypeHeader.getValue();
+            response.actualDocumentIRI = null;
+            if (method.getStatusCode() == 304) {
+                throw new NotModifiedException(uri);
+            }
             if (method.getStatusCode() != 200) {
                 throw new IOException(
                         "Failed to fetch " + uri + ": " + method.getStatusCode() + " " + method.getStatusText()
                 );
             }
-            actualDocumentIRI = method.getURI().toString();
-            byte[] response = method.getResponseBody();
-
-            return new ByteArrayInputStream(response);
+            final long maxBodySize = configuration.getMaxBodySize();
+            if (maxBodySize > 0 && response.contentLength > maxBodySize) {
+                method.abort();
+                throw new IOException(
+                        String.format("Failed to fetch %s: content length %d exceeds max body size %d",
+                                uri, response.contentLength, maxBodySize)
+                );
+            }
+            response.actualDocumentIRI = method.getURI().toString();
+            if (store != null) {
+                recordValidators(store, uri, method);
+            }
+            final InputStream body = method.getResponseBodyAsStream();
+            if (body == null) {
+                return new ByteArrayInputStream(new byte[0]);
+            }
+            final ResponseInputStream responseStream = new ResponseInputStream(body, method, uri, maxBodySize);
+            if (configuration.isStreaming()) {
+                streamed = true;
+                return responseStream;
+            }
+            return new ByteArrayInputStream(
+                    MemCopyFactory.toByteArray(
+                            responseStream,
+                            response.contentLength,
+                            maxBodySize > 0 ? maxBodySize : MemCopyFactory.MAX_PRESIZED_LENGTH
+                    )
+            );
         } finally {
-            if (method != null) {
+            if (method != null && !streamed) {
                 method.releaseConnection();
             }
         }
@@ -123,15 +199,28 @@ public class DefaultHTTPClient implements HTTPClient {
     }
 
     public long getContentLength() {
-        return _contentLength;
+        return lastResponse.get().contentLength;
     }
 
     public String getActualDocumentIRI() {
-        return actualDocumentIRI;
+        return lastResponse.get().actualDocumentIRI;
     }
 
     public String getContentType() {
-        return contentType;
+        return lastResponse.get().contentType;
+    }
+
+    private void recordValidators(HTTPValidatorStore store, String uri, GetMethod method) {
+        final Header eTag = method.getResponseHeader("ETag");
+        final Header lastModified = method.getResponseHeader("Last-Modified");
+        if (eTag == null && lastModified == null) {
+            store.remove(uri);
+            return;
+        }
+        store.put(uri, new HTTPValidatorStore.Validators(
+                eTag == null ? null : eTag.getValue(),
+                lastModified == null ? null : lastModified.getValue()
+        ));
     }
 
     protected int getConnectionTimeout() {
@@ -142,7 +231,7 @@ public class DefaultHTTPClient implements HTTPClient {
         return configuration.getDefaultTimeout();
     }
 
-    private void ensureClientInitialized() {
+    private synchronized void ensureClientInitialized() {
         if(configuration == null) throw new IllegalStateException("client must be initialized first.");
         if (client != null) return;
         client = new HttpClient(manager);
@@ -151,6 +240,7 @@ public class DefaultHTTPClient implements HTTPClient {
         params.setConnectionTimeout(configuration.getDefaultTimeout());
         params.setSoTimeout(configuration.getDefaultTimeout());
         params.setMaxTotalConnections(configuration.getMaxConnections());
+        params.setDefaultMaxConnectionsPerHost(configuration.getMaxConnectionsPerHost());
 
         HostConfiguration hostConf = client.getHostConfiguration();
         List<Header> headers = new ArrayList<Header>();
@@ -158,10 +248,93 @@ public class DefaultHTTPClient implements HTTPClient {
         if (configuration.getAcceptHeader() != null) {
             headers.add(new Header("Accept", configuration.getAcceptHeader()));
         }
-        headers.add(new Header("Accept-Language", "en-us,en-gb,en,*;q=0.3")); //TODO: this must become parametric.
+        if (configuration.getAcceptLanguage() != null) {
+            headers.add(new Header("Accept-Language", configuration.getAcceptLanguage()));
+        }
         headers.add(new Header("Accept-Charset", "utf-8,iso-8859-1;q=0.7,*;q=0.5"));
         // headers.add(new Header("Accept-Encoding", "x-gzip, gzip"));
         hostConf.getParams().setParameter("http.default-headers", headers);
     }
 
-}
\ No newline at end of file
+    /**
+     * Stream over a response body which enforces the max body size
+     * and releases the connection once closed.
+     */
+    private static class ResponseInputStream extends FilterInputStream {
+
+        private final GetMethod method;
+        private final String uri;
+        private final long maxBodySize;
+        private long read = 0;
+        private boolean closed = false;
+
+        ResponseInputStream(InputStream in, GetMethod method, String uri, long maxBodySize) {
+            super(in);
+            this.method = method;
+            this.uri = uri;
+            this.maxBodySize = maxBodySize;
+        }
+
+        @Override
+        public int read() throws IOException {
+            final int b = super.read();
+            if (b != -1) {
+                count(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            final int bytes = super.read(b, off, len);
+            if (bytes > 0) {
+                count(bytes);
+            }
+            return bytes;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            final long skipped = super.skip(n);
+            count(skipped);
+            return skipped;
+        }
+
+        @Override
+        public boolean markSupported() {
+            return false;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            try {
+                super.close();
+            } finally {
+                method.releaseConnection();
+            }
+        }
+
+        private void count(long bytes) throws IOException {
+            read += bytes;
+            if (maxBodySize > 0 && read > maxBodySize) {
+                // the remaining content must not be consumed for reusing the connection.
+                method.abort();
+                throw new IOException(
+                        String.format("Failed to fetch %s: response body exceeds max body size %d", uri, maxBodySize)
+                );
+            }
+        }
+    }
+
+    /**
+     * Metadata of a received response.
+     */
+    private static class ResponseInfo {
+        private long contentLength = -1;
+        private String actualDocumentIRI;
+        private String contentType;
+    }
+
+}
@@ -38,26 +38,98 @@ public class DefaultHTTPClientConfiguration implements HTTPClientConfiguration {
     private String userAgent;
     private int    defaultTimeout;
     private int    maxConnections;
+    private int    maxConnectionsPerHost;
+    private int    keepAlive;
     private String acceptHeader;
+    private String acceptLanguage;
+    private boolean streaming;
+    private long   maxBodySize;
 
     /**
      * Constructor.
+     * accept language is initialized with default {@link DefaultConfiguration} parameters.
      *
      * @param userAgent the user agent descriptor string.
      * @param defaultTimeout the default timeout, cannot be <code>&lt;&#61; to 0</code>
      * @param maxConnections the default max connections, cannot be <code>&lt;&#61; to 0</code>
+     * @param maxConnectionsPerHost the max connections to the same host, cannot be <code>&lt;&#61; to 0</code>
+     * @param keepAlive the idle connection keep alive in milliseconds, cannot be <code>&lt; 0</code>
      * @param acceptHeader the accept header string, can be <code>null</code>.
+     * @param streaming if <code>true</code> response bodies are streamed from the connection.
+     * @param maxBodySize the max response body size in bytes, <code>0</code> means unlimited,
+     *        cannot be <code>&lt; 0</code>
      */
     public DefaultHTTPClientConfiguration(
-            String userAgent, int defaultTimeout, int maxConnections, String acceptHeader
+            String userAgent, int defaultTimeout, int maxConnections, int maxConnectionsPerHost, int keepAlive,
+            String acceptHeader, boolean streaming, long maxBodySize
     ) {
         if(userAgent == null)   throw new IllegalArgumentException("userAgent cannot be null.");
         if(defaultTimeout <= 0) throw new IllegalArgumentException("defaultTimeout cannot be <= 0 .");
         if(maxConnections <= 0) throw new IllegalArgumentException("maxConnections cannot be <= 0 .");
+        if(maxConnectionsPerHost <= 0) throw new IllegalArgumentException("maxConnectionsPerHost cannot be <= 0 .");
+        if(keepAlive < 0)       throw new IllegalArgumentException("keepAlive cannot be < 0 .");
+        if(maxBodySize < 0)     throw new IllegalArgumentException("maxBodySize cannot be < 0 .");
         this.userAgent      = userAgent;
         this.defaultTimeout = defaultTimeout;
         this.maxConnections = maxConnections;
+        this.maxConnectionsPerHost = maxConnectionsPerHost;
+        this.keepAlive      = keepAlive;
         this.acceptHeader   = acceptHeader;
+        final String acceptLanguage =
+                DefaultConfiguration.singleton().getProperty("any23.http.client.accept.language", "").trim();
+        this.acceptLanguage = acceptLanguage.length() == 0 ? null : acceptLanguage;
+        this.streaming      = streaming;
+        this.maxBodySize    = maxBodySize;
+    }
+
+    /**
+     * Constructor.
+     * connections per host and keep alive are initialized with default {@link DefaultConfiguration} parameters.
+     *
+     * @param userAgent the user agent descriptor string.
+     * @param defaultTimeout the default timeout, cannot be <code>&lt;&#61; to 0</code>
+     * @param maxConnections the default max connections, cannot be <code>&lt;&#61; to 0</code>
+     * @param acceptHeader the accept header string, can be <code>null</code>.
+     * @param streaming if <code>true</code> response bodies are streamed from the connection.
+     * @param maxBodySize the max response body size in bytes, <code>0</code> means unlimited,
+     *        cannot be <code>&lt; 0</code>
+     */
+    public DefaultHTTPClientConfiguration(
+            String userAgent, int defaultTimeout, int maxConnections, String acceptHeader,
+            boolean streaming, long maxBodySize
+    ) {
+        this(
+                userAgent,
+                defaultTimeout,
+                maxConnections,
+                DefaultConfiguration.singleton().getPropertyIntOrFail("any23.http.client.max.connections.per.host"),
+                DefaultConfiguration.singleton().getPropertyIntOrFail("any23.http.client.keep.alive"),
+                acceptHeader,
+                streaming,
+                maxBodySize
+        );
+    }
+
+    /**
+     * Constructor.
+     * streaming and max body size are initialized with default {@link DefaultConfiguration} parameters.
+     *
+     * @param userAgent the user agent descriptor string.
+     * @param defaultTimeout the default timeout, cannot be <code>&lt;&#61; to 0</code>
+     * @param maxConnections the default max connections, cannot be <code>&lt;&#61; to 0</code>
+     * @param acceptHeader the accept header string, can be <code>null</code>.
+     */
+    public DefaultHTTPClientConfiguration(
+            String userAgent, int defaultTimeout, int maxConnections, String acceptHeader
+    ) {
+        this(
+                userAgent,
+                defaultTimeout,
+                maxConnections,
+                acceptHeader,
+                DefaultConfiguration.singleton().getFlagProperty("any23.http.client.streaming"),
+                Long.parseLong(DefaultConfiguration.singleton().getPropertyOrFail("any23.http.client.max.body.size"))
+        );
     }
 
     /**
@@ -95,8 +167,28 @@ public class DefaultHTTPClientConfiguration implements HTTPClientConfiguration {
         return maxConnections;
     }
 
+    public int getMaxConnectionsPerHost() {
+        return maxConnectionsPerHost;
+    }
+
+    public int getKeepAlive() {
+        return keepAlive;
+    }
+
     public String getAcceptHeader() {
         return acceptHeader;
     }
 
+    public String getAcceptLanguage() {
+        return acceptLanguage;
+    }
+
+    public boolean isStreaming() {
+        return streaming;
+    }
+
+    public long getMaxBodySize() {
+        return maxBodySize;
+    }
+
 }
\ No newline at end of file
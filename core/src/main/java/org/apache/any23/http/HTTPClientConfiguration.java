@@ -34,6 +34,16 @@ public interface HTTPClientConfiguration {
      */
     String getAcceptHeader();
 
+    /**
+     * The default implementation prefers english contents.
+     *
+     * @return the <i>Accept-Language</i> header value,
+     *         if <code>null</code> the header is not sent.
+     */
+    default String getAcceptLanguage() {
+        return "en-us,en-gb,en,*;q=0.3";
+    }
+
     /**
      * @return the default timeout in milliseconds.
      */
@@ -44,4 +54,43 @@ public interface HTTPClientConfiguration {
      */
     int getMaxConnections();
 
+    /**
+     * The default implementation returns <code>2</code>, the per host limit
+     * <i>commons-httpclient</i> applies when none is configured.
+     *
+     * @return number of max concurrent connections to the same host.
+     */
+    default int getMaxConnectionsPerHost() {
+        return 2;
+    }
+
+    /**
+     * The default implementation returns <code>30</code> seconds.
+     *
+     * @return time in milliseconds an idle connection is kept alive for reuse.
+     */
+    default int getKeepAlive() {
+        return 30000;
+    }
+
+    /**
+     * The default implementation buffers the response body in memory.
+     *
+     * @return <code>true</code> if the response body must be streamed from the
+     *         connection instead of being buffered in memory.
+     */
+    default boolean isStreaming() {
+        return false;
+    }
+
+    /**
+     * The default implementation does not limit the response body size.
+     *
+     * @return max accepted size of the response body in bytes,
+     *         <code>0</code> means no limit.
+     */
+    default long getMaxBodySize() {
+        return 0;
+    }
+
 }
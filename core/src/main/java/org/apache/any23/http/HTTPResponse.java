@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.http;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
+/**
+ * A document retrieved by the {@link AsyncHTTPClient}, carrying
+ * the metadata of its own response.
+ */
+public class HTTPResponse {
+
+    private final String requestedIRI;
+
+    private final String actualDocumentIRI;
+
+    private final String contentType;
+
+    private final byte[] body;
+
+    /**
+     * Constructor.
+     *
+     * @param requestedIRI the requested IRI.
+     * @param actualDocumentIRI the IRI the document has been fetched from after following redirects.
+     * @param contentType the value of the <i>Content-Type</i> header, can be <code>null</code>.
+     * @param body the decoded response body.
+     */
+    public HTTPResponse(String requestedIRI, String actualDocumentIRI, String contentType, byte[] body) {
+        if(requestedIRI == null) throw new NullPointerException("requestedIRI cannot be null.");
+        if(actualDocumentIRI == null) throw new NullPointerException("actualDocumentIRI cannot be null.");
+        if(body == null) throw new NullPointerException("body cannot be null.");
+        this.requestedIRI = requestedIRI;
+        this.actualDocumentIRI = actualDocumentIRI;
+        this.contentType = contentType;
+        this.body = body;
+    }
+
+    public String getRequestedIRI() {
+        return requestedIRI;
+    }
+
+    public String getActualDocumentIRI() {
+        return actualDocumentIRI;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    /**
+     * @return the length of the decoded body in bytes.
+     */
+    public long getContentLength() {
+        return body.length;
+    }
+
+    /**
+     * @return a new stream over the decoded body.
+     */
+    public InputStream openInputStream() {
+        return new ByteArrayInputStream(body);
+    }
+
+}
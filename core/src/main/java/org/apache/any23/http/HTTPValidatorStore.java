@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.http;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Remembers the cache validators, the <i>ETag</i> and <i>Last-Modified</i> headers,
+ * returned by the servers for the fetched documents, so that later fetches of
+ * the same documents can be made conditional.
+ * The validators are identified by the normalized IRI of the requested document,
+ * the least recently used ones are discarded once the configured number of
+ * entries is exceeded.
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ *
+ * @see DefaultHTTPClient#setValidatorStore(HTTPValidatorStore)
+ */
+public class HTTPValidatorStore {
+
+    private final Map<String, Validators> validators;
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries the max number of remembered documents, cannot be <code>&lt;&#61; 0</code>.
+     */
+    public HTTPValidatorStore(final int maxEntries) {
+        if(maxEntries <= 0) throw new IllegalArgumentException("maxEntries cannot be <= 0 .");
+        this.validators = new LinkedHashMap<String, Validators>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Validators> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @param uri the normalized IRI of the requested document.
+     * @return the validators of the last response, <code>null</code> if unknown.
+     */
+    public synchronized Validators get(String uri) {
+        if(uri == null) throw new NullPointerException("uri cannot be null.");
+        return validators.get(uri);
+    }
+
+    /**
+     * Records the validators of a response.
+     *
+     * @param uri the normalized IRI of the requested document.
+     * @param v the response validators.
+     */
+    public synchronized void put(String uri, Validators v) {
+        if(uri == null) throw new NullPointerException("uri cannot be null.");
+        if(v == null) throw new NullPointerException("validators cannot be null.");
+        validators.put(uri, v);
+    }
+
+    /**
+     * Forgets the validators of a document, so that the next fetch is unconditional.
+     *
+     * @param uri the normalized IRI of the requested document.
+     */
+    public synchronized void remove(String uri) {
+        if(uri == null) throw new NullPointerException("uri cannot be null.");
+        validators.remove(uri);
+    }
+
+    /**
+     * @return the number of remembered documents.
+     */
+    public synchronized int size() {
+        return validators.size();
+    }
+
+    /**
+     * Forgets all the validators.
+     */
+    public synchronized void clear() {
+        validators.clear();
+    }
+
+    /**
+     * The validators of a response, at least one of them is not <code>null</code>.
+     */
+    public static class Validators {
+
+        private final String eTag;
+
+        private final String lastModified;
+
+        /**
+         * Constructor.
+         *
+         * @param eTag the value of the <i>ETag</i> header, can be <code>null</code>.
+         * @param lastModified the value of the <i>Last-Modified</i> header, can be <code>null</code>.
+         */
+        public Validators(String eTag, String lastModified) {
+            if(eTag == null && lastModified == null) {
+                throw new IllegalArgumentException("eTag and lastModified cannot be both null.");
+            }
+            this.eTag = eTag;
+            this.lastModified = lastModified;
+        }
+
+        /**
+         * @return the value of the <i>ETag</i> header, can be <code>null</code>.
+         */
+        public String getETag() {
+            return eTag;
+        }
+
+        /**
+         * @return the value of the <i>Last-Modified</i> header, can be <code>null</code>.
+         */
+        public String getLastModified() {
+            return lastModified;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if(this == o) return true;
+            if(!(o instanceof Validators)) return false;
+            final Validators other = (Validators) o;
+            return (eTag == null ? other.eTag == null : eTag.equals(other.eTag))
+                    && (lastModified == null ? other.lastModified == null : lastModified.equals(other.lastModified));
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * (eTag == null ? 0 : eTag.hashCode()) + (lastModified == null ? 0 : lastModified.hashCode());
+        }
+
+        @Override
+        public String toString() {
+            return String.format("Validators(eTag=%s, lastModified=%s)", eTag, lastModified);
+        }
+    }
+
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.http;
+
+import java.io.IOException;
+
+/**
+ * Raised by {@link DefaultHTTPClient#openInputStream(String)} when the server
+ * replies to a conditional request with <i>304 Not Modified</i>, meaning that
+ * the document has not changed since the response the validators were taken from.
+ *
+ * @see HTTPValidatorStore
+ */
+public class NotModifiedException extends IOException {
+
+    private final String uri;
+
+    /**
+     * Constructor.
+     *
+     * @param uri the requested IRI.
+     */
+    public NotModifiedException(String uri) {
+        super("Document not modified: " + uri);
+        this.uri = uri;
+    }
+
+    /**
+     * @return the requested IRI.
+     */
+    public String getURI() {
+        return uri;
+    }
+
+}
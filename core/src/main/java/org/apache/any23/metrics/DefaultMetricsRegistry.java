@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.metrics;
+
+import java.io.PrintStream;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * In-memory {@link MetricsRegistry} keeping a {@link Histogram}
+ * for every time metric and a total for every counter.
+ * This class is thread-safe.
+ */
+public class DefaultMetricsRegistry implements MetricsRegistry {
+
+    private final ConcurrentMap<String,Histogram> timers = new ConcurrentHashMap<String,Histogram>();
+
+    private final ConcurrentMap<String,AtomicLong> counters = new ConcurrentHashMap<String,AtomicLong>();
+
+    @Override
+    public void recordTime(String name, long nanos) {
+        if(name == null) {
+            throw new NullPointerException("name cannot be null.");
+        }
+        Histogram timer = timers.get(name);
+        if (timer == null) {
+            final Histogram candidate = new Histogram();
+            timer = timers.putIfAbsent(name, candidate);
+            if (timer == null) {
+                timer = candidate;
+            }
+        }
+        timer.record(nanos);
+    }
+
+    @Override
+    public void incrementCounter(String name, long delta) {
+        if(name == null) {
+            throw new NullPointerException("name cannot be null.");
+        }
+        AtomicLong counter = counters.get(name);
+        if (counter == null) {
+            final AtomicLong candidate = new AtomicLong();
+            counter = counters.putIfAbsent(name, candidate);
+            if (counter == null) {
+                counter = candidate;
+            }
+        }
+        counter.addAndGet(delta);
+    }
+
+    /**
+     * @param name the metric name.
+     * @return the distribution of the times recorded with the given name, <code>null</code> if none.
+     */
+    public Histogram getTimer(String name) {
+        return timers.get(name);
+    }
+
+    /**
+     * @param name the metric name.
+     * @return the value of the given counter, <code>0</code> if never incremented.
+     */
+    public long getCounter(String name) {
+        final AtomicLong counter = counters.get(name);
+        return counter == null ? 0 : counter.get();
+    }
+
+    /**
+     * @return the sorted names of the recorded time metrics.
+     */
+    public Set<String> getTimerNames() {
+        return new TreeSet<String>(timers.keySet());
+    }
+
+    /**
+     * @return the sorted names of the incremented counters.
+     */
+    public Set<String> getCounterNames() {
+        return new TreeSet<String>(counters.keySet());
+    }
+
+    /**
+     * Discards all the collected metrics.
+     */
+    public void reset() {
+        timers.clear();
+        counters.clear();
+    }
+
+    /**
+     * Prints a human readable report of the collected metrics, times are expressed in milliseconds.
+     * For every extractor the rate of emitted triples per second of extraction time is reported too.
+     *
+     * @param ps the destination stream.
+     */
+    public void printReport(PrintStream ps) {
+        ps.println("Timers (ms):");
+        for (String name : getTimerNames()) {
+            final Histogram timer = timers.get(name);
+            ps.printf(
+                    "   %s: count=%d, total=%.3f, mean=%.3f, min=%.3f, p50=%.3f, p90=%.3f, p99=%.3f, max=%.3f%n",
+                    name,
+                    timer.getCount(),
+                    toMillis(timer.getTotal()),
+                    toMillis(timer.getMean()),
+                    toMillis(timer.getMin()),
+                    toMillis(timer.getPercentile(0.5)),
+                    toMillis(timer.getPercentile(0.9)),
+                    toMillis(timer.getPercentile(0.99)),
+                    toMillis(timer.getMax())
+            );
+        }
+        ps.println("Counters:");
+        for (String name : getCounterNames()) {
+            ps.printf("   %s: %d%n", name, getCounter(name));
+        }
+        ps.println("Triple rates (triples/s):");
+        for (String name : getTimerNames()) {
+            final Histogram timer = timers.get(name);
+            if (!name.startsWith(EXTRACTOR_TIME_PREFIX) || timer.getTotal() == 0) {
+                continue;
+            }
+            final String extractor = name.substring(EXTRACTOR_TIME_PREFIX.length());
+            ps.printf(
+                    "   %s: %.1f%n",
+                    extractor,
+                    getCounter(EXTRACTOR_TRIPLES_PREFIX + extractor)
+                            / (timer.getTotal() / (double) TimeUnit.SECONDS.toNanos(1))
+            );
+        }
+    }
+
+    private static double toMillis(double nanos) {
+        return nanos / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.metrics;
+
+/**
+ * Collects the metrics produced during the extraction process.
+ * Every metric is identified by a dotted name, the names produced by
+ * {@link org.apache.any23.extractor.SingleDocumentExtraction} are
+ * listed in this interface.
+ * <p>
+ * Implementations must be thread-safe, since the same registry is
+ * shared among concurrent extractions.
+ * </p>
+ */
+public interface MetricsRegistry {
+
+    /**
+     * Time spent by the extractor <i>&lt;name&gt;</i> on a document, prefix of
+     * the extractor name.
+     */
+    String EXTRACTOR_TIME_PREFIX = "extractor.time.";
+
+    /**
+     * Triples emitted by the extractor <i>&lt;name&gt;</i>, prefix of the extractor name.
+     */
+    String EXTRACTOR_TRIPLES_PREFIX = "extractor.triples.";
+
+    /**
+     * Issues raised by the extractor <i>&lt;name&gt;</i>, prefix of the extractor name.
+     */
+    String EXTRACTOR_ISSUES_PREFIX = "extractor.issues.";
+
+    /**
+     * Bytes allocated by the extractor <i>&lt;name&gt;</i>, prefix of the extractor name.
+     * Recorded only when {@link ThreadAllocation#isSupported()}.
+     */
+    String EXTRACTOR_ALLOCATED_PREFIX = "extractor.allocated.";
+
+    /**
+     * Time spent to extract a whole document.
+     */
+    String DOCUMENT_TIME = "document.time";
+
+    /**
+     * Time spent to detect the document <i>MIME</i> type.
+     */
+    String DOCUMENT_DETECT_TIME = "document.detect.time";
+
+    /**
+     * <i>MIME</i> type and encoding detections answered by the
+     * {@link org.apache.any23.mime.DetectionCache}.
+     */
+    String DOCUMENT_DETECT_CACHE_HITS = "document.detect.cache.hits";
+
+    /**
+     * Extractions replayed by the {@link org.apache.any23.cache.ExtractionCache}.
+     */
+    String DOCUMENT_CACHE_HITS = "document.cache.hits";
+
+    /**
+     * Extractions not found in the {@link org.apache.any23.cache.ExtractionCache}.
+     */
+    String DOCUMENT_CACHE_MISSES = "document.cache.misses";
+
+    /**
+     * Documents reported as not modified by a conditional fetch.
+     */
+    String DOCUMENT_NOT_MODIFIED = "document.not.modified";
+
+    /**
+     * Time spent to detect the document encoding.
+     */
+    String DOCUMENT_ENCODING_TIME = "document.encoding.time";
+
+    /**
+     * Time spent to parse (and optionally validate) the document <i>DOM</i>.
+     */
+    String DOCUMENT_PARSE_TIME = "document.parse.time";
+
+    /**
+     * Processed documents.
+     */
+    String DOCUMENT_COUNT = "document.count";
+
+    /**
+     * Processed bytes.
+     */
+    String DOCUMENT_BYTES = "document.bytes";
+
+    /**
+     * Records a time measure.
+     *
+     * @param name the metric name.
+     * @param nanos the measured time in nanoseconds.
+     */
+    void recordTime(String name, long nanos);
+
+    /**
+     * Increments a counter.
+     *
+     * @param name the metric name.
+     * @param delta the increment.
+     */
+    void incrementCounter(String name, long delta);
+
+}
@@ -0,0 +1,44 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.metrics;
+
+/**
+ * A {@link MetricsRegistry} discarding every measure,
+ * used when metrics collection is not required.
+ */
+public class NoOpMetricsRegistry implements MetricsRegistry {
+
+    private static final NoOpMetricsRegistry INSTANCE = new NoOpMetricsRegistry();
+
+    public static NoOpMetricsRegistry getInstance() {
+        return INSTANCE;
+    }
+
+    private NoOpMetricsRegistry() {}
+
+    @Override
+    public void recordTime(String name, long nanos) {
+        // ignore
+    }
+
+    @Override
+    public void incrementCounter(String name, long delta) {
+        // ignore
+    }
+
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.rdf;
+
+/**
+ * Constants of the <i>Any23</i> binary quad format, written by
+ * {@link org.apache.any23.writer.BinaryRDFWriter} and read by
+ * {@link org.apache.any23.extractor.rdf.BinaryRDFExtractor}.
+ * <p>
+ * A stream starts with the {@link #MAGIC} bytes and the {@link #VERSION} byte,
+ * followed by a sequence of records:
+ * </p>
+ * <pre>
+ * record := QUAD term term term graph
+ *         | NAMESPACE string(prefix) string(namespace)
+ *         | RESET
+ * term   := IRI_REF varint(id)
+ *         | IRI_NEW varint(ns) [string(namespace) if ns = 0] string(local name)
+ *         | BNODE string(id)
+ *         | LITERAL string(label)
+ *         | LANG_LITERAL string(language) string(label)
+ *         | TYPED_LITERAL term(datatype) string(label)
+ * graph  := NONE | term
+ * </pre>
+ * <p>
+ * Integers are unsigned <i>LEB128</i> varints, strings are prefixed by their
+ * length in bytes and encoded in <i>UTF-8</i>. The IRIs are split after the
+ * last <code>#</code>, <code>/</code> or <code>:</code> into namespace and local name,
+ * every new IRI and namespace gets the next id of its per-stream dictionary,
+ * starting from <code>0</code>; the <code>ns</code> of a new IRI is the id of
+ * its namespace plus one, <code>0</code> when the namespace is new and follows.
+ * <code>LITERAL</code> holds the <i>xsd:string</i> literals. Both dictionaries are
+ * emptied by <code>RESET</code>, which the writer sends to bound their size.
+ * </p>
+ */
+public final class BinaryRDF {
+
+    public static final String MIME_TYPE = "application/x-any23-quads";
+
+    public static final String FILE_EXTENSION = "a23q";
+
+    public static final byte[] MAGIC = {'A', '2', '3', 'Q'};
+
+    public static final int VERSION = 1;
+
+    // Record tags.
+    public static final int QUAD = 1;
+    public static final int NAMESPACE = 2;
+    public static final int RESET = 3;
+
+    // Term tags.
+    public static final int NONE = 0;
+    public static final int IRI_REF = 1;
+    public static final int IRI_NEW = 2;
+    public static final int BNODE = 3;
+    public static final int LITERAL = 4;
+    public static final int LANG_LITERAL = 5;
+    public static final int TYPED_LITERAL = 6;
+
+    private BinaryRDF() {}
+
+    /**
+     * @param iri an IRI string.
+     * @return the length of the namespace of the IRI, <code>0</code> if the IRI has no separator.
+     */
+    public static int getNamespaceLength(String iri) {
+        for (int i = iri.length() - 1; i >= 0; i--) {
+            final char c = iri.charAt(i);
+            if (c == '#' || c == '/' || c == ':') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+}
@@ -553,6 +553,10 @@ public class RDFUtils {
      *         <code>false</code> otherwise.
      */
     public static boolean isAbsoluteIRI(String href) {
+        // an absolute IRI declares a scheme, avoids the exception driven check.
+        if (href.indexOf(':') == -1) {
+            return false;
+        }
         try {
             SimpleValueFactory.getInstance().createIRI(href.trim());
             new java.net.URI(href.trim());
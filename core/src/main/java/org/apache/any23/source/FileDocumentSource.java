@@ -18,7 +18,6 @@
 package org.apache.any23.source;
 
 import java.io.BufferedInputStream;
-import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -64,16 +63,11 @@ public class FileDocumentSource implements DocumentSource {
     }
 
     public String readStream() throws IOException {
-        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
         InputStream is = openInputStream();
         try {
-            int c;
-            while ((c = is.read()) != -1) {
-                baos.write(c);
-            }
+            return new String( MemCopyFactory.toByteArray(is, file.length()) );
         } finally {
             is.close();
         }
-        return new String( baos.toByteArray() );
     }
 }
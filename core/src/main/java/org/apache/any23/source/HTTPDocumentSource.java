@@ -43,6 +43,10 @@ public class HTTPDocumentSource implements DocumentSource {
 
     private boolean loaded = false;
 
+    private long contentLength = -1;
+
+    private String contentType;
+
     public HTTPDocumentSource(HTTPClient client, String uri) throws URISyntaxException {
         this.client = client;
         this.uri = normalize(uri);
@@ -62,8 +66,11 @@ public class HTTPDocumentSource implements DocumentSource {
 
     private void ensureOpen() throws IOException {
         if (loaded) return;
-        loaded = true;
         unusedInputStream = client.openInputStream(uri);
+        loaded = true;
+        // response metadata are captured here since the client can be shared by other sources.
+        contentLength = client.getContentLength();
+        contentType = client.getContentType();
         if (client.getActualDocumentIRI() != null) {
             uri = client.getActualDocumentIRI();
         }
@@ -80,7 +87,7 @@ public class HTTPDocumentSource implements DocumentSource {
     }
 
     public long getContentLength() {
-        return client.getContentLength();
+        return loaded ? contentLength : client.getContentLength();
     }
 
     public String getDocumentIRI() {
@@ -88,7 +95,7 @@ public class HTTPDocumentSource implements DocumentSource {
     }
 
     public String getContentType() {
-        return client.getContentType();
+        return loaded ? contentType : client.getContentType();
     }
 
     public boolean isLocal() {
@@ -0,0 +1,166 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.source;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+/**
+ * Creates local copies of {@link DocumentSource}s keeping the small
+ * ones in memory, like {@link MemCopyFactory}, and spilling the content
+ * exceeding a size <i>threshold</i> into a temporary file which is then
+ * memory mapped by a {@link MappedFileDocumentSource}.
+ * Large documents are in this way never buffered on the heap.
+ * <p>
+ * When supported by the platform the temporary file is deleted as
+ * soon as it is mapped, and its space is released once the mapping is
+ * garbage collected, otherwise it is deleted on exit.
+ * </p>
+ * <p>
+ * Since the mappings are not released explicitly this factory is opt-in:
+ * {@link org.apache.any23.Any23} uses it only when
+ * <code>any23.extraction.localcopy.mapped.threshold</code> is greater than <code>0</code>.
+ * </p>
+ */
+public class MappedCopyFactory implements LocalCopyFactory {
+
+    /**
+     * Default max size in bytes of the copies kept in memory,
+     * used when the factory is created without an explicit threshold.
+     */
+    public static final int DEFAULT_THRESHOLD = 8 * 1024 * 1024;
+
+    private static final int TEMP_SIZE = 64 * 1024;
+
+    private static final String TEMP_FILE_PREFIX = "any23-copy-";
+
+    private static final String TEMP_FILE_SUFFIX = ".tmp";
+
+    private final int threshold;
+
+    private final File tempDirectory;
+
+    /**
+     * Constructor.
+     *
+     * @param threshold max size in bytes of the copies kept in memory.
+     * @param tempDirectory the directory where the temporary files are created,
+     *        if <code>null</code> the default temporary directory will be used.
+     */
+    public MappedCopyFactory(int threshold, File tempDirectory) {
+        if(threshold < 0) {
+            throw new IllegalArgumentException("threshold must be >= 0.");
+        }
+        this.threshold = threshold;
+        this.tempDirectory = tempDirectory;
+    }
+
+    /**
+     * Constructor creating the temporary files in the default temporary directory.
+     *
+     * @param threshold max size in bytes of the copies kept in memory.
+     */
+    public MappedCopyFactory(int threshold) {
+        this(threshold, null);
+    }
+
+    /**
+     * Constructor using the {@link #DEFAULT_THRESHOLD}.
+     */
+    public MappedCopyFactory() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @return max size in bytes of the copies kept in memory.
+     */
+    public int getThreshold() {
+        return threshold;
+    }
+
+    public DocumentSource createLocalCopy(final DocumentSource in) throws IOException {
+        final long contentLength = in.getContentLength();
+        final InputStream is = in.openInputStream();
+        try {
+            if(contentLength > 0 && contentLength <= threshold) {
+                return new ByteArrayDocumentSource(
+                        MemCopyFactory.toByteArray(is, contentLength), in.getDocumentIRI(), in.getContentType()
+                );
+            }
+            final ByteArrayOutputStream head = new ByteArrayOutputStream();
+            if(contentLength <= 0) {
+                final byte[] buffer = new byte[TEMP_SIZE];
+                int bytes;
+                while (head.size() <= threshold && (bytes = is.read(buffer)) != -1) {
+                    head.write(buffer, 0, bytes);
+                }
+                if(head.size() <= threshold) {
+                    return new ByteArrayDocumentSource(
+                            head.toByteArray(), in.getDocumentIRI(), in.getContentType()
+                    );
+                }
+            }
+            return spill(head, is, in.getDocumentIRI(), in.getContentType());
+        } finally {
+            is.close();
+        }
+    }
+
+    private DocumentSource spill(ByteArrayOutputStream head, InputStream is, String documentIRI, String contentType)
+    throws IOException {
+        final File temp = File.createTempFile(TEMP_FILE_PREFIX, TEMP_FILE_SUFFIX, tempDirectory);
+        boolean done = false;
+        try {
+            final OutputStream out = new BufferedOutputStream(new FileOutputStream(temp), TEMP_SIZE);
+            try {
+                head.writeTo(out);
+                final byte[] buffer = new byte[TEMP_SIZE];
+                int bytes;
+                while ((bytes = is.read(buffer)) != -1) {
+                    out.write(buffer, 0, bytes);
+                }
+            } finally {
+                out.close();
+            }
+            final DocumentSource copy;
+            if(temp.length() > Integer.MAX_VALUE) {
+                copy = new MappedFileDocumentSource(temp, documentIRI, contentType);
+                temp.deleteOnExit();
+            } else {
+                final ByteBuffer mapped = MappedFileDocumentSource.map(temp);
+                copy = new MappedFileDocumentSource(temp, mapped, documentIRI, contentType);
+                if( ! temp.delete() ) {
+                    temp.deleteOnExit();
+                }
+            }
+            done = true;
+            return copy;
+        } finally {
+            if( ! done ) {
+                temp.delete();
+            }
+        }
+    }
+
+}
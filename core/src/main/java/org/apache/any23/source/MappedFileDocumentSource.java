@@ -0,0 +1,146 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.source;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * File implementation of {@link DocumentSource} backed by a
+ * read only {@link java.nio.MappedByteBuffer}.
+ * The file is mapped once, at the first {@link #openInputStream()},
+ * every returned stream is an independent view over the same mapping,
+ * so opening the document several times does not reread it nor copy
+ * it on the heap.
+ * Files larger than the maximum mappable size
+ * ({@link Integer#MAX_VALUE} bytes) are streamed from the disk.
+ */
+public class MappedFileDocumentSource implements DocumentSource {
+
+    private final File file;
+
+    private final String uri;
+
+    private final String contentType;
+
+    private volatile ByteBuffer buffer;
+
+    public MappedFileDocumentSource(File file) {
+        this(file, file.toURI().toString());
+    }
+
+    public MappedFileDocumentSource(File file, String baseIRI) {
+        this(file, baseIRI, null);
+    }
+
+    public MappedFileDocumentSource(File file, String baseIRI, String contentType) {
+        if(file == null) {
+            throw new NullPointerException("file cannot be null.");
+        }
+        this.file = file;
+        this.uri = baseIRI;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Creates a source over an already mapped <code>file</code>.
+     *
+     * @param file the mapped file.
+     * @param buffer the mapped content.
+     * @param baseIRI the document IRI.
+     * @param contentType the document content type, can be <code>null</code>.
+     */
+    MappedFileDocumentSource(File file, ByteBuffer buffer, String baseIRI, String contentType) {
+        this(file, baseIRI, contentType);
+        this.buffer = buffer;
+    }
+
+    /**
+     * @return the mapped file.
+     */
+    public File getFile() {
+        return file;
+    }
+
+    public InputStream openInputStream() throws IOException {
+        ByteBuffer mapped = buffer;
+        if(mapped == null) {
+            if(file.length() > Integer.MAX_VALUE) {
+                return new BufferedInputStream( new FileInputStream(file) );
+            }
+            mapped = getBuffer();
+        }
+        return new ByteBufferInputStream( mapped.duplicate() );
+    }
+
+    public long getContentLength() {
+        final ByteBuffer mapped = buffer;
+        return mapped == null ? file.length() : mapped.capacity();
+    }
+
+    public String getDocumentIRI() {
+        return uri;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public boolean isLocal() {
+        return true;
+    }
+
+    private ByteBuffer getBuffer() throws IOException {
+        ByteBuffer mapped = buffer;
+        if(mapped == null) {
+            synchronized (this) {
+                mapped = buffer;
+                if(mapped == null) {
+                    mapped = map(file);
+                    buffer = mapped;
+                }
+            }
+        }
+        return mapped;
+    }
+
+    /**
+     * Maps the whole content of the given file in memory. The mapping
+     * stays valid after the file channel is closed.
+     *
+     * @param file the file to be mapped.
+     * @return the read only mapped content.
+     * @throws IOException if an error occurs while mapping the file.
+     */
+    static ByteBuffer map(File file) throws IOException {
+        final RandomAccessFile raf = new RandomAccessFile(file, "r");
+        try {
+            final FileChannel channel = raf.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        } finally {
+            raf.close();
+        }
+    }
+
+}
@@ -20,6 +20,7 @@ package org.apache.any23.source;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.util.Arrays;
 
 /**
  * Creates local copies of {@link DocumentSource} by
@@ -32,8 +33,74 @@ public class MemCopyFactory implements LocalCopyFactory {
 
     private static final int TEMP_SIZE = 10000;
 
+    /**
+     * Max number of bytes allocated upfront on a declared content length.
+     */
+    public static final int MAX_PRESIZED_LENGTH = 1024 * 1024;
+
+    private static final int MAX_ARRAY_LENGTH = Integer.MAX_VALUE - 8;
+
     public static byte[] toByteArray(InputStream in) throws IOException {
-        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        return copy(in, new ByteArrayOutputStream());
+    }
+
+    /**
+     * Reads the given stream into an array, when the <code>expectedLength</code> is known
+     * and does not exceed {@link #MAX_PRESIZED_LENGTH} the array is allocated once and
+     * returned without further copies.
+     *
+     * @param in the input stream to be read.
+     * @param expectedLength the expected number of bytes, a value <code>&lt;&#61; 0</code>
+     *        means unknown length.
+     * @return the stream content.
+     * @throws IOException if an error occurs while reading the stream.
+     */
+    public static byte[] toByteArray(InputStream in, long expectedLength) throws IOException {
+        return toByteArray(in, expectedLength, MAX_PRESIZED_LENGTH);
+    }
+
+    /**
+     * Reads the given stream into an array presized on the <code>expectedLength</code>.
+     * The declared length is not trusted beyond <code>maxPresizedLength</code>: longer
+     * contents start from a buffer of that size and grow while they are actually read.
+     *
+     * @param in the input stream to be read.
+     * @param expectedLength the expected number of bytes, a value <code>&lt;&#61; 0</code>
+     *        means unknown length.
+     * @param maxPresizedLength max number of bytes allocated upfront on the declared length.
+     * @return the stream content.
+     * @throws IOException if an error occurs while reading the stream.
+     */
+    public static byte[] toByteArray(InputStream in, long expectedLength, long maxPresizedLength)
+    throws IOException {
+        if (expectedLength <= 0) {
+            return toByteArray(in);
+        }
+        final long presizedLength = Math.min(maxPresizedLength, MAX_ARRAY_LENGTH);
+        if (expectedLength > presizedLength) {
+            return copy(in, new ByteArrayOutputStream((int) Math.max(presizedLength, TEMP_SIZE)));
+        }
+        final byte[] buffer = new byte[(int) expectedLength];
+        int offset = 0;
+        while (offset < buffer.length) {
+            int bytes = in.read(buffer, offset, buffer.length - offset);
+            if (bytes == -1) {
+                return Arrays.copyOf(buffer, offset);
+            }
+            offset += bytes;
+        }
+        final int next = in.read();
+        if (next == -1) {
+            return buffer;
+        }
+        // the stream is longer than declared.
+        ByteArrayOutputStream out = new ByteArrayOutputStream(buffer.length + TEMP_SIZE);
+        out.write(buffer);
+        out.write(next);
+        return copy(in, out);
+    }
+
+    private static byte[] copy(InputStream in, ByteArrayOutputStream out) throws IOException {
         byte[] temp = new byte[TEMP_SIZE];
         while (true) {
             int bytes = in.read(temp);
@@ -44,6 +111,13 @@ public class MemCopyFactory implements LocalCopyFactory {
     }
 
     public DocumentSource createLocalCopy(final DocumentSource in) throws IOException {
-        return new ByteArrayDocumentSource(in.openInputStream(), in.getDocumentIRI(), in.getContentType());
+        final InputStream is = in.openInputStream();
+        try {
+            return new ByteArrayDocumentSource(
+                    toByteArray(is, in.getContentLength()), in.getDocumentIRI(), in.getContentType()
+            );
+        } finally {
+            is.close();
+        }
     }
 }
@@ -22,15 +22,19 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
 
-import java.util.HashMap;
-import java.util.Map;
 import java.util.Map.Entry;
-import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
 
 
 /**
  * {@link TripleHandler} decorator useful to
  * perform benchmarking.
+ * For finer grained and thread-safe measures see
+ * {@link org.apache.any23.Any23#setMetricsRegistry(org.apache.any23.metrics.MetricsRegistry)}.
  */
 public class BenchmarkTripleHandler implements TripleHandler {
 
@@ -42,7 +46,7 @@ public class BenchmarkTripleHandler implements TripleHandler {
     /**
      * Collected statistics. 
      */
-    private final Map<String, StatObject> stats;
+    private final ConcurrentMap<String, StatObject> stats;
 
     /**
      * Constructor.
@@ -53,7 +57,7 @@ public class BenchmarkTripleHandler implements TripleHandler {
             throw new NullPointerException("tripleHandler cannot be null.");
         }
         underlyingHandler = tripleHandler;
-        stats = new HashMap<String, StatObject>();
+        stats = new ConcurrentHashMap<String, StatObject>();
         stats.put("SUM", new StatObject());
     }
 
@@ -67,31 +71,29 @@ public class BenchmarkTripleHandler implements TripleHandler {
         StatObject sum = stats.get("SUM");
 
         sb.append("\n>Summary: ");
-        sb.append("\n   -total calls: ").append(sum.methodCalls);
-        sb.append("\n   -total triples: ").append(sum.triples);
-        sb.append("\n   -total runtime: ").append(sum.runtime).append(" ms!");
-        if (sum.runtime != 0)
-            sb.append("\n   -tripls/ms: ").append(sum.triples.get() / sum.runtime);
-        if (sum.methodCalls.get() != 0)
-            sb.append("\n   -ms/calls: ").append(sum.runtime / sum.methodCalls.get());
+        appendStats(sb, sum);
 
         stats.remove("SUM");
 
         for (Entry<String, StatObject> ent : stats.entrySet()) {
             sb.append("\n>Extractor: "       ).append(ent.getKey());
-            sb.append("\n   -total calls: "  ).append(ent.getValue().methodCalls);
-            sb.append("\n   -total triples: ").append(ent.getValue().triples);
-            sb.append("\n   -total runtime: ").append(ent.getValue().runtime).append(" ms!");
-            if (ent.getValue().runtime != 0)
-                sb.append("\n   -tripls/ms: "  ).append(ent.getValue().triples.get() / ent.getValue().runtime);
-            if (ent.getValue().methodCalls.get() != 0)
-                sb.append("\n   -ms/calls: "   ).append(ent.getValue().runtime / ent.getValue().methodCalls.get());
-
+            appendStats(sb, ent.getValue());
         }
 
         return sb.toString();
     }
 
+    private void appendStats(StringBuilder sb, StatObject stat) {
+        final long runtime = TimeUnit.NANOSECONDS.toMillis(stat.runtime.sum());
+        sb.append("\n   -total calls: "  ).append(stat.methodCalls);
+        sb.append("\n   -total triples: ").append(stat.triples);
+        sb.append("\n   -total runtime: ").append(runtime).append(" ms!");
+        if (runtime != 0)
+            sb.append("\n   -tripls/ms: "  ).append(stat.triples.get() / runtime);
+        if (stat.methodCalls.get() != 0)
+            sb.append("\n   -ms/calls: "   ).append(runtime / stat.methodCalls.get());
+    }
+
     public void startDocument(IRI documentIRI) throws TripleHandlerException {
         underlyingHandler.startDocument(documentIRI);
     }
@@ -101,31 +103,28 @@ public class BenchmarkTripleHandler implements TripleHandler {
     }
 
     public void closeContext(ExtractionContext context) throws TripleHandlerException {
-        if (stats.containsKey(context.getExtractorName())) {
-            stats.get(context.getExtractorName()).interimStop();
-            stats.get("SUM").interimStop();
+        final StatObject stat = stats.get(context.getExtractorName());
+        if (stat != null) {
+            stat.interimStop();
+            getStat("SUM").interimStop();
         }
         underlyingHandler.closeContext(context);
     }
 
     public void openContext(ExtractionContext context) throws TripleHandlerException {
-        if (!stats.containsKey(context.getExtractorName())) {
-            stats.put(context.getExtractorName(), new StatObject());
-        }
-        stats.get(context.getExtractorName()).methodCalls.incrementAndGet();
-        stats.get(context.getExtractorName()).interimStart();
-        stats.get("SUM").methodCalls.incrementAndGet();
-        stats.get("SUM").interimStart();
+        final StatObject stat = getStat(context.getExtractorName());
+        stat.methodCalls.incrementAndGet();
+        stat.interimStart();
+        final StatObject sum = getStat("SUM");
+        sum.methodCalls.incrementAndGet();
+        sum.interimStart();
         underlyingHandler.openContext(context);
     }
 
     public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
     throws TripleHandlerException {
-        if (!stats.containsKey(context.getExtractorName())) {
-            stats.put(context.getExtractorName(), new StatObject());
-        }
-        stats.get(context.getExtractorName()).triples.incrementAndGet();
-        stats.get("SUM").triples.incrementAndGet();
+        getStat(context.getExtractorName()).triples.incrementAndGet();
+        getStat("SUM").triples.incrementAndGet();
         underlyingHandler.receiveTriple(s, p, o, g, context);
     }
 
@@ -141,29 +140,49 @@ public class BenchmarkTripleHandler implements TripleHandler {
         underlyingHandler.setContentLength(contentLength);
     }
 
+    private StatObject getStat(String name) {
+        StatObject stat = stats.get(name);
+        if (stat == null) {
+            final StatObject created = new StatObject();
+            stat = stats.putIfAbsent(name, created);
+            if (stat == null) {
+                stat = created;
+            }
+        }
+        return stat;
+    }
+
     /**
-     * A single statistics.
+     * A single statistics, updated concurrently by the threads
+     * sharing the handler.
      */
-    private class StatObject {
+    private static class StatObject {
+
+        final AtomicLong methodCalls = new AtomicLong(0);
+        final AtomicLong triples     = new AtomicLong(0);
+        final LongAdder  runtime     = new LongAdder();
 
-        AtomicInteger methodCalls = new AtomicInteger(0);
-        AtomicInteger triples     = new AtomicInteger(0);
-        long runtime    = 0;
-        long intStart   = 0;
+        /**
+         * Start time of the context open on the current thread.
+         */
+        private final ThreadLocal<Long> intStart = new ThreadLocal<Long>();
 
         /**
          * Takes the start time.
          */
         public void interimStart() {
-            intStart = System.currentTimeMillis();
+            intStart.set(System.nanoTime());
         }
 
         /**
          * Takes the stop time.
          */
         public void interimStop() {
-            runtime += (System.currentTimeMillis() - intStart);
-            intStart = 0;
+            final Long start = intStart.get();
+            if (start != null) {
+                runtime.add(System.nanoTime() - start);
+                intStart.remove();
+            }
         }
     }
 
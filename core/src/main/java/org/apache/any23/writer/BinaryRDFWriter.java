@@ -0,0 +1,244 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.rdf.BinaryRDF;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Writer of the compact binary quad format described in {@link BinaryRDF}.
+ * Every IRI and namespace is written once per stream and then referred by id,
+ * once the IRI dictionary reaches the configured size both dictionaries are reset.
+ * Quads without graph are written in the graph of the document, as in <i>N-Quads</i>.
+ * <p>
+ * The output can be read back with {@link org.apache.any23.extractor.rdf.BinaryRDFExtractor}.
+ * </p>
+ * This class is not thread-safe.
+ */
+public class BinaryRDFWriter implements FormatWriter {
+
+    /**
+     * Default max number of IRIs in the dictionary.
+     */
+    public static final int DEFAULT_MAX_DICTIONARY_SIZE = 1024 * 1024;
+
+    /**
+     * Max number of IRIs a quad can add to the dictionary.
+     */
+    private static final int MAX_IRIS_PER_QUAD = 5;
+
+    private final UTF8Output out;
+
+    private final int maxDictionarySize;
+
+    private final Map<String, Integer> iris = new HashMap<String, Integer>();
+
+    private final Map<String, Integer> namespaces = new HashMap<String, Integer>();
+
+    private boolean headerWritten = false;
+
+    private boolean closed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param os the output stream, not closed by {@link #close()}.
+     * @param maxDictionarySize the max number of IRIs kept in the dictionary, cannot be less than 16.
+     */
+    public BinaryRDFWriter(OutputStream os, int maxDictionarySize) {
+        if(os == null) {
+            throw new NullPointerException("Output stream cannot be null.");
+        }
+        if(maxDictionarySize < 16) {
+            throw new IllegalArgumentException("maxDictionarySize cannot be < 16 .");
+        }
+        this.out = new UTF8Output(os);
+        this.maxDictionarySize = maxDictionarySize;
+    }
+
+    public BinaryRDFWriter(OutputStream os) {
+        this(os, DEFAULT_MAX_DICTIONARY_SIZE);
+    }
+
+    @Override
+    public void startDocument(IRI documentIRI) throws TripleHandlerException {
+        // Empty.
+    }
+
+    @Override
+    public void openContext(ExtractionContext context) throws TripleHandlerException {
+        // Empty.
+    }
+
+    @Override
+    public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+    throws TripleHandlerException {
+        final IRI graph = g == null && context != null ? context.getDocumentIRI() : g;
+        try {
+            writeHeader();
+            if(iris.size() + MAX_IRIS_PER_QUAD > maxDictionarySize) {
+                out.writeByte(BinaryRDF.RESET);
+                iris.clear();
+                namespaces.clear();
+            }
+            out.writeByte(BinaryRDF.QUAD);
+            writeValue(s);
+            writeIRI(p);
+            writeValue(o);
+            if(graph == null) {
+                out.writeByte(BinaryRDF.NONE);
+            } else {
+                writeIRI(graph);
+            }
+        } catch (IOException ioe) {
+            throw new TripleHandlerException(
+                    String.format("Error while receiving triple: %s %s %s %s", s, p, o, graph),
+                    ioe
+            );
+        }
+    }
+
+    @Override
+    public void receiveNamespace(String prefix, String uri, ExtractionContext context)
+    throws TripleHandlerException {
+        try {
+            writeHeader();
+            out.writeByte(BinaryRDF.NAMESPACE);
+            out.writeString(prefix);
+            out.writeString(uri);
+        } catch (IOException ioe) {
+            throw new TripleHandlerException(
+                    String.format("Error while receiving namespace: %s:%s", prefix, uri),
+                    ioe
+            );
+        }
+    }
+
+    @Override
+    public void closeContext(ExtractionContext context) throws TripleHandlerException {
+        // Empty.
+    }
+
+    @Override
+    public void endDocument(IRI documentIRI) throws TripleHandlerException {
+        // Empty.
+    }
+
+    @Override
+    public void setContentLength(long contentLength) {
+        // Empty.
+    }
+
+    /**
+     * Flushes the written quads, the underlying stream is not closed.
+     *
+     * @throws TripleHandlerException if an error occurs while writing.
+     */
+    @Override
+    public void close() throws TripleHandlerException {
+        if(closed) return;
+        closed = true;
+        try {
+            writeHeader();
+            out.flush();
+        } catch (IOException ioe) {
+            throw new TripleHandlerException("Error while closing the binary writer.", ioe);
+        }
+    }
+
+    @Override
+    public boolean isAnnotated() {
+        return false;
+    }
+
+    @Override
+    public void setAnnotated(boolean f) {
+        // Empty.
+    }
+
+    private void writeHeader() throws IOException {
+        if(headerWritten) return;
+        headerWritten = true;
+        for(byte b : BinaryRDF.MAGIC) {
+            out.writeByte(b);
+        }
+        out.writeByte(BinaryRDF.VERSION);
+    }
+
+    private void writeValue(Value value) throws IOException {
+        if(value instanceof IRI) {
+            writeIRI((IRI) value);
+        } else if(value instanceof BNode) {
+            out.writeByte(BinaryRDF.BNODE);
+            out.writeString(((BNode) value).getID());
+        } else if(value instanceof Literal) {
+            writeLiteral((Literal) value);
+        } else {
+            throw new IllegalArgumentException("Unknown value type: " + value.getClass());
+        }
+    }
+
+    private void writeLiteral(Literal literal) throws IOException {
+        final IRI datatype = literal.getDatatype();
+        if(literal.getLanguage().isPresent()) {
+            out.writeByte(BinaryRDF.LANG_LITERAL);
+            out.writeString(literal.getLanguage().get());
+        } else if(datatype == null || XMLSchema.STRING.equals(datatype)) {
+            out.writeByte(BinaryRDF.LITERAL);
+        } else {
+            out.writeByte(BinaryRDF.TYPED_LITERAL);
+            writeIRI(datatype);
+        }
+        out.writeString(literal.getLabel());
+    }
+
+    private void writeIRI(IRI iri) throws IOException {
+        final String value = iri.stringValue();
+        final Integer id = iris.get(value);
+        if(id != null) {
+            out.writeByte(BinaryRDF.IRI_REF);
+            out.writeVarInt(id);
+            return;
+        }
+        iris.put(value, iris.size());
+        final int split = BinaryRDF.getNamespaceLength(value);
+        final String namespace = value.substring(0, split);
+        final Integer namespaceId = namespaces.get(namespace);
+        out.writeByte(BinaryRDF.IRI_NEW);
+        if(namespaceId != null) {
+            out.writeVarInt(namespaceId + 1);
+        } else {
+            namespaces.put(namespace, namespaces.size());
+            out.writeVarInt(0);
+            out.writeString(namespace);
+        }
+        out.writeString(value.substring(split));
+    }
+
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A {@link TripleHandler} that records the context, namespace and triple
+ * events it receives, so that they can be later replayed in the same order
+ * on another handler by invoking {@link #replay(TripleHandler)}.
+ * <p>
+ * Document level events (<i>startDocument</i>, <i>endDocument</i>,
+ * <i>setContentLength</i> and <i>close</i>) are not recorded, they are
+ * expected to be notified directly to the target handler.
+ * </p>
+ * This class is not thread-safe.
+ */
+public class BufferedTripleHandler implements TripleHandler {
+
+    private final List<Event> events = new ArrayList<Event>();
+
+    /**
+     * @return the number of recorded events.
+     */
+    public int size() {
+        return events.size();
+    }
+
+    /**
+     * Sends all the recorded events to the given <code>target</code>
+     * handler, in the same order they have been received.
+     *
+     * @param target the handler receiving the events.
+     * @throws TripleHandlerException if the target handler raises an error.
+     */
+    public void replay(TripleHandler target) throws TripleHandlerException {
+        if(target == null) {
+            throw new NullPointerException("target cannot be null.");
+        }
+        for(Event event : events) {
+            event.replay(target);
+        }
+    }
+
+    /**
+     * Discards all the recorded events.
+     */
+    public void clear() {
+        events.clear();
+    }
+
+    public void startDocument(IRI documentIRI) throws TripleHandlerException {
+        // ignore
+    }
+
+    public void openContext(final ExtractionContext context) throws TripleHandlerException {
+        events.add(new Event() {
+            @Override
+            void replay(TripleHandler target) throws TripleHandlerException {
+                target.openContext(context);
+            }
+        });
+    }
+
+    public void receiveTriple(
+            final Resource s, final IRI p, final Value o, final IRI g, final ExtractionContext context
+    ) throws TripleHandlerException {
+        events.add(new Event() {
+            @Override
+            void replay(TripleHandler target) throws TripleHandlerException {
+                target.receiveTriple(s, p, o, g, context);
+            }
+        });
+    }
+
+    public void receiveNamespace(final String prefix, final String uri, final ExtractionContext context)
+    throws TripleHandlerException {
+        events.add(new Event() {
+            @Override
+            void replay(TripleHandler target) throws TripleHandlerException {
+                target.receiveNamespace(prefix, uri, context);
+            }
+        });
+    }
+
+    public void closeContext(final ExtractionContext context) throws TripleHandlerException {
+        events.add(new Event() {
+            @Override
+            void replay(TripleHandler target) throws TripleHandlerException {
+                target.closeContext(context);
+            }
+        });
+    }
+
+    public void endDocument(IRI documentIRI) throws TripleHandlerException {
+        // ignore
+    }
+
+    public void setContentLength(long contentLength) {
+        // ignore
+    }
+
+    public void close() throws TripleHandlerException {
+        events.clear();
+    }
+
+    /**
+     * A recorded handler event.
+     */
+    private abstract static class Event {
+        abstract void replay(TripleHandler target) throws TripleHandlerException;
+    }
+
+}
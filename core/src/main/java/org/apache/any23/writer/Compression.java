@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorOutputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorOutputStream;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compression algorithms which can be applied to the output of a
+ * {@link FormatWriter}. The compressed stream wraps the destination stream,
+ * so the output is compressed while it is written:
+ * <pre>
+ *     final OutputStream os = Compression.GZIP.compress(new FileOutputStream(file), 4);
+ *     final FormatWriter writer = factory.getRdfWriter(os);
+ *     ...
+ *     writer.close();
+ *     os.close();
+ * </pre>
+ * Closing the compressed stream completes the compressed data
+ * and closes the destination stream.
+ */
+public enum Compression {
+
+    NONE ("none" , ""    , null  ),
+    GZIP ("gzip" , ".gz" , "gzip"),
+    BZIP2("bzip2", ".bz2", null  ),
+    XZ   ("xz"   , ".xz" , null  );
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static ExecutorService compressors;
+
+    private final String identifier;
+
+    private final String fileExtension;
+
+    private final String contentEncoding;
+
+    Compression(String identifier, String fileExtension, String contentEncoding) {
+        this.identifier = identifier;
+        this.fileExtension = fileExtension;
+        this.contentEncoding = contentEncoding;
+    }
+
+    /**
+     * @return the identifier of the compression, i.e. <i>gzip</i>.
+     */
+    public String getIdentifier() {
+        return identifier;
+    }
+
+    /**
+     * @return the extension conventionally appended to compressed file names,
+     *         i.e. <i>.gz</i>, empty for {@link #NONE}.
+     */
+    public String getFileExtension() {
+        return fileExtension;
+    }
+
+    /**
+     * @return the HTTP <i>Content-Encoding</i> value of the compression,
+     *         <code>null</code> if it cannot be used as HTTP content encoding.
+     */
+    public String getContentEncoding() {
+        return contentEncoding;
+    }
+
+    /**
+     * Wraps the given stream with a single threaded compressor.
+     *
+     * @param os the destination stream.
+     * @return the compressing stream.
+     * @throws IOException if an error occurs while writing the compression header.
+     */
+    public OutputStream compress(OutputStream os) throws IOException {
+        return compress(os, 1);
+    }
+
+    /**
+     * Wraps the given stream with a compressor. With <i>threads &gt; 1</i> the {@link #GZIP}
+     * compression splits the data in blocks compressed in parallel and written as a sequence
+     * of <i>gzip</i> members, which decompresses as a single <i>gzip</i> stream. The blocks
+     * are compressed by a pool shared by all the streams, see {@link #getCompressors()}.
+     * The other compressions ignore the <code>threads</code> parameter.
+     *
+     * @param os the destination stream.
+     * @param threads max number of blocks of the stream compressed at once.
+     * @return the compressing stream.
+     * @throws IOException if an error occurs while writing the compression header.
+     */
+    public OutputStream compress(OutputStream os, int threads) throws IOException {
+        if(os == null) {
+            throw new NullPointerException("os cannot be null.");
+        }
+        if(threads < 1) {
+            throw new IllegalArgumentException("threads must be >= 1 .");
+        }
+        switch (this) {
+            case NONE:
+                return os;
+            case GZIP:
+                if(threads > 1) {
+                    return new ParallelGZIPOutputStream(os, getCompressors(), threads);
+                }
+                return new GZIPOutputStream(os, BUFFER_SIZE);
+            case BZIP2:
+                return new BZip2CompressorOutputStream(new BufferedOutputStream(os, BUFFER_SIZE));
+            case XZ:
+                return new XZCompressorOutputStream(new BufferedOutputStream(os, BUFFER_SIZE));
+            default:
+                throw new IllegalStateException("Unsupported compression " + this);
+        }
+    }
+
+    /**
+     * Returns the compression with the given identifier.
+     *
+     * @param identifier the compression identifier, case insensitive.
+     * @return the compression.
+     * @throws IllegalArgumentException if no compression matches the identifier.
+     */
+    public static Compression fromIdentifier(String identifier) {
+        if(identifier == null) {
+            throw new NullPointerException("identifier cannot be null.");
+        }
+        final String id = identifier.trim().toLowerCase(Locale.ROOT);
+        for(Compression compression : values()) {
+            if(compression.identifier.equals(id)) {
+                return compression;
+            }
+        }
+        throw new IllegalArgumentException(
+                String.format("Invalid compression '%s', admitted values: %s", identifier, getIdentifiers())
+        );
+    }
+
+    /**
+     * Returns the compression conventionally used by the given file name.
+     *
+     * @param fileName a file name.
+     * @return the compression matching the file extension, {@link #NONE} if none matches.
+     */
+    public static Compression fromFileName(String fileName) {
+        if(fileName == null) {
+            throw new NullPointerException("fileName cannot be null.");
+        }
+        final String name = fileName.toLowerCase(Locale.ROOT);
+        for(Compression compression : values()) {
+            if(compression != NONE && name.endsWith(compression.fileExtension)) {
+                return compression;
+            }
+        }
+        return NONE;
+    }
+
+    /**
+     * Returns the pool shared by all the parallel <i>gzip</i> streams, created on first
+     * use with a daemon thread per available processor, as the compression is CPU bound.
+     *
+     * @return the shared executor.
+     */
+    static synchronized ExecutorService getCompressors() {
+        if(compressors == null) {
+            compressors = Executors.newFixedThreadPool(
+                    Runtime.getRuntime().availableProcessors(),
+                    new ThreadFactory() {
+                        private final AtomicInteger threadCounter = new AtomicInteger();
+                        @Override
+                        public Thread newThread(Runnable r) {
+                            final Thread thread = new Thread(r, "any23-gzip-" + threadCounter.incrementAndGet());
+                            thread.setDaemon(true);
+                            return thread;
+                        }
+                    }
+            );
+        }
+        return compressors;
+    }
+
+    private static String getIdentifiers() {
+        final StringBuilder sb = new StringBuilder();
+        for(Compression compression : values()) {
+            if(sb.length() > 0) sb.append(", ");
+            sb.append(compression.identifier);
+        }
+        return sb.toString();
+    }
+
+}
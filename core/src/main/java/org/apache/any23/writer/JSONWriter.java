@@ -24,30 +24,59 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
 
-import java.io.BufferedOutputStream;
+import java.io.IOException;
 import java.io.OutputStream;
-import java.io.PrintStream;
 import java.util.Optional;
 
 /**
  * Implementation of <i>JSON</i> format writer.
+ * <p>
+ * By default every document is written as a <code>{ "quads" : [...] }</code>
+ * object holding a <code>[subject, predicate, object, graph]</code> array per quad.
+ * In <i>newline delimited</i> mode (<a href="http://ndjson.org/">NDJSON</a>)
+ * every quad is written on its own line as a
+ * <code>{ "subject" : ..., "predicate" : ..., "object" : ..., "graph" : ... }</code>
+ * object, with no enclosing envelope, so that the output can be split
+ * at any line boundary.
+ * </p>
+ * The output is encoded in <i>UTF-8</i>.
  *
  * @author Michele Mostarda (mostarda@fbk.eu)
  */
 public class JSONWriter implements FormatWriter {
 
-    private final PrintStream ps;
+    private final UTF8Output out;
+
+    private final boolean newlineDelimited;
 
     private boolean documentStarted = false;
 
     private boolean firstArrayElemWritten = false;
     private boolean firstObjectWritten    = false;
 
-    public JSONWriter(OutputStream os) {
+    /**
+     * Constructor.
+     *
+     * @param os the output stream, closed when the writer is closed.
+     * @param newlineDelimited if <code>true</code> every quad is written as an object on its own line.
+     */
+    public JSONWriter(OutputStream os, boolean newlineDelimited) {
         if(os == null) {
             throw new NullPointerException("Output stream cannot be null.");
         }
-        this.ps = new PrintStream(new BufferedOutputStream(os));
+        this.out = new UTF8Output(os);
+        this.newlineDelimited = newlineDelimited;
+    }
+
+    public JSONWriter(OutputStream os) {
+        this(os, false);
+    }
+
+    /**
+     * @return <code>true</code> if every quad is written as an object on its own line.
+     */
+    public boolean isNewlineDelimited() {
+        return newlineDelimited;
     }
 
     @Override
@@ -58,7 +87,9 @@ public class JSONWriter implements FormatWriter {
         documentStarted = true;
 
         firstArrayElemWritten = false;
-        ps.print("{ \"quads\" : [");
+        if(!newlineDelimited) {
+            print("{ \"quads\" : [");
+        }
     }
 
     @Override
@@ -69,36 +100,21 @@ public class JSONWriter implements FormatWriter {
     @Override
     public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
     throws TripleHandlerException {
-        validateDocumentStarted();
-
-        if(firstArrayElemWritten) {
-            ps.print(", ");
-        } else {
-            firstArrayElemWritten = true;
+        if(!newlineDelimited) {
+            validateDocumentStarted();
         }
-        firstObjectWritten    = false;
-        
-        ps.print('[');
-
-        if(s instanceof IRI) {
-            printExplicitIRI(s.stringValue(), ps);
-        } else {
-            printBNode(s.stringValue(), ps);
-        }
-
-        printIRI(p.stringValue(), ps);
-
-         if(o instanceof IRI) {
-            printExplicitIRI(o.stringValue(), ps);
-        } else if(o instanceof BNode) {
-            printBNode(o.stringValue(), ps);
-        } else {
-            printLiteral((Literal) o, ps);
+        try {
+            if(newlineDelimited) {
+                writeQuadObject(s, p, o, g);
+            } else {
+                writeQuadArray(s, p, o, g);
+            }
+        } catch (IOException ioe) {
+            throw new TripleHandlerException(
+                    String.format("Error while receiving triple: %s %s %s %s", s, p, o, g),
+                    ioe
+            );
         }
-
-        printIRI(g == null ? null : g.stringValue(), ps);
-
-        ps.print(']');
     }
 
     @Override
@@ -115,7 +131,9 @@ public class JSONWriter implements FormatWriter {
     @Override
     public void endDocument(IRI documentIRI) throws TripleHandlerException {
         validateDocumentStarted();
-        ps.print("]}");
+        if(!newlineDelimited) {
+            print("]}");
+        }
         documentStarted = false;
     }
 
@@ -126,10 +144,14 @@ public class JSONWriter implements FormatWriter {
 
     @Override
     public void close() throws TripleHandlerException {
-    	if(documentStarted) {
-    		endDocument(null);
-    	}
-        ps.close();
+        if(documentStarted) {
+            endDocument(null);
+        }
+        try {
+            out.close();
+        } catch (IOException ioe) {
+            throw new TripleHandlerException("Error while closing the JSON writer.", ioe);
+        }
     }
 
     private void validateDocumentStarted() {
@@ -138,92 +160,100 @@ public class JSONWriter implements FormatWriter {
         }
     }
 
-    private void printIRI(String uri, PrintStream ps) {
-        printValue(uri, ps);
+    private void print(String s) throws TripleHandlerException {
+        try {
+            out.writeASCII(s);
+        } catch (IOException ioe) {
+            throw new TripleHandlerException("Error while writing JSON.", ioe);
+        }
     }
 
-    private void printExplicitIRI(String uri, PrintStream ps) {
-        printValue("uri", uri, ps);
+    private void writeQuadArray(Resource s, IRI p, Value o, IRI g) throws IOException {
+        if(firstArrayElemWritten) {
+            out.writeASCII(", ");
+        } else {
+            firstArrayElemWritten = true;
+        }
+        firstObjectWritten = false;
+
+        out.write('[');
+        printCommaIfNeeded();
+        printResource(s);
+        printCommaIfNeeded();
+        printIRI(p);
+        printCommaIfNeeded();
+        printObject(o);
+        printCommaIfNeeded();
+        printIRI(g);
+        out.write(']');
     }
 
-    private void printBNode(String bnode, PrintStream ps) {
-        printValue("bnode", bnode, ps);
+    private void writeQuadObject(Resource s, IRI p, Value o, IRI g) throws IOException {
+        out.writeASCII("{\"subject\" : ");
+        printResource(s);
+        out.writeASCII(", \"predicate\" : ");
+        printIRI(p);
+        out.writeASCII(", \"object\" : ");
+        printObject(o);
+        out.writeASCII(", \"graph\" : ");
+        printIRI(g);
+        out.writeASCII("}\n");
     }
 
-    private void printCommaIfNeeded(PrintStream ps) {
-        if(firstObjectWritten) {
-            ps.print(", ");
+    private void printResource(Resource r) throws IOException {
+        if(r instanceof IRI) {
+            printValue("uri", r.stringValue());
         } else {
-            firstObjectWritten = true;
+            printValue("bnode", r.stringValue());
         }
     }
 
-    private void printLiteral(Literal literal, PrintStream ps) {
-        printCommaIfNeeded(ps);
-
-        ps.print('{');
-
-        ps.print("\"type\" : \"literal\"");
-
-        ps.print(", ");
-
-        ps.print("\"value\" : ");
-        ps.print('"');
-        ps.print(literal.stringValue());
-        ps.print('"');
-
-        ps.print(", ");
-
-        ps.print("\"lang\" : ");
-        final Optional<String> language = literal.getLanguage();
-        if (language.isPresent()) {
-            ps.print('"');
-            ps.print(literal.getLanguage().get());
-            ps.print('"');
+    private void printObject(Value o) throws IOException {
+        if(o instanceof IRI) {
+            printValue("uri", o.stringValue());
+        } else if(o instanceof BNode) {
+            printValue("bnode", o.stringValue());
         } else {
-            ps.print("null");
+            printLiteral((Literal) o);
         }
+    }
 
-        ps.print(", ");
+    private void printIRI(IRI uri) throws IOException {
+        printString(uri == null ? null : uri.stringValue());
+    }
 
-        ps.print("\"datatype\" : ");
-        final IRI datatype = literal.getDatatype();
-        if(datatype != null) {
-        ps.print('"');
-        ps.print(datatype.stringValue());
-        ps.print('"');
+    private void printCommaIfNeeded() throws IOException {
+        if(firstObjectWritten) {
+            out.writeASCII(", ");
         } else {
-            ps.print("null");
+            firstObjectWritten = true;
         }
-
-        ps.print('}');
     }
 
-    private void printValue(String type, String value, PrintStream ps) {
-        printCommaIfNeeded(ps);
-
-        ps.print("{ \"type\" : \"");
-        ps.print(type);
-        ps.print("\", \"value\" : ");
-        if (value != null) {
-            ps.print('"');
-            ps.print(value);
-            ps.print('"');
-        } else {
-            ps.print("null");
-        }
-        ps.print('}');
+    private void printLiteral(Literal literal) throws IOException {
+        out.writeASCII("{\"type\" : \"literal\", \"value\" : ");
+        out.writeJSONString(literal.stringValue());
+        out.writeASCII(", \"lang\" : ");
+        final Optional<String> language = literal.getLanguage();
+        printString(language.isPresent() ? language.get() : null);
+        out.writeASCII(", \"datatype\" : ");
+        printIRI(literal.getDatatype());
+        out.write('}');
     }
 
-    private void printValue(String value, PrintStream ps) {
-        printCommaIfNeeded(ps);
+    private void printValue(String type, String value) throws IOException {
+        out.writeASCII("{ \"type\" : \"");
+        out.writeASCII(type);
+        out.writeASCII("\", \"value\" : ");
+        printString(value);
+        out.write('}');
+    }
 
+    private void printString(String value) throws IOException {
         if (value != null) {
-            ps.print('"');
-            ps.print(value);
-            ps.print('"');
+            out.writeJSONString(value);
         } else {
-            ps.print("null");
+            out.writeASCII("null");
         }
     }
 
@@ -18,6 +18,7 @@
 package org.apache.any23.writer;
 
 import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
 
@@ -30,6 +31,13 @@ public class JSONWriterFactory implements WriterFactory {
     public static final String MIME_TYPE = "text/json";
     public static final String IDENTIFIER = "json";
 
+    /**
+     * The <i>Any23</i> JSON quad serialization, distinct from <i>RDF/JSON</i>.
+     */
+    public static final RDFFormat FORMAT = new RDFFormat(
+            "Any23 JSON", MIME_TYPE, StandardCharsets.UTF_8, "json", false, true
+    );
+
     /**
      * 
      */
@@ -38,8 +46,7 @@ public class JSONWriterFactory implements WriterFactory {
 
     @Override
     public RDFFormat getRdfFormat() {
-        throw new RuntimeException(
-                "TODO: Implement an RDFFormat for this RDF JSON serialisation format");
+        return FORMAT;
     }
 
     @Override
@@ -0,0 +1,240 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.eclipse.rdf4j.model.BNode;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Literal;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.rio.RDFFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * A {@link TripleHandler} writing one statement per line in the
+ * <i>N-Triples</i> or <i>N-Quads</i> syntax.
+ * <p>
+ * The statements are serialized directly from the received values into a
+ * reusable byte buffer, which is flushed to the output stream when full
+ * and on {@link #close()}, see {@link UTF8Output}. The output is the same
+ * produced by the corresponding <i>Rio</i> writers with their default
+ * settings: IRIs and literals are escaped to <i>ASCII</i>, blank node
+ * identifiers are reduced to letters and digits and <i>xsd:string</i>
+ * literals are written as plain literals.
+ * </p>
+ * This class is not thread-safe.
+ */
+public abstract class LineWriterTripleHandler implements FormatWriter, TripleHandler {
+
+    private final UTF8Output out;
+
+    private final RDFFormat format;
+
+    private final boolean writeGraph;
+
+    private boolean closed = false;
+
+    /**
+     * The annotation flag.
+     */
+    private boolean annotated = false;
+
+    LineWriterTripleHandler(OutputStream out, RDFFormat format, boolean writeGraph) {
+        this.out = new UTF8Output(out);
+        this.format = format;
+        this.writeGraph = writeGraph;
+    }
+
+    /**
+     * If <code>true</code> then the produced <b>RDF</b> is annotated with
+     * the extractors used to generate the specific statements.
+     *
+     * @return the annotation flag value.
+     */
+    @Override
+    public boolean isAnnotated() {
+        return annotated;
+    }
+
+    /**
+     * Sets the <i>annotation</i> flag.
+     *
+     * @param f If <code>true</code> then the produced <b>RDF</b> is annotated with
+     *          the extractors used to generate the specific statements.
+     */
+    @Override
+    public void setAnnotated(boolean f) {
+        annotated = f;
+    }
+
+    @Override
+    public void startDocument(IRI documentIRI) throws TripleHandlerException {
+        handleComment("OUTPUT FORMAT: " + format);
+    }
+
+    @Override
+    public void openContext(ExtractionContext context) throws TripleHandlerException {
+        handleComment("BEGIN: " + context);
+    }
+
+    @Override
+    public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+    throws TripleHandlerException {
+        final IRI graph = g == null ? context.getDocumentIRI() : g;
+        try {
+            writeResource(s);
+            out.write(' ');
+            writeIRI(p);
+            out.write(' ');
+            writeValue(o);
+            if (writeGraph && graph != null) {
+                out.write(' ');
+                writeIRI(graph);
+            }
+            out.write(' ');
+            out.write('.');
+            out.write('\n');
+        } catch (IOException ex) {
+            throw new TripleHandlerException(
+                    String.format("Error while receiving triple: %s %s %s %s", s, p, o, graph),
+                    ex
+            );
+        }
+    }
+
+    @Override
+    public void receiveNamespace(String prefix, String uri, ExtractionContext context)
+    throws TripleHandlerException {
+        // Namespaces are not supported by the line based formats.
+    }
+
+    @Override
+    public void closeContext(ExtractionContext context) throws TripleHandlerException {
+        handleComment("END: " + context);
+    }
+
+    @Override
+    public void endDocument(IRI documentIRI) throws TripleHandlerException {
+        // Empty.
+    }
+
+    @Override
+    public void setContentLength(long contentLength) {
+        // Empty.
+    }
+
+    /**
+     * Flushes the buffered statements, the underlying stream is not closed.
+     *
+     * @throws TripleHandlerException if an error occurs while writing.
+     */
+    @Override
+    public void close() throws TripleHandlerException {
+        if (closed) return;
+        closed = true;
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new TripleHandlerException("Error while closing the triple handler.", e);
+        }
+    }
+
+    private void handleComment(String comment) throws TripleHandlerException {
+        if (!annotated) return;
+        try {
+            out.write('#');
+            out.write(' ');
+            out.writeUTF8(comment);
+            out.write('\n');
+        } catch (IOException ioe) {
+            throw new TripleHandlerException("Error while handing comment.", ioe);
+        }
+    }
+
+    private void writeValue(Value value) throws IOException {
+        if (value instanceof Resource) {
+            writeResource((Resource) value);
+        } else if (value instanceof Literal) {
+            writeLiteral((Literal) value);
+        } else {
+            throw new IllegalArgumentException("Unknown value type: " + value.getClass());
+        }
+    }
+
+    private void writeResource(Resource resource) throws IOException {
+        if (resource instanceof IRI) {
+            writeIRI((IRI) resource);
+        } else if (resource instanceof BNode) {
+            writeBNode((BNode) resource);
+        } else {
+            throw new IllegalArgumentException("Unknown resource type: " + resource.getClass());
+        }
+    }
+
+    private void writeIRI(IRI iri) throws IOException {
+        out.write('<');
+        out.writeNTriplesEscaped(iri.toString());
+        out.write('>');
+    }
+
+    private void writeBNode(BNode bNode) throws IOException {
+        final String id = bNode.getID();
+        out.write('_');
+        out.write(':');
+        if (id.isEmpty()) {
+            out.writeASCII("genid");
+            out.writeASCII(Integer.toHexString(bNode.hashCode()));
+            return;
+        }
+        if (!isLetter(id.charAt(0))) {
+            out.writeASCII("genid");
+            out.writeASCII(Integer.toHexString(id.charAt(0)));
+        }
+        for (int i = 0; i < id.length(); i++) {
+            final char c = id.charAt(i);
+            if (isLetter(c) || (c >= '0' && c <= '9')) {
+                out.write(c);
+            } else {
+                out.writeASCII(Integer.toHexString(c));
+            }
+        }
+    }
+
+    private void writeLiteral(Literal literal) throws IOException {
+        out.write('"');
+        out.writeNTriplesEscaped(literal.getLabel());
+        out.write('"');
+        if (literal.getLanguage().isPresent()) {
+            out.write('@');
+            out.writeUTF8(literal.getLanguage().get());
+        } else if (!XMLSchema.STRING.equals(literal.getDatatype())) {
+            out.write('^');
+            out.write('^');
+            writeIRI(literal.getDatatype());
+        }
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z');
+    }
+
+}
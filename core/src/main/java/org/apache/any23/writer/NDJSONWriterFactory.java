@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.eclipse.rdf4j.rio.RDFFormat;
+
+/**
+ * Factory of {@link JSONWriter}s writing one quad object per line.
+ */
+public class NDJSONWriterFactory implements WriterFactory {
+
+    public static final String MIME_TYPE = "application/x-ndjson";
+    public static final String IDENTIFIER = "ndjson";
+
+    /**
+     * The newline delimited variant of the <i>Any23</i> JSON quad serialization.
+     */
+    public static final RDFFormat FORMAT = new RDFFormat(
+            "Any23 NDJSON", MIME_TYPE, StandardCharsets.UTF_8, "ndjson", false, true
+    );
+
+    public NDJSONWriterFactory() {
+    }
+
+    @Override
+    public RDFFormat getRdfFormat() {
+        return FORMAT;
+    }
+
+    @Override
+    public String getIdentifier() {
+        return NDJSONWriterFactory.IDENTIFIER;
+    }
+
+    @Override
+    public String getMimeType() {
+        return NDJSONWriterFactory.MIME_TYPE;
+    }
+
+    @Override
+    public FormatWriter getRdfWriter(OutputStream os) {
+        return new JSONWriter(os, true);
+    }
+
+}
@@ -20,17 +20,17 @@ package org.apache.any23.writer;
 import java.io.OutputStream;
 
 import org.eclipse.rdf4j.rio.RDFFormat;
-import org.eclipse.rdf4j.rio.Rio;
 
 /**
  * Implementation of an <i>NQuads</i> writer.
  *
  * @author Michele Mostarda (mostarda@fbk.eu)
+ * @see LineWriterTripleHandler
  */
-public class NQuadsWriter extends RDFWriterTripleHandler implements FormatWriter {
+public class NQuadsWriter extends LineWriterTripleHandler implements FormatWriter {
 
     public NQuadsWriter(OutputStream os) {
-        super( Rio.createWriter(RDFFormat.NQUADS, os) );
+        super(os, RDFFormat.NQUADS, true);
     }
 
 }
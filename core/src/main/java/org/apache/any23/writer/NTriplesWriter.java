@@ -19,13 +19,17 @@ package org.apache.any23.writer;
 
 import java.io.OutputStream;
 
+import org.eclipse.rdf4j.rio.RDFFormat;
+
 /**
  * <i>N3</i> triples writer.
+ *
+ * @see LineWriterTripleHandler
  */
-public class NTriplesWriter extends RDFWriterTripleHandler implements FormatWriter {
+public class NTriplesWriter extends LineWriterTripleHandler implements FormatWriter {
 
     public NTriplesWriter(OutputStream out) {
-        super(new org.eclipse.rdf4j.rio.ntriples.NTriplesWriter(out));
+        super(out, RDFFormat.NTRIPLES, false);
     }
 
 }
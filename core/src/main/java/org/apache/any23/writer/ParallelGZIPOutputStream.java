@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * <i>gzip</i> output stream compressing blocks of data in parallel.
+ * Each block is written as a complete <i>gzip</i> member, as allowed by
+ * <a href="https://tools.ietf.org/html/rfc1952">RFC 1952</a>, and the members
+ * are written in order as soon as they are ready.
+ * The number of blocks in memory is bounded to twice the number of threads.
+ * The blocks are compressed by an executor which can be shared among streams,
+ * closing the stream does not shut it down.
+ *
+ * @see Compression#compress(OutputStream, int)
+ */
+final class ParallelGZIPOutputStream extends OutputStream {
+
+    static final int BLOCK_SIZE = 1024 * 1024;
+
+    private final OutputStream out;
+
+    private final ExecutorService executor;
+
+    private final int maxPending;
+
+    private final int blockSize;
+
+    private final Deque<Future<byte[]>> pending = new ArrayDeque<Future<byte[]>>();
+
+    private byte[] block;
+
+    private int blockLength = 0;
+
+    private boolean written = false;
+
+    private boolean closed = false;
+
+    ParallelGZIPOutputStream(OutputStream out, ExecutorService executor, int threads) {
+        this(out, executor, threads, BLOCK_SIZE);
+    }
+
+    /**
+     * Constructor.
+     *
+     * @param out the destination stream.
+     * @param executor the executor compressing the blocks, not shut down by this stream.
+     * @param threads max number of blocks of this stream compressed at once.
+     * @param blockSize size in bytes of the blocks.
+     */
+    ParallelGZIPOutputStream(OutputStream out, ExecutorService executor, int threads, int blockSize) {
+        if(executor == null) {
+            throw new NullPointerException("executor cannot be null.");
+        }
+        this.out = out;
+        this.executor = executor;
+        this.blockSize = blockSize;
+        this.block = new byte[blockSize];
+        this.maxPending = threads * 2;
+    }
+
+    @Override
+    public void write(int b) throws IOException {
+        ensureOpen();
+        block[blockLength++] = (byte) b;
+        if(blockLength == blockSize) {
+            submitBlock();
+        }
+    }
+
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        ensureOpen();
+        while(len > 0) {
+            final int chunk = Math.min(len, blockSize - blockLength);
+            System.arraycopy(b, off, block, blockLength, chunk);
+            blockLength += chunk;
+            off += chunk;
+            len -= chunk;
+            if(blockLength == blockSize) {
+                submitBlock();
+            }
+        }
+    }
+
+    /**
+     * Writes the blocks already compressed, without waiting for the pending ones.
+     * The partially filled block stays buffered until it is full or the stream
+     * is closed, so flushing does not fragment the output in small members.
+     *
+     * @throws IOException if an error occurs while compressing or writing.
+     */
+    @Override
+    public void flush() throws IOException {
+        ensureOpen();
+        while(!pending.isEmpty() && pending.peekFirst().isDone()) {
+            writeFirst();
+        }
+        out.flush();
+    }
+
+    /**
+     * Completes the compressed data and closes the underlying stream.
+     *
+     * @throws IOException if an error occurs while compressing or writing.
+     */
+    @Override
+    public void close() throws IOException {
+        if(closed) return;
+        try {
+            // an empty input still produces a valid gzip stream.
+            if(blockLength > 0 || !written) {
+                submitBlock();
+            }
+            drain(0);
+            out.flush();
+        } finally {
+            closed = true;
+            // the executor can be shared, only the blocks of this stream are discarded.
+            for(Future<byte[]> future : pending) {
+                future.cancel(true);
+            }
+            pending.clear();
+            out.close();
+        }
+    }
+
+    private void ensureOpen() throws IOException {
+        if(closed) {
+            throw new IOException("Stream closed.");
+        }
+    }
+
+    private void submitBlock() throws IOException {
+        final byte[] data = block;
+        final int length = blockLength;
+        pending.addLast(executor.submit(new Callable<byte[]>() {
+            @Override
+            public byte[] call() throws IOException {
+                final ByteArrayOutputStream member = new ByteArrayOutputStream(length / 2 + 64);
+                final GZIPOutputStream gzip = new GZIPOutputStream(member, 64 * 1024);
+                gzip.write(data, 0, length);
+                gzip.close();
+                return member.toByteArray();
+            }
+        }));
+        written = true;
+        block = new byte[blockSize];
+        blockLength = 0;
+        drain(maxPending);
+    }
+
+    /**
+     * Writes the completed blocks in order until at most <code>maxSize</code> are pending.
+     */
+    private void drain(int maxSize) throws IOException {
+        while(pending.size() > maxSize) {
+            writeFirst();
+        }
+    }
+
+    /**
+     * Writes the first pending block, waiting for its compression if needed.
+     */
+    private void writeFirst() throws IOException {
+        try {
+            out.write(pending.removeFirst().get());
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while compressing.");
+        } catch (ExecutionException ee) {
+            throw new IOException("Error while compressing block.", ee.getCause());
+        }
+    }
+
+}
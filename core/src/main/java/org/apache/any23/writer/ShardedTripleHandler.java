@@ -0,0 +1,634 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.source.DocumentSource;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.rio.RDFFormat;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A thread-safe {@link TripleHandler} which distributes the extracted documents
+ * over a fixed number of output <i>shards</i>, each one written by its own
+ * {@link FormatWriter} in the output directory. A document is routed to a shard
+ * by the hash of its IRI ({@link Sharding#DOCUMENT}) or by the thread performing
+ * the extraction ({@link Sharding#THREAD}), so that threads working on different
+ * shards never contend on the same stream.
+ * <p>
+ * Every shard is written as a sequence of <i>parts</i>, named
+ * <code>shard-&lt;shard&gt;-&lt;part&gt;.&lt;extension&gt;</code>. A part is completed
+ * and the next one started once the number of triples or bytes written exceeds the
+ * configured limits, at the end of a document and when no other document routed to
+ * the same shard is being written. The completed parts are listed in the
+ * {@link #MANIFEST_FILE_NAME} file, rewritten whenever a part is completed, so that
+ * they can be loaded while the extraction is still running.
+ * </p>
+ * The handler can be used as {@link TripleHandlerFactory} for
+ * {@link org.apache.any23.Any23#extractAll}: the handlers it creates write to the
+ * shards and can be safely closed after every document.
+ */
+public class ShardedTripleHandler implements TripleHandler, TripleHandlerFactory {
+
+    /**
+     * Name of the manifest listing the completed parts.
+     */
+    public static final String MANIFEST_FILE_NAME = "manifest.tsv";
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Criteria used to assign documents to shards.
+     */
+    public enum Sharding {
+        /**
+         * Documents are assigned by the hash of their IRI.
+         */
+        DOCUMENT,
+        /**
+         * Documents are assigned by the extracting thread, every new thread
+         * being assigned the next shard.
+         */
+        THREAD
+    }
+
+    private final File directory;
+
+    private final WriterFactory writerFactory;
+
+    private final String fileExtension;
+
+    private final Sharding sharding;
+
+    private final Shard[] shards;
+
+    private final AtomicInteger threadCounter = new AtomicInteger();
+
+    private final ThreadLocal<Shard> threadShard = new ThreadLocal<Shard>() {
+        @Override
+        protected Shard initialValue() {
+            return shards[(threadCounter.getAndIncrement() & Integer.MAX_VALUE) % shards.length];
+        }
+    };
+
+    private final List<Part> completedParts = new ArrayList<Part>();
+
+    private volatile long maxTriples = Long.MAX_VALUE;
+
+    private volatile long maxBytes = Long.MAX_VALUE;
+
+    private volatile Compression compression = Compression.NONE;
+
+    private volatile boolean annotated = false;
+
+    private boolean closed = false;
+
+    /**
+     * Constructor.
+     *
+     * @param directory the output directory, created if missing.
+     * @param writerFactory factory of the writers of the shard parts, which are named
+     *        after the default file extension of its {@link RDFFormat}.
+     * @param numberOfShards the number of shards, must be greater than zero.
+     * @param sharding the criteria used to assign documents to shards.
+     */
+    public ShardedTripleHandler(File directory, WriterFactory writerFactory, int numberOfShards, Sharding sharding) {
+        if(directory == null) {
+            throw new NullPointerException("directory cannot be null.");
+        }
+        if(writerFactory == null) {
+            throw new NullPointerException("writerFactory cannot be null.");
+        }
+        if(sharding == null) {
+            throw new NullPointerException("sharding cannot be null.");
+        }
+        if(numberOfShards <= 0) {
+            throw new IllegalArgumentException("numberOfShards must be > 0 .");
+        }
+        if(directory.isFile()) {
+            throw new IllegalArgumentException(String.format("Output directory %s is a file.", directory));
+        }
+        this.directory = directory;
+        this.writerFactory = writerFactory;
+        this.fileExtension = getFileExtension(writerFactory);
+        this.sharding = sharding;
+        this.shards = new Shard[numberOfShards];
+        for(int i = 0; i < numberOfShards; i++) {
+            shards[i] = new Shard(i);
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    public int getNumberOfShards() {
+        return shards.length;
+    }
+
+    public Sharding getSharding() {
+        return sharding;
+    }
+
+    /**
+     * Sets the number of triples after which a part is completed.
+     *
+     * @param maxTriples the max number of triples per part, must be greater than zero.
+     */
+    public void setMaxTriples(long maxTriples) {
+        if(maxTriples <= 0) {
+            throw new IllegalArgumentException("maxTriples must be > 0 .");
+        }
+        this.maxTriples = maxTriples;
+    }
+
+    public long getMaxTriples() {
+        return maxTriples;
+    }
+
+    /**
+     * Sets the number of bytes after which a part is completed.
+     * The limit is approximate: it is checked against the bytes that reached the
+     * part file, while the content still buffered by the writer and, when the parts
+     * are compressed, by the compressor is not counted. A part can therefore exceed
+     * the limit by the size of those buffers, up to a compression block.
+     *
+     * @param maxBytes the max number of bytes per part, must be greater than zero.
+     */
+    public void setMaxBytes(long maxBytes) {
+        if(maxBytes <= 0) {
+            throw new IllegalArgumentException("maxBytes must be > 0 .");
+        }
+        this.maxBytes = maxBytes;
+    }
+
+    public long getMaxBytes() {
+        return maxBytes;
+    }
+
+    /**
+     * Sets the compression applied to the parts started after this call.
+     * The byte limit applies to the compressed data.
+     *
+     * @param compression the part compression.
+     */
+    public void setCompression(Compression compression) {
+        if(compression == null) {
+            throw new NullPointerException("compression cannot be null.");
+        }
+        this.compression = compression;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    /**
+     * @param annotated the annotation flag of the writers of the parts started after this call.
+     * @see FormatWriter#setAnnotated(boolean)
+     */
+    public void setAnnotated(boolean annotated) {
+        this.annotated = annotated;
+    }
+
+    /**
+     * @return a snapshot of the parts completed so far.
+     */
+    public List<Part> getCompletedParts() {
+        synchronized (completedParts) {
+            return new ArrayList<Part>(completedParts);
+        }
+    }
+
+    @Override
+    public TripleHandler createTripleHandler(DocumentSource source) throws TripleHandlerException {
+        return new DocumentHandler();
+    }
+
+    @Override
+    public void startDocument(IRI documentIRI) throws TripleHandlerException {
+        getShard(documentIRI).startDocument(documentIRI);
+    }
+
+    @Override
+    public void openContext(ExtractionContext context) throws TripleHandlerException {
+        getShard(context).openContext(context);
+    }
+
+    @Override
+    public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+    throws TripleHandlerException {
+        getShard(context).receiveTriple(s, p, o, g, context);
+    }
+
+    @Override
+    public void receiveNamespace(String prefix, String uri, ExtractionContext context)
+    throws TripleHandlerException {
+        getShard(context).receiveNamespace(prefix, uri, context);
+    }
+
+    @Override
+    public void closeContext(ExtractionContext context) throws TripleHandlerException {
+        getShard(context).closeContext(context);
+    }
+
+    @Override
+    public void endDocument(IRI documentIRI) throws TripleHandlerException {
+        getShard(documentIRI).endDocument(documentIRI);
+    }
+
+    @Override
+    public void setContentLength(long contentLength) {
+        // Empty.
+    }
+
+    /**
+     * Completes the current part of every shard and writes the manifest.
+     *
+     * @throws TripleHandlerException if an error occurs while completing the parts.
+     */
+    @Override
+    public void close() throws TripleHandlerException {
+        synchronized (completedParts) {
+            if(closed) return;
+            closed = true;
+        }
+        TripleHandlerException error = null;
+        for(Shard shard : shards) {
+            try {
+                shard.close();
+            } catch (TripleHandlerException the) {
+                if(error == null) error = the;
+            }
+        }
+        try {
+            writeManifest();
+        } catch (IOException ioe) {
+            if(error == null) error = new TripleHandlerException("Error while writing the shard manifest.", ioe);
+        }
+        if(error != null) {
+            throw error;
+        }
+    }
+
+    private Shard getShard(IRI documentIRI) {
+        if(sharding == Sharding.THREAD || documentIRI == null) {
+            return threadShard.get();
+        }
+        return shards[(documentIRI.stringValue().hashCode() & Integer.MAX_VALUE) % shards.length];
+    }
+
+    private Shard getShard(ExtractionContext context) {
+        return getShard(context == null ? null : context.getDocumentIRI());
+    }
+
+    private void partCompleted(Part part) throws IOException {
+        synchronized (completedParts) {
+            completedParts.add(part);
+            writeManifest();
+        }
+    }
+
+    private void writeManifest() throws IOException {
+        synchronized (completedParts) {
+            final List<Part> parts = new ArrayList<Part>(completedParts);
+            Collections.sort(parts, new Comparator<Part>() {
+                @Override
+                public int compare(Part p1, Part p2) {
+                    if(p1.shard != p2.shard) return p1.shard < p2.shard ? -1 : 1;
+                    return p1.part < p2.part ? -1 : p1.part == p2.part ? 0 : 1;
+                }
+            });
+            ensureDirectory();
+            final File tmp = new File(directory, MANIFEST_FILE_NAME + ".tmp");
+            final PrintWriter pw = new PrintWriter(new OutputStreamWriter(new FileOutputStream(tmp), "UTF-8"));
+            try {
+                pw.print("# file\tshard\tpart\tdocuments\ttriples\tbytes\n");
+                for(Part part : parts) {
+                    pw.print(String.format(
+                            "%s\t%d\t%d\t%d\t%d\t%d\n",
+                            part.fileName, part.shard, part.part, part.documents, part.triples, part.bytes
+                    ));
+                }
+            } finally {
+                pw.close();
+            }
+            if(pw.checkError()) {
+                throw new IOException("Error while writing " + tmp);
+            }
+            final File manifest = new File(directory, MANIFEST_FILE_NAME);
+            if(!tmp.renameTo(manifest)) {
+                if(!manifest.delete() || !tmp.renameTo(manifest)) {
+                    throw new IOException("Cannot rename " + tmp + " to " + manifest);
+                }
+            }
+        }
+    }
+
+    private void ensureDirectory() throws IOException {
+        if(!directory.isDirectory() && !directory.mkdirs() && !directory.isDirectory()) {
+            throw new IOException("Cannot create output directory " + directory);
+        }
+    }
+
+    private static String getFileExtension(WriterFactory writerFactory) {
+        final RDFFormat format = writerFactory.getRdfFormat();
+        if(format != null && format.getDefaultFileExtension() != null) {
+            return format.getDefaultFileExtension();
+        }
+        return writerFactory.getIdentifier();
+    }
+
+    /**
+     * Description of a completed shard part.
+     */
+    public static final class Part {
+
+        private final String fileName;
+
+        private final int shard;
+
+        private final int part;
+
+        private final int documents;
+
+        private final long triples;
+
+        private final long bytes;
+
+        Part(String fileName, int shard, int part, int documents, long triples, long bytes) {
+            this.fileName = fileName;
+            this.shard = shard;
+            this.part = part;
+            this.documents = documents;
+            this.triples = triples;
+            this.bytes = bytes;
+        }
+
+        /**
+         * @return the part file name, relative to the output directory.
+         */
+        public String getFileName() {
+            return fileName;
+        }
+
+        public int getShard() {
+            return shard;
+        }
+
+        public int getPart() {
+            return part;
+        }
+
+        public int getDocuments() {
+            return documents;
+        }
+
+        public long getTriples() {
+            return triples;
+        }
+
+        public long getBytes() {
+            return bytes;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s (%d documents, %d triples, %d bytes)", fileName, documents, triples, bytes);
+        }
+    }
+
+    /**
+     * Per document view of the sharded output, closing it has no effect.
+     */
+    private class DocumentHandler implements TripleHandler {
+
+        @Override
+        public void startDocument(IRI documentIRI) throws TripleHandlerException {
+            ShardedTripleHandler.this.startDocument(documentIRI);
+        }
+
+        @Override
+        public void openContext(ExtractionContext context) throws TripleHandlerException {
+            ShardedTripleHandler.this.openContext(context);
+        }
+
+        @Override
+        public void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+        throws TripleHandlerException {
+            ShardedTripleHandler.this.receiveTriple(s, p, o, g, context);
+        }
+
+        @Override
+        public void receiveNamespace(String prefix, String uri, ExtractionContext context)
+        throws TripleHandlerException {
+            ShardedTripleHandler.this.receiveNamespace(prefix, uri, context);
+        }
+
+        @Override
+        public void closeContext(ExtractionContext context) throws TripleHandlerException {
+            ShardedTripleHandler.this.closeContext(context);
+        }
+
+        @Override
+        public void endDocument(IRI documentIRI) throws TripleHandlerException {
+            ShardedTripleHandler.this.endDocument(documentIRI);
+        }
+
+        @Override
+        public void setContentLength(long contentLength) {
+            // Empty.
+        }
+
+        @Override
+        public void close() throws TripleHandlerException {
+            // Empty.
+        }
+    }
+
+    /**
+     * A shard, writing its current part. All the methods are synchronized.
+     */
+    private class Shard {
+
+        private final int index;
+
+        private int part = 0;
+
+        private FormatWriter writer;
+
+        private OutputStream stream;
+
+        private CountingOutputStream counter;
+
+        private String fileName;
+
+        private int documents;
+
+        private long triples;
+
+        private int openDocuments = 0;
+
+        private boolean closed = false;
+
+        Shard(int index) {
+            this.index = index;
+        }
+
+        synchronized void startDocument(IRI documentIRI) throws TripleHandlerException {
+            ensureOpen().startDocument(documentIRI);
+            documents++;
+            openDocuments++;
+        }
+
+        synchronized void openContext(ExtractionContext context) throws TripleHandlerException {
+            ensureOpen().openContext(context);
+        }
+
+        synchronized void receiveTriple(Resource s, IRI p, Value o, IRI g, ExtractionContext context)
+        throws TripleHandlerException {
+            ensureOpen().receiveTriple(s, p, o, g, context);
+            triples++;
+        }
+
+        synchronized void receiveNamespace(String prefix, String uri, ExtractionContext context)
+        throws TripleHandlerException {
+            ensureOpen().receiveNamespace(prefix, uri, context);
+        }
+
+        synchronized void closeContext(ExtractionContext context) throws TripleHandlerException {
+            ensureOpen().closeContext(context);
+        }
+
+        synchronized void endDocument(IRI documentIRI) throws TripleHandlerException {
+            ensureOpen().endDocument(documentIRI);
+            if(openDocuments > 0) {
+                openDocuments--;
+            }
+            if(openDocuments == 0 && (triples >= maxTriples || counter.getCount() >= maxBytes)) {
+                completePart();
+            }
+        }
+
+        synchronized void close() throws TripleHandlerException {
+            if(closed) return;
+            closed = true;
+            if(writer != null) {
+                completePart();
+            }
+        }
+
+        private FormatWriter ensureOpen() throws TripleHandlerException {
+            if(closed) {
+                throw new TripleHandlerException("The sharded handler has been closed.");
+            }
+            if(writer != null) {
+                return writer;
+            }
+            final Compression partCompression = compression;
+            fileName = String.format(
+                    "shard-%05d-%05d.%s%s", index, part, fileExtension, partCompression.getFileExtension()
+            );
+            try {
+                ensureDirectory();
+                counter = new CountingOutputStream(
+                        new BufferedOutputStream(new FileOutputStream(new File(directory, fileName)), BUFFER_SIZE)
+                );
+                stream = partCompression.compress(counter);
+            } catch (IOException ioe) {
+                if(counter != null) {
+                    try {
+                        counter.close();
+                    } catch (IOException ioe2) {
+                        // ignore, the creation error is reported.
+                    }
+                }
+                throw new TripleHandlerException("Error while creating shard part " + fileName, ioe);
+            }
+            writer = writerFactory.getRdfWriter(stream);
+            writer.setAnnotated(annotated);
+            documents = 0;
+            triples = 0;
+            return writer;
+        }
+
+        private void completePart() throws TripleHandlerException {
+            try {
+                writer.close();
+            } finally {
+                writer = null;
+                try {
+                    stream.close();
+                } catch (IOException ioe) {
+                    throw new TripleHandlerException("Error while completing shard part " + fileName, ioe);
+                }
+            }
+            try {
+                partCompleted(new Part(fileName, index, part, documents, triples, counter.getCount()));
+            } catch (IOException ioe) {
+                throw new TripleHandlerException("Error while writing the shard manifest.", ioe);
+            } finally {
+                part++;
+            }
+        }
+    }
+
+    /**
+     * Counts the bytes written to the wrapped stream.
+     */
+    private static class CountingOutputStream extends FilterOutputStream {
+
+        private long count = 0;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        long getCount() {
+            return count;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+
+}
@@ -0,0 +1,352 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Buffered <i>UTF-8</i> encoder used by the text based writers in place
+ * of a {@link java.io.Writer}. Strings are encoded directly into a reusable
+ * byte buffer, which is written to the underlying stream only when full or
+ * on {@link #flush()}; runs of <i>ASCII</i> characters needing no escape are
+ * copied in bulk. Unpaired surrogates are encoded as <code>?</code>.
+ * <p>
+ * This class is not thread-safe.
+ * </p>
+ */
+final class UTF8Output {
+
+    static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    /**
+     * Space needed by the longest escape sequence or encoded code point.
+     */
+    private static final int MAX_SEQUENCE_SIZE = 6;
+
+    private static final byte[] HEX = "0123456789ABCDEF".getBytes();
+
+    /**
+     * <code>true</code> for the <i>ASCII</i> characters written unescaped in <i>N-Triples</i>.
+     */
+    private static final boolean[] NTRIPLES_PLAIN = new boolean[128];
+
+    /**
+     * <code>true</code> for the <i>ASCII</i> characters written unescaped in <i>JSON</i> strings.
+     */
+    private static final boolean[] JSON_PLAIN = new boolean[128];
+
+    static {
+        for (int c = 0x20; c < 0x80; c++) {
+            NTRIPLES_PLAIN[c] = c != '\\' && c != '"' && c != 0x7F;
+            JSON_PLAIN[c] = c != '\\' && c != '"';
+        }
+    }
+
+    private final OutputStream out;
+
+    private final byte[] buffer;
+
+    private int count = 0;
+
+    UTF8Output(OutputStream out, int bufferSize) {
+        if (out == null) {
+            throw new NullPointerException("out cannot be null.");
+        }
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, MAX_SEQUENCE_SIZE)];
+    }
+
+    UTF8Output(OutputStream out) {
+        this(out, DEFAULT_BUFFER_SIZE);
+    }
+
+    /**
+     * Writes an <i>ASCII</i> character.
+     */
+    void write(char c) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) c;
+    }
+
+    /**
+     * Writes a string made of <i>ASCII</i> characters only.
+     */
+    void writeASCII(String s) throws IOException {
+        final int length = s.length();
+        int i = 0;
+        while (i < length) {
+            if (count == buffer.length) {
+                flushBuffer();
+            }
+            final int end = Math.min(length, i + buffer.length - count);
+            while (i < end) {
+                buffer[count++] = (byte) s.charAt(i++);
+            }
+        }
+    }
+
+    /**
+     * Writes a string encoded in <i>UTF-8</i>, without any escape.
+     */
+    void writeUTF8(String s) throws IOException {
+        final int length = s.length();
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                write(c);
+            } else {
+                i = encode(s, i);
+            }
+        }
+    }
+
+    /**
+     * Writes a string escaped as <i>N-Triples</i> <i>ASCII</i>: backslash, quote,
+     * newline, carriage return and tab are escaped with a backslash, all the other
+     * control and non <i>ASCII</i> characters as <code>\\uXXXX</code>.
+     */
+    void writeNTriplesEscaped(String s) throws IOException {
+        final int length = s.length();
+        int i = 0;
+        while (i < length) {
+            i = copyPlain(s, i, NTRIPLES_PLAIN);
+            if (i < length) {
+                final char c = s.charAt(i++);
+                if (!writeShortEscape(c)) {
+                    writeUnicodeEscape(c);
+                }
+            }
+        }
+    }
+
+    /**
+     * Writes a quoted <i>JSON</i> string: backslash, quote and the control
+     * characters are escaped, the other characters are encoded in <i>UTF-8</i>.
+     */
+    void writeJSONString(String s) throws IOException {
+        write('"');
+        final int length = s.length();
+        int i = 0;
+        while (i < length) {
+            i = copyPlain(s, i, JSON_PLAIN);
+            if (i < length) {
+                final char c = s.charAt(i);
+                if (c >= 0x80) {
+                    i = encode(s, i) + 1;
+                } else {
+                    if (c == '\b') {
+                        writeEscape('b');
+                    } else if (c == '\f') {
+                        writeEscape('f');
+                    } else if (!writeShortEscape(c)) {
+                        writeUnicodeEscape(c);
+                    }
+                    i++;
+                }
+            }
+        }
+        write('"');
+    }
+
+    /**
+     * Writes the lowest eight bits of <code>b</code>.
+     */
+    void writeByte(int b) throws IOException {
+        if (count == buffer.length) {
+            flushBuffer();
+        }
+        buffer[count++] = (byte) b;
+    }
+
+    /**
+     * Writes a non negative integer in the unsigned <i>LEB128</i> encoding,
+     * seven bits per byte with the high bit set on all but the last byte.
+     */
+    void writeVarInt(int value) throws IOException {
+        if (value < 0) {
+            throw new IllegalArgumentException("value cannot be negative.");
+        }
+        ensure(5);
+        while (value >= 0x80) {
+            buffer[count++] = (byte) (value | 0x80);
+            value >>>= 7;
+        }
+        buffer[count++] = (byte) value;
+    }
+
+    /**
+     * Writes the length in bytes of the <i>UTF-8</i> encoded string as a
+     * {@link #writeVarInt(int)} followed by the encoded string.
+     */
+    void writeString(String s) throws IOException {
+        writeVarInt(utf8Length(s));
+        writeUTF8(s);
+    }
+
+    /**
+     * Writes the buffered bytes and flushes the underlying stream.
+     */
+    void flush() throws IOException {
+        flushBuffer();
+        out.flush();
+    }
+
+    /**
+     * Writes the buffered bytes and closes the underlying stream.
+     */
+    void close() throws IOException {
+        try {
+            flushBuffer();
+        } finally {
+            out.close();
+        }
+    }
+
+    /**
+     * Copies the run of plain characters starting at <code>i</code>.
+     *
+     * @return the index of the first character not copied.
+     */
+    private int copyPlain(String s, int i, boolean[] plain) throws IOException {
+        final int length = s.length();
+        while (i < length) {
+            if (count + MAX_SEQUENCE_SIZE > buffer.length) {
+                flushBuffer();
+            }
+            final int end = Math.min(length, i + buffer.length - count);
+            char c;
+            while (i < end && (c = s.charAt(i)) < 0x80 && plain[c]) {
+                buffer[count++] = (byte) c;
+                i++;
+            }
+            if (i < end) {
+                break;
+            }
+        }
+        if (count + MAX_SEQUENCE_SIZE > buffer.length) {
+            flushBuffer();
+        }
+        return i;
+    }
+
+    private boolean writeShortEscape(char c) throws IOException {
+        switch (c) {
+            case '\\':
+                writeEscape('\\');
+                return true;
+            case '"':
+                writeEscape('"');
+                return true;
+            case '\n':
+                writeEscape('n');
+                return true;
+            case '\r':
+                writeEscape('r');
+                return true;
+            case '\t':
+                writeEscape('t');
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private void writeEscape(char c) throws IOException {
+        ensure(2);
+        buffer[count++] = '\\';
+        buffer[count++] = (byte) c;
+    }
+
+    private void writeUnicodeEscape(char c) throws IOException {
+        ensure(6);
+        buffer[count++] = '\\';
+        buffer[count++] = 'u';
+        buffer[count++] = HEX[(c >> 12) & 0xF];
+        buffer[count++] = HEX[(c >> 8) & 0xF];
+        buffer[count++] = HEX[(c >> 4) & 0xF];
+        buffer[count++] = HEX[c & 0xF];
+    }
+
+    /**
+     * Encodes the non <i>ASCII</i> character at <code>i</code>, consuming
+     * the following low surrogate if any.
+     *
+     * @return the index of the last consumed character.
+     */
+    private int encode(String s, int i) throws IOException {
+        ensure(4);
+        final char c = s.charAt(i);
+        if (c < 0x800) {
+            buffer[count++] = (byte) (0xC0 | (c >> 6));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+            final int cp = Character.toCodePoint(c, s.charAt(++i));
+            buffer[count++] = (byte) (0xF0 | (cp >> 18));
+            buffer[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+            buffer[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (cp & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            buffer[count++] = '?';
+        } else {
+            buffer[count++] = (byte) (0xE0 | (c >> 12));
+            buffer[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buffer[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+        return i;
+    }
+
+    /**
+     * @return the length in bytes of the string encoded by {@link #writeUTF8(String)}.
+     */
+    static int utf8Length(String s) {
+        final int length = s.length();
+        int bytes = length;
+        for (int i = 0; i < length; i++) {
+            final char c = s.charAt(i);
+            if (c < 0x80) {
+                continue;
+            }
+            if (c < 0x800) {
+                bytes += 1;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 2;
+                i++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            }
+        }
+        return bytes;
+    }
+
+    private void ensure(int size) throws IOException {
+        if (count + size > buffer.length) {
+            flushBuffer();
+        }
+    }
+
+    private void flushBuffer() throws IOException {
+        if (count > 0) {
+            out.write(buffer, 0, count);
+            count = 0;
+        }
+    }
+
+}
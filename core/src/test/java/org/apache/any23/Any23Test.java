@@ -27,10 +27,13 @@ import org.apache.any23.extractor.Extractor;
 import org.apache.any23.extractor.microdata.MicrodataExtractor;
 import org.apache.any23.filter.IgnoreAccidentalRDFa;
 import org.apache.any23.filter.IgnoreTitlesOfEmptyDocuments;
+import org.apache.any23.http.AsyncHTTPClient;
 import org.apache.any23.http.DefaultHTTPClient;
 import org.apache.any23.http.HTTPClient;
 import org.apache.any23.source.DocumentSource;
+import org.apache.any23.source.FileDocumentSource;
 import org.apache.any23.source.HTTPDocumentSource;
+import org.apache.any23.source.MappedFileDocumentSource;
 import org.apache.any23.source.StringDocumentSource;
 import org.apache.any23.util.FileUtils;
 import org.apache.any23.util.StreamUtils;
@@ -44,6 +47,7 @@ import org.apache.any23.writer.ReportingTripleHandler;
 import org.apache.any23.writer.RepositoryWriter;
 import org.apache.any23.writer.TripleHandler;
 import org.apache.any23.writer.TripleHandlerException;
+import org.apache.any23.writer.TripleHandlerFactory;
 import org.apache.commons.io.IOUtils;
 import org.junit.Ignore;
 import org.junit.Test;
@@ -60,9 +64,15 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 import static org.apache.any23.extractor.ExtractionParameters.ValidationMode;
 
@@ -541,6 +551,137 @@ public class Any23Test extends Any23OnlineTestBase {
                 n3.contains("http://vocab.sindice.net/size"));
     }
 
+    @Test
+    public void testFileDocumentSourceMappingIsOptIn() throws Exception {
+        final File file = File.createTempFile("any23-file-source", ".nt");
+        file.deleteOnExit();
+        FileUtils.dumpContent(file, "<http://s> <http://p> <http://o> .");
+        final String fileIRI = file.toURI().toString();
+        Assert.assertTrue(new Any23().createDocumentSource(fileIRI) instanceof FileDocumentSource);
+
+        final ModifiableConfiguration modifiableConf = DefaultConfiguration.copy();
+        modifiableConf.setProperty("any23.extraction.localcopy.mapped.threshold", "8");
+        Assert.assertTrue(new Any23(modifiableConf).createDocumentSource(fileIRI) instanceof MappedFileDocumentSource);
+    }
+
+    @Test
+    public void testAsyncHTTPClientSwitch() throws Exception {
+        final ModifiableConfiguration modifiableConf = DefaultConfiguration.copy();
+        final Any23 defaultAny23 = new Any23(modifiableConf);
+        defaultAny23.setHTTPUserAgent("test-user-agent");
+        Assert.assertTrue(defaultAny23.getHTTPClient() instanceof DefaultHTTPClient);
+        modifiableConf.setProperty("any23.http.client.async", "on");
+        final Any23 any23 = new Any23(modifiableConf);
+        any23.setHTTPUserAgent("test-user-agent");
+        final HTTPClient client = any23.getHTTPClient();
+        try {
+            Assert.assertTrue(client instanceof AsyncHTTPClient);
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testExtractAll() throws Exception {
+        final ModifiableConfiguration modifiableConf = DefaultConfiguration.copy();
+        modifiableConf.setProperty("any23.extraction.batch.threads", "3");
+        modifiableConf.setProperty("any23.extraction.batch.queue.size", "1");
+        final Any23 any23 = new Any23(modifiableConf);
+
+        final List<DocumentSource> sources = new ArrayList<DocumentSource>();
+        for (int i = 0; i < 20; i++) {
+            sources.add(new StringDocumentSource(
+                    String.format("<http://s/%d> <http://p> <http://o/%d> .", i, i),
+                    "http://host.com/doc" + i, "text/plain"));
+        }
+        sources.add(new StringDocumentSource("<a> <b>", "http://host.com/invalid", "text/turtle"));
+
+        final Map<DocumentSource, CountingTripleHandler> handlers =
+                new ConcurrentHashMap<DocumentSource, CountingTripleHandler>();
+        final Map<DocumentSource, Object> outcomes = new ConcurrentHashMap<DocumentSource, Object>();
+        final int submitted = any23.extractAll(
+                sources,
+                new TripleHandlerFactory() {
+                    @Override
+                    public TripleHandler createTripleHandler(DocumentSource source) {
+                        final CountingTripleHandler handler = new CountingTripleHandler();
+                        handlers.put(source, handler);
+                        return handler;
+                    }
+                },
+                new BatchExtractionListener() {
+                    @Override
+                    public void extractionCompleted(DocumentSource source, ExtractionReport report) {
+                        outcomes.put(source, report);
+                    }
+
+                    @Override
+                    public void extractionFailed(DocumentSource source, Exception e) {
+                        outcomes.put(source, e);
+                    }
+                }
+        );
+
+        Assert.assertEquals(sources.size(), submitted);
+        Assert.assertEquals(sources.size(), outcomes.size());
+        for (int i = 0; i < 20; i++) {
+            final DocumentSource source = sources.get(i);
+            Assert.assertTrue(outcomes.get(source) instanceof ExtractionReport);
+            Assert.assertTrue(((ExtractionReport) outcomes.get(source)).hasMatchingExtractors());
+            Assert.assertEquals(1, handlers.get(source).getCount());
+        }
+        Assert.assertTrue(outcomes.get(sources.get(20)) instanceof ExtractionException);
+    }
+
+    @Test(timeout = 60000)
+    public void testExtractAllWithParallelExtractorsOnBatchExecutor() throws Exception {
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            final Any23 any23 = new Any23();
+            any23.setBatchExecutor(executor);
+            any23.setExtractorsExecutor(executor);
+            final ExtractionParameters eps = ExtractionParameters.newDefault();
+            eps.setFlag(ExtractionParameters.PARALLEL_EXTRACTION_FLAG, true);
+
+            final List<DocumentSource> sources = new ArrayList<DocumentSource>();
+            for (int i = 0; i < 3; i++) {
+                sources.add(new StringDocumentSource(
+                        "<html><head><title>Doc " + i + "</title></head><body></body></html>",
+                        "http://host.com/doc" + i, "text/html"));
+            }
+            final Map<DocumentSource, Object> outcomes = new ConcurrentHashMap<DocumentSource, Object>();
+            any23.extractAll(
+                    eps,
+                    sources,
+                    new TripleHandlerFactory() {
+                        @Override
+                        public TripleHandler createTripleHandler(DocumentSource source) {
+                            return new CountingTripleHandler();
+                        }
+                    },
+                    new BatchExtractionListener() {
+                        @Override
+                        public void extractionCompleted(DocumentSource source, ExtractionReport report) {
+                            outcomes.put(source, report);
+                        }
+
+                        @Override
+                        public void extractionFailed(DocumentSource source, Exception e) {
+                            outcomes.put(source, e);
+                        }
+                    }
+            );
+
+            Assert.assertEquals(sources.size(), outcomes.size());
+            for (DocumentSource source : sources) {
+                Assert.assertTrue(outcomes.get(source) instanceof ExtractionReport);
+            }
+            Assert.assertFalse(executor.isShutdown());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     /**
      * Performs detection and extraction on the given input string and return
      * the {@link ExtractionReport}.
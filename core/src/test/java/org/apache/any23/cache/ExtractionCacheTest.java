@@ -0,0 +1,358 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.cache;
+
+import org.apache.any23.Any23;
+import org.apache.any23.ExtractionReport;
+import org.apache.any23.configuration.DefaultConfiguration;
+import org.apache.any23.configuration.ModifiableConfiguration;
+import org.apache.any23.extractor.ExtractionException;
+import org.apache.any23.extractor.ExtractionParameters;
+import org.apache.any23.http.HTTPValidatorStore;
+import org.apache.any23.metrics.DefaultMetricsRegistry;
+import org.apache.any23.metrics.MetricsRegistry;
+import org.apache.any23.source.DocumentSource;
+import org.apache.any23.source.StringDocumentSource;
+import org.apache.any23.writer.NQuadsWriter;
+import org.apache.any23.writer.TripleHandlerException;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Test case for {@link ExtractionCache}.
+ */
+public class ExtractionCacheTest {
+
+    private static final String DOCUMENT_IRI = "http://host.com/page.html";
+
+    private static final String DOCUMENT =
+            "<html><head><title>Cached page</title>" +
+            "<meta name=\"description\" content=\"A page &quot;replayed&quot; by the cache\"/></head>" +
+            "<body><div class=\"vcard\"><span class=\"fn\">Jane Doe</span>" +
+            "<span class=\"tel\">+1 555 1234</span></div></body></html>";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMemoryStoreReplay() throws Exception {
+        checkReplay(new ExtractionCache(new MemoryExtractionCacheStore(1024 * 1024)));
+    }
+
+    @Test
+    public void testSegmentFileStoreReplay() throws Exception {
+        final ExtractionCache cache = new ExtractionCache(
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 1024 * 1024)
+        );
+        final String expected = checkReplay(cache);
+        cache.getStore().close();
+
+        // The entries are found by a store reopened on the same directory.
+        final SegmentFileExtractionCacheStore reopened =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 1024 * 1024);
+        Assert.assertEquals(1, reopened.getEntries());
+        final Any23 runner = createRunner(new ExtractionCache(reopened));
+        Assert.assertEquals(expected, extract(runner, ExtractionParameters.newDefault(), DOCUMENT));
+        Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+        reopened.close();
+    }
+
+    @Test
+    public void testDifferentContentMisses() throws Exception {
+        final Any23 runner = createRunner(new ExtractionCache(new MemoryExtractionCacheStore(1024 * 1024)));
+        extract(runner, ExtractionParameters.newDefault(), DOCUMENT);
+        extract(runner, ExtractionParameters.newDefault(), DOCUMENT.replace("Jane", "John"));
+        final ExtractionParameters nesting = ExtractionParameters.newDefault();
+        nesting.setFlag(ExtractionParameters.METADATA_NESTING_FLAG, false);
+        extract(runner, nesting, DOCUMENT);
+        Assert.assertEquals(0, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+        Assert.assertEquals(3, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_MISSES));
+    }
+
+    @Test
+    public void testKeyUsesEffectiveParameters() throws Exception {
+        final Any23 runner = createRunner(new ExtractionCache(new MemoryExtractionCacheStore(1024 * 1024)));
+        extract(runner, ExtractionParameters.newDefault(), DOCUMENT);
+
+        // Setting a flag to its default value does not change the extraction.
+        final ExtractionParameters explicit = ExtractionParameters.newDefault();
+        explicit.setFlag(
+                ExtractionParameters.METADATA_NESTING_FLAG,
+                explicit.getFlag(ExtractionParameters.METADATA_NESTING_FLAG)
+        );
+        extract(runner, explicit, DOCUMENT);
+        Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+
+        // Changing a configuration default does.
+        final ModifiableConfiguration configuration = DefaultConfiguration.copy();
+        configuration.setProperty(
+                ExtractionParameters.METADATA_NESTING_FLAG,
+                explicit.getFlag(ExtractionParameters.METADATA_NESTING_FLAG) ? "off" : "on"
+        );
+        extract(runner, ExtractionParameters.newDefault(configuration), DOCUMENT);
+        Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+        Assert.assertEquals(2, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_MISSES));
+    }
+
+    @Test
+    public void testValidationSkipsCache() throws Exception {
+        final Any23 runner = createRunner(new ExtractionCache(new MemoryExtractionCacheStore(1024 * 1024)));
+        final ExtractionParameters validate = new ExtractionParameters(
+                DefaultConfiguration.singleton(), ExtractionParameters.ValidationMode.Validate
+        );
+        extract(runner, validate, DOCUMENT);
+        extract(runner, validate, DOCUMENT);
+        Assert.assertEquals(0, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+        Assert.assertEquals(0, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_MISSES));
+    }
+
+    @Test
+    public void testOversizedEntryNotStored() throws Exception {
+        final MemoryExtractionCacheStore store = new MemoryExtractionCacheStore(1024 * 1024);
+        final Any23 runner = createRunner(new ExtractionCache(store, 64));
+        extract(runner, ExtractionParameters.newDefault(), DOCUMENT);
+        extract(runner, ExtractionParameters.newDefault(), DOCUMENT);
+        Assert.assertEquals(0, store.getEntries());
+        Assert.assertEquals(2, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_MISSES));
+    }
+
+    @Test
+    public void testMemoryStoreEviction() {
+        final MemoryExtractionCacheStore store = new MemoryExtractionCacheStore(100);
+        store.put("a", new byte[40]);
+        store.put("b", new byte[40]);
+        Assert.assertNotNull(store.get("a"));
+        store.put("c", new byte[40]);
+        Assert.assertNotNull(store.get("a"));
+        Assert.assertNull(store.get("b"));
+        Assert.assertNotNull(store.get("c"));
+        Assert.assertEquals(80, store.getSize());
+        store.put("d", new byte[101]);
+        Assert.assertNull(store.get("d"));
+    }
+
+    @Test
+    public void testNotModifiedReplay() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        final AtomicInteger conditionals = new AtomicInteger();
+        final HttpServer server = startServer(fetches, conditionals);
+        final ExtractionCache cache = new ExtractionCache(new MemoryExtractionCacheStore(1024 * 1024));
+        final Any23 runner = createRunner(cache);
+        runner.setHTTPValidatorStore(new HTTPValidatorStore(10));
+        runner.setHTTPUserAgent("test-agent");
+        final String documentIRI = "http://127.0.0.1:" + server.getAddress().getPort() + "/page.html";
+        try {
+            final String expected = extract(runner, documentIRI);
+            Assert.assertTrue(expected.length() > 0);
+            Assert.assertEquals(1, fetches.get());
+
+            // The document is unchanged, its extraction is replayed.
+            Assert.assertEquals(expected, extract(runner, documentIRI));
+            Assert.assertEquals(1, fetches.get());
+            Assert.assertEquals(1, conditionals.get());
+            Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_NOT_MODIFIED));
+            Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+
+            // The extraction is no longer cached, the document is fetched unconditionally.
+            cache.getStore().clear();
+            Assert.assertEquals(expected.split("\n").length, extract(runner, documentIRI).split("\n").length);
+            Assert.assertEquals(2, fetches.get());
+            Assert.assertEquals(1, conditionals.get());
+
+            // Validating extractions are not cached, their fetches are unconditional.
+            final ExtractionParameters validate = new ExtractionParameters(
+                    DefaultConfiguration.singleton(), ExtractionParameters.ValidationMode.Validate
+            );
+            runner.extract(validate, documentIRI, new NQuadsWriter(new ByteArrayOutputStream()));
+            Assert.assertEquals(3, fetches.get());
+            Assert.assertEquals(1, conditionals.get());
+            Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_NOT_MODIFIED));
+        } finally {
+            runner.getHTTPClient().close();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testChangedContentWithSameValidators() throws Exception {
+        final AtomicReference<String> document = new AtomicReference<String>(DOCUMENT);
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page.html", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                // The conditionals are ignored and the ETag is kept across changes.
+                final byte[] body = document.get().getBytes("UTF-8");
+                exchange.getResponseHeaders().add("Content-Type", "text/html");
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, body.length);
+                final OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        server.start();
+        final Any23 runner = createRunner(new ExtractionCache(new MemoryExtractionCacheStore(1024 * 1024)));
+        runner.setHTTPValidatorStore(new HTTPValidatorStore(10));
+        runner.setHTTPUserAgent("test-agent");
+        final String documentIRI = "http://127.0.0.1:" + server.getAddress().getPort() + "/page.html";
+        try {
+            Assert.assertTrue(extract(runner, documentIRI).contains("Jane Doe"));
+            document.set(DOCUMENT.replace("Jane Doe", "John Roe"));
+            final String changed = extract(runner, documentIRI);
+            Assert.assertTrue(changed.contains("John Roe"));
+            Assert.assertFalse(changed.contains("Jane Doe"));
+            Assert.assertEquals(0, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+            Assert.assertEquals(2, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_MISSES));
+
+            // The unchanged content is replayed.
+            Assert.assertEquals(changed, extract(runner, documentIRI));
+            Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+        } finally {
+            runner.getHTTPClient().close();
+            server.stop(0);
+        }
+    }
+
+    @Test
+    public void testUnconditionalWithoutCache() throws Exception {
+        final AtomicInteger fetches = new AtomicInteger();
+        final AtomicInteger conditionals = new AtomicInteger();
+        final HttpServer server = startServer(fetches, conditionals);
+        final Any23 runner = new Any23();
+        runner.setMetricsRegistry(new DefaultMetricsRegistry());
+        runner.setHTTPValidatorStore(new HTTPValidatorStore(10));
+        runner.setHTTPUserAgent("test-agent");
+        final String documentIRI = "http://127.0.0.1:" + server.getAddress().getPort() + "/page.html";
+        try {
+            final String expected = extract(runner, documentIRI);
+            Assert.assertEquals(expected.split("\n").length, extract(runner, documentIRI).split("\n").length);
+            Assert.assertEquals(2, fetches.get());
+            Assert.assertEquals(0, conditionals.get());
+        } finally {
+            runner.getHTTPClient().close();
+            server.stop(0);
+        }
+    }
+
+    /**
+     * Serves {@link #DOCUMENT} with an <i>ETag</i>, replying <i>304</i> when it matches.
+     */
+    private HttpServer startServer(final AtomicInteger fetches, final AtomicInteger conditionals)
+    throws IOException {
+        final HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/page.html", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (exchange.getRequestHeaders().getFirst("If-None-Match") != null) {
+                    conditionals.incrementAndGet();
+                }
+                if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                fetches.incrementAndGet();
+                final byte[] body = DOCUMENT.getBytes("UTF-8");
+                exchange.getResponseHeaders().add("Content-Type", "text/html");
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(200, body.length);
+                final OutputStream os = exchange.getResponseBody();
+                os.write(body);
+                os.close();
+            }
+        });
+        server.start();
+        return server;
+    }
+
+    /**
+     * Extracts the document twice, the second extraction must be replayed
+     * with the same output and report.
+     */
+    private String checkReplay(ExtractionCache cache) throws Exception {
+        final Any23 runner = createRunner(cache);
+        final DocumentSource source = new StringDocumentSource(DOCUMENT, DOCUMENT_IRI, "text/html");
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final NQuadsWriter firstWriter = new NQuadsWriter(first);
+        final ExtractionReport firstReport = runner.extract(source, firstWriter);
+        firstWriter.close();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        final NQuadsWriter secondWriter = new NQuadsWriter(second);
+        final ExtractionReport secondReport = runner.extract(source, secondWriter);
+        secondWriter.close();
+
+        Assert.assertTrue(first.size() > 0);
+        Assert.assertEquals(first.toString("UTF-8"), second.toString("UTF-8"));
+        Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_HITS));
+        Assert.assertEquals(1, getCounter(runner, MetricsRegistry.DOCUMENT_CACHE_MISSES));
+        Assert.assertEquals(firstReport.getEncoding(), secondReport.getEncoding());
+        Assert.assertEquals(firstReport.getDetectedMimeType(), secondReport.getDetectedMimeType());
+        Assert.assertEquals(
+                firstReport.getMatchingExtractors().size(), secondReport.getMatchingExtractors().size()
+        );
+        for (int i = 0; i < firstReport.getMatchingExtractors().size(); i++) {
+            Assert.assertEquals(
+                    firstReport.getMatchingExtractors().get(i).getDescription().getExtractorName(),
+                    secondReport.getMatchingExtractors().get(i).getDescription().getExtractorName()
+            );
+        }
+        return first.toString("UTF-8");
+    }
+
+    private Any23 createRunner(ExtractionCache cache) {
+        final Any23 runner = new Any23();
+        runner.setExtractionCache(cache);
+        runner.setMetricsRegistry(new DefaultMetricsRegistry());
+        return runner;
+    }
+
+    private String extract(Any23 runner, ExtractionParameters eps, String document)
+    throws IOException, ExtractionException, TripleHandlerException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final NQuadsWriter writer = new NQuadsWriter(out);
+        runner.extract(eps, new StringDocumentSource(document, DOCUMENT_IRI, "text/html"), writer);
+        writer.close();
+        return out.toString("UTF-8");
+    }
+
+    private String extract(Any23 runner, String documentIRI)
+    throws IOException, ExtractionException, TripleHandlerException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final NQuadsWriter writer = new NQuadsWriter(out);
+        runner.extract(documentIRI, writer);
+        writer.close();
+        return out.toString("UTF-8");
+    }
+
+    private long getCounter(Any23 runner, String name) {
+        return ((DefaultMetricsRegistry) runner.getMetricsRegistry()).getCounter(name);
+    }
+
+}
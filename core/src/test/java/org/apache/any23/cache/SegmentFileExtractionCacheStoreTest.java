@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.cache;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.FilenameFilter;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Arrays;
+
+/**
+ * Test case for {@link SegmentFileExtractionCacheStore}.
+ */
+public class SegmentFileExtractionCacheStoreTest {
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testPutGet() throws IOException {
+        final SegmentFileExtractionCacheStore store =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 1000);
+        final byte[] entry = createEntry(500, 1);
+        store.put("key", entry);
+        Assert.assertArrayEquals(entry, store.get("key"));
+        Assert.assertNull(store.get("missing"));
+        final byte[] replaced = createEntry(300, 2);
+        store.put("key", replaced);
+        Assert.assertArrayEquals(replaced, store.get("key"));
+        Assert.assertEquals(1, store.getEntries());
+        store.close();
+    }
+
+    @Test
+    public void testEviction() throws IOException {
+        final SegmentFileExtractionCacheStore store =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 3000, 1000);
+        for (int i = 0; i < 10; i++) {
+            store.put("key" + i, createEntry(600, i));
+        }
+        Assert.assertTrue(store.getSize() <= 3000);
+        Assert.assertNull(store.get("key0"));
+        Assert.assertArrayEquals(createEntry(600, 9), store.get("key9"));
+        Assert.assertEquals(store.getSegments(), listSegments().length);
+        store.close();
+    }
+
+    @Test
+    public void testReopenWithTruncatedRecord() throws IOException {
+        final SegmentFileExtractionCacheStore store =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 10000);
+        store.put("first", createEntry(100, 1));
+        store.put("second", createEntry(100, 2));
+        store.close();
+        final File segment = listSegments()[0];
+        final RandomAccessFile file = new RandomAccessFile(segment, "rw");
+        try {
+            file.setLength(file.length() - 10);
+        } finally {
+            file.close();
+        }
+
+        final SegmentFileExtractionCacheStore reopened =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 10000);
+        Assert.assertArrayEquals(createEntry(100, 1), reopened.get("first"));
+        Assert.assertNull(reopened.get("second"));
+        reopened.put("third", createEntry(100, 3));
+        Assert.assertArrayEquals(createEntry(100, 3), reopened.get("third"));
+        Assert.assertEquals(2, reopened.getSegments());
+        reopened.clear();
+        Assert.assertEquals(0, listSegments().length);
+    }
+
+    @Test
+    public void testDirectoryLock() throws IOException {
+        final SegmentFileExtractionCacheStore store =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 1000);
+        store.put("key", createEntry(100, 1));
+        try {
+            new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 1000);
+            Assert.fail("Expected the directory to be locked.");
+        } catch (SegmentFileExtractionCacheStore.DirectoryLockedException dle) {
+            // Expected.
+        }
+        store.close();
+
+        final SegmentFileExtractionCacheStore reopened =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 1000);
+        Assert.assertArrayEquals(createEntry(100, 1), reopened.get("key"));
+        reopened.close();
+    }
+
+    @Test
+    public void testExistingSegmentIsNotOverwritten() throws IOException {
+        final SegmentFileExtractionCacheStore store =
+                new SegmentFileExtractionCacheStore(folder.getRoot(), 10000, 1000);
+        // A segment created after the store listed the directory.
+        final File foreign = new File(folder.getRoot(), "segment-0.dat");
+        Assert.assertTrue(foreign.createNewFile());
+        store.put("key", createEntry(100, 1));
+        Assert.assertEquals(0, foreign.length());
+        Assert.assertArrayEquals(createEntry(100, 1), store.get("key"));
+        store.close();
+    }
+
+    private File[] listSegments() {
+        return folder.getRoot().listFiles(new FilenameFilter() {
+            @Override
+            public boolean accept(File dir, String name) {
+                return name.endsWith(".dat");
+            }
+        });
+    }
+
+    private byte[] createEntry(int length, int value) {
+        final byte[] entry = new byte[length];
+        Arrays.fill(entry, (byte) value);
+        return entry;
+    }
+
+}
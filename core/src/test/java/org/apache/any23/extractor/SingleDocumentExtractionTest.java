@@ -28,6 +28,7 @@ import org.apache.any23.vocab.Review;
 import org.apache.any23.vocab.SINDICE;
 import org.apache.any23.vocab.VCard;
 import org.apache.any23.writer.CompositeTripleHandler;
+import org.apache.any23.writer.NQuadsWriter;
 import org.apache.any23.writer.RDFXMLWriter;
 import org.apache.any23.writer.RepositoryWriter;
 import org.apache.any23.writer.TripleHandlerException;
@@ -39,20 +40,27 @@ import org.eclipse.rdf4j.model.Resource;
 import org.eclipse.rdf4j.model.Statement;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.Model;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.util.Models;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.eclipse.rdf4j.repository.RepositoryConnection;
 import org.eclipse.rdf4j.repository.RepositoryException;
 import org.eclipse.rdf4j.repository.RepositoryResult;
 import org.eclipse.rdf4j.repository.sail.SailRepository;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
 import org.eclipse.rdf4j.sail.Sail;
 import org.eclipse.rdf4j.sail.SailException;
 import org.eclipse.rdf4j.sail.memory.MemoryStore;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
+import java.util.concurrent.ExecutorService;
 
 /**
  * Test case for {@link SingleDocumentExtraction}.
@@ -95,9 +103,11 @@ public class SingleDocumentExtractionTest extends AbstractAny23TestBase {
 
     @After
     public void tearDown() throws SailException, RepositoryException, TripleHandlerException {
-        rdfxmlWriter.close();
-        repositoryWriter.close();
-        logger.debug( baos.toString() );
+        if (rdfxmlWriter != null) {
+            rdfxmlWriter.close();
+            repositoryWriter.close();
+            logger.debug( baos.toString() );
+        }
 
         singleDocumentExtraction = null;
         extractorGroup = null;
@@ -229,6 +239,97 @@ public class SingleDocumentExtractionTest extends AbstractAny23TestBase {
         assertTripleCount(vSINDICE.getProperty(SINDICE.NESTING_ORIGINAL)  , vREVIEW.hasReview, 1);
     }
 
+    /**
+     * Tests that the concurrent execution of the extractors produces the same
+     * nesting relationships of the sequential one.
+     *
+     * @throws IOException
+     * @throws ExtractionException
+     * @throws RepositoryException
+     */
+    @Test
+    public void testNestedMicroformatsManagedParallel() throws IOException, ExtractionException, RepositoryException {
+        singleDocumentExtraction = getInstance("/microformats/nested-microformats-managed.html");
+        final ExtractionParameters parameters = ExtractionParameters.newDefault();
+        parameters.setFlag(ExtractionParameters.METADATA_DOMAIN_PER_ENTITY_FLAG, true);
+        parameters.setFlag(ExtractionParameters.PARALLEL_EXTRACTION_FLAG, true);
+        singleDocumentExtraction.run(parameters);
+
+        logStorageContent();
+
+        assertTripleCount(vSINDICE.getProperty(SINDICE.DOMAIN), "nested.test.com", 3);
+        assertTripleCount(vSINDICE.getProperty(SINDICE.NESTING), (Value) null, 1);
+        assertTripleCount(vSINDICE.getProperty(SINDICE.NESTING_ORIGINAL), vREVIEW.hasReview, 1);
+
+        assertTripleCount(vVCARD.url, (Value) null, 1);
+        Value object = getTripleObject(null, vREVIEW.hasReview);
+        assertTripleCount(vSINDICE.getProperty(SINDICE.NESTING_STRUCTURED), object, 1);
+    }
+
+    /**
+     * Tests that the parallel extraction produces the same output of the sequential one
+     * when an extractor modifies the DOM, as the hCard extractor does to resolve includes.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelExtractionWithDOMChangingExtractor() throws Exception {
+        for (String file : new String[] {
+                "/microformats/hcard/31-include.html", "/microformats/hcard/35-include-pattern.html"
+        }) {
+            final Model sequential = extractModel(file, false);
+            Assert.assertFalse(sequential.filter(null, RDF.TYPE, vVCARD.VCard).isEmpty());
+            for (int i = 0; i < 5; i++) {
+                final Model parallel = extractModel(file, true);
+                Assert.assertTrue(
+                        file + " differs: " + sequential + " " + parallel,
+                        Models.isomorphic(sequential, parallel)
+                );
+            }
+        }
+    }
+
+    /**
+     * Tests that the extractions without an executor share the same pool and
+     * that fewer threads than extractors still produce the sequential output.
+     *
+     * @throws Exception
+     */
+    @Test
+    public void testParallelExtractionSharesPool() throws Exception {
+        final String file = "/microformats/hcard/31-include.html";
+        final Model sequential = extractModel(file, false);
+        final ExecutorService pool = SingleDocumentExtraction.getExtractorThreads();
+        Assert.assertTrue(Models.isomorphic(sequential, extractModel(file, true, "1")));
+        Assert.assertTrue(Models.isomorphic(sequential, extractModel(file, true, "2")));
+        Assert.assertSame(pool, SingleDocumentExtraction.getExtractorThreads());
+        Assert.assertFalse(pool.isShutdown());
+    }
+
+    private Model extractModel(String file, boolean parallel) throws Exception {
+        return extractModel(file, parallel, null);
+    }
+
+    private Model extractModel(String file, boolean parallel, String threads) throws Exception {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final NQuadsWriter writer = new NQuadsWriter(out);
+        final SingleDocumentExtraction instance = new SingleDocumentExtraction(
+                DefaultConfiguration.copy(),
+                new HTMLFixture(copyResourceToTempFile(file)).getOpener("http://include.test.com"),
+                extractorGroup,
+                writer
+        );
+        instance.setMIMETypeDetector(new TikaMIMETypeDetector(new WhiteSpacesPurifier()));
+        final ExtractionParameters parameters = ExtractionParameters.newDefault();
+        parameters.setFlag(ExtractionParameters.PARALLEL_EXTRACTION_FLAG, parallel);
+        if (threads != null) {
+            parameters.setProperty(ExtractionParameters.PARALLEL_EXTRACTION_THREADS_PROPERTY, threads);
+        }
+        instance.run(parameters);
+        writer.close();
+        return Rio.parse(new ByteArrayInputStream(out.toByteArray()), "", RDFFormat.NQUADS);
+    }
+
     private SingleDocumentExtraction getInstance(String file) throws FileNotFoundException, IOException {
         baos = new ByteArrayOutputStream();
         rdfxmlWriter = new RDFXMLWriter(baos);
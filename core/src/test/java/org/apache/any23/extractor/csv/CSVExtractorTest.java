@@ -17,9 +17,14 @@
 
 package org.apache.any23.extractor.csv;
 
+import org.apache.any23.Any23;
+import org.apache.any23.extractor.ExtractionParameters;
 import org.apache.any23.extractor.ExtractorFactory;
 import org.apache.any23.extractor.html.AbstractExtractorTestCase;
+import org.apache.any23.source.StringDocumentSource;
 import org.apache.any23.vocab.CSV;
+import org.apache.any23.writer.NTriplesWriter;
+import org.junit.Assert;
 import org.junit.Test;
 import org.eclipse.rdf4j.model.impl.LiteralImpl;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
@@ -29,6 +34,8 @@ import org.eclipse.rdf4j.repository.RepositoryException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayOutputStream;
+
 /**
  * Reference test case for {@link CSVExtractor}.
  *
@@ -107,6 +114,58 @@ public class CSVExtractorTest extends AbstractExtractorTestCase {
 		assertContains(null, null, SimpleValueFactory.getInstance().createLiteral("10", XMLSchema.INTEGER));
 	}
 
+	@Test
+	public void testParallelConversion() throws Exception {
+		final StringBuilder content = new StringBuilder("name,value,link\n");
+		for (int i = 0; i < 4321; i++) {
+			content.append("n").append(i).append(',').append(i % 7 == 0 ? "" : i + ".5").append(',')
+					.append("http://host.com/").append(i).append('\n');
+		}
+		final ExtractionParameters parameters = ExtractionParameters.newDefault();
+		final String serial = extractToNTriples(parameters, content.toString());
+		parameters.setFlag(ExtractionParameters.CSV_PARALLEL_FLAG, true);
+		parameters.setProperty(ExtractionParameters.CSV_PARALLEL_THREADS_PROPERTY, "3");
+		final String parallel = extractToNTriples(parameters, content.toString());
+		Assert.assertTrue(serial.contains("\"4321\"^^<" + XMLSchema.INTEGER + ">"));
+		Assert.assertEquals(serial, parallel);
+	}
+
+	private String extractToNTriples(ExtractionParameters parameters, String content) throws Exception {
+		final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+		final NTriplesWriter writer = new NTriplesWriter(baos);
+		new Any23("csv").extract(
+				parameters, new StringDocumentSource(content, "http://host.com/data.csv", "text/csv"), writer
+		);
+		writer.close();
+		return baos.toString("UTF-8");
+	}
+
+	@Test
+	public void testNumberClassification() {
+		final String[] cells = {
+				"10", "-10", "+10", "2147483647", "2147483648", "-2147483648", "-2147483649",
+				"5.2", "-.5", "1.", ".", "1e10", "1E-3", "1e", "2.5f", "3d", "NaN", "-Infinity",
+				"0x1p3", "abc", "", "-", "+", "1,000", "12a", "\u0661\u0662"
+		};
+		for (String cell : cells) {
+			Assert.assertEquals(cell, isValid(cell, true), CSVExtractor.isInteger(cell));
+			Assert.assertEquals(cell, isValid(cell, false), CSVExtractor.isFloat(cell));
+		}
+	}
+
+	private static boolean isValid(String cell, boolean integer) {
+		try {
+			if (integer) {
+				Integer.valueOf(cell);
+			} else {
+				Float.valueOf(cell);
+			}
+			return true;
+		} catch (NumberFormatException e) {
+			return false;
+		}
+	}
+
 	@Test
 	public void testExtractionEmptyValue() throws Exception {
 		CSV csv = CSV.getInstance();
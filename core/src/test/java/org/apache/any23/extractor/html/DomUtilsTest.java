@@ -75,6 +75,27 @@ public class DomUtilsTest extends AbstractAny23TestBase {
         );
     }
 
+    @Test
+    public void testGetXPathListForNodeAfterChanges() throws Exception {
+        Node dom = new HTMLFixture(copyResourceToTempFile("/microformats/hcard/02-multiple-class-names-on-vcard.html")).getDOM();
+        final Node familyName = (Node) xPathEngine.evaluate(
+                "//SPAN/SPAN/*[@class='family-name']", dom, XPathConstants.NODE
+        );
+        Assert.assertArrayEquals(
+                new String[]{"#document[0]", "HTML[0]", "BODY[0]", "P[0]", "SPAN[0]", "SPAN[0]", "SPAN[1]"},
+                DomUtils.getXPathListForNode(familyName)
+        );
+        Assert.assertEquals(1, DomUtils.getIndexInParent(familyName));
+
+        final Node parent = familyName.getParentNode();
+        parent.insertBefore(familyName.getOwnerDocument().createElement("SPAN"), parent.getFirstChild());
+        Assert.assertEquals("/HTML[1]/BODY[1]/P[1]/SPAN[1]/SPAN[1]/SPAN[3]", DomUtils.getXPathForNode(familyName));
+        Assert.assertEquals(2, DomUtils.getIndexInParent(familyName));
+
+        parent.removeChild(familyName);
+        Assert.assertEquals("/SPAN[1]", DomUtils.getXPathForNode(familyName));
+    }
+
     @Test
     public void testFindAllByClassName() throws Exception {
         Node dom = new HTMLFixture(copyResourceToTempFile("/microformats/hcard/02-multiple-class-names-on-vcard.html")).getDOM();
@@ -144,6 +165,59 @@ public class DomUtilsTest extends AbstractAny23TestBase {
 
     }
 
+    @Test
+    public void testFindAllByClassNameOnSubtreeAndAfterChanges() throws Exception {
+        Node dom = new HTMLFixture(copyResourceToTempFile("/microformats/hcard/02-multiple-class-names-on-vcard.html")).getDOM();
+        final String classXPath =
+                "//*[contains(concat(' ', normalize-space(@class), ' '), ' %s ')]";
+        List<Node> vcards = DomUtils.findAllByClassName(dom, "vcard");
+        Assert.assertEquals(
+                ((NodeList) xPathEngine.evaluate(String.format(classXPath, "vcard"), dom, XPathConstants.NODESET)).getLength(),
+                vcards.size()
+        );
+
+        final Node vcard = vcards.get(vcards.size() - 1);
+        final NodeList expected = (NodeList) xPathEngine.evaluate(
+                "." + String.format(classXPath, "given-name"), vcard, XPathConstants.NODESET
+        );
+        List<Node> givenNames = DomUtils.findAllByClassName(vcard, "Given-Name");
+        Assert.assertEquals(expected.getLength(), givenNames.size());
+        for (int i = 0; i < expected.getLength(); i++) {
+            Assert.assertSame(expected.item(i), givenNames.get(i));
+        }
+
+        // modifications of the document must be reflected by the lookups.
+        vcard.getAttributes().removeNamedItem("class");
+        Assert.assertEquals(vcards.size() - 1, DomUtils.findAllByClassName(dom, "vcard").size());
+        vcard.getParentNode().appendChild(vcard.cloneNode(true));
+        Assert.assertEquals(givenNames.size() * 2,
+                DomUtils.findAllByClassName(vcard.getParentNode(), "given-name").size());
+    }
+
+    @Test
+    public void testFindNodeById() throws Exception {
+        Node dom = new HTMLFixture(copyResourceToTempFile("/microformats/hcard/31-include.html")).getDOM();
+        final NodeList withId = (NodeList) xPathEngine.evaluate("//*[@id]", dom, XPathConstants.NODESET);
+        Assert.assertTrue(withId.getLength() > 0);
+        for (int i = 0; i < withId.getLength(); i++) {
+            final String id = DomUtils.readAttribute(withId.item(i), "id");
+            Assert.assertSame(
+                    xPathEngine.evaluate("//*[@id='" + id + "']", dom, XPathConstants.NODE),
+                    DomUtils.findNodeById(withId.item(i), id)
+            );
+        }
+        Assert.assertNull(DomUtils.findNodeById(dom, "missing-id"));
+
+        final Node node = withId.item(0);
+        node.getAttributes().getNamedItem("id").setNodeValue("renamed");
+        Assert.assertSame(node, DomUtils.findNodeById(dom, "renamed"));
+    }
+
+    @Test
+    public void testXPathCache() throws Exception {
+        Assert.assertSame(XPathCache.compile("/HTML/HEAD/TITLE"), XPathCache.compile("/HTML/HEAD/TITLE"));
+    }
+
     @Test
     public void testHasClassName() throws Exception {
         Node dom = new HTMLFixture(copyResourceToTempFile("/microformats/hcard/02-multiple-class-names-on-vcard.html")).getDOM();
@@ -0,0 +1,155 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.extractor.rdf;
+
+import org.apache.any23.Any23;
+import org.apache.any23.ExtractionReport;
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.any23.extractor.ExtractionException;
+import org.apache.any23.extractor.ExtractionParameters;
+import org.apache.any23.extractor.ExtractionResultImpl;
+import org.apache.any23.rdf.BinaryRDF;
+import org.apache.any23.rdf.RDFUtils;
+import org.apache.any23.source.ByteArrayDocumentSource;
+import org.apache.any23.writer.BinaryRDFWriter;
+import org.apache.any23.writer.NQuadsWriter;
+import org.apache.any23.writer.TripleHandler;
+import org.junit.Assert;
+import org.junit.Test;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+
+/**
+ * Test case for {@link BinaryRDFExtractor} and
+ * {@link org.apache.any23.writer.BinaryRDFWriter}.
+ */
+public class BinaryRDFExtractorTest {
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private static final IRI DOCUMENT = RDFUtils.iri("http://host.com/doc.a23q");
+
+    @Test
+    public void testRoundtrip() throws Exception {
+        checkRoundtrip(BinaryRDFWriter.DEFAULT_MAX_DICTIONARY_SIZE);
+    }
+
+    /**
+     * Forces many dictionary resets while writing.
+     */
+    @Test
+    public void testRoundtripWithDictionaryReset() throws Exception {
+        checkRoundtrip(16);
+    }
+
+    @Test
+    public void testDetectedByAny23() throws Exception {
+        final byte[] binary = write(BinaryRDFWriter.DEFAULT_MAX_DICTIONARY_SIZE);
+        final ByteArrayOutputStream extracted = new ByteArrayOutputStream();
+        final TripleHandler handler = new NQuadsWriter(extracted);
+        final ExtractionReport report = new Any23().extract(
+                new ByteArrayDocumentSource(binary, DOCUMENT.stringValue(), null), handler
+        );
+        handler.close();
+        Assert.assertEquals(BinaryRDF.MIME_TYPE, report.getDetectedMimeType());
+        Assert.assertEquals(writeNQuads(), extracted.toString("UTF-8"));
+    }
+
+    @Test
+    public void testBinaryIsSmaller() throws Exception {
+        Assert.assertTrue(write(BinaryRDFWriter.DEFAULT_MAX_DICTIONARY_SIZE).length < writeNQuads().length() / 2);
+    }
+
+    @Test(expected = ExtractionException.class)
+    public void testTruncatedStream() throws Exception {
+        final byte[] binary = write(BinaryRDFWriter.DEFAULT_MAX_DICTIONARY_SIZE);
+        extract(Arrays.copyOf(binary, binary.length - 3));
+    }
+
+    @Test(expected = ExtractionException.class)
+    public void testWrongMagic() throws Exception {
+        extract("<http://a> <http://b> <http://c> .\n".getBytes("UTF-8"));
+    }
+
+    private void checkRoundtrip(int maxDictionarySize) throws Exception {
+        Assert.assertEquals(writeNQuads(), extract(write(maxDictionarySize)));
+    }
+
+    private String extract(byte[] binary) throws Exception {
+        final BinaryRDFExtractor extractor = new BinaryRDFExtractor();
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final TripleHandler handler = new NQuadsWriter(baos);
+        final ExtractionContext context = new ExtractionContext(BinaryRDFExtractorFactory.NAME, DOCUMENT);
+        final ExtractionResultImpl result = new ExtractionResultImpl(context, extractor, handler);
+        try {
+            extractor.run(ExtractionParameters.newDefault(), context, new ByteArrayInputStream(binary), result);
+        } finally {
+            result.close();
+            handler.close();
+        }
+        return baos.toString("UTF-8");
+    }
+
+    private byte[] write(int maxDictionarySize) throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final BinaryRDFWriter writer = new BinaryRDFWriter(baos, maxDictionarySize);
+        writeQuads(writer);
+        return baos.toByteArray();
+    }
+
+    private String writeNQuads() throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        writeQuads(new NQuadsWriter(baos));
+        return baos.toString("UTF-8");
+    }
+
+    private void writeQuads(TripleHandler handler) throws Exception {
+        final ExtractionContext context = new ExtractionContext("test", DOCUMENT);
+        handler.startDocument(DOCUMENT);
+        handler.receiveNamespace("ex", "http://example.org/ns#", context);
+        for(int i = 0; i < 200; i++) {
+            final IRI subject = VF.createIRI("http://example.org/resource/" + (i % 37));
+            final IRI graph = VF.createIRI("http://example.org/graph/" + (i % 3));
+            handler.receiveTriple(subject, RDF.TYPE, VF.createIRI("http://example.org/ns#Type" + (i % 5)), graph, context);
+            handler.receiveTriple(
+                    subject, VF.createIRI("http://example.org/ns#label"),
+                    VF.createLiteral("label è \"" + i + "\"\n", i % 2 == 0 ? "en" : "it"), graph, context
+            );
+            handler.receiveTriple(
+                    VF.createBNode("node" + i), VF.createIRI("http://example.org/ns#value"),
+                    VF.createLiteral(Integer.toString(i), XMLSchema.INT), null, context
+            );
+            handler.receiveTriple(
+                    subject, VF.createIRI("http://example.org/ns#ref"), VF.createBNode("node" + i), graph, context
+            );
+            handler.receiveTriple(
+                    subject, VF.createIRI("urn:isbn:" + i), VF.createLiteral("plain " + i), graph, context
+            );
+        }
+        handler.endDocument(DOCUMENT);
+        handler.close();
+    }
+
+}
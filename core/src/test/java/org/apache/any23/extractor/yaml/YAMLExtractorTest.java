@@ -93,4 +93,30 @@ public class YAMLExtractorTest extends AbstractExtractorTestCase {
         RepositoryResult<Statement> docs = getStatements(null, null, RDF.NIL);
         Assert.assertTrue(Iterations.asList(docs).size() == 2);
     }
+
+    @Test
+    public void anchorsAndMergeTest()
+            throws Exception {
+        assertExtract("/org/apache/any23/extractor/yaml/anchors-merge.yml");
+        log.debug(dumpModelToTurtle());
+        assertModelNotEmpty();
+        // the aliased mapping is replayed into both the anchor and the merging mappings.
+        RepositoryResult<Statement> hosts = getStatements(null, RDFUtils.iri(baseIRI + "host"), null);
+        Assert.assertEquals(3, Iterations.asList(hosts).size());
+        assertContains(null, RDFUtils.iri(baseIRI + "pool"), RDFUtils.literal(5));
+        assertContains(null, RDFS.LABEL, RDFUtils.literal("1"));
+    }
+
+    @Test
+    public void emptyDocumentsTest()
+            throws Exception {
+        assertExtract("/org/apache/any23/extractor/yaml/empty-documents.yml");
+        log.debug(dumpModelToTurtle());
+        assertModelNotEmpty();
+        // every empty document contains rdf:nil, as the null value of the loaded documents.
+        RepositoryResult<Statement> documents = getStatements(null, RDF.TYPE, vocab.document);
+        Assert.assertEquals(2, Iterations.asList(documents).size());
+        RepositoryResult<Statement> nils = getStatements(null, vocab.contains, RDF.NIL);
+        Assert.assertEquals(2, Iterations.asList(nils).size());
+    }
 }
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.any23.configuration.DefaultConfiguration;
+import org.apache.any23.source.MemCopyFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Test case for {@link AsyncHTTPClient}, run against a local server.
+ */
+public class AsyncHTTPClientTest {
+
+    private static final String CONTENT = "<http://s> <http://p> <http://o> .";
+
+    private HttpServer server;
+
+    private String baseIRI;
+
+    private AsyncHTTPClient client;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/plain", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                send(exchange, CONTENT.getBytes("UTF-8"), null);
+            }
+        });
+        server.createContext("/gzip", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                final ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+                final GZIPOutputStream gzip = new GZIPOutputStream(compressed);
+                gzip.write(CONTENT.getBytes("UTF-8"));
+                gzip.close();
+                send(exchange, compressed.toByteArray(), "gzip");
+            }
+        });
+        server.createContext("/language", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                send(exchange, String.valueOf(exchange.getRequestHeaders().getFirst("Accept-Language")).getBytes("UTF-8"), null);
+            }
+        });
+        server.createContext("/slow", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException ie) {
+                    Thread.currentThread().interrupt();
+                }
+                send(exchange, CONTENT.getBytes("UTF-8"), null);
+            }
+        });
+        server.createContext("/redirect", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Location", "/plain");
+                exchange.sendResponseHeaders(302, -1);
+                exchange.close();
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        baseIRI = "http://127.0.0.1:" + server.getAddress().getPort();
+        client = createClient(2, 0);
+    }
+
+    @After
+    public void tearDown() {
+        client.close();
+        server.stop(0);
+    }
+
+    @Test
+    public void testOpenInputStream() throws IOException {
+        Assert.assertEquals(CONTENT, new String(MemCopyFactory.toByteArray(client.openInputStream(baseIRI + "/plain")), "UTF-8"));
+        Assert.assertEquals("text/plain", client.getContentType());
+        Assert.assertEquals(CONTENT.length(), client.getContentLength());
+        Assert.assertEquals(baseIRI + "/plain", client.getActualDocumentIRI());
+    }
+
+    @Test
+    public void testCompressedResponse() throws IOException {
+        Assert.assertEquals(CONTENT, new String(MemCopyFactory.toByteArray(client.openInputStream(baseIRI + "/gzip")), "UTF-8"));
+    }
+
+    @Test
+    public void testRedirect() throws IOException {
+        for (int i = 0; i < 10; i++) {
+            client.openInputStream(baseIRI + "/redirect");
+            Assert.assertEquals(baseIRI + "/plain", client.getActualDocumentIRI());
+        }
+    }
+
+    @Test
+    public void testRetryOnResetConnection() throws Exception {
+        final ServerSocket resetting = new ServerSocket(0, 0, InetAddress.getByName("127.0.0.1"));
+        final Thread serverThread = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                try {
+                    // the first connection is reset on its second request, the next ones work.
+                    final Socket stale = resetting.accept();
+                    readRequest(stale);
+                    writeResponse(stale);
+                    readRequest(stale);
+                    stale.setSoLinger(true, 0);
+                    stale.close();
+                    final Socket fresh = resetting.accept();
+                    readRequest(fresh);
+                    writeResponse(fresh);
+                    fresh.close();
+                } catch (IOException ioe) {
+                    // the test fails on the client side.
+                }
+            }
+        });
+        serverThread.setDaemon(true);
+        serverThread.start();
+        try {
+            final String iri = "http://127.0.0.1:" + resetting.getLocalPort() + "/doc";
+            Assert.assertEquals(CONTENT, new String(MemCopyFactory.toByteArray(client.openInputStream(iri)), "UTF-8"));
+            Assert.assertEquals(CONTENT, new String(MemCopyFactory.toByteArray(client.openInputStream(iri)), "UTF-8"));
+        } finally {
+            resetting.close();
+        }
+    }
+
+    @Test
+    public void testCancelReleasesConnection() throws Exception {
+        final AsyncHTTPClient single = createClient(1, 0);
+        try {
+            final Future<HTTPResponse> slow = single.fetch(baseIRI + "/slow", null);
+            Thread.sleep(200);
+            Assert.assertTrue(slow.cancel(true));
+            // the only connection must be available again well before the slow response.
+            Assert.assertEquals(CONTENT.length(), single.fetch(baseIRI + "/plain", null).get().getContentLength());
+        } finally {
+            single.close();
+        }
+    }
+
+    @Test
+    public void testConcurrentFetches() throws Exception {
+        final List<Future<HTTPResponse>> responses = new ArrayList<Future<HTTPResponse>>();
+        for (int i = 0; i < 20; i++) {
+            responses.add(client.fetch(baseIRI + (i % 2 == 0 ? "/plain" : "/gzip") + "?doc=" + i, null));
+        }
+        for (Future<HTTPResponse> response : responses) {
+            Assert.assertEquals(CONTENT.length(), response.get().getContentLength());
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testNotFound() throws IOException {
+        client.openInputStream(baseIRI + "/missing");
+    }
+
+    @Test(expected = IOException.class)
+    public void testInvalidIRI() throws IOException {
+        client.openInputStream("http://[invalid/%zz");
+    }
+
+    @Test
+    public void testAcceptLanguage() throws IOException {
+        Assert.assertEquals(
+                DefaultConfiguration.singleton().getPropertyOrFail("any23.http.client.accept.language"),
+                new String(MemCopyFactory.toByteArray(client.openInputStream(baseIRI + "/language")), "UTF-8")
+        );
+    }
+
+    @Test
+    public void testMaxBodySize() throws Exception {
+        final AsyncHTTPClient limited = createClient(2, CONTENT.length() / 2);
+        try {
+            limited.fetch(baseIRI + "/plain", null).get();
+            Assert.fail("Expected failure.");
+        } catch (ExecutionException ee) {
+            Assert.assertTrue(ee.getCause() instanceof IOException);
+        } finally {
+            limited.close();
+        }
+    }
+
+    private AsyncHTTPClient createClient(int maxConnectionsPerHost, long maxBodySize) {
+        final AsyncHTTPClient asyncClient = new AsyncHTTPClient();
+        asyncClient.init(new DefaultHTTPClientConfiguration(
+                "test-agent", 2000, 10, maxConnectionsPerHost, 1000, null, false, maxBodySize
+        ));
+        return asyncClient;
+    }
+
+    private static void readRequest(Socket socket) throws IOException {
+        final BufferedReader reader = new BufferedReader(new InputStreamReader(socket.getInputStream(), "US-ASCII"));
+        String line;
+        while ((line = reader.readLine()) != null && line.length() > 0) {
+            // headers are ignored.
+        }
+    }
+
+    private static void writeResponse(Socket socket) throws IOException {
+        final byte[] body = CONTENT.getBytes("UTF-8");
+        final OutputStream os = socket.getOutputStream();
+        os.write((
+                "HTTP/1.1 200 OK\r\nContent-Type: text/plain\r\nContent-Length: " + body.length + "\r\n\r\n"
+        ).getBytes("US-ASCII"));
+        os.write(body);
+        os.flush();
+    }
+
+    private static void send(HttpExchange exchange, byte[] body, String encoding) throws IOException {
+        exchange.getResponseHeaders().add("Content-Type", "text/plain");
+        if (encoding != null) {
+            exchange.getResponseHeaders().add("Content-Encoding", encoding);
+        }
+        exchange.sendResponseHeaders(200, body.length);
+        final OutputStream os = exchange.getResponseBody();
+        os.write(body);
+        os.close();
+    }
+
+}
@@ -0,0 +1,192 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.http;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.any23.source.MemCopyFactory;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+
+/**
+ * Test case for {@link DefaultHTTPClient}, run against a local server.
+ */
+public class DefaultHTTPClientTest {
+
+    private static final byte[] BODY = new byte[64 * 1024];
+
+    private static final String ETAG = "\"v1\"";
+
+    private static final String LAST_MODIFIED = "Tue, 15 Nov 1994 12:45:26 GMT";
+
+    static {
+        Arrays.fill(BODY, (byte) 'a');
+    }
+
+    private HttpServer server;
+
+    private String baseIRI;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/doc", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                exchange.sendResponseHeaders(200, BODY.length);
+                final OutputStream os = exchange.getResponseBody();
+                os.write(BODY);
+                os.close();
+            }
+        });
+        server.createContext("/validated", new HttpHandler() {
+            @Override
+            public void handle(HttpExchange exchange) throws IOException {
+                if (ETAG.equals(exchange.getRequestHeaders().getFirst("If-None-Match"))
+                        && LAST_MODIFIED.equals(exchange.getRequestHeaders().getFirst("If-Modified-Since"))) {
+                    exchange.sendResponseHeaders(304, -1);
+                    exchange.close();
+                    return;
+                }
+                exchange.getResponseHeaders().add("Content-Type", "text/plain");
+                exchange.getResponseHeaders().add("ETag", ETAG);
+                exchange.getResponseHeaders().add("Last-Modified", LAST_MODIFIED);
+                exchange.sendResponseHeaders(200, BODY.length);
+                final OutputStream os = exchange.getResponseBody();
+                os.write(BODY);
+                os.close();
+            }
+        });
+        server.start();
+        baseIRI = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void testBufferedFetch() throws IOException {
+        final DefaultHTTPClient client = createClient(false, 0);
+        try {
+            final InputStream is = client.openInputStream(baseIRI + "/doc");
+            Assert.assertArrayEquals(BODY, MemCopyFactory.toByteArray(is));
+            Assert.assertEquals(BODY.length, client.getContentLength());
+            Assert.assertEquals("text/plain", client.getContentType());
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testStreamingFetchReleasesConnection() throws IOException {
+        final DefaultHTTPClient client = createClient(true, 0);
+        try {
+            // more fetches than available connections: succeeds only if closing releases them.
+            for (int i = 0; i < 3; i++) {
+                final InputStream is = client.openInputStream(baseIRI + "/doc");
+                try {
+                    Assert.assertArrayEquals(BODY, MemCopyFactory.toByteArray(is, client.getContentLength()));
+                } finally {
+                    is.close();
+                }
+            }
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test(expected = IOException.class)
+    public void testMaxBodySize() throws IOException {
+        final DefaultHTTPClient client = createClient(true, BODY.length / 2);
+        try {
+            client.openInputStream(baseIRI + "/doc");
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testDefaultConfigurationDoesNotLimitBody() throws IOException {
+        final DefaultHTTPClientConfiguration configuration = new DefaultHTTPClientConfiguration();
+        Assert.assertEquals(0, configuration.getMaxBodySize());
+        final DefaultHTTPClient client = new DefaultHTTPClient();
+        client.init(configuration);
+        try {
+            Assert.assertArrayEquals(BODY, MemCopyFactory.toByteArray(client.openInputStream(baseIRI + "/doc")));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testConditionalFetch() throws IOException {
+        final DefaultHTTPClient client = createClient(false, 0);
+        final HTTPValidatorStore store = new HTTPValidatorStore(10);
+        client.setValidatorStore(store);
+        final String uri = baseIRI + "/validated";
+        try {
+            Assert.assertArrayEquals(BODY, MemCopyFactory.toByteArray(client.openInputStream(uri)));
+            Assert.assertEquals(new HTTPValidatorStore.Validators(ETAG, LAST_MODIFIED), store.get(uri));
+            try {
+                client.openInputStream(uri);
+                Assert.fail("Expected a NotModifiedException.");
+            } catch (NotModifiedException nme) {
+                Assert.assertEquals(uri, nme.getURI());
+            }
+            // Without validators the fetch is unconditional.
+            store.remove(uri);
+            Assert.assertArrayEquals(BODY, MemCopyFactory.toByteArray(client.openInputStream(uri)));
+            // Responses without validators are not remembered.
+            client.openInputStream(baseIRI + "/doc");
+            Assert.assertNull(store.get(baseIRI + "/doc"));
+        } finally {
+            client.close();
+        }
+    }
+
+    @Test
+    public void testValidatorStoreEviction() {
+        final HTTPValidatorStore store = new HTTPValidatorStore(2);
+        store.put("http://host/a", new HTTPValidatorStore.Validators("a", null));
+        store.put("http://host/b", new HTTPValidatorStore.Validators("b", null));
+        Assert.assertNotNull(store.get("http://host/a"));
+        store.put("http://host/c", new HTTPValidatorStore.Validators(null, LAST_MODIFIED));
+        Assert.assertEquals(2, store.size());
+        Assert.assertNull(store.get("http://host/b"));
+        Assert.assertNotNull(store.get("http://host/a"));
+    }
+
+    private DefaultHTTPClient createClient(boolean streaming, long maxBodySize) {
+        final DefaultHTTPClient client = new DefaultHTTPClient();
+        client.init(new DefaultHTTPClientConfiguration("test-agent", 2000, 1, null, streaming, maxBodySize));
+        return client;
+    }
+
+}
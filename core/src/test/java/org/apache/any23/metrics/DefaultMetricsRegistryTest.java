@@ -0,0 +1,94 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.metrics;
+
+import org.apache.any23.Any23;
+import org.apache.any23.source.StringDocumentSource;
+import org.apache.any23.writer.CountingTripleHandler;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+/**
+ * Test case for {@link DefaultMetricsRegistry}.
+ */
+public class DefaultMetricsRegistryTest {
+
+    @Test
+    public void testHistogram() {
+        final Histogram histogram = new Histogram();
+        Assert.assertEquals(0, histogram.getPercentile(0.5));
+        for (int i = 1; i <= 100; i++) {
+            histogram.record(i);
+        }
+        Assert.assertEquals(100, histogram.getCount());
+        Assert.assertEquals(5050, histogram.getTotal());
+        Assert.assertEquals(1, histogram.getMin());
+        Assert.assertEquals(100, histogram.getMax());
+        Assert.assertEquals(50.5, histogram.getMean(), 0.0);
+        final long median = histogram.getPercentile(0.5);
+        Assert.assertTrue("Unexpected median " + median, median >= 50 && median < 100);
+        Assert.assertEquals(100, histogram.getPercentile(1));
+    }
+
+    @Test
+    public void testRegistry() {
+        final DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+        registry.recordTime("t", 10);
+        registry.recordTime("t", 30);
+        registry.incrementCounter("c", 2);
+        registry.incrementCounter("c", 3);
+        Assert.assertEquals(2, registry.getTimer("t").getCount());
+        Assert.assertEquals(40, registry.getTimer("t").getTotal());
+        Assert.assertEquals(5, registry.getCounter("c"));
+        Assert.assertNull(registry.getTimer("missing"));
+        Assert.assertEquals(0, registry.getCounter("missing"));
+        registry.reset();
+        Assert.assertTrue(registry.getTimerNames().isEmpty());
+        Assert.assertTrue(registry.getCounterNames().isEmpty());
+    }
+
+    @Test
+    public void testExtractionMetrics() throws Exception {
+        final DefaultMetricsRegistry registry = new DefaultMetricsRegistry();
+        final Any23 runner = new Any23("html-mf-hcard");
+        runner.setMetricsRegistry(registry);
+        final String content = "<html><body><div class=\"vcard\"><span class=\"fn\">Joe</span></div></body></html>";
+        final CountingTripleHandler handler = new CountingTripleHandler();
+        runner.extract(new StringDocumentSource(content, "http://host.com/service", "text/html"), handler);
+
+        Assert.assertEquals(1, registry.getCounter(MetricsRegistry.DOCUMENT_COUNT));
+        Assert.assertEquals(content.length(), registry.getCounter(MetricsRegistry.DOCUMENT_BYTES));
+        Assert.assertEquals(1, registry.getTimer(MetricsRegistry.DOCUMENT_TIME).getCount());
+        Assert.assertEquals(1, registry.getTimer(MetricsRegistry.DOCUMENT_PARSE_TIME).getCount());
+        Assert.assertEquals(1, registry.getTimer(MetricsRegistry.EXTRACTOR_TIME_PREFIX + "html-mf-hcard").getCount());
+        final long triples = registry.getCounter(MetricsRegistry.EXTRACTOR_TRIPLES_PREFIX + "html-mf-hcard");
+        Assert.assertTrue(triples > 0);
+        Assert.assertTrue(triples <= handler.getCount());
+        if (ThreadAllocation.isSupported()) {
+            Assert.assertTrue(registry.getCounter(MetricsRegistry.EXTRACTOR_ALLOCATED_PREFIX + "html-mf-hcard") > 0);
+        }
+
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        registry.printReport(new PrintStream(baos));
+        Assert.assertTrue(baos.toString().contains(MetricsRegistry.EXTRACTOR_TIME_PREFIX + "html-mf-hcard"));
+    }
+
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.source;
+
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+
+/**
+ * Test case for {@link MappedCopyFactory} and {@link MappedFileDocumentSource}.
+ */
+public class MappedCopyFactoryTest {
+
+    private static final String DOCUMENT_IRI = "http://host.com/document";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMappedFileDocumentSource() throws IOException {
+        final byte[] content = createContent(1000);
+        final File file = folder.newFile("document.html");
+        final FileOutputStream out = new FileOutputStream(file);
+        try {
+            out.write(content);
+        } finally {
+            out.close();
+        }
+        final MappedFileDocumentSource source = new MappedFileDocumentSource(file, DOCUMENT_IRI);
+        Assert.assertTrue(source.isLocal());
+        Assert.assertEquals(content.length, source.getContentLength());
+        final InputStream first  = source.openInputStream();
+        final InputStream second = source.openInputStream();
+        Assert.assertEquals(content[0] & 0xFF, first.read());
+        Assert.assertArrayEquals(content, MemCopyFactory.toByteArray(second));
+        Assert.assertArrayEquals(
+                Arrays.copyOfRange(content, 1, content.length), MemCopyFactory.toByteArray(first)
+        );
+    }
+
+    @Test
+    public void testCopyBelowThreshold() throws IOException {
+        final byte[] content = createContent(100);
+        final DocumentSource copy = new MappedCopyFactory(100, folder.getRoot()).createLocalCopy(
+                new StreamDocumentSource(content, -1)
+        );
+        Assert.assertTrue(copy instanceof ByteArrayDocumentSource);
+        Assert.assertEquals("text/html", copy.getContentType());
+        Assert.assertArrayEquals(content, MemCopyFactory.toByteArray(copy.openInputStream()));
+    }
+
+    @Test
+    public void testCopyAboveThreshold() throws IOException {
+        final byte[] content = createContent(200 * 1024);
+        final MappedCopyFactory factory = new MappedCopyFactory(1024, folder.getRoot());
+        for (long contentLength : new long[]{-1, content.length}) {
+            final DocumentSource copy = factory.createLocalCopy(new StreamDocumentSource(content, contentLength));
+            Assert.assertTrue(copy instanceof MappedFileDocumentSource);
+            Assert.assertEquals(DOCUMENT_IRI, copy.getDocumentIRI());
+            Assert.assertEquals("text/html", copy.getContentType());
+            Assert.assertEquals(content.length, copy.getContentLength());
+            Assert.assertArrayEquals(content, MemCopyFactory.toByteArray(copy.openInputStream()));
+            Assert.assertArrayEquals(content, MemCopyFactory.toByteArray(copy.openInputStream()));
+        }
+    }
+
+    private static byte[] createContent(int length) {
+        final byte[] content = new byte[length];
+        for (int i = 0; i < length; i++) {
+            content[i] = (byte) i;
+        }
+        return content;
+    }
+
+    /**
+     * A remote like source, declaring the given content length.
+     */
+    private static class StreamDocumentSource implements DocumentSource {
+
+        private final byte[] content;
+
+        private final long contentLength;
+
+        StreamDocumentSource(byte[] content, long contentLength) {
+            this.content = content;
+            this.contentLength = contentLength;
+        }
+
+        public InputStream openInputStream() {
+            return new ByteArrayInputStream(content);
+        }
+
+        public String getContentType() {
+            return "text/html";
+        }
+
+        public long getContentLength() {
+            return contentLength;
+        }
+
+        public String getDocumentIRI() {
+            return DOCUMENT_IRI;
+        }
+
+        public boolean isLocal() {
+            return false;
+        }
+
+    }
+
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.source;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+
+/**
+ * Test case for {@link MemCopyFactory}.
+ */
+public class MemCopyFactoryTest {
+
+    private static final byte[] CONTENT = "<html><body>content</body></html>".getBytes();
+
+    @Test
+    public void testExactLength() throws IOException {
+        Assert.assertArrayEquals(
+                CONTENT, MemCopyFactory.toByteArray(new ByteArrayInputStream(CONTENT), CONTENT.length)
+        );
+    }
+
+    @Test
+    public void testShorterThanDeclared() throws IOException {
+        Assert.assertArrayEquals(
+                CONTENT, MemCopyFactory.toByteArray(new ByteArrayInputStream(CONTENT), CONTENT.length * 2)
+        );
+    }
+
+    @Test
+    public void testLongerThanDeclared() throws IOException {
+        Assert.assertArrayEquals(
+                CONTENT, MemCopyFactory.toByteArray(new ByteArrayInputStream(CONTENT), CONTENT.length / 2)
+        );
+    }
+
+    @Test
+    public void testHugeDeclaredLengthIsNotPresized() throws IOException {
+        // A declared length close to the array limit must not be allocated upfront.
+        Assert.assertArrayEquals(
+                CONTENT, MemCopyFactory.toByteArray(new ByteArrayInputStream(CONTENT), Integer.MAX_VALUE - 16)
+        );
+        Assert.assertArrayEquals(
+                CONTENT, MemCopyFactory.toByteArray(new ByteArrayInputStream(CONTENT), Long.MAX_VALUE, 64)
+        );
+    }
+
+}
@@ -0,0 +1,178 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.commons.compress.compressors.bzip2.BZip2CompressorInputStream;
+import org.apache.commons.compress.compressors.xz.XZCompressorInputStream;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test case for {@link Compression}.
+ */
+public class CompressionTest {
+
+    @Test
+    public void testRoundtrip() throws IOException {
+        final byte[] data = createData(300 * 1024);
+        for(Compression compression : Compression.values()) {
+            final byte[] compressed = compress(compression, 1, data);
+            Assert.assertArrayEquals(compression.toString(), data, decompress(compression, compressed));
+            if(compression != Compression.NONE) {
+                Assert.assertTrue(compression.toString(), compressed.length < data.length / 2);
+            }
+        }
+    }
+
+    @Test
+    public void testParallelGzip() throws IOException {
+        final byte[] data = createData(ParallelGZIPOutputStream.BLOCK_SIZE * 5 + 12345);
+        final byte[] compressed = compress(Compression.GZIP, 4, data);
+        Assert.assertArrayEquals(data, decompress(Compression.GZIP, compressed));
+    }
+
+    @Test
+    public void testParallelGzipSmallBlocksAndFlush() throws IOException {
+        final byte[] data = createData(100 * 1024);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final OutputStream os = new ParallelGZIPOutputStream(baos, Compression.getCompressors(), 3, 1000);
+        for(int i = 0; i < data.length; i += 777) {
+            os.write(data, i, Math.min(777, data.length - i));
+            if(i % 7 == 0) {
+                os.flush();
+            }
+        }
+        os.write(0);
+        os.close();
+        final byte[] expected = new byte[data.length + 1];
+        System.arraycopy(data, 0, expected, 0, data.length);
+        Assert.assertArrayEquals(expected, decompress(Compression.GZIP, baos.toByteArray()));
+    }
+
+    @Test
+    public void testParallelGzipFlushKeepsPartialBlock() throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final OutputStream os = new ParallelGZIPOutputStream(baos, Compression.getCompressors(), 2, 1000);
+        for(int i = 0; i < 100; i++) {
+            os.write(i);
+            os.flush();
+        }
+        // the block is not full yet, nothing has been compressed.
+        Assert.assertEquals(0, baos.size());
+        os.close();
+        final byte[] decompressed = decompress(Compression.GZIP, baos.toByteArray());
+        Assert.assertEquals(100, decompressed.length);
+        Assert.assertEquals(99, decompressed[99]);
+    }
+
+    @Test
+    public void testParallelGzipSharesPool() throws IOException {
+        final ExecutorService pool = Compression.getCompressors();
+        final byte[] data = createData(50 * 1024);
+        final ByteArrayOutputStream first = new ByteArrayOutputStream();
+        final ByteArrayOutputStream second = new ByteArrayOutputStream();
+        final OutputStream firstStream = new ParallelGZIPOutputStream(first, pool, 2, 1000);
+        final OutputStream secondStream = new ParallelGZIPOutputStream(second, pool, 2, 1000);
+        for(int i = 0; i < data.length; i += 1024) {
+            firstStream.write(data, i, Math.min(1024, data.length - i));
+            secondStream.write(data, i, Math.min(1024, data.length - i));
+        }
+        firstStream.close();
+        // closing a stream leaves the pool to the others.
+        Assert.assertFalse(pool.isShutdown());
+        secondStream.close();
+        Assert.assertArrayEquals(data, decompress(Compression.GZIP, first.toByteArray()));
+        Assert.assertArrayEquals(data, decompress(Compression.GZIP, second.toByteArray()));
+        Assert.assertArrayEquals(data, decompress(Compression.GZIP, compress(Compression.GZIP, 3, data)));
+        Assert.assertSame(pool, Compression.getCompressors());
+    }
+
+    @Test
+    public void testParallelGzipEmpty() throws IOException {
+        Assert.assertEquals(0, decompress(Compression.GZIP, compress(Compression.GZIP, 2, new byte[0])).length);
+    }
+
+    @Test
+    public void testFromIdentifier() {
+        Assert.assertEquals(Compression.GZIP, Compression.fromIdentifier("GZip"));
+        Assert.assertEquals(Compression.BZIP2, Compression.fromIdentifier("bzip2"));
+        Assert.assertEquals(Compression.NONE, Compression.fromIdentifier("none"));
+        try {
+            Compression.fromIdentifier("zip");
+            Assert.fail("Expected IllegalArgumentException.");
+        } catch (IllegalArgumentException iae) {
+            Assert.assertTrue(iae.getMessage().contains("gzip"));
+        }
+    }
+
+    @Test
+    public void testFromFileName() {
+        Assert.assertEquals(Compression.GZIP, Compression.fromFileName("out.nq.gz"));
+        Assert.assertEquals(Compression.XZ, Compression.fromFileName("out.nq.XZ"));
+        Assert.assertEquals(Compression.BZIP2, Compression.fromFileName("out.nq.bz2"));
+        Assert.assertEquals(Compression.NONE, Compression.fromFileName("out.nq"));
+    }
+
+    private byte[] createData(int size) {
+        final Random random = new Random(7);
+        final StringBuilder sb = new StringBuilder(size);
+        while(sb.length() < size) {
+            sb.append("<http://example.org/resource/").append(random.nextInt(1000)).append("> ");
+        }
+        final byte[] data = new byte[size];
+        for(int i = 0; i < size; i++) {
+            data[i] = (byte) sb.charAt(i);
+        }
+        return data;
+    }
+
+    private byte[] compress(Compression compression, int threads, byte[] data) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final OutputStream os = compression.compress(baos, threads);
+        os.write(data);
+        os.close();
+        return baos.toByteArray();
+    }
+
+    private byte[] decompress(Compression compression, byte[] data) throws IOException {
+        final InputStream in = new ByteArrayInputStream(data);
+        switch (compression) {
+            case NONE:
+                return data;
+            case GZIP:
+                return IOUtils.toByteArray(new GZIPInputStream(in));
+            case BZIP2:
+                return IOUtils.toByteArray(new BZip2CompressorInputStream(in));
+            case XZ:
+                return IOUtils.toByteArray(new XZCompressorInputStream(in));
+            default:
+                throw new IllegalArgumentException();
+        }
+    }
+
+}
@@ -90,4 +90,70 @@ public class JSONWriterTest {
             "}";
         Assert.assertEquals(expected, baos.toString());
     }
+
+    @Test
+    public void testEscaping() throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final JSONWriter jsonWriter = new JSONWriter(baos);
+        final IRI documentIRI = SimpleValueFactory.getInstance().createIRI("http://fake/uri");
+        jsonWriter.startDocument(documentIRI);
+        jsonWriter.receiveTriple(
+                SimpleValueFactory.getInstance().createIRI("http://sub/\"1\""),
+                SimpleValueFactory.getInstance().createIRI("http://pred/1"),
+                SimpleValueFactory.getInstance().createLiteral("a \"quoted\" \\ value\n\t\001 caf\u00e9 \ud83d\ude00"),
+                null,
+                null
+        );
+        jsonWriter.endDocument(documentIRI);
+        jsonWriter.close();
+
+        final String expected =
+            "{ \"quads\" : [[" +
+            "{ \"type\" : \"uri\", \"value\" : \"http://sub/\\\"1\\\"\"}, " +
+            "\"http://pred/1\", " +
+            "{\"type\" : \"literal\", " +
+            "\"value\" : \"a \\\"quoted\\\" \\\\ value\\n\\t\\u0001 caf\u00e9 \ud83d\ude00\", " +
+            "\"lang\" : null, \"datatype\" : \"http://www.w3.org/2001/XMLSchema#string\"}, " +
+            "null" +
+            "]]}";
+        Assert.assertEquals(expected, baos.toString("UTF-8"));
+    }
+
+    @Test
+    public void testNewlineDelimited() throws Exception {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final JSONWriter jsonWriter = (JSONWriter) new NDJSONWriterFactory().getRdfWriter(baos);
+        Assert.assertTrue(jsonWriter.isNewlineDelimited());
+        final IRI documentIRI = SimpleValueFactory.getInstance().createIRI("http://fake/uri");
+        jsonWriter.startDocument(documentIRI);
+        jsonWriter.receiveTriple(
+                SimpleValueFactory.getInstance().createBNode("bn1"),
+                SimpleValueFactory.getInstance().createIRI("http://pred/1"),
+                SimpleValueFactory.getInstance().createLiteral("multi\nline", "en"),
+                SimpleValueFactory.getInstance().createIRI("http://graph/1"),
+                null
+        );
+        jsonWriter.endDocument(documentIRI);
+        // quads received outside of a document are accepted.
+        jsonWriter.receiveTriple(
+                SimpleValueFactory.getInstance().createIRI("http://sub/2"),
+                SimpleValueFactory.getInstance().createIRI("http://pred/2"),
+                SimpleValueFactory.getInstance().createIRI("http://value/2"),
+                null,
+                null
+        );
+        jsonWriter.close();
+
+        final String expected =
+            "{\"subject\" : { \"type\" : \"bnode\", \"value\" : \"bn1\"}, " +
+            "\"predicate\" : \"http://pred/1\", " +
+            "\"object\" : {\"type\" : \"literal\", \"value\" : \"multi\\nline\", \"lang\" : \"en\", " +
+            "\"datatype\" : \"http://www.w3.org/1999/02/22-rdf-syntax-ns#langString\"}, " +
+            "\"graph\" : \"http://graph/1\"}\n" +
+            "{\"subject\" : { \"type\" : \"uri\", \"value\" : \"http://sub/2\"}, " +
+            "\"predicate\" : \"http://pred/2\", " +
+            "\"object\" : { \"type\" : \"uri\", \"value\" : \"http://value/2\"}, " +
+            "\"graph\" : null}\n";
+        Assert.assertEquals(expected, baos.toString("UTF-8"));
+    }
 }
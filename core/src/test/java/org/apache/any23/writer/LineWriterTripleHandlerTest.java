@@ -0,0 +1,163 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.Resource;
+import org.eclipse.rdf4j.model.Value;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.eclipse.rdf4j.model.vocabulary.XMLSchema;
+import org.eclipse.rdf4j.rio.RDFFormat;
+import org.eclipse.rdf4j.rio.Rio;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.Random;
+
+/**
+ * Test case for {@link LineWriterTripleHandler}, the output of
+ * {@link NQuadsWriter} and {@link NTriplesWriter} is compared with
+ * the one of the corresponding <i>Rio</i> writers.
+ */
+public class LineWriterTripleHandlerTest {
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private static final String CHARS = "aZ09 \\\"\n\r\t\0\b\013\037\177\u00e8\u20ac\ud83d\ude00\ud800<>#:/_-.";
+
+    @Test
+    public void testNQuadsSameAsRio() throws TripleHandlerException {
+        for (boolean annotated : new boolean[]{false, true}) {
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            final FormatWriter rio = new RDFWriterTripleHandler(Rio.createWriter(RDFFormat.NQUADS, expected)) {};
+            final FormatWriter line = new NQuadsWriter(actual);
+            write(rio, annotated);
+            write(line, annotated);
+            Assert.assertTrue(actual.size() > 0);
+            Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test
+    public void testNTriplesSameAsRio() throws TripleHandlerException {
+        for (boolean annotated : new boolean[]{false, true}) {
+            final ByteArrayOutputStream expected = new ByteArrayOutputStream();
+            final ByteArrayOutputStream actual = new ByteArrayOutputStream();
+            final FormatWriter rio = new RDFWriterTripleHandler(
+                    new org.eclipse.rdf4j.rio.ntriples.NTriplesWriter(expected)
+            ) {};
+            final FormatWriter line = new NTriplesWriter(actual);
+            write(rio, annotated);
+            write(line, annotated);
+            Assert.assertTrue(actual.size() > 0);
+            Assert.assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+        }
+    }
+
+    @Test
+    public void testPlainStatement() throws TripleHandlerException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final NQuadsWriter writer = new NQuadsWriter(out);
+        final ExtractionContext context = new ExtractionContext("test", VF.createIRI("http://doc"));
+        writer.receiveTriple(
+                VF.createBNode("b1"), VF.createIRI("http://p"), VF.createLiteral("caf\u00e9", "fr"), null, context
+        );
+        writer.receiveTriple(
+                VF.createIRI("http://s"), VF.createIRI("http://p"), VF.createLiteral("1", XMLSchema.INT),
+                VF.createIRI("http://g"), context
+        );
+        writer.close();
+        Assert.assertEquals(
+                "_:b1 <http://p> \"caf\\u00E9\"@fr <http://doc> .\n" +
+                "<http://s> <http://p> \"1\"^^<http://www.w3.org/2001/XMLSchema#int> <http://g> .\n",
+                out.toString()
+        );
+    }
+
+    /**
+     * Writes random statements, with lines longer than the writer buffer.
+     */
+    private void write(FormatWriter writer, boolean annotated) throws TripleHandlerException {
+        final Random random = new Random(42);
+        final IRI documentIRI = VF.createIRI("http://host/doc");
+        writer.setAnnotated(annotated);
+        writer.startDocument(documentIRI);
+        for (int c = 0; c < 20; c++) {
+            final ExtractionContext context = new ExtractionContext("extractor-" + randomString(random, 5), documentIRI);
+            writer.openContext(context);
+            writer.receiveNamespace("ex", "http://example.org/", context);
+            for (int t = 0; t < 200; t++) {
+                writer.receiveTriple(
+                        randomResource(random),
+                        VF.createIRI("http://host/" + randomString(random, 10)),
+                        randomValue(random),
+                        random.nextBoolean() ? null : VF.createIRI("http://graph/" + randomString(random, 4)),
+                        context
+                );
+            }
+            writer.closeContext(context);
+        }
+        writer.receiveTriple(
+                VF.createBNode("long"), RDF.VALUE, VF.createLiteral(randomString(random, 100 * 1024)), null,
+                new ExtractionContext("long", documentIRI)
+        );
+        writer.endDocument(documentIRI);
+        writer.close();
+    }
+
+    private Resource randomResource(Random random) {
+        switch (random.nextInt(3)) {
+            case 0:
+                return VF.createIRI("http://host/" + randomString(random, 20));
+            case 1:
+                return VF.createBNode(randomString(random, 8));
+            default:
+                return VF.createBNode("node" + random.nextInt(1000));
+        }
+    }
+
+    private Value randomValue(Random random) {
+        switch (random.nextInt(5)) {
+            case 0:
+                return randomResource(random);
+            case 1:
+                return VF.createLiteral(randomString(random, 30));
+            case 2:
+                return VF.createLiteral(randomString(random, 30), random.nextBoolean() ? "en" : "de-CH");
+            case 3:
+                return VF.createLiteral(randomString(random, 30), XMLSchema.STRING);
+            default:
+                return VF.createLiteral(randomString(random, 5), VF.createIRI("http://dt/" + randomString(random, 5)));
+        }
+    }
+
+    private String randomString(Random random, int maxLength) {
+        final int length = random.nextInt(maxLength + 1);
+        final StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(CHARS.charAt(random.nextInt(CHARS.length())));
+        }
+        return sb.toString();
+    }
+
+}
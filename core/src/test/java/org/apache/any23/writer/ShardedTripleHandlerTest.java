@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.writer;
+
+import org.apache.any23.extractor.ExtractionContext;
+import org.apache.commons.io.IOUtils;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.eclipse.rdf4j.model.IRI;
+import org.eclipse.rdf4j.model.ValueFactory;
+import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Test case for {@link ShardedTripleHandler}.
+ */
+public class ShardedTripleHandlerTest {
+
+    private static final ValueFactory VF = SimpleValueFactory.getInstance();
+
+    private static final int TRIPLES_PER_DOCUMENT = 10;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testDocumentSharding() throws Exception {
+        final File directory = new File(folder.getRoot(), "out");
+        final ShardedTripleHandler handler = new ShardedTripleHandler(
+                directory, new NQuadsWriterFactory(), 4, ShardedTripleHandler.Sharding.DOCUMENT
+        );
+        final List<String> expected = new ArrayList<String>();
+        for(int i = 0; i < 100; i++) {
+            writeDocument(handler, i, expected);
+        }
+        handler.close();
+
+        final List<ShardedTripleHandler.Part> parts = handler.getCompletedParts();
+        Assert.assertEquals(4, parts.size());
+        final Map<String, Integer> documentShards = new HashMap<String, Integer>();
+        final List<String> actual = new ArrayList<String>();
+        for(ShardedTripleHandler.Part part : parts) {
+            final List<String> lines = readLines(new File(directory, part.getFileName()), false);
+            Assert.assertEquals(part.getTriples(), lines.size());
+            Assert.assertEquals(part.getBytes(), new File(directory, part.getFileName()).length());
+            for(String line : lines) {
+                final String graph = line.substring(line.lastIndexOf('<'));
+                final Integer previous = documentShards.put(graph, part.getShard());
+                Assert.assertTrue("Document split across shards", previous == null || previous == part.getShard());
+            }
+            actual.addAll(lines);
+        }
+        Assert.assertEquals(100, documentShards.size());
+        assertSameLines(expected, actual);
+        assertManifest(directory, parts);
+    }
+
+    @Test
+    public void testRolling() throws Exception {
+        final File directory = new File(folder.getRoot(), "out");
+        final ShardedTripleHandler handler = new ShardedTripleHandler(
+                directory, new NQuadsWriterFactory(), 2, ShardedTripleHandler.Sharding.DOCUMENT
+        );
+        handler.setMaxTriples(35);
+        final List<String> expected = new ArrayList<String>();
+        for(int i = 0; i < 50; i++) {
+            writeDocument(handler, i, expected);
+        }
+        handler.close();
+
+        final List<ShardedTripleHandler.Part> parts = handler.getCompletedParts();
+        Assert.assertTrue(parts.size() > 10);
+        final List<String> actual = new ArrayList<String>();
+        for(ShardedTripleHandler.Part part : parts) {
+            // parts are completed at document boundaries.
+            Assert.assertTrue(part.getTriples() <= 40);
+            Assert.assertEquals(part.getDocuments() * TRIPLES_PER_DOCUMENT, part.getTriples());
+            Assert.assertTrue(part.getFileName().endsWith(".nq"));
+            actual.addAll(readLines(new File(directory, part.getFileName()), false));
+        }
+        assertSameLines(expected, actual);
+        assertManifest(directory, parts);
+    }
+
+    @Test
+    public void testWriteAfterClose() throws Exception {
+        final ShardedTripleHandler handler = new ShardedTripleHandler(
+                new File(folder.getRoot(), "out"), new NQuadsWriterFactory(), 2, ShardedTripleHandler.Sharding.DOCUMENT
+        );
+        handler.close();
+        try {
+            handler.startDocument(VF.createIRI("http://example.org/doc"));
+            Assert.fail("Expected TripleHandlerException.");
+        } catch (TripleHandlerException the) {
+            Assert.assertTrue(the.getMessage().contains("closed"));
+        }
+    }
+
+    @Test
+    public void testPartsNamedAfterFormatExtension() throws Exception {
+        final File directory = new File(folder.getRoot(), "out");
+        final ShardedTripleHandler handler = new ShardedTripleHandler(
+                directory, new NDJSONWriterFactory(), 2, ShardedTripleHandler.Sharding.DOCUMENT
+        );
+        for(int i = 0; i < 4; i++) {
+            writeDocument(handler, i, new ArrayList<String>());
+        }
+        handler.close();
+
+        final List<ShardedTripleHandler.Part> parts = handler.getCompletedParts();
+        Assert.assertEquals(2, parts.size());
+        for(ShardedTripleHandler.Part part : parts) {
+            Assert.assertTrue(part.getFileName(), part.getFileName().endsWith(".ndjson"));
+            Assert.assertEquals(part.getTriples(), readLines(new File(directory, part.getFileName()), false).size());
+        }
+    }
+
+    @Test
+    public void testConcurrentThreadSharding() throws Exception {
+        final File directory = new File(folder.getRoot(), "out");
+        final ShardedTripleHandler handler = new ShardedTripleHandler(
+                directory, new NQuadsWriterFactory(), 3, ShardedTripleHandler.Sharding.THREAD
+        );
+        handler.setCompression(Compression.GZIP);
+        handler.setMaxBytes(1024);
+        final int threads = 6;
+        final int documentsPerThread = 40;
+        final List<String> expected = Collections.synchronizedList(new ArrayList<String>());
+        final CountDownLatch latch = new CountDownLatch(threads);
+        final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+        for(int t = 0; t < threads; t++) {
+            final int offset = t * documentsPerThread;
+            new Thread() {
+                @Override
+                public void run() {
+                    try {
+                        for(int i = 0; i < documentsPerThread; i++) {
+                            final TripleHandler documentHandler = handler.createTripleHandler(null);
+                            writeDocument(documentHandler, offset + i, expected);
+                            documentHandler.close();
+                        }
+                    } catch (Exception e) {
+                        failure.set(e);
+                    } finally {
+                        latch.countDown();
+                    }
+                }
+            }.start();
+        }
+        latch.await();
+        Assert.assertNull(failure.get());
+        handler.close();
+
+        final List<String> actual = new ArrayList<String>();
+        for(ShardedTripleHandler.Part part : handler.getCompletedParts()) {
+            Assert.assertTrue(part.getFileName().endsWith(".nq.gz"));
+            actual.addAll(readLines(new File(directory, part.getFileName()), true));
+        }
+        Assert.assertEquals(threads * documentsPerThread * TRIPLES_PER_DOCUMENT, actual.size());
+        assertSameLines(expected, actual);
+    }
+
+    private void writeDocument(TripleHandler handler, int index, List<String> expected)
+    throws TripleHandlerException {
+        final IRI document = VF.createIRI("http://example.org/doc/" + index);
+        final ExtractionContext context = new ExtractionContext("test", document);
+        handler.startDocument(document);
+        handler.openContext(context);
+        for(int i = 0; i < TRIPLES_PER_DOCUMENT; i++) {
+            final IRI subject = VF.createIRI("http://example.org/resource/" + index + "/" + i);
+            final IRI predicate = VF.createIRI("http://example.org/ns#p" + i);
+            handler.receiveTriple(subject, predicate, VF.createLiteral("value " + i), null, context);
+            expected.add(String.format("<%s> <%s> \"value %d\" <%s> .", subject, predicate, i, document));
+        }
+        handler.closeContext(context);
+        handler.endDocument(document);
+    }
+
+    private List<String> readLines(File file, boolean gzip) throws IOException {
+        InputStream in = new FileInputStream(file);
+        try {
+            if(gzip) {
+                in = new GZIPInputStream(in);
+            }
+            return IOUtils.readLines(in, "UTF-8");
+        } finally {
+            in.close();
+        }
+    }
+
+    private void assertSameLines(List<String> expected, List<String> actual) {
+        final List<String> sortedExpected = new ArrayList<String>(expected);
+        final List<String> sortedActual = new ArrayList<String>(actual);
+        Collections.sort(sortedExpected);
+        Collections.sort(sortedActual);
+        Assert.assertEquals(sortedExpected, sortedActual);
+    }
+
+    private void assertManifest(File directory, List<ShardedTripleHandler.Part> parts) throws IOException {
+        final List<String> lines = readLines(new File(directory, ShardedTripleHandler.MANIFEST_FILE_NAME), false);
+        Assert.assertEquals(parts.size() + 1, lines.size());
+        final Set<String> files = new HashSet<String>();
+        for(String line : lines.subList(1, lines.size())) {
+            files.add(line.split("\t")[0]);
+        }
+        for(ShardedTripleHandler.Part part : parts) {
+            Assert.assertTrue(files.contains(part.getFileName()));
+        }
+    }
+
+}
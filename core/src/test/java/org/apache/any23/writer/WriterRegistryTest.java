@@ -33,7 +33,7 @@ import java.util.Set;
  */
 public class WriterRegistryTest {
 
-    private static final int NUM_OF_WRITERS = 7;
+    private static final int NUM_OF_WRITERS = 9;
 
     private final WriterFactoryRegistry target = WriterFactoryRegistry.getInstance();
 
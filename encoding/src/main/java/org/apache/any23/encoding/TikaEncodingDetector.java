@@ -17,6 +17,7 @@
 
 package org.apache.any23.encoding;
 
+import org.apache.any23.mime.SniffedDocument;
 import org.apache.tika.parser.txt.CharsetDetector;
 import org.apache.tika.parser.txt.CharsetMatch;
 
@@ -42,4 +43,22 @@ public class TikaEncodingDetector implements EncodingDetector {
         return cm.getName();
     }
 
+    /**
+     * Guesses the encoding of the sniffed prefix, the verdict is recorded
+     * in the document and reused by the following invocations.
+     *
+     * @param document the sniffed document.
+     * @return the detected encoding.
+     * @throws IOException if there is an error whilst guessing the encoding.
+     */
+    @Override
+    public String guessSniffedEncoding(SniffedDocument document) throws IOException {
+        String encoding = document.getVerdict(SniffedDocument.ENCODING_VERDICT);
+        if(encoding == null) {
+            encoding = guessEncoding(document.openPrefix());
+            document.setVerdict(SniffedDocument.ENCODING_VERDICT, encoding);
+        }
+        return encoding;
+    }
+
 }
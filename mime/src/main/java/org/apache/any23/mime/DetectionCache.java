@@ -0,0 +1,222 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.mime;
+
+import java.net.URI;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * A cache of the <i>MIME type</i> and <i>encoding</i> verdicts detected for
+ * the documents served by the same origin, keyed by <i>host</i>, declared
+ * <i>content type</i> and <i>file extension</i>.
+ * <p>
+ * A cached verdict is trusted once it has been consistently detected for
+ * <i>confidenceThreshold</i> documents sharing the same key; after that the
+ * byte level detection of those documents can be skipped. A trusted verdict
+ * is periodically verified again: one lookup every <i>verificationRate</i>
+ * misses the cache, and a detection disagreeing with the cached verdict
+ * resets its confidence.
+ * </p>
+ * The least recently used keys are evicted once <i>maxEntries</i> is
+ * exceeded. This class is thread-safe.
+ */
+public class DetectionCache {
+
+    private static final int MAX_EXTENSION_LENGTH = 8;
+
+    private final int confidenceThreshold;
+
+    private final int verificationRate;
+
+    private final Map<String, Verdicts> entries;
+
+    /**
+     * Constructor.
+     *
+     * @param maxEntries max number of cached keys.
+     * @param confidenceThreshold number of consistent detections required to trust a verdict.
+     * @param verificationRate a trusted verdict is verified again once every
+     *        <i>verificationRate</i> lookups, <code>0</code> disables the verification.
+     */
+    public DetectionCache(final int maxEntries, int confidenceThreshold, int verificationRate) {
+        if(maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be > 0.");
+        }
+        if(confidenceThreshold <= 0) {
+            throw new IllegalArgumentException("confidenceThreshold must be > 0.");
+        }
+        if(verificationRate < 0) {
+            throw new IllegalArgumentException("verificationRate must be >= 0.");
+        }
+        this.confidenceThreshold = confidenceThreshold;
+        this.verificationRate = verificationRate;
+        this.entries = new LinkedHashMap<String, Verdicts>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Verdicts> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Creates the cache key of a document.
+     *
+     * @param documentIRI the document IRI.
+     * @param contentType the declared content type, can be <code>null</code>.
+     * @return the cache key, or <code>null</code> if the document is not cacheable
+     *         since its <i>IRI</i> does not declare a host.
+     */
+    public static String createKey(String documentIRI, String contentType) {
+        final URI uri;
+        try {
+            uri = URI.create(documentIRI);
+        } catch (IllegalArgumentException iae) {
+            return null;
+        }
+        final String host = uri.getHost();
+        if(host == null) {
+            return null;
+        }
+        return host.toLowerCase(Locale.ROOT)
+                + ' ' + (contentType == null ? "" : contentType.toLowerCase(Locale.ROOT))
+                + ' ' + getExtension(uri.getPath());
+    }
+
+    /**
+     * @param key the document key.
+     * @return the trusted <i>MIME type</i>, or <code>null</code> if the
+     *         <i>MIME type</i> must be detected.
+     */
+    public synchronized String getMIMEType(String key) {
+        final Verdicts entry = entries.get(key);
+        return entry == null ? null : lookup(entry.mimeType);
+    }
+
+    /**
+     * @param key the document key.
+     * @return the trusted <i>encoding</i>, or <code>null</code> if the
+     *         <i>encoding</i> must be detected.
+     */
+    public synchronized String getEncoding(String key) {
+        final Verdicts entry = entries.get(key);
+        return entry == null ? null : lookup(entry.encoding);
+    }
+
+    /**
+     * Records a detected <i>MIME type</i>.
+     *
+     * @param key the document key.
+     * @param mimeType the detected <i>MIME type</i>.
+     */
+    public synchronized void recordMIMEType(String key, String mimeType) {
+        getVerdicts(key).mimeType.record(mimeType);
+    }
+
+    /**
+     * Records a detected <i>encoding</i>.
+     *
+     * @param key the document key.
+     * @param encoding the detected <i>encoding</i>.
+     */
+    public synchronized void recordEncoding(String key, String encoding) {
+        getVerdicts(key).encoding.record(encoding);
+    }
+
+    /**
+     * @return the number of cached keys.
+     */
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Removes all the cached verdicts.
+     */
+    public synchronized void clear() {
+        entries.clear();
+    }
+
+    private String lookup(Verdict verdict) {
+        if(verdict.value == null || verdict.confidence < confidenceThreshold) {
+            return null;
+        }
+        verdict.hits++;
+        if(verificationRate > 0 && verdict.hits % verificationRate == 0) {
+            return null;
+        }
+        return verdict.value;
+    }
+
+    private Verdicts getVerdicts(String key) {
+        Verdicts entry = entries.get(key);
+        if(entry == null) {
+            entry = new Verdicts();
+            entries.put(key, entry);
+        }
+        return entry;
+    }
+
+    private static String getExtension(String path) {
+        if(path == null) {
+            return "";
+        }
+        final int dot = path.lastIndexOf('.');
+        if(dot == -1 || dot < path.lastIndexOf('/') || path.length() - dot - 1 > MAX_EXTENSION_LENGTH) {
+            return "";
+        }
+        return path.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * The verdicts cached for a key.
+     */
+    private static class Verdicts {
+        private final Verdict mimeType = new Verdict();
+        private final Verdict encoding = new Verdict();
+    }
+
+    /**
+     * A cached verdict with the number of consistent detections.
+     */
+    private static class Verdict {
+
+        private String value;
+
+        private int confidence;
+
+        private long hits;
+
+        void record(String detected) {
+            if(detected == null) {
+                return;
+            }
+            if(detected.equals(value)) {
+                if(confidence < Integer.MAX_VALUE) {
+                    confidence++;
+                }
+            } else {
+                value = detected;
+                confidence = 1;
+                hits = 0;
+            }
+        }
+    }
+
+}
@@ -52,6 +52,15 @@ public class TikaMIMETypeDetector implements MIMETypeDetector {
 
     public static final String RESOURCE_NAME = "/org/apache/any23/mime/tika-config.xml";
 
+    /**
+     * Verdicts recorded on the {@link SniffedDocument}s.
+     */
+    public static final String TIKA_VERDICT   = "tika";
+    public static final String N3_VERDICT     = "n3";
+    public static final String NQUADS_VERDICT = "nquads";
+    public static final String TURTLE_VERDICT = "turtle";
+    public static final String CSV_VERDICT    = "csv";
+
     /**
      * N3 patterns.
      */
@@ -222,7 +231,8 @@ public class TikaMIMETypeDetector implements MIMETypeDetector {
 
     /**
      * Estimates the <code>MIME</code> type of the content of input file.
-     * The <i>input</i> stream must be resettable.
+     * The <i>input</i> stream must be resettable, only its bounded prefix
+     * is inspected, see {@link SniffedDocument#sniff(InputStream)}.
      *
      * @param fileName name of the data source.
      * @param input <code>null</code> or a <i>resettable</i> input stream containing data.
@@ -235,7 +245,34 @@ public class TikaMIMETypeDetector implements MIMETypeDetector {
             InputStream input,
             MIMEType mimeTypeFromMetadata
     ) {
-        if(input != null) {
+        final SniffedDocument document;
+        try {
+            document = input == null ? null : SniffedDocument.sniff(input);
+        } catch (IOException e) {
+            throw new RuntimeException("Error while sniffing the provided input", e);
+        }
+        return guessSniffedMIMEType(fileName, document, mimeTypeFromMetadata);
+    }
+
+    /**
+     * Estimates the <code>MIME</code> type of a sniffed document. The
+     * purifier, <i>Tika</i> and the format probes share the same prefix,
+     * each probe records its verdict in the document.
+     *
+     * @param fileName name of the data source.
+     * @param document <code>null</code> or the sniffed content of the data source.
+     * @param mimeTypeFromMetadata mimetype declared in metadata.
+     * @return the supposed mime type or <code>null</code> if nothing appropriate found.
+     */
+    @Override
+    public MIMEType guessSniffedMIMEType(
+            String fileName,
+            SniffedDocument document,
+            MIMEType mimeTypeFromMetadata
+    ) {
+        InputStream input = null;
+        if(document != null) {
+            input = document.openPrefix();
             try {
                 this.purifier.purify(input);
             } catch (IOException e) {
@@ -252,16 +289,17 @@ public class TikaMIMETypeDetector implements MIMETypeDetector {
         String type;
         try {
             final String mt = guessMimeTypeByInputAndMeta(input, meta);
+            setVerdict(document, TIKA_VERDICT, mt);
             if( ! MimeTypes.OCTET_STREAM.equals(mt) ) {
                 type = mt;
             } else {
-                if( checkN3Format(input) ) {
+                if( probe(document, N3_VERDICT, checkN3Format(input)) ) {
                     type = RDFFormat.N3.getDefaultMIMEType();
-                } else if( checkNQuadsFormat(input) ) {
+                } else if( probe(document, NQUADS_VERDICT, checkNQuadsFormat(input)) ) {
                     type = RDFFormat.NQUADS.getDefaultMIMEType();
-                } else if( checkTurtleFormat(input) ) {
+                } else if( probe(document, TURTLE_VERDICT, checkTurtleFormat(input)) ) {
                     type = RDFFormat.TURTLE.getDefaultMIMEType();
-                } else if( checkCSVFormat(input) ) {
+                } else if( probe(document, CSV_VERDICT, checkCSVFormat(input)) ) {
                     type = CSV_MIMETYPE;
                 }
                 else {
@@ -271,9 +309,21 @@ public class TikaMIMETypeDetector implements MIMETypeDetector {
         } catch (IOException ioe) {
             throw new RuntimeException("Error while retrieving mime type.", ioe);
         }
+        setVerdict(document, SniffedDocument.MIME_TYPE_VERDICT, type);
         return MIMEType.parse(type);
     }
 
+    private static boolean probe(SniffedDocument document, String probe, boolean verdict) {
+        setVerdict(document, probe, Boolean.toString(verdict));
+        return verdict;
+    }
+
+    private static void setVerdict(SniffedDocument document, String detector, String verdict) {
+        if(document != null) {
+            document.setVerdict(detector, verdict);
+        }
+    }
+
      /**
       * Loads the <code>Tika</code> configuration file.
       *
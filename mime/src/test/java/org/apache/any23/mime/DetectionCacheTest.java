@@ -0,0 +1,67 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.mime;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Test case for {@link DetectionCache}.
+ */
+public class DetectionCacheTest {
+
+    @Test
+    public void testCreateKey() {
+        Assert.assertEquals(
+                "host.com text/html html",
+                DetectionCache.createKey("http://Host.com/path/page.HTML?q=1", "text/HTML")
+        );
+        Assert.assertEquals("host.com  ", DetectionCache.createKey("http://host.com/path.d/page", null));
+        Assert.assertNull(DetectionCache.createKey("file:/tmp/page.html", "text/html"));
+    }
+
+    @Test
+    public void testConfidenceAndVerification() {
+        final DetectionCache cache = new DetectionCache(10, 2, 3);
+        final String key = DetectionCache.createKey("http://host.com/page.html", "text/html");
+        Assert.assertNull(cache.getMIMEType(key));
+        cache.recordMIMEType(key, "text/html");
+        Assert.assertNull(cache.getMIMEType(key));
+        cache.recordMIMEType(key, "text/html");
+        Assert.assertEquals("text/html", cache.getMIMEType(key));
+        Assert.assertEquals("text/html", cache.getMIMEType(key));
+        // the third lookup is a verification sample.
+        Assert.assertNull(cache.getMIMEType(key));
+        cache.recordMIMEType(key, "application/xhtml+xml");
+        Assert.assertNull(cache.getMIMEType(key));
+        Assert.assertNull(cache.getEncoding(key));
+    }
+
+    @Test
+    public void testEviction() {
+        final DetectionCache cache = new DetectionCache(2, 1, 0);
+        cache.recordEncoding("a", "UTF-8");
+        cache.recordEncoding("b", "UTF-8");
+        Assert.assertEquals("UTF-8", cache.getEncoding("a"));
+        cache.recordEncoding("c", "UTF-8");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals("UTF-8", cache.getEncoding("a"));
+        Assert.assertNull(cache.getEncoding("b"));
+    }
+
+}
@@ -116,6 +116,23 @@ public class TikaMIMETypeDetectorTest {
         );
     }
 
+    @Test
+    public void testSniffedDocumentDetection() throws IOException {
+        final String content =
+                "\n  <http://www.ex.eu> <http://foo.com> <http://example.org/Document/foo#> <http://path.to.graph> .";
+        final SniffedDocument document = new SniffedDocument(new ByteArrayInputStream(content.getBytes()), 16);
+        Assert.assertEquals(16, document.getPrefixLength());
+        Assert.assertFalse(document.isComplete());
+
+        final SniffedDocument complete = new SniffedDocument(new ByteArrayInputStream(content.getBytes()));
+        Assert.assertTrue(complete.isComplete());
+        Assert.assertEquals(NQUADS, detector.guessSniffedMIMEType(null, complete, null).toString());
+        Assert.assertEquals(NQUADS, complete.getVerdict(SniffedDocument.MIME_TYPE_VERDICT));
+        Assert.assertEquals("false", complete.getVerdict(TikaMIMETypeDetector.N3_VERDICT));
+        Assert.assertEquals("true", complete.getVerdict(TikaMIMETypeDetector.NQUADS_VERDICT));
+        Assert.assertNull(complete.getVerdict(TikaMIMETypeDetector.CSV_VERDICT));
+    }
+
     /* BEGIN: by content. */
     @Test
     public void testDetectRSS1ByContent() throws Exception {
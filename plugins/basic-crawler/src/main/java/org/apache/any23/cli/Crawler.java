@@ -96,6 +96,8 @@ public class Crawler extends Rover {
             }
         }
 
+        final boolean concurrentExtraction = super.isConcurrentExtractionSupported();
+
         final SiteCrawler siteCrawler = new SiteCrawler( storageFolder );
         siteCrawler.setNumOfCrawlers( numCrawlers );
         siteCrawler.setMaxPages( maxPages );
@@ -112,14 +114,17 @@ public class Crawler extends Rover {
                 if (parseData instanceof HtmlParseData) {
                     final HtmlParseData htmlParseData = (HtmlParseData) parseData;
                     try {
-                        synchronized (roverLock) {
-                            Crawler.super.performExtraction(
-                                    new StringDocumentSource(
-                                            htmlParseData.getHtml(),
-                                            pageURL
-
-                                    )
-                            );
+                        final StringDocumentSource source = new StringDocumentSource(
+                                htmlParseData.getHtml(),
+                                pageURL
+                        );
+                        if (concurrentExtraction) {
+                            // the sharded output is thread-safe, crawlers write in parallel.
+                            Crawler.super.performExtraction(source);
+                        } else {
+                            synchronized (roverLock) {
+                                Crawler.super.performExtraction(source);
+                            }
                         }
                     } catch (Exception e) {
                         System.err.println(format("Error while processing page [%s], error: %s .",
@@ -141,7 +146,12 @@ public class Crawler extends Rover {
                 }
             }
         });
-        siteCrawler.start(seed, pageFilter, true);
+        try {
+            siteCrawler.start(seed, pageFilter, true);
+        } finally {
+            // completes the output, i.e. the shard files and their manifest.
+            super.close();
+        }
     }
 
     public static final class PatterConverter implements IStringConverter<Pattern> {
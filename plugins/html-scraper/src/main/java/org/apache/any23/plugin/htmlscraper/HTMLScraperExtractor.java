@@ -19,10 +19,13 @@ package org.apache.any23.plugin.htmlscraper;
 
 import de.l3s.boilerpipe.BoilerpipeExtractor;
 import de.l3s.boilerpipe.BoilerpipeProcessingException;
+import de.l3s.boilerpipe.document.TextBlock;
+import de.l3s.boilerpipe.document.TextDocument;
 import de.l3s.boilerpipe.extractors.ArticleExtractor;
 import de.l3s.boilerpipe.extractors.CanolaExtractor;
 import de.l3s.boilerpipe.extractors.DefaultExtractor;
 import de.l3s.boilerpipe.extractors.LargestContentExtractor;
+import de.l3s.boilerpipe.sax.BoilerpipeSAXInput;
 import org.apache.any23.extractor.ExtractionContext;
 import org.apache.any23.extractor.ExtractionException;
 import org.apache.any23.extractor.ExtractionParameters;
@@ -32,20 +35,34 @@ import org.apache.any23.extractor.ExtractorDescription;
 import org.apache.any23.vocab.SINDICE;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
 
 import java.io.IOException;
 import java.io.InputStream;
-import java.io.InputStreamReader;
+import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Implementation of content extractor for performing <i>HTML</i> scraping.
+ * The page is parsed once with the document encoding of the extraction context,
+ * every <i>BoilerPipe</i> extractor is then applied to a copy of the parsed text blocks.
+ * When the {@link #PARALLEL_FLAG} is enabled the extractors run concurrently on the
+ * pool shared by all the scrapers, see {@link HTMLScraperExtractorFactory#getTextProcessors()}.
  *
  * @author Michele Mostarda (mostarda@fbk.eu)
  */
 public class HTMLScraperExtractor implements Extractor.ContentExtractor {
 
+    /**
+     * Flag enabling the concurrent execution of the text extractors.
+     */
+    public static final String PARALLEL_FLAG = "any23.extraction.html.scraper.parallel";
+
     public final static IRI PAGE_CONTENT_DE_PROPERTY  =
             SimpleValueFactory.getInstance().createIRI(SINDICE.NS + "pagecontent/de");
     public final static IRI PAGE_CONTENT_AE_PROPERTY  =
@@ -55,6 +72,17 @@ public class HTMLScraperExtractor implements Extractor.ContentExtractor {
     public final static IRI PAGE_CONTENT_CE_PROPERTY  =
             SimpleValueFactory.getInstance().createIRI(SINDICE.NS + "pagecontent/ce");
 
+    private static final Method TEXT_BLOCK_CLONE;
+
+    static {
+        try {
+            TEXT_BLOCK_CLONE = TextBlock.class.getDeclaredMethod("clone");
+            TEXT_BLOCK_CLONE.setAccessible(true);
+        } catch (NoSuchMethodException nsme) {
+            throw new ExceptionInInitializerError(nsme);
+        }
+    }
+
     private final List<ExtractionRule> extractionRules = new ArrayList<ExtractionRule>();
 
     public HTMLScraperExtractor() {
@@ -80,18 +108,23 @@ public class HTMLScraperExtractor implements Extractor.ContentExtractor {
             InputStream inputStream,
             ExtractionResult extractionResult
     ) throws IOException, ExtractionException {
-        try {
-            final IRI documentIRI = extractionContext.getDocumentIRI();
-            for (ExtractionRule extractionRule : extractionRules) {
-                final String content = extractionRule.boilerpipeExtractor.getText(new InputStreamReader(inputStream));
-                extractionResult.writeTriple(
-                        documentIRI,
-                        extractionRule.property,
-                        SimpleValueFactory.getInstance().createLiteral(content)
-                );
+        final IRI documentIRI = extractionContext.getDocumentIRI();
+        final TextDocument textDocument = parse(inputStream, extractionContext.getDocumentEncoding());
+        final String[] contents;
+        if (extractionParameters.getFlag(PARALLEL_FLAG) && extractionRules.size() > 1) {
+            contents = getTextsConcurrently(textDocument);
+        } else {
+            contents = new String[extractionRules.size()];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = getText(extractionRules.get(i), textDocument);
             }
-        } catch (BoilerpipeProcessingException bpe) {
-            throw new ExtractionException("Error while applying text processor " + ArticleExtractor.class, bpe);
+        }
+        for (int i = 0; i < contents.length; i++) {
+            extractionResult.writeTriple(
+                    documentIRI,
+                    extractionRules.get(i).property,
+                    SimpleValueFactory.getInstance().createLiteral(contents[i])
+            );
         }
     }
 
@@ -105,6 +138,82 @@ public class HTMLScraperExtractor implements Extractor.ContentExtractor {
         // Ignored.
     }
 
+    /**
+     * Parses the page into the text blocks shared by all the extractors.
+     *
+     * @param encoding the document encoding, if <code>null</code> the parser detects it.
+     */
+    private TextDocument parse(InputStream inputStream, String encoding) throws IOException, ExtractionException {
+        final InputSource inputSource = new InputSource(inputStream);
+        if (encoding != null) {
+            inputSource.setEncoding(encoding);
+        }
+        try {
+            return new BoilerpipeSAXInput(inputSource).getTextDocument();
+        } catch (SAXException se) {
+            throw new ExtractionException("Error while parsing the HTML document.", se);
+        } catch (BoilerpipeProcessingException bpe) {
+            throw new ExtractionException("Error while parsing the HTML document.", bpe);
+        }
+    }
+
+    private String getText(ExtractionRule extractionRule, TextDocument textDocument) throws ExtractionException {
+        try {
+            return extractionRule.boilerpipeExtractor.getText(copy(textDocument));
+        } catch (BoilerpipeProcessingException bpe) {
+            throw new ExtractionException("Error while applying text processor " + extractionRule.name, bpe);
+        }
+    }
+
+    private String[] getTextsConcurrently(final TextDocument textDocument)
+    throws IOException, ExtractionException {
+        final List<Future<String>> futures = new ArrayList<Future<String>>();
+        try {
+            for (final ExtractionRule extractionRule : extractionRules) {
+                futures.add(HTMLScraperExtractorFactory.getTextProcessors().submit(new Callable<String>() {
+                    @Override
+                    public String call() throws ExtractionException {
+                        return getText(extractionRule, textDocument);
+                    }
+                }));
+            }
+            final String[] contents = new String[futures.size()];
+            for (int i = 0; i < contents.length; i++) {
+                contents[i] = futures.get(i).get();
+            }
+            return contents;
+        } catch (InterruptedException ie) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while applying the text processors.", ie);
+        } catch (ExecutionException ee) {
+            if (ee.getCause() instanceof ExtractionException) {
+                throw (ExtractionException) ee.getCause();
+            }
+            throw new ExtractionException("Error while applying the text processors.", ee.getCause());
+        } finally {
+            // the pool is shared, only the tasks of this page are dropped.
+            for (Future<String> future : futures) {
+                future.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * The <i>BoilerPipe</i> extractors modify the text blocks they process, every
+     * extractor works on a copy of the blocks created by {@link TextBlock#clone()}.
+     */
+    private static TextDocument copy(TextDocument textDocument) throws ExtractionException {
+        final List<TextBlock> textBlocks = new ArrayList<TextBlock>(textDocument.getTextBlocks().size());
+        try {
+            for (TextBlock textBlock : textDocument.getTextBlocks()) {
+                textBlocks.add((TextBlock) TEXT_BLOCK_CLONE.invoke(textBlock));
+            }
+        } catch (Exception e) {
+            throw new ExtractionException("Error while copying the text blocks.", e);
+        }
+        return new TextDocument(textDocument.getTitle(), textBlocks);
+    }
+
     private void loadDefaultRules() {
         addTextExtractor("default-extractor"      , PAGE_CONTENT_DE_PROPERTY , DefaultExtractor.getInstance());
         addTextExtractor("article-extractor"      , PAGE_CONTENT_AE_PROPERTY , ArticleExtractor.getInstance());
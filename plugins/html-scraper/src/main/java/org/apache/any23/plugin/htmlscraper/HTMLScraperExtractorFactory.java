@@ -4,7 +4,12 @@
 package org.apache.any23.plugin.htmlscraper;
 
 import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
 
+import org.apache.any23.configuration.DefaultConfiguration;
 import org.apache.any23.extractor.ExtractorDescription;
 import org.apache.any23.extractor.ExtractorFactory;
 import org.apache.any23.extractor.SimpleExtractorFactory;
@@ -21,7 +26,14 @@ public class HTMLScraperExtractorFactory extends SimpleExtractorFactory<HTMLScra
     
     public static final Prefixes PREFIXES = null;
 
+    /**
+     * Number of threads of the pool running the text extractors concurrently.
+     */
+    public static final String PARALLEL_THREADS_PROPERTY = "any23.extraction.html.scraper.parallel.threads";
+
     private static final ExtractorDescription descriptionInstance = new HTMLScraperExtractorFactory();
+
+    private static ExecutorService textProcessors;
     
     public HTMLScraperExtractorFactory() {
         super(
@@ -39,4 +51,27 @@ public class HTMLScraperExtractorFactory extends SimpleExtractorFactory<HTMLScra
     public static ExtractorDescription getDescriptionInstance() {
         return descriptionInstance;
     }
+
+    /**
+     * Returns the pool shared by all the {@link HTMLScraperExtractor}s running their
+     * text extractors concurrently, created on first use with the number of daemon
+     * threads declared by the {@link #PARALLEL_THREADS_PROPERTY} default configuration property.
+     *
+     * @return the shared executor.
+     */
+    static synchronized ExecutorService getTextProcessors() {
+        if (textProcessors == null) {
+            final int threads = DefaultConfiguration.singleton().getPropertyIntOrFail(PARALLEL_THREADS_PROPERTY);
+            textProcessors = Executors.newFixedThreadPool(threads, new ThreadFactory() {
+                private final AtomicInteger threadCounter = new AtomicInteger();
+                @Override
+                public Thread newThread(Runnable r) {
+                    final Thread thread = new Thread(r, "any23-html-scraper-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+        }
+        return textProcessors;
+    }
 }
@@ -25,18 +25,22 @@ import org.junit.After;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Matchers;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.Value;
 import org.eclipse.rdf4j.model.impl.SimpleValueFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 
 import static org.mockito.Matchers.eq;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 
 /**
@@ -89,4 +93,61 @@ public class HTMLScraperExtractorTest {
         ;
     }
 
+    @Test
+    public void testRunConcurrently() throws IOException, ExtractionException {
+        final ExtractionParameters extractionParameters = ExtractionParameters.newDefault();
+        final List<Value> serialContents = extractContents(extractionParameters);
+        extractionParameters.setFlag(HTMLScraperExtractor.PARALLEL_FLAG, true);
+        final List<Value> parallelContents = extractContents(extractionParameters);
+        Assert.assertEquals(4, serialContents.size());
+        Assert.assertEquals(serialContents, parallelContents);
+        for (Value content : parallelContents) {
+            Assert.assertTrue(content.stringValue().contains("Billion pieces of reusable information"));
+        }
+    }
+
+    @Test
+    public void testRunWithContextEncoding() throws IOException, ExtractionException {
+        final StringBuilder paragraph = new StringBuilder();
+        for (int i = 0; i < 10; i++) {
+            paragraph.append("Caff\u00e8 ristretto, tr\u00e8s fort, servi au comptoir par le barista du quartier. ");
+        }
+        final String page = "<html><head><title>Caff\u00e8</title></head><body><p>" + paragraph + "</p></body></html>";
+        final IRI pageIRI = SimpleValueFactory.getInstance().createIRI("http://fake/test/page/encoding");
+        final ExtractionContext extractionContext = new ExtractionContext(
+                extractor.getDescription().getExtractorName(),
+                pageIRI,
+                null,
+                ExtractionContext.ROOT_EXTRACTION_RESULT_ID,
+                "UTF-8"
+        );
+        final ExtractionResult extractionResult = mock(ExtractionResult.class);
+        extractor.run(
+                ExtractionParameters.newDefault(),
+                extractionContext,
+                new ByteArrayInputStream(page.getBytes("UTF-8")),
+                extractionResult
+        );
+        final ArgumentCaptor<Value> contents = ArgumentCaptor.forClass(Value.class);
+        verify(extractionResult).writeTriple(
+                eq(pageIRI), eq(HTMLScraperExtractor.PAGE_CONTENT_AE_PROPERTY), contents.capture()
+        );
+        Assert.assertTrue(contents.getValue().stringValue().contains("Caff\u00e8 ristretto, tr\u00e8s fort"));
+    }
+
+    private List<Value> extractContents(ExtractionParameters extractionParameters)
+    throws IOException, ExtractionException {
+        final InputStream is = this.getClass().getResourceAsStream("html-scraper-extractor-test.html");
+        final ExtractionResult extractionResult = mock(ExtractionResult.class);
+        final IRI pageIRI = SimpleValueFactory.getInstance().createIRI("http://fake/test/page/testrun");
+        final ExtractionContext extractionContext = new ExtractionContext(
+                extractor.getDescription().getExtractorName(),
+                pageIRI
+        );
+        extractor.run(extractionParameters, extractionContext, is, extractionResult);
+        final ArgumentCaptor<Value> contents = ArgumentCaptor.forClass(Value.class);
+        verify(extractionResult, times(4)).writeTriple(eq(pageIRI), Matchers.<IRI>anyObject(), contents.capture());
+        return contents.getAllValues();
+    }
+
 }
@@ -25,17 +25,52 @@ import org.apache.any23.extractor.Extractor;
 import org.apache.any23.extractor.ExtractorDescription;
 import org.apache.any23.rdf.RDFUtils;
 import org.apache.any23.vocab.Excel;
+import org.apache.poi.POIXMLDocument;
+import org.apache.poi.hssf.eventusermodel.HSSFEventFactory;
+import org.apache.poi.hssf.eventusermodel.HSSFListener;
+import org.apache.poi.hssf.eventusermodel.HSSFRequest;
+import org.apache.poi.hssf.record.BOFRecord;
+import org.apache.poi.hssf.record.BoolErrRecord;
+import org.apache.poi.hssf.record.BoundSheetRecord;
+import org.apache.poi.hssf.record.CellValueRecordInterface;
+import org.apache.poi.hssf.record.EOFRecord;
+import org.apache.poi.hssf.record.LabelRecord;
+import org.apache.poi.hssf.record.LabelSSTRecord;
+import org.apache.poi.hssf.record.MulBlankRecord;
+import org.apache.poi.hssf.record.NumberRecord;
+import org.apache.poi.hssf.record.Record;
+import org.apache.poi.hssf.record.RowRecord;
+import org.apache.poi.hssf.record.SSTRecord;
 import org.apache.poi.hssf.usermodel.HSSFWorkbook;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.poifs.filesystem.POIFSFileSystem;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.NumberToTextConverter;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.eclipse.rdf4j.model.IRI;
 import org.eclipse.rdf4j.model.vocabulary.RDF;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
 
+import javax.xml.XMLConstants;
+import javax.xml.parsers.SAXParserFactory;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeSet;
 
 /**
  * Implementation of {@link org.apache.any23.extractor.Extractor.ContentExtractor} able to process
@@ -43,11 +78,23 @@ import java.io.InputStream;
  * convert the detected content to triples.
  * This extractor is based on
  * <a href="http://poi.apache.org/spreadsheet/index.html">Apache POI-HSSF and POI-XSSF Java API</a>.
+ * The file format is detected from the content header.
+ * <p>
+ * When the {@link #STREAMING_FLAG} is enabled (default) the workbook is read with the
+ * <i>HSSF</i> and <i>XSSF</i> event APIs and the triples are written row by row,
+ * without building the workbook object model. In this mode the sheet and row
+ * boundaries are written once the sheet and the row have been completely read.
+ * </p>
  *
  * @author Michele Mostarda (mostarda@fbk.eu)
  */
 public class ExcelExtractor implements Extractor.ContentExtractor {
 
+    /**
+     * Flag enabling the streaming processing of the workbooks.
+     */
+    public static final String STREAMING_FLAG = "any23.extraction.excel.streaming";
+
     private static final Excel excel = Excel.getInstance();
 
     private boolean stopAtFirstError = false;
@@ -77,37 +124,51 @@ public class ExcelExtractor implements Extractor.ContentExtractor {
     ) throws IOException, ExtractionException {
         try {
             final IRI documentIRI = context.getDocumentIRI();
-            final Workbook workbook = createWorkbook(documentIRI, in);
-            processWorkbook(documentIRI, workbook, er);
+            final InputStream is = in.markSupported() ? in : new BufferedInputStream(in);
+            final boolean ooxml = isOOXML(documentIRI, is);
+            if(extractionParameters.getFlag(STREAMING_FLAG)) {
+                if(ooxml) {
+                    processXSSFEvents(documentIRI, is, er);
+                } else {
+                    processHSSFEvents(documentIRI, is, er);
+                }
+            } else {
+                final Workbook workbook = ooxml ? new XSSFWorkbook(is) : new HSSFWorkbook(is);
+                processWorkbook(documentIRI, workbook, er);
+            }
         } catch (Exception e) {
             throw new ExtractionException("An error occurred while extracting MS Excel content.", e);
         }
     }
 
-    // TODO: this should be done by Tika, the extractors should be split.
-    private Workbook createWorkbook(IRI document, InputStream is) throws IOException {
-        final String documentIRI = document.toString();
-        if(documentIRI.endsWith(".xlsx")) {
-            return new XSSFWorkbook(is);
-        } else if(documentIRI.endsWith("xls")) {
-            return new HSSFWorkbook(is);
-        } else {
-            throw new IllegalArgumentException("Unsupported extension for resource [" + documentIRI + "]");
+    /**
+     * Detects the workbook format from the content header.
+     *
+     * @return <code>true</code> for the <i>OOXML (.xlsx)</i> format,
+     *         <code>false</code> for the <i>OLE2 (.xls)</i> format.
+     */
+    private boolean isOOXML(IRI document, InputStream is) throws IOException {
+        if(POIFSFileSystem.hasPOIFSHeader(is)) {
+            return false;
+        }
+        if(POIXMLDocument.hasOOXMLHeader(is)) {
+            return true;
         }
+        throw new IllegalArgumentException("Unsupported format for resource [" + document + "]");
     }
 
     private void processWorkbook(IRI documentIRI, Workbook wb, ExtractionResult er) {
         for (int sheetIndex = 0; sheetIndex < wb.getNumberOfSheets(); sheetIndex++) {
             final Sheet sheet = wb.getSheetAt(sheetIndex);
-            final IRI sheetIRI = getSheetIRI(documentIRI, sheet);
+            final IRI sheetIRI = getSheetIRI(documentIRI, sheet.getSheetName());
             er.writeTriple(documentIRI, excel.containsSheet, sheetIRI);
             er.writeTriple(sheetIRI, RDF.TYPE, excel.sheet);
-            writeSheetMetadata(sheetIRI, sheet, er);
+            writeSheetMetadata(sheetIRI, sheet.getSheetName(), sheet.getFirstRowNum(), sheet.getLastRowNum(), er);
             for (Row row : sheet) {
-                final IRI rowIRI = getRowIRI(sheetIRI, row);
+                final IRI rowIRI = getRowIRI(sheetIRI, row.getRowNum());
                 er.writeTriple(sheetIRI, excel.containsRow, rowIRI);
                 er.writeTriple(rowIRI, RDF.TYPE, excel.row);
-                writeRowMetadata(rowIRI, row, er);
+                writeRowMetadata(rowIRI, row.getFirstCellNum(), row.getLastCellNum(), er);
                 for (Cell cell : row) {
                     writeCell(rowIRI, cell, er);
                 }
@@ -115,46 +176,120 @@ public class ExcelExtractor implements Extractor.ContentExtractor {
         }
     }
 
-    private void writeSheetMetadata(IRI sheetIRI, Sheet sheet, ExtractionResult er) {
-        final String sheetName   = sheet.getSheetName();
-        final int    firstRowNum = sheet.getFirstRowNum();
-        final int    lastRowNum  = sheet.getLastRowNum();
+    /**
+     * Streams the rows of an <i>OLE2 (.xls)</i> workbook with the <i>HSSF</i> event API.
+     */
+    private void processHSSFEvents(IRI documentIRI, InputStream is, ExtractionResult er) throws IOException {
+        final HSSFRequest request = new HSSFRequest();
+        request.addListenerForAllRecords(new HSSFSheetListener(new SheetWriter(documentIRI, er)));
+        new HSSFEventFactory().processWorkbookEvents(request, new POIFSFileSystem(is));
+    }
+
+    /**
+     * Streams the rows of an <i>OOXML (.xlsx)</i> workbook with the <i>XSSF</i> event API.
+     * The package is copied to a temporary file, so that its parts are read on demand.
+     */
+    private void processXSSFEvents(IRI documentIRI, InputStream is, ExtractionResult er) throws Exception {
+        final File packageFile = File.createTempFile("any23-excel-", ".xlsx");
+        try {
+            final OutputStream os = new FileOutputStream(packageFile);
+            try {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while((read = is.read(buffer)) != -1) {
+                    os.write(buffer, 0, read);
+                }
+            } finally {
+                os.close();
+            }
+            final OPCPackage pkg = OPCPackage.open(packageFile.getAbsolutePath(), PackageAccess.READ);
+            try {
+                final XSSFReader reader = new XSSFReader(pkg);
+                final ReadOnlySharedStringsTable sharedStrings = new ReadOnlySharedStringsTable(pkg);
+                final SheetWriter writer = new SheetWriter(documentIRI, er);
+                final SAXParserFactory parserFactory = SAXParserFactory.newInstance();
+                parserFactory.setNamespaceAware(true);
+                // Sheet parts come from untrusted documents: never resolve DTDs or external entities.
+                parserFactory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+                parserFactory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+                parserFactory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+                parserFactory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+                final XMLReader xmlReader = parserFactory.newSAXParser().getXMLReader();
+                xmlReader.setContentHandler(new XSSFSheetHandler(sharedStrings, writer));
+                final XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) reader.getSheetsData();
+                while(sheets.hasNext()) {
+                    final InputStream sheet = sheets.next();
+                    try {
+                        writer.startSheet(sheets.getSheetName());
+                        xmlReader.parse(new InputSource(sheet));
+                        writer.endSheet();
+                    } finally {
+                        sheet.close();
+                    }
+                }
+            } finally {
+                pkg.revert();
+            }
+        } finally {
+            if(!packageFile.delete()) {
+                packageFile.deleteOnExit();
+            }
+        }
+    }
+
+    private void writeSheetMetadata(IRI sheetIRI, String sheetName, int firstRowNum, int lastRowNum, ExtractionResult er) {
         er.writeTriple(sheetIRI, excel.sheetName, RDFUtils.literal(sheetName));
         er.writeTriple(sheetIRI, excel.firstRow, RDFUtils.literal(firstRowNum));
         er.writeTriple(sheetIRI, excel.lastRow  , RDFUtils.literal(lastRowNum ));
     }
 
-    private void writeRowMetadata(IRI rowIRI, Row row, ExtractionResult er) {
-        final int    firstCellNum = row.getFirstCellNum();
-        final int    lastCellNum  = row.getLastCellNum();
+    private void writeRowMetadata(IRI rowIRI, int firstCellNum, int lastCellNum, ExtractionResult er) {
         er.writeTriple(rowIRI, excel.firstCell , RDFUtils.literal(firstCellNum));
         er.writeTriple(rowIRI, excel.lastCell  , RDFUtils.literal(lastCellNum ));
     }
 
     private void writeCell(IRI rowIRI, Cell cell, ExtractionResult er) {
-        final IRI cellType = cellTypeToType(cell.getCellType());
-        if(cellType == null) return; // Skip unsupported cells.
-        final IRI cellIRI = getCellIRI(rowIRI, cell);
+        final String value;
+        switch (cell.getCellType()) {
+            case Cell.CELL_TYPE_STRING:
+                value = cell.getStringCellValue();
+                break;
+            case Cell.CELL_TYPE_BOOLEAN:
+                value = Boolean.toString(cell.getBooleanCellValue());
+                break;
+            case Cell.CELL_TYPE_NUMERIC:
+                value = NumberToTextConverter.toText(cell.getNumericCellValue());
+                break;
+            default:
+                return; // Skip unsupported cells.
+        }
+        writeCell(rowIRI, cell.getColumnIndex(), cell.getCellType(), value, er);
+    }
+
+    private void writeCell(IRI rowIRI, int columnIndex, int cellType, String value, ExtractionResult er) {
+        final IRI cellTypeIRI = cellTypeToType(cellType);
+        if(cellTypeIRI == null) return; // Skip unsupported cells.
+        final IRI cellIRI = getCellIRI(rowIRI, columnIndex);
         er.writeTriple(rowIRI, excel.containsCell, cellIRI);
         er.writeTriple(cellIRI, RDF.TYPE, excel.cell);
         er.writeTriple(
                 cellIRI,
                 excel.cellValue,
-                RDFUtils.literal(cell.getStringCellValue(), cellType)
+                RDFUtils.literal(value, cellTypeIRI)
         );
     }
 
-    private IRI getSheetIRI(IRI documentIRI, Sheet sheet) {
-        return RDFUtils.iri(documentIRI.toString() + "/sheet/" + sheet.getSheetName());
+    private IRI getSheetIRI(IRI documentIRI, String sheetName) {
+        return RDFUtils.iri(documentIRI.toString() + "/sheet/" + sheetName);
     }
 
-    private IRI getRowIRI(IRI sheetIRI, Row row) {
-        return RDFUtils.iri(sheetIRI.toString() + "/" + row.getRowNum());
+    private IRI getRowIRI(IRI sheetIRI, int rowNum) {
+        return RDFUtils.iri(sheetIRI.toString() + "/" + rowNum);
     }
 
-    private IRI getCellIRI(IRI rowIRI, Cell cell) {
+    private IRI getCellIRI(IRI rowIRI, int columnIndex) {
         return RDFUtils.iri(rowIRI +
-		String.format("/%d/", cell.getColumnIndex()));
+		String.format("/%d/", columnIndex));
     }
 
     private IRI cellTypeToType(int cellType) {
@@ -175,5 +310,315 @@ public class ExcelExtractor implements Extractor.ContentExtractor {
         return postfix == null ? null : RDFUtils.iri(excel.getNamespace().toString() + postfix);
     }
 
+    /**
+     * Writes the sheets, rows and cells notified by the event readers,
+     * keeping track of the sheet and row boundaries.
+     */
+    private class SheetWriter {
+
+        private final IRI documentIRI;
+
+        private final ExtractionResult er;
+
+        private String sheetName;
+        private IRI    sheetIRI;
+        private int    firstRowNum;
+        private int    lastRowNum;
+
+        private IRI rowIRI;
+        private int firstCellNum;
+        private int lastCellNum;
+
+        SheetWriter(IRI documentIRI, ExtractionResult er) {
+            this.documentIRI = documentIRI;
+            this.er = er;
+        }
+
+        void startSheet(String name) {
+            sheetName = name;
+            sheetIRI = getSheetIRI(documentIRI, name);
+            firstRowNum = -1;
+            lastRowNum  = -1;
+            er.writeTriple(documentIRI, excel.containsSheet, sheetIRI);
+            er.writeTriple(sheetIRI, RDF.TYPE, excel.sheet);
+        }
+
+        void startRow(int rowNum) {
+            endRow();
+            if(firstRowNum == -1 || rowNum < firstRowNum) {
+                firstRowNum = rowNum;
+            }
+            lastRowNum = Math.max(lastRowNum, rowNum);
+            rowIRI = getRowIRI(sheetIRI, rowNum);
+            firstCellNum = -1;
+            lastCellNum  = -1;
+            er.writeTriple(sheetIRI, excel.containsRow, rowIRI);
+            er.writeTriple(rowIRI, RDF.TYPE, excel.row);
+        }
+
+        /**
+         * Notifies a cell of the current row, cells of unsupported types
+         * only contribute to the row boundaries.
+         */
+        void cell(int columnIndex, int cellType, String value) {
+            if(firstCellNum == -1 || columnIndex < firstCellNum) {
+                firstCellNum = columnIndex;
+            }
+            lastCellNum = Math.max(lastCellNum, columnIndex + 1);
+            if(value != null) {
+                writeCell(rowIRI, columnIndex, cellType, value, er);
+            }
+        }
+
+        void endRow() {
+            if(rowIRI == null) {
+                return;
+            }
+            writeRowMetadata(rowIRI, firstCellNum, lastCellNum, er);
+            rowIRI = null;
+        }
+
+        void endSheet() {
+            endRow();
+            writeSheetMetadata(sheetIRI, sheetName, Math.max(firstRowNum, 0), Math.max(lastRowNum, 0), er);
+        }
+
+    }
+
+    /**
+     * Listener of the <i>HSSF</i> records. The row records of a block precede
+     * the cells of the block, rows without cells are written when the cells of
+     * a following row or the end of the sheet are reached.
+     */
+    private class HSSFSheetListener implements HSSFListener {
+
+        private final SheetWriter writer;
+
+        private final List<BoundSheetRecord> boundSheets = new ArrayList<BoundSheetRecord>();
+
+        private final TreeSet<Integer> pendingRows = new TreeSet<Integer>();
+
+        private BoundSheetRecord[] orderedSheets;
+
+        private SSTRecord sst;
+
+        private int depth = 0;
+
+        private int sheetIndex = -1;
+
+        private boolean inWorksheet = false;
+
+        private int currentRow = -1;
+
+        HSSFSheetListener(SheetWriter writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void processRecord(Record record) {
+            switch (record.getSid()) {
+                case BOFRecord.sid:
+                    if(depth++ == 0 && ((BOFRecord) record).getType() != BOFRecord.TYPE_WORKBOOK) {
+                        sheetIndex++;
+                        inWorksheet = ((BOFRecord) record).getType() == BOFRecord.TYPE_WORKSHEET;
+                        if(inWorksheet) {
+                            if(orderedSheets == null) {
+                                orderedSheets = BoundSheetRecord.orderByBofPosition(boundSheets);
+                            }
+                            writer.startSheet(orderedSheets[sheetIndex].getSheetname());
+                            currentRow = -1;
+                        }
+                    }
+                    return;
+                case EOFRecord.sid:
+                    if(--depth == 0 && inWorksheet) {
+                        flushPendingRows(Integer.MAX_VALUE);
+                        writer.endSheet();
+                        inWorksheet = false;
+                    }
+                    return;
+                case BoundSheetRecord.sid:
+                    boundSheets.add((BoundSheetRecord) record);
+                    return;
+                case SSTRecord.sid:
+                    sst = (SSTRecord) record;
+                    return;
+                default:
+                    break;
+            }
+            if(depth != 1 || !inWorksheet) {
+                return;
+            }
+            if(record instanceof RowRecord) {
+                pendingRows.add(((RowRecord) record).getRowNumber());
+            } else if(record instanceof MulBlankRecord) {
+                final MulBlankRecord blanks = (MulBlankRecord) record;
+                moveToRow(blanks.getRow());
+                writer.cell(blanks.getFirstColumn(), Cell.CELL_TYPE_BLANK, null);
+                writer.cell(blanks.getLastColumn(), Cell.CELL_TYPE_BLANK, null);
+            } else if(record instanceof CellValueRecordInterface) {
+                final CellValueRecordInterface cell = (CellValueRecordInterface) record;
+                moveToRow(cell.getRow());
+                if(record instanceof LabelSSTRecord) {
+                    writer.cell(
+                            cell.getColumn(),
+                            Cell.CELL_TYPE_STRING,
+                            sst.getString(((LabelSSTRecord) record).getSSTIndex()).getString()
+                    );
+                } else if(record instanceof LabelRecord) {
+                    writer.cell(cell.getColumn(), Cell.CELL_TYPE_STRING, ((LabelRecord) record).getValue());
+                } else if(record instanceof NumberRecord) {
+                    writer.cell(
+                            cell.getColumn(),
+                            Cell.CELL_TYPE_NUMERIC,
+                            NumberToTextConverter.toText(((NumberRecord) record).getValue())
+                    );
+                } else if(record instanceof BoolErrRecord && ((BoolErrRecord) record).isBoolean()) {
+                    writer.cell(
+                            cell.getColumn(),
+                            Cell.CELL_TYPE_BOOLEAN,
+                            Boolean.toString(((BoolErrRecord) record).getBooleanValue())
+                    );
+                } else {
+                    writer.cell(cell.getColumn(), Cell.CELL_TYPE_BLANK, null);
+                }
+            }
+        }
+
+        private void moveToRow(int rowNum) {
+            if(rowNum == currentRow) {
+                return;
+            }
+            flushPendingRows(rowNum);
+            pendingRows.remove(rowNum);
+            writer.startRow(rowNum);
+            currentRow = rowNum;
+        }
+
+        /**
+         * Writes the declared rows preceding the given one, which have no cells.
+         */
+        private void flushPendingRows(int rowNum) {
+            while(!pendingRows.isEmpty() && pendingRows.first() < rowNum) {
+                writer.startRow(pendingRows.pollFirst());
+            }
+            writer.endRow();
+        }
+    }
+
+    /**
+     * <i>SAX</i> handler of the <i>XSSF</i> sheet parts.
+     */
+    private static class XSSFSheetHandler extends DefaultHandler {
+
+        private final ReadOnlySharedStringsTable sharedStrings;
+
+        private final SheetWriter writer;
+
+        private final StringBuilder text = new StringBuilder();
+
+        private int rowNum;
+
+        private int columnIndex;
+
+        private String cellType;
+
+        private boolean formula;
+
+        private boolean inValue;
+
+        private boolean hasValue;
+
+        XSSFSheetHandler(ReadOnlySharedStringsTable sharedStrings, SheetWriter writer) {
+            this.sharedStrings = sharedStrings;
+            this.writer = writer;
+        }
+
+        @Override
+        public void startDocument() {
+            rowNum = -1;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) {
+            if("row".equals(localName)) {
+                final String r = attributes.getValue("r");
+                rowNum = r == null ? rowNum + 1 : Integer.parseInt(r) - 1;
+                columnIndex = -1;
+                writer.startRow(rowNum);
+            } else if("c".equals(localName)) {
+                final String r = attributes.getValue("r");
+                columnIndex = r == null ? columnIndex + 1 : getColumnIndex(r);
+                cellType = attributes.getValue("t");
+                formula = false;
+                hasValue = false;
+                text.setLength(0);
+            } else if("f".equals(localName)) {
+                formula = true;
+            } else if("v".equals(localName) || "t".equals(localName)) {
+                inValue = true;
+                hasValue = true;
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) {
+            if(inValue) {
+                text.append(ch, start, length);
+            }
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) {
+            if("v".equals(localName) || "t".equals(localName)) {
+                inValue = false;
+            } else if("c".equals(localName)) {
+                endCell();
+            } else if("row".equals(localName)) {
+                writer.endRow();
+            }
+        }
+
+        private void endCell() {
+            final String value = text.toString();
+            if(formula || !hasValue) {
+                writer.cell(columnIndex, Cell.CELL_TYPE_BLANK, null);
+            } else if("s".equals(cellType)) {
+                writer.cell(
+                        columnIndex,
+                        Cell.CELL_TYPE_STRING,
+                        sharedStrings.getEntryAt(Integer.parseInt(value.trim()))
+                );
+            } else if("inlineStr".equals(cellType)) {
+                writer.cell(columnIndex, Cell.CELL_TYPE_STRING, value);
+            } else if("b".equals(cellType)) {
+                writer.cell(columnIndex, Cell.CELL_TYPE_BOOLEAN, Boolean.toString("1".equals(value.trim())));
+            } else if(cellType == null || "n".equals(cellType)) {
+                // formatted as the workbook path does, the raw value can be like 1.0E-3 or 3.0000000000000004
+                writer.cell(
+                        columnIndex,
+                        Cell.CELL_TYPE_NUMERIC,
+                        NumberToTextConverter.toText(Double.parseDouble(value.trim()))
+                );
+            } else {
+                writer.cell(columnIndex, Cell.CELL_TYPE_BLANK, null);
+            }
+        }
+
+        /**
+         * Converts a cell reference like <i>AB12</i> to the zero based column index.
+         */
+        private static int getColumnIndex(String reference) {
+            int index = 0;
+            for(int i = 0; i < reference.length(); i++) {
+                final char c = reference.charAt(i);
+                if(c < 'A' || c > 'Z') {
+                    break;
+                }
+                index = index * 26 + (c - 'A' + 1);
+            }
+            return index - 1;
+        }
+    }
 
 }
@@ -29,6 +29,11 @@ import org.apache.any23.writer.CountingTripleHandler;
 import org.apache.any23.writer.NTriplesWriter;
 import org.apache.any23.writer.TripleHandler;
 import org.apache.any23.writer.TripleHandlerException;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Assert;
 import org.junit.Before;
 import org.junit.Test;
@@ -40,9 +45,22 @@ import org.eclipse.rdf4j.model.vocabulary.RDF;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+import java.util.zip.ZipOutputStream;
 
 /**
  * Test case for {@link ExcelExtractor}.
@@ -77,11 +95,167 @@ public class ExcelExtractorTest {
         processFile(FILE);
     }
 
-    private void processFile(String resource) throws IOException, ExtractionException, TripleHandlerException {
+    @Test
+    public void testExtractWithoutExtension() throws IOException, ExtractionException, TripleHandlerException {
+        final ExtractionParameters extractionParameters = ExtractionParameters.newDefault();
+        processFile("test1-workbook.xlsx", "http://example.org/workbook", extractionParameters);
+        processFile("test2-workbook.xls", "http://example.org/workbook", extractionParameters);
+    }
+
+    @Test
+    public void testExtractWorkbookModel() throws IOException, ExtractionException, TripleHandlerException {
+        final ExtractionParameters extractionParameters = ExtractionParameters.newDefault();
+        extractionParameters.setFlag(ExcelExtractor.STREAMING_FLAG, false);
+        processFile("test1-workbook.xlsx", "file://test1-workbook.xlsx", extractionParameters);
+        processFile("test2-workbook.xls", "file://test2-workbook.xls", extractionParameters);
+    }
+
+    @Test
+    public void testExtractTypedCellsWithWorkbookModel() throws IOException, ExtractionException, TripleHandlerException {
         final ExtractionParameters extractionParameters = ExtractionParameters.newDefault();
+        extractionParameters.setFlag(ExcelExtractor.STREAMING_FLAG, false);
+        final String out = extract(createTypedWorkbook(), extractionParameters);
+        Assert.assertTrue(out, out.contains("\"label\"^^<" + Excel.NS + "string>"));
+        Assert.assertTrue(out, out.contains("\"42.5\"^^<" + Excel.NS + "numeric>"));
+        Assert.assertTrue(out, out.contains("\"true\"^^<" + Excel.NS + "boolean>"));
+    }
+
+    @Test
+    public void testStreamingMatchesWorkbookModel() throws IOException, ExtractionException, TripleHandlerException {
+        final byte[] workbook = createMixedWorkbook();
+        final ExtractionParameters streaming = ExtractionParameters.newDefault();
+        streaming.setFlag(ExcelExtractor.STREAMING_FLAG, true);
+        final ExtractionParameters model = ExtractionParameters.newDefault();
+        model.setFlag(ExcelExtractor.STREAMING_FLAG, false);
+        final String out = extract(workbook, model);
+        Assert.assertTrue(out, out.contains("\"0.001\"^^<" + Excel.NS + "numeric>"));
+        Assert.assertTrue(out, out.contains("\"0.3\"^^<" + Excel.NS + "numeric>"));
+        // the streaming readers write the sheet and row bounds after their cells.
+        Assert.assertEquals(sortLines(out), sortLines(extract(workbook, streaming)));
+    }
+
+    @Test
+    public void testRejectSheetWithDoctype() throws IOException, TripleHandlerException {
+        final File secret = File.createTempFile("any23-excel-secret-", ".txt");
+        try {
+            final OutputStream os = new FileOutputStream(secret);
+            try {
+                os.write("SECRET-CONTENT".getBytes("UTF-8"));
+            } finally {
+                os.close();
+            }
+            final String doctype = String.format(
+                    "<!DOCTYPE worksheet [<!ENTITY xxe SYSTEM \"%s\">]>", secret.toURI()
+            );
+            final byte[] workbook = replaceSheetContent(
+                    createTypedWorkbook(), "<worksheet", doctype + "<worksheet"
+            );
+            try {
+                final String out = extract(workbook, ExtractionParameters.newDefault());
+                Assert.fail("Expected the DOCTYPE to be rejected, got: " + out);
+            } catch (ExtractionException ee) {
+                // Expected.
+            }
+        } finally {
+            Assert.assertTrue(secret.delete());
+        }
+    }
+
+    private byte[] createTypedWorkbook() throws IOException {
+        final XSSFWorkbook workbook = new XSSFWorkbook();
+        final Sheet sheet = workbook.createSheet("typed");
+        final Row row = sheet.createRow(0);
+        row.createCell(0).setCellValue(workbook.getCreationHelper().createRichTextString("label"));
+        row.createCell(1).setCellValue(42.5);
+        row.createCell(2).setCellValue(true);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        workbook.write(baos);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Creates a workbook with numeric, date, boolean and formula cells.
+     */
+    private byte[] createMixedWorkbook() throws IOException {
+        final XSSFWorkbook workbook = new XSSFWorkbook();
+        final CellStyle dateStyle = workbook.createCellStyle();
+        dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("yyyy-mm-dd"));
+        final Sheet sheet = workbook.createSheet("mixed");
+        final Row numbers = sheet.createRow(0);
+        numbers.createCell(0).setCellValue(42);
+        numbers.createCell(1).setCellValue(0.001);
+        numbers.createCell(2).setCellValue(0.1 + 0.2);
+        numbers.createCell(3).setCellValue(1.5e20);
+        numbers.createCell(4).setCellValue(-7.25);
+        final Row others = sheet.createRow(2);
+        final Cell date = others.createCell(0);
+        date.setCellValue(new GregorianCalendar(2016, Calendar.MARCH, 1).getTime());
+        date.setCellStyle(dateStyle);
+        others.createCell(1).setCellValue(false);
+        others.createCell(2).setCellFormula("A1*2");
+        others.createCell(3).setCellValue(true);
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        workbook.write(baos);
+        return baos.toByteArray();
+    }
+
+    private List<String> sortLines(String out) {
+        final List<String> lines = new ArrayList<String>(Arrays.asList(out.split("\n")));
+        Collections.sort(lines);
+        return lines;
+    }
+
+    private byte[] replaceSheetContent(byte[] workbook, String... replacements) throws IOException {
+        final ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        final ZipInputStream zis = new ZipInputStream(new ByteArrayInputStream(workbook));
+        final ZipOutputStream zos = new ZipOutputStream(baos);
+        ZipEntry entry;
+        while((entry = zis.getNextEntry()) != null) {
+            final ByteArrayOutputStream content = new ByteArrayOutputStream();
+            final byte[] buffer = new byte[4096];
+            int read;
+            while((read = zis.read(buffer)) != -1) {
+                content.write(buffer, 0, read);
+            }
+            byte[] data = content.toByteArray();
+            if(entry.getName().startsWith("xl/worksheets/")) {
+                String xml = new String(data, "UTF-8");
+                for(int i = 0; i < replacements.length; i += 2) {
+                    xml = xml.replace(replacements[i], replacements[i + 1]);
+                }
+                data = xml.getBytes("UTF-8");
+            }
+            zos.putNextEntry(new ZipEntry(entry.getName()));
+            zos.write(data);
+            zos.closeEntry();
+        }
+        zos.close();
+        return baos.toByteArray();
+    }
+
+    private String extract(byte[] workbook, ExtractionParameters extractionParameters)
+    throws IOException, ExtractionException, TripleHandlerException {
+        final ExtractionContext extractionContext = new ExtractionContext(
+                extractor.getDescription().getExtractorName(),
+                RDFUtils.iri("http://example.org/typed.xlsx")
+        );
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        final TripleHandler writer = new NTriplesWriter(out);
+        final ExtractionResult extractionResult = new ExtractionResultImpl(extractionContext, extractor, writer);
+        extractor.run(extractionParameters, extractionContext, new ByteArrayInputStream(workbook), extractionResult);
+        writer.close();
+        return out.toString("UTF-8");
+    }
+
+    private void processFile(String resource) throws IOException, ExtractionException, TripleHandlerException {
+        processFile(resource, "file://" + resource, ExtractionParameters.newDefault());
+    }
+
+    private void processFile(String resource, String documentIRI, ExtractionParameters extractionParameters)
+    throws IOException, ExtractionException, TripleHandlerException {
         final ExtractionContext extractionContext = new ExtractionContext(
                 extractor.getDescription().getExtractorName(),
-                RDFUtils.iri("file://" + resource)
+                RDFUtils.iri(documentIRI)
         );
         final InputStream is = this.getClass().getResourceAsStream(resource);
         final CompositeTripleHandler compositeTripleHandler = new CompositeTripleHandler();
@@ -0,0 +1,69 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *  http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.apache.any23.servlet;
+
+import org.apache.any23.metrics.DefaultMetricsRegistry;
+
+import javax.servlet.ServletContext;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServlet;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.io.PrintStream;
+
+/**
+ * This servlet prints out, as plain text, the extraction metrics
+ * collected by the {@link Servlet} instances of the same web application.
+ */
+public class MetricsServlet extends HttpServlet {
+
+    /**
+     * Servlet context attribute holding the shared {@link DefaultMetricsRegistry}.
+     */
+    public static final String METRICS_REGISTRY_ATTRIBUTE = DefaultMetricsRegistry.class.getName();
+
+    private static final long serialVersionUID = -4470582960418735123L;
+
+    /**
+     * Returns the registry shared within the given servlet context, creating it if needed.
+     *
+     * @param context the web application context.
+     * @return the shared registry.
+     */
+    static DefaultMetricsRegistry getMetricsRegistry(ServletContext context) {
+        synchronized (context) {
+            DefaultMetricsRegistry registry = (DefaultMetricsRegistry) context.getAttribute(METRICS_REGISTRY_ATTRIBUTE);
+            if (registry == null) {
+                registry = new DefaultMetricsRegistry();
+                context.setAttribute(METRICS_REGISTRY_ATTRIBUTE, registry);
+            }
+            return registry;
+        }
+    }
+
+    @Override
+    protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws ServletException, IOException {
+        resp.setContentType("text/plain");
+        resp.setCharacterEncoding("UTF-8");
+        final PrintStream ps = new PrintStream(resp.getOutputStream(), false, "UTF-8");
+        getMetricsRegistry(getServletContext()).printReport(ps);
+        ps.flush();
+    }
+
+}
@@ -20,12 +20,14 @@ package org.apache.any23.servlet;
 import org.apache.any23.configuration.DefaultConfiguration;
 import org.apache.any23.extractor.ExtractionParameters;
 import org.apache.any23.http.HTTPClient;
+import org.apache.any23.metrics.MetricsRegistry;
 import org.apache.any23.servlet.conneg.Any23Negotiator;
 import org.apache.any23.servlet.conneg.MediaRangeSpec;
 import org.apache.any23.source.ByteArrayDocumentSource;
 import org.apache.any23.source.DocumentSource;
 import org.apache.any23.source.HTTPDocumentSource;
 import org.apache.any23.source.StringDocumentSource;
+import org.apache.any23.writer.Compression;
 import org.apache.commons.httpclient.URI;
 import org.eclipse.rdf4j.rio.RDFFormat;
 import org.slf4j.Logger;
@@ -37,6 +39,7 @@ import javax.servlet.http.HttpServletRequest;
 import javax.servlet.http.HttpServletResponse;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.util.Locale;
 import java.util.regex.Pattern;
 
 import static org.apache.any23.extractor.ExtractionParameters.ValidationMode;
@@ -60,9 +63,26 @@ public class Servlet extends HttpServlet {
     private final static Pattern schemeRegex =
             Pattern.compile("^[a-zA-Z][a-zA-Z0-9.+-]*:");
 
+    private MetricsRegistry metricsRegistry;
+
+    @Override
+    public void init() throws ServletException {
+        super.init();
+        metricsRegistry = MetricsServlet.getMetricsRegistry(getServletContext());
+    }
+
+    /**
+     * @return the registry collecting the metrics of the extractions performed by this servlet,
+     *         <code>null</code> if the servlet has not been initialized.
+     */
+    protected MetricsRegistry getMetricsRegistry() {
+        return metricsRegistry;
+    }
+
     @Override
     protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException, ServletException {
         final WebResponder responder = new WebResponder(this, resp);
+        responder.setCompression(getCompressionFromRequest(req));
         final String format = getFormatFromRequestOrNegotiation(req);
         final boolean report = isReport(req);
         final boolean annotate = isAnnotated(req);
@@ -82,6 +102,7 @@ public class Servlet extends HttpServlet {
     @Override
     protected void doPost(HttpServletRequest req, HttpServletResponse resp) throws IOException {
         final WebResponder responder = new WebResponder(this, resp);
+        responder.setCompression(getCompressionFromRequest(req));
         final boolean report = isReport(req);
         final boolean annotate = isAnnotated(req);
         if (req.getContentType() == null) {
@@ -156,6 +177,41 @@ public class Servlet extends HttpServlet {
         }
     }
 
+    /**
+     * Returns the compression accepted by the client with the <i>Accept-Encoding</i> header,
+     * only <i>gzip</i> is supported.
+     */
+    private Compression getCompressionFromRequest(HttpServletRequest request) {
+        final String acceptEncoding = request.getHeader("Accept-Encoding");
+        if (acceptEncoding == null) return Compression.NONE;
+        boolean wildcard = false;
+        for (String element : acceptEncoding.split(",")) {
+            final String[] parts = element.split(";");
+            final String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if ("gzip".equals(coding) || "x-gzip".equals(coding)) {
+                return isAccepted(parts) ? Compression.GZIP : Compression.NONE;
+            }
+            if ("*".equals(coding)) {
+                wildcard = isAccepted(parts);
+            }
+        }
+        return wildcard ? Compression.GZIP : Compression.NONE;
+    }
+
+    private boolean isAccepted(String[] codingParts) {
+        for (int i = 1; i < codingParts.length; i++) {
+            final String parameter = codingParts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2).trim()) > 0;
+                } catch (NumberFormatException nfe) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
     private String getFormatFromRequest(HttpServletRequest request) {
         if (request.getPathInfo() == null) return "best";
         String[] args = request.getPathInfo().split("/", 3);
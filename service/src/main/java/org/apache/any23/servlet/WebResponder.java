@@ -28,6 +28,7 @@ import org.apache.any23.filter.IgnoreTitlesOfEmptyDocuments;
 import org.apache.any23.source.DocumentSource;
 import org.apache.any23.validator.SerializationException;
 import org.apache.any23.validator.XMLValidationReportSerializer;
+import org.apache.any23.writer.Compression;
 import org.apache.any23.writer.CompositeTripleHandler;
 import org.apache.any23.writer.CountingTripleHandler;
 import org.apache.any23.writer.FormatWriter;
@@ -41,6 +42,7 @@ import javax.servlet.ServletOutputStream;
 import javax.servlet.http.HttpServletResponse;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.PrintStream;
 import java.nio.charset.Charset;
 import java.util.ArrayList;
@@ -90,17 +92,39 @@ class WebResponder {
      */
     private ByteArrayOutputStream byteOutStream = new ByteArrayOutputStream();
 
+    /**
+     * Compression applied to the successful responses.
+     */
+    private Compression compression = Compression.NONE;
+
     public WebResponder(Servlet any23servlet, HttpServletResponse response) {
         this.any23servlet = any23servlet;
         this.response = response;
         this.runner = new Any23();
         runner.setHTTPUserAgent("Any23-Servlet");
+        runner.setMetricsRegistry(any23servlet.getMetricsRegistry());
     }
 
     protected Any23 getRunner() {
         return runner;
     }
 
+    /**
+     * Sets the compression of the successful responses, negotiated by the client
+     * with the <i>Accept-Encoding</i> header.
+     *
+     * @param compression a compression usable as HTTP <i>Content-Encoding</i>.
+     */
+    public void setCompression(Compression compression) {
+        if(compression == null) {
+            throw new NullPointerException("compression cannot be null.");
+        }
+        if(compression != Compression.NONE && compression.getContentEncoding() == null) {
+            throw new IllegalArgumentException("Compression " + compression + " is not an HTTP content encoding.");
+        }
+        this.compression = compression;
+    }
+
     public void runExtraction(
             DocumentSource in,
             ExtractionParameters eps,
@@ -160,9 +184,17 @@ class WebResponder {
         }
 
         final ServletOutputStream sos = response.getOutputStream();
+        final OutputStream os;
+        if (compression != Compression.NONE) {
+            response.setHeader("Content-Encoding", compression.getContentEncoding());
+            response.addHeader("Vary", "Accept-Encoding");
+            os = compression.compress(sos);
+        } else {
+            os = sos;
+        }
         final byte[] data = byteOutStream.toByteArray();
         if(report) {
-            final PrintStream ps = new PrintStream(sos);
+            final PrintStream ps = new PrintStream(os);
             try {
                 printHeader(ps);
                 printResponse(reporter, er, data, ps);
@@ -172,7 +204,10 @@ class WebResponder {
                 ps.close();
             }
         } else {
-            sos.write(data);
+            os.write(data);
+            if (os != sos) {
+                os.close();
+            }
         }
     }
 
@@ -340,6 +375,10 @@ class WebResponder {
             finalFormat = "trix";
         } else if("json".equals(format)) {
             finalFormat = "json";
+        } else if("ndjson".equals(format)) {
+            finalFormat = "ndjson";
+        } else if("binary".equals(format) || "a23q".equals(format)) {
+            finalFormat = "binary";
         } else {
             return null;
         }
@@ -44,6 +44,7 @@ public class ServletTest {
 
     private static String content;
     private static String acceptHeader;
+    private static String acceptEncodingHeader;
     private static String requestedIRI;
 
     private ServletTester tester;
@@ -56,6 +57,7 @@ public class ServletTest {
         tester.start();
         content = "test";
         acceptHeader = null;
+        acceptEncodingHeader = null;
         requestedIRI = null;
     }
 
@@ -99,6 +101,25 @@ public class ServletTest {
         );
     }
 
+    @Test
+    public void testGETWithAcceptedGzipEncoding() throws Exception {
+        content = "<html><body><div class=\"vcard fn\">Joe</div></body></html>";
+        acceptEncodingHeader = "deflate, gzip;q=0.8";
+        HttpTester response = doGetRequest("/nt/foo.com/bar.html");
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertEquals("gzip", response.getHeader("Content-Encoding"));
+    }
+
+    @Test
+    public void testGETWithRefusedGzipEncoding() throws Exception {
+        content = "<html><body><div class=\"vcard fn\">Joe</div></body></html>";
+        acceptEncodingHeader = "gzip;q=0, *";
+        HttpTester response = doGetRequest("/nt/foo.com/bar.html");
+        Assert.assertEquals(200, response.getStatus());
+        Assert.assertNull(response.getHeader("Content-Encoding"));
+        assertContains("<http://www.w3.org/2006/vcard/ns#VCard>", response.getContent());
+    }
+
     @Test
     public void testGETAddsHTTPScheme() throws Exception {
         content = "<html><body><div class=\"vcard fn\">Joe</div></body></html>";
@@ -449,6 +470,9 @@ public class ServletTest {
         if (acceptHeader != null) {
             request.setHeader("Accept", acceptHeader);
         }
+        if (acceptEncodingHeader != null) {
+            request.setHeader("Accept-Encoding", acceptEncodingHeader);
+        }
 
         request.setURI(path);
         response.parse(tester.getResponses(request.generate()));